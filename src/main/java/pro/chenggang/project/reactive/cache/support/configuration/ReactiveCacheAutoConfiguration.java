@@ -1,5 +1,6 @@
 package pro.chenggang.project.reactive.cache.support.configuration;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
@@ -12,6 +13,7 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.core.ReactiveRedisTemplate;
 import pro.chenggang.project.reactive.cache.support.configuration.properties.ReactiveCacheSupportProperties;
 import pro.chenggang.project.reactive.cache.support.core.ReactiveCacheManager;
+import pro.chenggang.project.reactive.cache.support.core.Weigher;
 import pro.chenggang.project.reactive.cache.support.core.builder.ReactiveCacheManagerBuilder;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -41,18 +43,30 @@ public class ReactiveCacheAutoConfiguration {
     @ConditionalOnProperty(prefix = PREFIX, value = "type", havingValue = "inmemory")
     @ConditionalOnMissingBean(ReactiveCacheManager.class)
     @Bean
-    public ReactiveCacheManager inmemoryReactiveCacheManager(ReactiveCacheSupportProperties reactiveCacheSupportProperties) {
+    public ReactiveCacheManager inmemoryReactiveCacheManager(ReactiveCacheSupportProperties reactiveCacheSupportProperties,
+                                                             ObjectProvider<Weigher> weigherProvider) {
         return ReactiveCacheManagerBuilder.newInmemoryReactiveCacheManagerBuilder()
                 .withMaxWaitingDuration(reactiveCacheSupportProperties.getMaxWaitingDuration())
+                .withExpirationTickDuration(reactiveCacheSupportProperties.getExpirationTickDuration())
+                .withEvictionOptions(reactiveCacheSupportProperties.getEviction()
+                        .toEvictionOptions(weigherProvider.getIfAvailable())
+                )
+                .withCacheOptions(reactiveCacheSupportProperties.toReactiveCacheOptions(weigherProvider.getIfAvailable()))
                 .build();
     }
 
     @ConditionalOnProperty(prefix = PREFIX, value = "type", havingValue = "caffeine")
     @ConditionalOnMissingBean(ReactiveCacheManager.class)
     @Bean
-    public ReactiveCacheManager caffeineReactiveCacheManager(ReactiveCacheSupportProperties reactiveCacheSupportProperties) {
+    public ReactiveCacheManager caffeineReactiveCacheManager(ReactiveCacheSupportProperties reactiveCacheSupportProperties,
+                                                             ObjectProvider<Weigher> weigherProvider) {
         return ReactiveCacheManagerBuilder.newCaffeineReactiveCacheManagerBuilder()
                 .withMaxWaitingDuration(reactiveCacheSupportProperties.getMaxWaitingDuration())
+                .withCaffeineCacheOptions(reactiveCacheSupportProperties.getCaffeine().toCaffeineCacheOptions())
+                .withEvictionOptions(reactiveCacheSupportProperties.getEviction()
+                        .toEvictionOptions(weigherProvider.getIfAvailable())
+                )
+                .withCacheOptions(reactiveCacheSupportProperties.toReactiveCacheOptions(weigherProvider.getIfAvailable()))
                 .build();
     }
 
@@ -65,6 +79,10 @@ public class ReactiveCacheAutoConfiguration {
                                                           ReactiveRedisTemplate reactiveRedisTemplate) {
         return ReactiveCacheManagerBuilder.newRedisReactiveCacheManagerBuilder(reactiveRedisTemplate)
                 .withMaxWaitingDuration(reactiveCacheSupportProperties.getMaxWaitingDuration())
+                .withLockWaitStrategy(reactiveCacheSupportProperties.getLockWait().toLockWaitStrategy())
+                .withFluxPushBatchSize(reactiveCacheSupportProperties.getRedis().getFluxPushBatchSize())
+                .withMaxInFlightFluxPushBatches(reactiveCacheSupportProperties.getRedis().getMaxInFlightFluxPushBatches())
+                .withCacheOptions(reactiveCacheSupportProperties.toReactiveCacheOptions())
                 .build();
     }
 }
@@ -2,9 +2,22 @@ package pro.chenggang.project.reactive.cache.support.configuration.properties;
 
 import lombok.Getter;
 import lombok.Setter;
+import pro.chenggang.project.reactive.cache.support.core.EvictionOptions;
+import pro.chenggang.project.reactive.cache.support.core.LockWaitStrategy;
+import pro.chenggang.project.reactive.cache.support.core.ReactiveCacheOptions;
+import pro.chenggang.project.reactive.cache.support.core.ReadConsistency;
+import pro.chenggang.project.reactive.cache.support.core.Weigher;
+import pro.chenggang.project.reactive.cache.support.core.executor.EarlyRefreshPolicy;
+import pro.chenggang.project.reactive.cache.support.defaults.caffeine.CaffeineCacheOptions;
+import pro.chenggang.project.reactive.cache.support.defaults.lock.LockWaitStrategies;
+import pro.chenggang.project.reactive.cache.support.defaults.redis.RedisReactiveCacheFluxAdapter;
+import pro.chenggang.project.reactive.cache.support.toolkit.TimingWheel;
 
 import javax.validation.constraints.NotNull;
 import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
 
 /**
  * The reactive cache support configure properties
@@ -33,6 +46,294 @@ public class ReactiveCacheSupportProperties {
     @NotNull(message = "Reactive cache type could not be null")
     private ReactiveCacheType type;
 
+    /**
+     * The cache options of each cache name
+     */
+    private Map<String, CacheOptions> caches = new HashMap<>();
+
+    /**
+     * The lock wait options
+     */
+    private LockWait lockWait = new LockWait();
+
+    /**
+     * The tick duration of the expiration timing wheel shared by all inmemory caches
+     */
+    @NotNull(message = "Expiration tick duration could not be null")
+    private Duration expirationTickDuration = TimingWheel.DEFAULT_TICK_DURATION;
+
+    /**
+     * The eviction options of each local cache
+     */
+    private Eviction eviction = new Eviction();
+
+    /**
+     * The caffeine cache options
+     */
+    private CaffeineCache caffeine = new CaffeineCache();
+
+    /**
+     * The redis cache options
+     */
+    private RedisCache redis = new RedisCache();
+
+    /**
+     * Convert the cache options of each cache name to reactive cache options.
+     *
+     * @return the reactive cache options of each cache name
+     */
+    public Map<String, ReactiveCacheOptions> toReactiveCacheOptions() {
+        return this.toReactiveCacheOptions(null);
+    }
+
+    /**
+     * Convert the cache options of each cache name to reactive cache options.
+     *
+     * @param weigher the weigher of the cache specific maximum weight, nullable
+     * @return the reactive cache options of each cache name
+     */
+    public Map<String, ReactiveCacheOptions> toReactiveCacheOptions(Weigher weigher) {
+        Map<String, ReactiveCacheOptions> reactiveCacheOptions = new HashMap<>();
+        caches.forEach((cacheName, cacheOptions) -> reactiveCacheOptions.put(cacheName,
+                cacheOptions.toReactiveCacheOptions(weigher)
+        ));
+        return reactiveCacheOptions;
+    }
+
+    /**
+     * The cache options
+     */
+    @Getter
+    @Setter
+    public static class CacheOptions {
+
+        /**
+         * The beta of XFetch early refresh of cached mono, early refresh is disabled if it's not configured
+         */
+        private Double earlyRefreshBeta;
+
+        /**
+         * The cache duration of empty mono, empty mono is not cached if it's not configured
+         */
+        private Duration negativeCacheDuration;
+
+        /**
+         * The read consistency of cached data, default is strict
+         */
+        private ReadConsistency readConsistency;
+
+        /**
+         * The duration after a local cached flux write, within which optimistic readers still check the initialize lock
+         */
+        private Duration recentlyWrittenGuardDuration;
+
+        /**
+         * The replay buffer size of in-flight cached flux loading shared by concurrent callers, default is 256
+         */
+        private Integer fluxReplayBufferSize;
+
+        /**
+         * The eviction options of the local cache, which override the global eviction options
+         */
+        private Eviction eviction;
+
+        /**
+         * Convert to reactive cache options.
+         *
+         * @return the reactive cache options
+         */
+        public ReactiveCacheOptions toReactiveCacheOptions() {
+            return this.toReactiveCacheOptions(null);
+        }
+
+        /**
+         * Convert to reactive cache options.
+         *
+         * @param weigher the weigher of the maximum weight, nullable
+         * @return the reactive cache options
+         */
+        public ReactiveCacheOptions toReactiveCacheOptions(Weigher weigher) {
+            ReactiveCacheOptions.Builder builder = ReactiveCacheOptions.newBuilder();
+            if (Objects.nonNull(earlyRefreshBeta)) {
+                builder.withEarlyRefreshPolicy(EarlyRefreshPolicy.xfetch(earlyRefreshBeta));
+            }
+            if (Objects.nonNull(negativeCacheDuration)) {
+                builder.withNegativeCacheDuration(negativeCacheDuration);
+            }
+            if (Objects.nonNull(readConsistency)) {
+                builder.withReadConsistency(readConsistency);
+            }
+            if (Objects.nonNull(recentlyWrittenGuardDuration)) {
+                builder.withRecentlyWrittenGuardDuration(recentlyWrittenGuardDuration);
+            }
+            if (Objects.nonNull(fluxReplayBufferSize)) {
+                builder.withFluxReplayBufferSize(fluxReplayBufferSize);
+            }
+            if (Objects.nonNull(eviction)) {
+                builder.withEvictionOptions(eviction.toEvictionOptions(weigher));
+            }
+            return builder.build();
+        }
+    }
+
+    /**
+     * The lock wait options, which decides the safety net polling of redis reactive cache lock
+     */
+    @Getter
+    @Setter
+    public static class LockWait {
+
+        /**
+         * The lock wait strategy type, default is fixed
+         */
+        @NotNull(message = "Lock wait strategy type could not be null")
+        private LockWaitStrategyType strategy = LockWaitStrategyType.fixed;
+
+        /**
+         * The delay of fixed strategy, or the initial delay of exponential and adaptive strategies
+         */
+        private Duration initialDelay;
+
+        /**
+         * The max delay of exponential and adaptive strategies
+         */
+        private Duration maxDelay;
+
+        /**
+         * Convert to lock wait strategy.
+         *
+         * @return the lock wait strategy
+         */
+        public LockWaitStrategy toLockWaitStrategy() {
+            switch (strategy) {
+                case exponential:
+                    return LockWaitStrategies.exponentialJitter(
+                            Objects.nonNull(initialDelay) ? initialDelay : LockWaitStrategy.DEFAULT_INITIAL_DELAY,
+                            Objects.nonNull(maxDelay) ? maxDelay : LockWaitStrategy.DEFAULT_MAX_DELAY
+                    );
+                case adaptive:
+                    return LockWaitStrategies.adaptive(
+                            Objects.nonNull(initialDelay) ? initialDelay : LockWaitStrategy.DEFAULT_INITIAL_DELAY,
+                            Objects.nonNull(maxDelay) ? maxDelay : LockWaitStrategy.DEFAULT_MAX_DELAY
+                    );
+                case fixed:
+                default:
+                    return LockWaitStrategies.fixed(Objects.nonNull(initialDelay)
+                            ? initialDelay
+                            : LockWaitStrategy.DEFAULT_FIXED_DELAY
+                    );
+            }
+        }
+    }
+
+    /**
+     * The eviction options, which bound the cached data of each local cache by entry count and total weight.
+     * The cached mono and the cached flux of a cache are bounded separately
+     */
+    @Getter
+    @Setter
+    public static class Eviction {
+
+        /**
+         * The maximum entry count of the cached mono or the cached flux of each cache, unbounded if it's not configured
+         */
+        private Long maximumSize;
+
+        /**
+         * The maximum total weight of the cached mono or the cached flux of each cache calculated by the weigher bean, unbounded if it's not configured.
+         * Every cached data weighs 1 if there is no weigher bean
+         */
+        private Long maximumWeight;
+
+        /**
+         * Convert to eviction options.
+         *
+         * @param weigher the weigher, nullable
+         * @return the eviction options
+         */
+        public EvictionOptions toEvictionOptions(Weigher weigher) {
+            EvictionOptions.Builder builder = EvictionOptions.newBuilder();
+            if (Objects.nonNull(maximumSize)) {
+                builder.withMaximumSize(maximumSize);
+            }
+            if (Objects.nonNull(maximumWeight)) {
+                builder.withMaximumWeight(maximumWeight, Objects.nonNull(weigher) ? weigher : Weigher.singleton());
+            }
+            return builder.build();
+        }
+    }
+
+    /**
+     * The caffeine cache options, the executor and scheduler are configured by the builder
+     */
+    @Getter
+    @Setter
+    public static class CaffeineCache {
+
+        /**
+         * Whether to record the caffeine cache statistics, default is false
+         */
+        private boolean recordStats = false;
+
+        /**
+         * Whether to load the cached data through caffeine async caches instead of the initialize lock, default is false
+         */
+        private boolean asyncLoading = false;
+
+        /**
+         * Convert to caffeine cache options.
+         *
+         * @return the caffeine cache options
+         */
+        public CaffeineCacheOptions toCaffeineCacheOptions() {
+            return CaffeineCacheOptions.newBuilder()
+                    .withRecordStats(recordStats)
+                    .withAsyncLoading(asyncLoading)
+                    .build();
+        }
+    }
+
+    /**
+     * The redis cache options
+     */
+    @Getter
+    @Setter
+    public static class RedisCache {
+
+        /**
+         * The max count of elements pushed by one command when caching flux, default is 256
+         */
+        private int fluxPushBatchSize = RedisReactiveCacheFluxAdapter.DEFAULT_PUSH_BATCH_SIZE;
+
+        /**
+         * The max count of push commands in flight at a time when caching flux, default is 4
+         */
+        private int maxInFlightFluxPushBatches = RedisReactiveCacheFluxAdapter.DEFAULT_MAX_IN_FLIGHT_PUSH_BATCHES;
+    }
+
+    /**
+     * The lock wait strategy type enum
+     */
+    public enum LockWaitStrategyType {
+
+        /**
+         * The fixed lock wait strategy type
+         */
+        fixed,
+
+        /**
+         * The exponential lock wait strategy type with full jitter
+         */
+        exponential,
+
+        /**
+         * The adaptive lock wait strategy type
+         */
+        adaptive,
+
+        ;
+    }
+
     /**
      * The reactive cache type enum
      */
@@ -0,0 +1,138 @@
+package pro.chenggang.project.reactive.cache.support.core;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+import java.util.OptionalLong;
+
+/**
+ * The eviction options of the local reactive caches, which bound the cached data of each cache
+ * by entry count and by total weight.
+ * <p>
+ * The cached mono and the cached flux of a cache are stored apart and each of them is bounded by the options on its own,
+ * so a cache name may hold up to twice the maximum entry count and twice the maximum total weight.
+ *
+ * @author Gang Cheng
+ * @version 1.1.0
+ * @since 1.1.0
+ */
+@Getter
+@ToString
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public final class EvictionOptions {
+
+    /**
+     * The maximum entry count of the cached mono or the cached flux of each cache, unbounded if it's negative.
+     */
+    private final long maximumSize;
+
+    /**
+     * The maximum total weight of the cached mono or the cached flux of each cache, unbounded if it's negative.
+     */
+    private final long maximumWeight;
+
+    /**
+     * The weigher of cached data.
+     */
+    @NonNull
+    private final Weigher weigher;
+
+    /**
+     * Gets the maximum entry count of the cached mono or the cached flux of each cache.
+     *
+     * @return the optional maximum entry count, empty if unbounded
+     */
+    public OptionalLong getMaximumSize() {
+        return maximumSize < 0 ? OptionalLong.empty() : OptionalLong.of(maximumSize);
+    }
+
+    /**
+     * Gets the maximum total weight of the cached mono or the cached flux of each cache.
+     *
+     * @return the optional maximum total weight, empty if unbounded
+     */
+    public OptionalLong getMaximumWeight() {
+        return maximumWeight < 0 ? OptionalLong.empty() : OptionalLong.of(maximumWeight);
+    }
+
+    /**
+     * Whether the cached data is bounded.
+     *
+     * @return true if bounded by entry count or total weight
+     */
+    public boolean isBounded() {
+        return maximumSize >= 0 || maximumWeight >= 0;
+    }
+
+    /**
+     * The unbounded eviction options, the cached data is only bounded by its cache duration.
+     *
+     * @return the unbounded eviction options
+     */
+    public static EvictionOptions unbounded() {
+        return newBuilder().build();
+    }
+
+    /**
+     * New eviction options builder.
+     *
+     * @return the eviction options builder
+     */
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    /**
+     * The eviction options builder.
+     */
+    @NoArgsConstructor(access = AccessLevel.PRIVATE)
+    public static class Builder {
+
+        private long maximumSize = -1;
+        private long maximumWeight = -1;
+        private Weigher weigher = Weigher.singleton();
+
+        /**
+         * With maximum entry count of the cached mono or the cached flux of each cache. Default is unbounded
+         *
+         * @param maximumSize the maximum entry count
+         * @return the builder
+         */
+        public Builder withMaximumSize(long maximumSize) {
+            if (maximumSize < 0) {
+                throw new IllegalArgumentException("Maximum size could not be negative, current value is : " + maximumSize);
+            }
+            this.maximumSize = maximumSize;
+            return this;
+        }
+
+        /**
+         * With maximum total weight of the cached mono or the cached flux of each cache, which is calculated by the weigher. Default is unbounded
+         *
+         * @param maximumWeight the maximum total weight
+         * @param weigher       the weigher
+         * @return the builder
+         */
+        public Builder withMaximumWeight(long maximumWeight, @NonNull Weigher weigher) {
+            if (maximumWeight < 0) {
+                throw new IllegalArgumentException("Maximum weight could not be negative, current value is : " + maximumWeight);
+            }
+            this.maximumWeight = maximumWeight;
+            this.weigher = weigher;
+            return this;
+        }
+
+        /**
+         * Build eviction options.
+         *
+         * @return the eviction options
+         */
+        public EvictionOptions build() {
+            return new EvictionOptions(maximumSize, maximumWeight, weigher);
+        }
+    }
+}
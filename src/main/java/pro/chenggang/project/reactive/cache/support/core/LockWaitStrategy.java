@@ -0,0 +1,54 @@
+package pro.chenggang.project.reactive.cache.support.core;
+
+import lombok.NonNull;
+
+import java.time.Duration;
+
+/**
+ * The wait strategy of reactive cache lock, which decides how long a waiter polls the lock again.
+ * <p>
+ * The lock implementations which are notified on release use it as the safety net polling
+ * in case of missed notifications.
+ * The default implementations are built by {@code LockWaitStrategies}.
+ *
+ * @author Gang Cheng
+ * @version 1.1.0
+ * @since 1.1.0
+ */
+public interface LockWaitStrategy {
+
+    /**
+     * The default delay of fixed strategy
+     */
+    Duration DEFAULT_FIXED_DELAY = Duration.ofSeconds(3);
+
+    /**
+     * The default initial delay of exponential and adaptive strategies
+     */
+    Duration DEFAULT_INITIAL_DELAY = Duration.ofMillis(50);
+
+    /**
+     * The default max delay of exponential and adaptive strategies
+     */
+    Duration DEFAULT_MAX_DELAY = Duration.ofSeconds(3);
+
+    /**
+     * The delay before the next polling.
+     *
+     * @param cacheName the cache name
+     * @param attempt   the polling attempt, starts from 1
+     * @return the delay
+     */
+    Duration nextDelay(@NonNull String cacheName, int attempt);
+
+    /**
+     * Record how long the lock of the cache was held, which is roughly how long loading data takes.
+     * <p>
+     * The default implementation ignores it.
+     *
+     * @param cacheName    the cache name
+     * @param holdDuration the hold duration of the lock
+     */
+    default void recordHoldDuration(@NonNull String cacheName, @NonNull Duration holdDuration) {
+    }
+}
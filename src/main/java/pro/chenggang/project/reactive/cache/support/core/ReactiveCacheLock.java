@@ -58,4 +58,36 @@ public interface ReactiveCacheLock {
      */
     Mono<String> releaseInitializeLock(@NonNull String cacheName, @NonNull String cacheKey);
 
+    /**
+     * Release initialize lock held by the operation.
+     * The lock is not released if the operation doesn't hold it any more, e.g. its lease expired.
+     * Default implementation releases the lock whoever holds it.
+     *
+     * @param cacheName   the cache name
+     * @param cacheKey    the cache key
+     * @param operationId the operation id returned by {@code tryLockInitializeLock}
+     * @return the released operation id, empty if nothing released
+     */
+    default Mono<String> releaseInitializeLock(@NonNull String cacheName,
+                                               @NonNull String cacheKey,
+                                               @NonNull String operationId) {
+        return this.releaseInitializeLock(cacheName, cacheKey);
+    }
+
+    /**
+     * Whether the initialize lock is still held by the operation.
+     * The result may be stale once it's returned, the writes of cached data are fenced by the adapters instead.
+     * Default implementation always returns true.
+     *
+     * @param cacheName   the cache name
+     * @param cacheKey    the cache key
+     * @param operationId the operation id returned by {@code tryLockInitializeLock}
+     * @return true if the initialize lock is held by the operation
+     */
+    default Mono<Boolean> isInitializeLockHeld(@NonNull String cacheName,
+                                               @NonNull String cacheKey,
+                                               @NonNull String operationId) {
+        return Mono.just(true);
+    }
+
 }
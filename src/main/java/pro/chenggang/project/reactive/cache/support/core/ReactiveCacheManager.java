@@ -30,4 +30,12 @@ public interface ReactiveCacheManager {
      */
     Collection<String> getCacheNames();
 
+    /**
+     * Close the cache manager and release the resources it owns, such as the shared expiration ticker.
+     * <p>
+     * The default implementation does nothing.
+     */
+    default void close() {
+    }
+
 }
@@ -0,0 +1,208 @@
+package pro.chenggang.project.reactive.cache.support.core;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+import pro.chenggang.project.reactive.cache.support.core.executor.EarlyRefreshPolicy;
+import reactor.util.concurrent.Queues;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * The options of a reactive cache.
+ *
+ * @author Gang Cheng
+ * @version 1.1.0
+ * @since 1.1.0
+ */
+@Getter
+@ToString
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public final class ReactiveCacheOptions {
+
+    /**
+     * The early refresh policy of cached mono.
+     */
+    @NonNull
+    private final EarlyRefreshPolicy earlyRefreshPolicy;
+
+    /**
+     * The cache duration of empty mono, empty mono is not cached if it's null.
+     */
+    private final Duration negativeCacheDuration;
+
+    /**
+     * The read consistency of cached data.
+     */
+    @NonNull
+    private final ReadConsistency readConsistency;
+
+    /**
+     * The duration after a local cached flux write, within which optimistic readers still consult the initialize lock.
+     */
+    @NonNull
+    private final Duration recentlyWrittenGuardDuration;
+
+    /**
+     * The replay buffer size of in-flight cached flux loading shared by concurrent callers.
+     */
+    private final int fluxReplayBufferSize;
+
+    /**
+     * The eviction options of local cached data, the eviction options of cache manager is used if it's null.
+     */
+    private final EvictionOptions evictionOptions;
+
+    /**
+     * Gets the cache duration of empty mono.
+     *
+     * @return the optional cache duration of empty mono, empty if negative caching is disabled
+     */
+    public Optional<Duration> getNegativeCacheDuration() {
+        return Optional.ofNullable(negativeCacheDuration);
+    }
+
+    /**
+     * Gets the eviction options of local cached data.
+     *
+     * @return the optional eviction options, empty if the eviction options of cache manager is used
+     */
+    public Optional<EvictionOptions> getEvictionOptions() {
+        return Optional.ofNullable(evictionOptions);
+    }
+
+    /**
+     * The default reactive cache options.
+     *
+     * @return the default reactive cache options
+     */
+    public static ReactiveCacheOptions defaults() {
+        return newBuilder().build();
+    }
+
+    /**
+     * New reactive cache options builder.
+     *
+     * @return the reactive cache options builder
+     */
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    /**
+     * The reactive cache options builder.
+     */
+    @NoArgsConstructor(access = AccessLevel.PRIVATE)
+    public static class Builder {
+
+        private EarlyRefreshPolicy earlyRefreshPolicy = EarlyRefreshPolicy.disabled();
+        private Duration negativeCacheDuration;
+        private ReadConsistency readConsistency = ReadConsistency.STRICT;
+        private Duration recentlyWrittenGuardDuration = Duration.ofSeconds(1);
+        private int fluxReplayBufferSize = Queues.SMALL_BUFFER_SIZE;
+        private EvictionOptions evictionOptions;
+
+        /**
+         * With early refresh policy of cached mono. Default is {@code EarlyRefreshPolicy.disabled()}
+         *
+         * @param earlyRefreshPolicy the early refresh policy
+         * @return the builder
+         */
+        public Builder withEarlyRefreshPolicy(@NonNull EarlyRefreshPolicy earlyRefreshPolicy) {
+            this.earlyRefreshPolicy = earlyRefreshPolicy;
+            return this;
+        }
+
+        /**
+         * With cache duration of empty mono, which enables negative caching.
+         * Default is null, which means empty mono is not cached.
+         *
+         * @param negativeCacheDuration the cache duration of empty mono
+         * @return the builder
+         */
+        public Builder withNegativeCacheDuration(@NonNull Duration negativeCacheDuration) {
+            if (negativeCacheDuration.isNegative() || negativeCacheDuration.isZero()) {
+                throw new IllegalArgumentException(
+                        "Negative cache duration could not be negative or zero, current value is : " + negativeCacheDuration);
+            }
+            this.negativeCacheDuration = negativeCacheDuration;
+            return this;
+        }
+
+        /**
+         * With read consistency of cached data. Default is {@code ReadConsistency.STRICT}
+         *
+         * @param readConsistency the read consistency
+         * @return the builder
+         */
+        public Builder withReadConsistency(@NonNull ReadConsistency readConsistency) {
+            this.readConsistency = readConsistency;
+            return this;
+        }
+
+        /**
+         * With the recently written guard duration of cached flux, only used by {@code ReadConsistency.OPTIMISTIC}.
+         * Default is 1 second, zero disables the guard.
+         *
+         * @param recentlyWrittenGuardDuration the recently written guard duration
+         * @return the builder
+         */
+        public Builder withRecentlyWrittenGuardDuration(@NonNull Duration recentlyWrittenGuardDuration) {
+            if (recentlyWrittenGuardDuration.isNegative()) {
+                throw new IllegalArgumentException(
+                        "Recently written guard duration could not be negative, current value is : " + recentlyWrittenGuardDuration);
+            }
+            this.recentlyWrittenGuardDuration = recentlyWrittenGuardDuration;
+            return this;
+        }
+
+        /**
+         * With the replay buffer size of in-flight cached flux loading. Default is {@code Queues.SMALL_BUFFER_SIZE}
+         * <p>
+         * Concurrent callers joining after more elements than the buffer size are loaded read the cached data
+         * after the loading completes instead.
+         *
+         * @param fluxReplayBufferSize the replay buffer size
+         * @return the builder
+         */
+        public Builder withFluxReplayBufferSize(int fluxReplayBufferSize) {
+            if (fluxReplayBufferSize <= 0) {
+                throw new IllegalArgumentException(
+                        "Flux replay buffer size should be positive, current value is : " + fluxReplayBufferSize);
+            }
+            this.fluxReplayBufferSize = fluxReplayBufferSize;
+            return this;
+        }
+
+        /**
+         * With eviction options of local cached data, which overrides the eviction options of cache manager.
+         * Default is null, the eviction options of cache manager is used.
+         *
+         * @param evictionOptions the eviction options
+         * @return the builder
+         */
+        public Builder withEvictionOptions(@NonNull EvictionOptions evictionOptions) {
+            this.evictionOptions = evictionOptions;
+            return this;
+        }
+
+        /**
+         * Build reactive cache options.
+         *
+         * @return the reactive cache options
+         */
+        public ReactiveCacheOptions build() {
+            return new ReactiveCacheOptions(earlyRefreshPolicy,
+                    negativeCacheDuration,
+                    readConsistency,
+                    recentlyWrittenGuardDuration,
+                    fluxReplayBufferSize,
+                    evictionOptions
+            );
+        }
+    }
+}
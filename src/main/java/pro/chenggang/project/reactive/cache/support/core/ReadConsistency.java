@@ -0,0 +1,24 @@
+package pro.chenggang.project.reactive.cache.support.core;
+
+/**
+ * The read consistency of a reactive cache.
+ *
+ * @author Gang Cheng
+ * @version 1.1.0
+ * @since 1.1.0
+ */
+public enum ReadConsistency {
+
+    /**
+     * Always wait for the initialize lock before reading cached data,
+     * readers never observe data that is being initialized.
+     */
+    STRICT,
+
+    /**
+     * Read cached data first and only consult the initialize lock on a miss,
+     * a hit costs one round trip to the cache instead of two.
+     */
+    OPTIMISTIC,
+    ;
+}
@@ -0,0 +1,35 @@
+package pro.chenggang.project.reactive.cache.support.core;
+
+import lombok.NonNull;
+
+/**
+ * The weigher of cached data, which calculates the weight of a cached data to bound the total weight of a cache.
+ * <p>
+ * The cached data of mono is weighed as the data itself, the cached data of flux is weighed as a {@link java.util.List}
+ * of its elements.
+ *
+ * @author Gang Cheng
+ * @version 1.1.0
+ * @since 1.1.0
+ */
+@FunctionalInterface
+public interface Weigher {
+
+    /**
+     * Weigh the cached data.
+     *
+     * @param cacheKey the cache key
+     * @param data     the cached data
+     * @return the weight, which should not be negative
+     */
+    int weigh(@NonNull String cacheKey, @NonNull Object data);
+
+    /**
+     * The singleton weigher, which weighs every cached data as 1.
+     *
+     * @return the singleton weigher
+     */
+    static Weigher singleton() {
+        return (cacheKey, data) -> 1;
+    }
+}
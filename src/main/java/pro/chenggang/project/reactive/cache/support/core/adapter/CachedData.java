@@ -0,0 +1,208 @@
+package pro.chenggang.project.reactive.cache.support.core.adapter;
+
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * The cached data loaded by reactive cache adapter.
+ * <p>
+ * It is one of the following states:
+ * <ul>
+ *     <li>absent: there is no cached data</li>
+ *     <li>present but empty: the cached data exists without any value</li>
+ *     <li>present with value: the cached data exists with a value</li>
+ * </ul>
+ *
+ * @param <T> the cached data type
+ * @author Gang Cheng
+ * @version 1.1.0
+ * @since 1.1.0
+ */
+@ToString
+@EqualsAndHashCode
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public final class CachedData<T> {
+
+    private static final CachedData<?> ABSENT = new CachedData<>(false, null, null, null, null);
+    private static final CachedData<?> EMPTY = new CachedData<>(true, null, null, null, null);
+
+    private final boolean present;
+    private final T data;
+    private final Instant expireTime;
+    private final Duration loadDuration;
+    /**
+     * The fencing token of the operation holding the initialize lock which wrote the cached data,
+     * null if it's not written by a fenced write. It's not a state of the cached data.
+     */
+    @EqualsAndHashCode.Exclude
+    private final Long fencingToken;
+
+    /**
+     * The absent cached data.
+     *
+     * @param <T> the cached data type
+     * @return the absent cached data
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> CachedData<T> absent() {
+        return (CachedData<T>) ABSENT;
+    }
+
+    /**
+     * The present but empty cached data.
+     *
+     * @param <T> the cached data type
+     * @return the present but empty cached data
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> CachedData<T> empty() {
+        return (CachedData<T>) EMPTY;
+    }
+
+    /**
+     * The present but empty cached data with the time it expires at.
+     *
+     * @param <T>        the cached data type
+     * @param expireTime the expire time of cached data
+     * @return the present but empty cached data
+     */
+    public static <T> CachedData<T> empty(@NonNull Instant expireTime) {
+        return new CachedData<>(true, null, expireTime, null, null);
+    }
+
+    /**
+     * The present cached data with value.
+     *
+     * @param <T>  the cached data type
+     * @param data the cached data
+     * @return the present cached data
+     */
+    public static <T> CachedData<T> of(@NonNull T data) {
+        return new CachedData<>(true, data, null, null, null);
+    }
+
+    /**
+     * The present cached data with value and the time it expires at.
+     *
+     * @param <T>        the cached data type
+     * @param data       the cached data
+     * @param expireTime the expire time of cached data
+     * @return the present cached data
+     */
+    public static <T> CachedData<T> of(@NonNull T data, @NonNull Instant expireTime) {
+        return new CachedData<>(true, data, expireTime, null, null);
+    }
+
+    /**
+     * The present cached data with value, the time it expires at and the duration it took to load.
+     *
+     * @param <T>          the cached data type
+     * @param data         the cached data
+     * @param expireTime   the expire time of cached data
+     * @param loadDuration the load duration of cached data
+     * @return the present cached data
+     */
+    public static <T> CachedData<T> of(@NonNull T data, @NonNull Instant expireTime, @NonNull Duration loadDuration) {
+        return new CachedData<>(true, data, expireTime, loadDuration, null);
+    }
+
+    /**
+     * Whether cached data is present.
+     *
+     * @return true if cached data is present, even if it has no value
+     */
+    public boolean isPresent() {
+        return present;
+    }
+
+    /**
+     * Gets the cached data.
+     *
+     * @return the optional cached data, empty if cached data is absent or present but empty
+     */
+    public Optional<T> getData() {
+        return Optional.ofNullable(data);
+    }
+
+    /**
+     * Gets the expire time of cached data.
+     *
+     * @return the optional expire time, empty if cached data is absent or the expire time is unknown
+     */
+    public Optional<Instant> getExpireTime() {
+        return Optional.ofNullable(expireTime);
+    }
+
+    /**
+     * Gets the duration it took to load the cached data from source.
+     *
+     * @return the optional load duration, empty if cached data is absent or the load duration is unknown
+     */
+    public Optional<Duration> getLoadDuration() {
+        return Optional.ofNullable(loadDuration);
+    }
+
+    /**
+     * Map the cached value and keep the other states.
+     *
+     * @param <R>    the mapped data type
+     * @param mapper the mapper of the cached value
+     * @return the mapped cached data
+     */
+    public <R> CachedData<R> map(@NonNull Function<? super T, ? extends R> mapper) {
+        if (Objects.isNull(data)) {
+            return new CachedData<>(present, null, expireTime, loadDuration, fencingToken);
+        }
+        return new CachedData<>(present, mapper.apply(data), expireTime, loadDuration, fencingToken);
+    }
+
+    /**
+     * Copy the cached data written by the operation holding the initialize lock.
+     * <p>
+     * The operation id is taken as the fencing token if it's numeric, as the monotonic ones of the built-in locks,
+     * otherwise the copied cached data is not fenced.
+     *
+     * @param operationId the operation id holding the initialize lock
+     * @return the cached data fenced by the operation id
+     */
+    public CachedData<T> fencedBy(@NonNull String operationId) {
+        return new CachedData<>(present, data, expireTime, loadDuration, parseFencingToken(operationId));
+    }
+
+    /**
+     * Whether the write of the operation is fenced off by this cached data,
+     * which is true if this cached data was written by a later holder of the initialize lock.
+     *
+     * @param operationId the operation id of the write
+     * @return true if the write should be rejected
+     */
+    public boolean fencesOff(@NonNull String operationId) {
+        Long writingFencingToken = parseFencingToken(operationId);
+        return Objects.nonNull(fencingToken)
+                && Objects.nonNull(writingFencingToken)
+                && fencingToken > writingFencingToken;
+    }
+
+    /**
+     * Parse the operation id as fencing token.
+     *
+     * @param operationId the operation id
+     * @return the fencing token, null if the operation id is not numeric
+     */
+    private static Long parseFencingToken(String operationId) {
+        try {
+            return Long.parseLong(operationId);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
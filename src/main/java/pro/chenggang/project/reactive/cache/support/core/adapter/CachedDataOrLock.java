@@ -0,0 +1,86 @@
+package pro.chenggang.project.reactive.cache.support.core.adapter;
+
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+import java.util.Optional;
+
+/**
+ * The result of loading cached data or acquiring the initialize lock in one operation.
+ * <p>
+ * It is one of the following states:
+ * <ul>
+ *     <li>cached: the cached data is present</li>
+ *     <li>locked: the cached data is absent and the initialize lock is acquired by the current operation</li>
+ *     <li>contended: the initialize lock is held by another operation</li>
+ * </ul>
+ *
+ * @param <T> the cached data type
+ * @author Gang Cheng
+ * @version 1.1.0
+ * @since 1.1.0
+ */
+@ToString
+@EqualsAndHashCode
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public final class CachedDataOrLock<T> {
+
+    private static final CachedDataOrLock<?> CONTENDED = new CachedDataOrLock<>(CachedData.absent(), null);
+
+    private final CachedData<T> cachedData;
+    private final String operationId;
+
+    /**
+     * The present cached data.
+     *
+     * @param <T>        the cached data type
+     * @param cachedData the present cached data
+     * @return the cached result
+     */
+    public static <T> CachedDataOrLock<T> cached(@NonNull CachedData<T> cachedData) {
+        return new CachedDataOrLock<>(cachedData, null);
+    }
+
+    /**
+     * The initialize lock acquired by the current operation.
+     *
+     * @param <T>         the cached data type
+     * @param operationId the operation id holding the initialize lock
+     * @return the locked result
+     */
+    public static <T> CachedDataOrLock<T> locked(@NonNull String operationId) {
+        return new CachedDataOrLock<>(CachedData.absent(), operationId);
+    }
+
+    /**
+     * The initialize lock held by another operation.
+     *
+     * @param <T> the cached data type
+     * @return the contended result
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> CachedDataOrLock<T> contended() {
+        return (CachedDataOrLock<T>) CONTENDED;
+    }
+
+    /**
+     * Gets the cached data.
+     *
+     * @return the cached data, absent unless the result is cached
+     */
+    public CachedData<T> getCachedData() {
+        return cachedData;
+    }
+
+    /**
+     * Gets the operation id holding the initialize lock.
+     *
+     * @return the optional operation id, empty unless the result is locked
+     */
+    public Optional<String> getOperationId() {
+        return Optional.ofNullable(operationId);
+    }
+}
@@ -1,6 +1,7 @@
 package pro.chenggang.project.reactive.cache.support.core.adapter;
 
 import lombok.NonNull;
+import pro.chenggang.project.reactive.cache.support.exception.ReactiveCacheLockLostException;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
@@ -31,6 +32,26 @@ public interface ReactiveCacheFluxAdapter {
      */
     <T> Flux<T> loadData(@NonNull String cacheKey);
 
+    /**
+     * Load data if present in one operation.
+     * <p>
+     * The default implementation combines {@link #hasData(String)} and {@link #loadData(String)},
+     * the implementations are supposed to override it with a single round trip to the underlying storage.
+     *
+     * @param <T>      the cached data type
+     * @param cacheKey the cache key
+     * @return the cached data which contains the cached flux
+     */
+    default <T> Mono<CachedData<Flux<T>>> loadDataIfPresent(@NonNull String cacheKey) {
+        return hasData(cacheKey)
+                .map(hasData -> {
+                    if (!hasData) {
+                        return CachedData.absent();
+                    }
+                    return CachedData.of(this.loadData(cacheKey));
+                });
+    }
+
     /**
      * Cache data (Flux).
      *
@@ -41,6 +62,33 @@ public interface ReactiveCacheFluxAdapter {
      */
     <T> Flux<T> cacheData(@NonNull String cacheKey, @NonNull Duration cacheDuration, @NonNull Flux<T> sourcePublisher);
 
+    /**
+     * Cache data (Flux) loaded by the operation holding the initialize lock.
+     * <p>
+     * Checking the write is not fenced off and publishing the cached data are done in one operation of the
+     * underlying storage, so a former holder whose lock expired never overwrites the data written by a later holder.
+     * The flux errors with {@link ReactiveCacheLockLostException} after the source flux completes
+     * and nothing is written if the write is fenced off.
+     * <p>
+     * The default implementation writes with {@link #cacheData(String, Duration, Flux)} without fencing,
+     * the implementations are supposed to override it.
+     *
+     * @param <T>             the cached data type
+     * @param cacheName       the cache name
+     * @param cacheKey        the cache key
+     * @param operationId     the operation id holding the initialize lock
+     * @param cacheDuration   the cache expired duration
+     * @param sourcePublisher the source flux
+     * @return the cached Flux
+     */
+    default <T> Flux<T> cacheFencedData(@NonNull String cacheName,
+                                        @NonNull String cacheKey,
+                                        @NonNull String operationId,
+                                        @NonNull Duration cacheDuration,
+                                        @NonNull Flux<T> sourcePublisher) {
+        return this.cacheData(cacheKey, cacheDuration, sourcePublisher);
+    }
+
     /**
      * Cleanup cache data.
      *
@@ -19,4 +19,12 @@ public interface ReactiveCacheManagerAdapter {
      * @return the reactive cache
      */
     ReactiveCache initializeReactiveCache(@NonNull String name);
+
+    /**
+     * Close the adapter and release the resources shared by the reactive caches it initialized.
+     * <p>
+     * The default implementation does nothing.
+     */
+    default void close() {
+    }
 }
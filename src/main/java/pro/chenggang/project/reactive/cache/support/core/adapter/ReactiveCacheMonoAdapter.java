@@ -1,9 +1,16 @@
 package pro.chenggang.project.reactive.cache.support.core.adapter;
 
 import lombok.NonNull;
+import pro.chenggang.project.reactive.cache.support.exception.ReactiveCacheLockLostException;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
 
 import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * The Reactive cache executor Mono adapter.
@@ -30,6 +37,28 @@ public interface ReactiveCacheMonoAdapter {
      */
     <T> Mono<T> loadData(@NonNull String cacheKey);
 
+    /**
+     * Load data if present in one operation.
+     * <p>
+     * The default implementation combines {@link #hasData(String)} and {@link #loadData(String)},
+     * the implementations are supposed to override it with a single round trip to the underlying storage.
+     *
+     * @param <T>      the cached data type
+     * @param cacheKey the cache key
+     * @return the cached data
+     */
+    default <T> Mono<CachedData<T>> loadDataIfPresent(@NonNull String cacheKey) {
+        return hasData(cacheKey)
+                .flatMap(hasData -> {
+                    if (!hasData) {
+                        return Mono.just(CachedData.<T>absent());
+                    }
+                    return this.<T>loadData(cacheKey)
+                            .map(CachedData::of)
+                            .defaultIfEmpty(CachedData.empty());
+                });
+    }
+
     /**
      * Cache data (Mono).
      *
@@ -40,6 +69,67 @@ public interface ReactiveCacheMonoAdapter {
      */
     <T> Mono<T> cacheData(@NonNull String cacheKey, @NonNull Duration cacheDuration, @NonNull Mono<T> sourcePublisher);
 
+    /**
+     * Cache empty data, which marks that the source mono is empty,
+     * the cached empty data is loaded as present but empty by {@link #loadDataIfPresent(String)}.
+     * <p>
+     * The default implementation caches nothing,
+     * the implementations are supposed to override it to support negative caching.
+     *
+     * @param cacheKey      the cache key
+     * @param cacheDuration the cache expired duration
+     * @return the Void
+     */
+    default Mono<Void> cacheEmptyData(@NonNull String cacheKey, @NonNull Duration cacheDuration) {
+        return Mono.empty();
+    }
+
+    /**
+     * Cache data (Mono) loaded by the operation holding the initialize lock.
+     * <p>
+     * Checking the write is not fenced off and writing the data are done in one operation of the underlying storage,
+     * so a former holder whose lock expired never overwrites the data written by a later holder.
+     * The mono errors with {@link ReactiveCacheLockLostException} and nothing is written if the write is fenced off.
+     * <p>
+     * The default implementation writes with {@link #cacheData(String, Duration, Mono)} without fencing,
+     * the implementations are supposed to override it.
+     *
+     * @param <T>             the cached data type
+     * @param cacheName       the cache name
+     * @param cacheKey        the cache key
+     * @param operationId     the operation id holding the initialize lock
+     * @param cacheDuration   the cache expired duration
+     * @param sourcePublisher the source mono
+     * @return the cached Mono
+     */
+    default <T> Mono<T> cacheFencedData(@NonNull String cacheName,
+                                        @NonNull String cacheKey,
+                                        @NonNull String operationId,
+                                        @NonNull Duration cacheDuration,
+                                        @NonNull Mono<T> sourcePublisher) {
+        return this.cacheData(cacheKey, cacheDuration, sourcePublisher);
+    }
+
+    /**
+     * Cache empty data by the operation holding the initialize lock, fenced as
+     * {@link #cacheFencedData(String, String, String, Duration, Mono)}.
+     * <p>
+     * The default implementation writes with {@link #cacheEmptyData(String, Duration)} without fencing,
+     * the implementations are supposed to override it.
+     *
+     * @param cacheName     the cache name
+     * @param cacheKey      the cache key
+     * @param operationId   the operation id holding the initialize lock
+     * @param cacheDuration the cache expired duration
+     * @return the Void
+     */
+    default Mono<Void> cacheFencedEmptyData(@NonNull String cacheName,
+                                            @NonNull String cacheKey,
+                                            @NonNull String operationId,
+                                            @NonNull Duration cacheDuration) {
+        return this.cacheEmptyData(cacheKey, cacheDuration);
+    }
+
     /**
      * Cleanup cache data.
      *
@@ -48,4 +138,54 @@ public interface ReactiveCacheMonoAdapter {
      */
     Mono<Void> cleanupData(@NonNull String cacheKey);
 
+    /**
+     * Load all data if present in one operation.
+     * <p>
+     * The default implementation loads data one by one with {@link #loadDataIfPresent(String)},
+     * the implementations are supposed to override it with a bulk operation of the underlying storage.
+     *
+     * @param <T>       the cached data type
+     * @param cacheKeys the cache keys
+     * @return the cached data of each cache key, absent cached data is included
+     */
+    default <T> Mono<Map<String, CachedData<T>>> loadAllDataIfPresent(@NonNull Set<String> cacheKeys) {
+        return Flux.fromIterable(cacheKeys)
+                .concatMap(cacheKey -> this.<T>loadDataIfPresent(cacheKey)
+                        .map(cachedData -> Tuples.of(cacheKey, cachedData))
+                )
+                .collectMap(Tuple2::getT1, Tuple2::getT2, LinkedHashMap::new);
+    }
+
+    /**
+     * Cache all data in one operation.
+     * <p>
+     * The default implementation caches data one by one with {@link #cacheData(String, Duration, Mono)},
+     * the implementations are supposed to override it with a bulk operation of the underlying storage.
+     *
+     * @param <T>           the cached data type
+     * @param data          the data of each cache key
+     * @param cacheDuration the cache expired duration
+     * @return the Void
+     */
+    default <T> Mono<Void> cacheAllData(@NonNull Map<String, T> data, @NonNull Duration cacheDuration) {
+        return Flux.fromIterable(data.entrySet())
+                .concatMap(entry -> this.cacheData(entry.getKey(), cacheDuration, Mono.just(entry.getValue())))
+                .then();
+    }
+
+    /**
+     * Cleanup all cache data in one operation.
+     * <p>
+     * The default implementation cleanups data one by one with {@link #cleanupData(String)},
+     * the implementations are supposed to override it with a bulk operation of the underlying storage.
+     *
+     * @param cacheKeys the cache keys
+     * @return the Void
+     */
+    default Mono<Void> cleanupAllData(@NonNull Set<String> cacheKeys) {
+        return Flux.fromIterable(cacheKeys)
+                .concatMap(this::cleanupData)
+                .then();
+    }
+
 }
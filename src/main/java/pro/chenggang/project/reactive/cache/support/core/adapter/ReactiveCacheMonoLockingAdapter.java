@@ -0,0 +1,79 @@
+package pro.chenggang.project.reactive.cache.support.core.adapter;
+
+import lombok.NonNull;
+import pro.chenggang.project.reactive.cache.support.core.ReadConsistency;
+import pro.chenggang.project.reactive.cache.support.exception.ReactiveCacheLockLostException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * The Reactive cache executor Mono adapter which stores the initialize lock along with the cached data,
+ * so that reading cached data and acquiring the initialize lock, writing cached data and releasing the initialize lock
+ * could be fused into single operations.
+ * <p>
+ * A miss costs two round trips to the underlying storage instead of checking the lock, reading, locking,
+ * reading again, writing and releasing separately.
+ * The initialize lock acquired by {@link #loadDataOrTryLock(String, String, ReadConsistency)} is the same lock of
+ * the {@code ReactiveCacheLock} used along with this adapter, and it could be released by that lock as well.
+ *
+ * @author Gang Cheng
+ * @version 1.1.0
+ * @since 1.1.0
+ */
+public interface ReactiveCacheMonoLockingAdapter extends ReactiveCacheMonoAdapter {
+
+    /**
+     * Load data if present, otherwise try to acquire the initialize lock without waiting, in one operation.
+     * <p>
+     * The result is contended if the lock is held by another operation when the data is absent,
+     * or whenever the lock is held in {@code ReadConsistency.STRICT}.
+     *
+     * @param <T>             the cached data type
+     * @param cacheName       the cache name
+     * @param cacheKey        the cache key
+     * @param readConsistency the read consistency
+     * @return the cached data or the acquired lock
+     */
+    <T> Mono<CachedDataOrLock<T>> loadDataOrTryLock(@NonNull String cacheName,
+                                                    @NonNull String cacheKey,
+                                                    @NonNull ReadConsistency readConsistency);
+
+    /**
+     * Cache data (Mono) and release the initialize lock in one operation after the source mono is published.
+     * <p>
+     * Nothing is written and the lock is not released if the source mono is empty or failed.
+     * The mono errors with {@link ReactiveCacheLockLostException} and nothing is written
+     * if the lock is no longer held by the operation.
+     *
+     * @param <T>             the cached data type
+     * @param cacheName       the cache name
+     * @param cacheKey        the cache key
+     * @param operationId     the operation id holding the initialize lock
+     * @param cacheDuration   the cache expired duration
+     * @param sourcePublisher the source mono
+     * @return the cached Mono
+     */
+    <T> Mono<T> cacheDataAndReleaseLock(@NonNull String cacheName,
+                                        @NonNull String cacheKey,
+                                        @NonNull String operationId,
+                                        @NonNull Duration cacheDuration,
+                                        @NonNull Mono<T> sourcePublisher);
+
+    /**
+     * Cache empty data and release the initialize lock in one operation.
+     * <p>
+     * It errors with {@link ReactiveCacheLockLostException} and nothing is written
+     * if the lock is no longer held by the operation.
+     *
+     * @param cacheName     the cache name
+     * @param cacheKey      the cache key
+     * @param operationId   the operation id holding the initialize lock
+     * @param cacheDuration the cache expired duration
+     * @return the Void
+     */
+    Mono<Void> cacheEmptyDataAndReleaseLock(@NonNull String cacheName,
+                                            @NonNull String cacheKey,
+                                            @NonNull String operationId,
+                                            @NonNull Duration cacheDuration);
+}
@@ -4,19 +4,29 @@ import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 import lombok.NonNull;
 import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import pro.chenggang.project.reactive.cache.support.core.EvictionOptions;
+import pro.chenggang.project.reactive.cache.support.core.LockWaitStrategy;
 import pro.chenggang.project.reactive.cache.support.core.ReactiveCacheLock;
 import pro.chenggang.project.reactive.cache.support.core.ReactiveCacheManager;
+import pro.chenggang.project.reactive.cache.support.core.ReactiveCacheOptions;
 import pro.chenggang.project.reactive.cache.support.core.adapter.ReactiveCacheFluxAdapter;
 import pro.chenggang.project.reactive.cache.support.core.adapter.ReactiveCacheMonoAdapter;
 import pro.chenggang.project.reactive.cache.support.defaults.DefaultReactiveCacheManager;
 import pro.chenggang.project.reactive.cache.support.defaults.DefaultReactiveCacheManagerAdapter;
+import pro.chenggang.project.reactive.cache.support.defaults.caffeine.CaffeineCacheOptions;
 import pro.chenggang.project.reactive.cache.support.defaults.caffeine.CaffeineReactiveCacheManagerAdapter;
 import pro.chenggang.project.reactive.cache.support.defaults.inmemory.InmemoryReactiveCacheLock;
 import pro.chenggang.project.reactive.cache.support.defaults.inmemory.InmemoryReactiveCacheManagerAdapter;
+import pro.chenggang.project.reactive.cache.support.defaults.lock.LockWaitStrategies;
+import pro.chenggang.project.reactive.cache.support.defaults.redis.RedisReactiveCacheFluxAdapter;
 import pro.chenggang.project.reactive.cache.support.defaults.redis.RedisReactiveCacheLock;
 import pro.chenggang.project.reactive.cache.support.defaults.redis.RedisReactiveCacheManagerAdapter;
+import pro.chenggang.project.reactive.cache.support.toolkit.TimingWheel;
+import reactor.core.scheduler.Scheduler;
 
 import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * The abstract reactive cache manger builder
@@ -87,6 +97,35 @@ public abstract class ReactiveCacheManagerBuilder {
             return self();
         }
 
+        /**
+         * The reactive cache options of each cache name.
+         */
+        protected final Map<String, ReactiveCacheOptions> cacheOptions = new HashMap<>();
+
+        /**
+         * With reactive cache options of the cache name.
+         * The cache without specific options uses {@code ReactiveCacheOptions.defaults()}
+         *
+         * @param cacheName            the cache name
+         * @param reactiveCacheOptions the reactive cache options
+         * @return the builder
+         */
+        public B withCacheOptions(@NonNull String cacheName, @NonNull ReactiveCacheOptions reactiveCacheOptions) {
+            this.cacheOptions.put(cacheName, reactiveCacheOptions);
+            return self();
+        }
+
+        /**
+         * With reactive cache options of each cache name.
+         *
+         * @param cacheOptions the reactive cache options of each cache name
+         * @return the builder
+         */
+        public B withCacheOptions(@NonNull Map<String, ReactiveCacheOptions> cacheOptions) {
+            this.cacheOptions.putAll(cacheOptions);
+            return self();
+        }
+
         /**
          * Self builder.
          *
@@ -155,7 +194,8 @@ public abstract class ReactiveCacheManagerBuilder {
             return new DefaultReactiveCacheManager(new DefaultReactiveCacheManagerAdapter(maxWaitingDuration,
                     reactiveCacheLock,
                     reactiveCacheMonoAdapter,
-                    reactiveCacheFluxAdapter
+                    reactiveCacheFluxAdapter,
+                    new HashMap<>(cacheOptions)
             ));
         }
     }
@@ -167,6 +207,47 @@ public abstract class ReactiveCacheManagerBuilder {
     @NoArgsConstructor(access = AccessLevel.PRIVATE)
     public static class InmemoryReactiveCacheManagerBuilder extends BaseReactiveCacheManagerBuilder<InmemoryReactiveCacheManagerBuilder> {
 
+        private Scheduler scheduler;
+        private Duration expirationTickDuration = TimingWheel.DEFAULT_TICK_DURATION;
+        private EvictionOptions evictionOptions = EvictionOptions.unbounded();
+
+        /**
+         * With scheduler which the cache data operations are subscribed on.
+         * Default is none, the operations complete synchronously on the subscribing thread
+         *
+         * @param scheduler the scheduler
+         * @return the inmemory reactive cache manager builder
+         */
+        public InmemoryReactiveCacheManagerBuilder withScheduler(@NonNull Scheduler scheduler) {
+            this.scheduler = scheduler;
+            return this;
+        }
+
+        /**
+         * With tick duration of the expiration timing wheel shared by all caches of the manager.
+         * Default is {@code TimingWheel.DEFAULT_TICK_DURATION}
+         *
+         * @param expirationTickDuration the expiration tick duration
+         * @return the inmemory reactive cache manager builder
+         */
+        public InmemoryReactiveCacheManagerBuilder withExpirationTickDuration(@NonNull Duration expirationTickDuration) {
+            this.expirationTickDuration = expirationTickDuration;
+            return this;
+        }
+
+        /**
+         * With eviction options which bound the cached data of each cache by entry count and total weight,
+         * the cache specific eviction options of {@code ReactiveCacheOptions} override it.
+         * Default is {@code EvictionOptions.unbounded()}
+         *
+         * @param evictionOptions the eviction options
+         * @return the inmemory reactive cache manager builder
+         */
+        public InmemoryReactiveCacheManagerBuilder withEvictionOptions(@NonNull EvictionOptions evictionOptions) {
+            this.evictionOptions = evictionOptions;
+            return this;
+        }
+
         @Override
         public InmemoryReactiveCacheManagerBuilder self() {
             return this;
@@ -175,7 +256,11 @@ public abstract class ReactiveCacheManagerBuilder {
         @Override
         public ReactiveCacheManager build() {
             return new DefaultReactiveCacheManager(new InmemoryReactiveCacheManagerAdapter(maxWaitingDuration,
-                    new InmemoryReactiveCacheLock()
+                    new InmemoryReactiveCacheLock(),
+                    new HashMap<>(cacheOptions),
+                    scheduler,
+                    new TimingWheel(expirationTickDuration),
+                    evictionOptions
             ));
         }
     }
@@ -186,6 +271,47 @@ public abstract class ReactiveCacheManagerBuilder {
     @NoArgsConstructor(access = AccessLevel.PRIVATE)
     public static class CaffeineReactiveCacheManagerBuilder extends BaseReactiveCacheManagerBuilder<CaffeineReactiveCacheManagerBuilder> {
 
+        private Scheduler scheduler;
+        private CaffeineCacheOptions caffeineCacheOptions = CaffeineCacheOptions.defaults();
+        private EvictionOptions evictionOptions = EvictionOptions.unbounded();
+
+        /**
+         * With scheduler which the cache data operations are subscribed on.
+         * Default is none, the operations complete synchronously on the subscribing thread
+         *
+         * @param scheduler the scheduler
+         * @return the caffeine reactive cache manager builder
+         */
+        public CaffeineReactiveCacheManagerBuilder withScheduler(@NonNull Scheduler scheduler) {
+            this.scheduler = scheduler;
+            return this;
+        }
+
+        /**
+         * With options of the caffeine caches, such as recording statistics, the executor and the scheduler.
+         * Default is {@code CaffeineCacheOptions.defaults()}
+         *
+         * @param caffeineCacheOptions the caffeine cache options
+         * @return the caffeine reactive cache manager builder
+         */
+        public CaffeineReactiveCacheManagerBuilder withCaffeineCacheOptions(@NonNull CaffeineCacheOptions caffeineCacheOptions) {
+            this.caffeineCacheOptions = caffeineCacheOptions;
+            return this;
+        }
+
+        /**
+         * With eviction options which bound the cached data of each cache by entry count or total weight,
+         * the cache specific eviction options of {@code ReactiveCacheOptions} override it.
+         * Default is {@code EvictionOptions.unbounded()}
+         *
+         * @param evictionOptions the eviction options
+         * @return the caffeine reactive cache manager builder
+         */
+        public CaffeineReactiveCacheManagerBuilder withEvictionOptions(@NonNull EvictionOptions evictionOptions) {
+            this.evictionOptions = evictionOptions;
+            return this;
+        }
+
         @Override
         public CaffeineReactiveCacheManagerBuilder self() {
             return this;
@@ -194,7 +320,11 @@ public abstract class ReactiveCacheManagerBuilder {
         @Override
         public ReactiveCacheManager build() {
             return new DefaultReactiveCacheManager(new CaffeineReactiveCacheManagerAdapter(maxWaitingDuration,
-                    new InmemoryReactiveCacheLock()
+                    new InmemoryReactiveCacheLock(),
+                    new HashMap<>(cacheOptions),
+                    scheduler,
+                    caffeineCacheOptions,
+                    evictionOptions
             ));
         }
     }
@@ -206,12 +336,48 @@ public abstract class ReactiveCacheManagerBuilder {
 
         @NonNull
         private final ReactiveRedisTemplate<String, Object> reactiveRedisTemplate;
-        @NonNull
-        private final RedisReactiveCacheLock redisReactiveCacheLock;
+        private LockWaitStrategy lockWaitStrategy = LockWaitStrategies.fixed(RedisReactiveCacheLock.DEFAULT_SAFETY_NET_POLLING_INTERVAL);
+        private int fluxPushBatchSize = RedisReactiveCacheFluxAdapter.DEFAULT_PUSH_BATCH_SIZE;
+        private int maxInFlightFluxPushBatches = RedisReactiveCacheFluxAdapter.DEFAULT_MAX_IN_FLIGHT_PUSH_BATCHES;
 
         private RedisReactiveCacheManagerBuilder(@NonNull ReactiveRedisTemplate<String, Object> reactiveRedisTemplate) {
             this.reactiveRedisTemplate = reactiveRedisTemplate;
-            this.redisReactiveCacheLock = new RedisReactiveCacheLock(reactiveRedisTemplate);
+        }
+
+        /**
+         * With lock wait strategy of the safety net polling of redis reactive cache lock.
+         * Default is {@code LockWaitStrategies.fixed(RedisReactiveCacheLock.DEFAULT_SAFETY_NET_POLLING_INTERVAL)}
+         *
+         * @param lockWaitStrategy the lock wait strategy
+         * @return the redis reactive cache manager builder
+         */
+        public RedisReactiveCacheManagerBuilder withLockWaitStrategy(@NonNull LockWaitStrategy lockWaitStrategy) {
+            this.lockWaitStrategy = lockWaitStrategy;
+            return this;
+        }
+
+        /**
+         * With max count of elements pushed by one command when caching flux.
+         * Default is {@code RedisReactiveCacheFluxAdapter.DEFAULT_PUSH_BATCH_SIZE}
+         *
+         * @param fluxPushBatchSize the flux push batch size
+         * @return the redis reactive cache manager builder
+         */
+        public RedisReactiveCacheManagerBuilder withFluxPushBatchSize(int fluxPushBatchSize) {
+            this.fluxPushBatchSize = fluxPushBatchSize;
+            return this;
+        }
+
+        /**
+         * With max count of push commands in flight at a time when caching flux.
+         * Default is {@code RedisReactiveCacheFluxAdapter.DEFAULT_MAX_IN_FLIGHT_PUSH_BATCHES}
+         *
+         * @param maxInFlightFluxPushBatches the max in-flight flux push batches
+         * @return the redis reactive cache manager builder
+         */
+        public RedisReactiveCacheManagerBuilder withMaxInFlightFluxPushBatches(int maxInFlightFluxPushBatches) {
+            this.maxInFlightFluxPushBatches = maxInFlightFluxPushBatches;
+            return this;
         }
 
         @Override
@@ -222,8 +388,15 @@ public abstract class ReactiveCacheManagerBuilder {
         @Override
         public ReactiveCacheManager build() {
             return new DefaultReactiveCacheManager(new RedisReactiveCacheManagerAdapter(maxWaitingDuration,
-                    redisReactiveCacheLock,
-                    reactiveRedisTemplate
+                    new RedisReactiveCacheLock(reactiveRedisTemplate,
+                            RedisReactiveCacheLock.DEFAULT_SAFETY_NET_POLLING_INTERVAL,
+                            RedisReactiveCacheLock.DEFAULT_LEASE_DURATION,
+                            lockWaitStrategy
+                    ),
+                    reactiveRedisTemplate,
+                    new HashMap<>(cacheOptions),
+                    fluxPushBatchSize,
+                    maxInFlightFluxPushBatches
             ));
         }
     }
@@ -0,0 +1,98 @@
+package pro.chenggang.project.reactive.cache.support.core.executor;
+
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+import pro.chenggang.project.reactive.cache.support.core.adapter.CachedData;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The early refresh policy of cached data.
+ * <p>
+ * When enabled, each cache hit decides to refresh the cached data before it expires with the
+ * probabilistic early expiration (XFetch) algorithm, which refreshes if
+ * {@code now - loadDuration * beta * ln(random) >= expireTime} with {@code random} uniformly distributed in (0, 1].
+ * The probability rises as the expire time approaches and is weighted by how long the last load took,
+ * a beta greater than 1 favors earlier refresh and a beta less than 1 favors later refresh.
+ *
+ * @author Gang Cheng
+ * @version 1.1.0
+ * @since 1.1.0
+ */
+@ToString
+@EqualsAndHashCode
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public final class EarlyRefreshPolicy {
+
+    private static final EarlyRefreshPolicy DISABLED = new EarlyRefreshPolicy(false, 0D);
+
+    private final boolean enabled;
+    private final double beta;
+
+    /**
+     * The disabled early refresh policy, cached data is only loaded after it expires.
+     *
+     * @return the disabled early refresh policy
+     */
+    public static EarlyRefreshPolicy disabled() {
+        return DISABLED;
+    }
+
+    /**
+     * The XFetch early refresh policy.
+     *
+     * @param beta the beta, which should be positive, 1.0 is a good default
+     * @return the XFetch early refresh policy
+     */
+    public static EarlyRefreshPolicy xfetch(double beta) {
+        if (!(beta > 0) || Double.isInfinite(beta)) {
+            throw new IllegalArgumentException("XFetch beta should be positive, current value is : " + beta);
+        }
+        return new EarlyRefreshPolicy(true, beta);
+    }
+
+    /**
+     * Whether early refresh is enabled.
+     *
+     * @return true if early refresh is enabled
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Gets the beta.
+     *
+     * @return the beta, zero if early refresh is disabled
+     */
+    public double getBeta() {
+        return beta;
+    }
+
+    /**
+     * Whether the cached data should be refreshed early.
+     * The cached data without expire time or load duration is never refreshed early.
+     *
+     * @param cachedData the cached data
+     * @return true if the cached data should be refreshed early
+     */
+    public boolean shouldRefreshEarly(@NonNull CachedData<?> cachedData) {
+        if (!enabled) {
+            return false;
+        }
+        Optional<Instant> optionalExpireTime = cachedData.getExpireTime();
+        Optional<Duration> optionalLoadDuration = cachedData.getLoadDuration();
+        if (!optionalExpireTime.isPresent() || !optionalLoadDuration.isPresent()) {
+            return false;
+        }
+        double random = 1D - ThreadLocalRandom.current().nextDouble();
+        double earlyMillis = -optionalLoadDuration.get().toMillis() * beta * Math.log(random);
+        return earlyMillis >= Duration.between(Instant.now(), optionalExpireTime.get()).toMillis();
+    }
+}
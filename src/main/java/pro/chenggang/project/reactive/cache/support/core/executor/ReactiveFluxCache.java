@@ -41,6 +41,28 @@ public interface ReactiveFluxCache {
                                  @NonNull Duration cacheDuration,
                                  @NonNull Flux<T> sourceFlux);
 
+    /**
+     * Cache from source flux if cache didn't exist, otherwise serve the cached flux with stale-while-revalidate.
+     * <p>
+     * The cached data is fresh within the soft cache duration and returned directly,
+     * it becomes stale after the soft cache duration and is still returned immediately
+     * while a single background refresh from source flux is triggered,
+     * it expires after the hard cache duration and callers wait for a load as {@link #cacheIfNecessary(String, Duration, Flux)} does.
+     * If the background refresh fails, the stale data is kept until the hard cache duration.
+     *
+     * @param <T>               the cached flux's data type
+     * @param cacheKey          the cache key
+     * @param softCacheDuration the soft cache duration, after which the cached data is stale
+     * @param hardCacheDuration the hard cache duration, after which the cached data expires
+     * @param sourceFlux        the source flux
+     * @return the cached flux
+     * @throws IllegalArgumentException if the soft cache duration is not shorter than the hard cache duration
+     */
+    <T> Flux<T> cacheIfNecessary(@NonNull String cacheKey,
+                                 @NonNull Duration softCacheDuration,
+                                 @NonNull Duration hardCacheDuration,
+                                 @NonNull Flux<T> sourceFlux);
+
     /**
      * Evict cache.
      *
@@ -5,6 +5,10 @@ import pro.chenggang.project.reactive.cache.support.exception.NoSuchCachedReacti
 import reactor.core.publisher.Mono;
 
 import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 
 /**
  * The reactive mono cache.
@@ -40,6 +44,28 @@ public interface ReactiveMonoCache {
                                  @NonNull Duration cacheDuration,
                                  @NonNull Mono<T> sourceMono);
 
+    /**
+     * Cache from source mono if cache didn't exist, otherwise serve the cached mono with stale-while-revalidate.
+     * <p>
+     * The cached data is fresh within the soft cache duration and returned directly,
+     * it becomes stale after the soft cache duration and is still returned immediately
+     * while a single background refresh from source mono is triggered,
+     * it expires after the hard cache duration and callers wait for a load as {@link #cacheIfNecessary(String, Duration, Mono)} does.
+     * If the background refresh fails, the stale data is kept until the hard cache duration.
+     *
+     * @param <T>               the cached mono's data type
+     * @param cacheKey          the cache key
+     * @param softCacheDuration the soft cache duration, after which the cached data is stale
+     * @param hardCacheDuration the hard cache duration, after which the cached data expires
+     * @param sourceMono        the source mono
+     * @return the cached mono
+     * @throws IllegalArgumentException if the soft cache duration is not shorter than the hard cache duration
+     */
+    <T> Mono<T> cacheIfNecessary(@NonNull String cacheKey,
+                                 @NonNull Duration softCacheDuration,
+                                 @NonNull Duration hardCacheDuration,
+                                 @NonNull Mono<T> sourceMono);
+
     /**
      * Evict cache.
      *
@@ -47,4 +73,38 @@ public interface ReactiveMonoCache {
      * @return Void mono
      */
     Mono<Void> evictCache(@NonNull String cacheKey);
+
+    /**
+     * Gets all cached data of the cache keys in one lookup.
+     *
+     * @param <T>       the cached mono's data type
+     * @param cacheKeys the cache keys
+     * @return the cached data of each cache key, the cache key without cached data is not included
+     */
+    <T> Mono<Map<String, T>> getAll(@NonNull Collection<String> cacheKeys);
+
+    /**
+     * Cache from the batch source loader for the cache keys which didn't exist.
+     * <p>
+     * All cache keys are looked up in one pass, the batch source loader is called once with only the missing cache keys,
+     * and the loaded data is written back in bulk.
+     * The bulk loading does not take the initialize lock of each cache key.
+     *
+     * @param <T>           the cached mono's data type
+     * @param cacheKeys     the cache keys
+     * @param cacheDuration the cache duration
+     * @param sourceLoader  the batch source loader, which loads data of the missing cache keys
+     * @return the cached data of each cache key, the cache key without data is not included
+     */
+    <T> Mono<Map<String, T>> cacheAllIfNecessary(@NonNull Collection<String> cacheKeys,
+                                                 @NonNull Duration cacheDuration,
+                                                 @NonNull Function<Set<String>, Mono<Map<String, T>>> sourceLoader);
+
+    /**
+     * Evict all cache of the cache keys in one operation.
+     *
+     * @param cacheKeys the cache keys
+     * @return Void mono
+     */
+    Mono<Void> evictAll(@NonNull Collection<String> cacheKeys);
 }
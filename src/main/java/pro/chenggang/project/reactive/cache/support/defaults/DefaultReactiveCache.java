@@ -4,6 +4,7 @@ import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 import pro.chenggang.project.reactive.cache.support.core.ReactiveCache;
 import pro.chenggang.project.reactive.cache.support.core.ReactiveCacheLock;
+import pro.chenggang.project.reactive.cache.support.core.ReactiveCacheOptions;
 import pro.chenggang.project.reactive.cache.support.core.adapter.ReactiveCacheFluxAdapter;
 import pro.chenggang.project.reactive.cache.support.core.adapter.ReactiveCacheMonoAdapter;
 import pro.chenggang.project.reactive.cache.support.core.executor.ReactiveFluxCache;
@@ -38,15 +39,32 @@ public class DefaultReactiveCache implements ReactiveCache {
                                 @NonNull ReactiveCacheLock reactiveCacheLock,
                                 @NonNull ReactiveCacheMonoAdapter reactiveCacheMonoAdapter,
                                 @NonNull ReactiveCacheFluxAdapter reactiveCacheFluxAdapter) {
+        this(cacheName,
+                maxWaitingDuration,
+                reactiveCacheLock,
+                reactiveCacheMonoAdapter,
+                reactiveCacheFluxAdapter,
+                ReactiveCacheOptions.defaults()
+        );
+    }
+
+    public DefaultReactiveCache(@NonNull String cacheName,
+                                @NonNull Duration maxWaitingDuration,
+                                @NonNull ReactiveCacheLock reactiveCacheLock,
+                                @NonNull ReactiveCacheMonoAdapter reactiveCacheMonoAdapter,
+                                @NonNull ReactiveCacheFluxAdapter reactiveCacheFluxAdapter,
+                                @NonNull ReactiveCacheOptions reactiveCacheOptions) {
         this.reactiveMonoCache = new DefaultReactiveMonoCache(cacheName,
                 maxWaitingDuration,
                 reactiveCacheLock,
-                reactiveCacheMonoAdapter
+                reactiveCacheMonoAdapter,
+                reactiveCacheOptions
         );
         this.reactiveFluxCache = new DefaultReactiveFluxCache(cacheName,
                 maxWaitingDuration,
                 reactiveCacheLock,
-                reactiveCacheFluxAdapter
+                reactiveCacheFluxAdapter,
+                reactiveCacheOptions
         );
     }
 
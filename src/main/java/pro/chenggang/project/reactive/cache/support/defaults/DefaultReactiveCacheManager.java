@@ -51,4 +51,18 @@ public class DefaultReactiveCacheManager implements ReactiveCacheManager {
         return cacheContainer.asMap()
                 .keySet();
     }
+
+    /**
+     * Gets the reactive cache manager adapter, e.g. to read the statistics of caffeine caches.
+     *
+     * @return the reactive cache manager adapter
+     */
+    public ReactiveCacheManagerAdapter getReactiveCacheManagerAdapter() {
+        return reactiveCacheManagerAdapter;
+    }
+
+    @Override
+    public void close() {
+        reactiveCacheManagerAdapter.close();
+    }
 }
@@ -4,12 +4,15 @@ import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import pro.chenggang.project.reactive.cache.support.core.ReactiveCache;
+import pro.chenggang.project.reactive.cache.support.core.ReactiveCacheOptions;
 import pro.chenggang.project.reactive.cache.support.core.ReactiveCacheLock;
 import pro.chenggang.project.reactive.cache.support.core.adapter.ReactiveCacheFluxAdapter;
 import pro.chenggang.project.reactive.cache.support.core.adapter.ReactiveCacheManagerAdapter;
 import pro.chenggang.project.reactive.cache.support.core.adapter.ReactiveCacheMonoAdapter;
 
 import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
 
 /**
  * The default reactive cache manager adapter.
@@ -30,6 +33,18 @@ public class DefaultReactiveCacheManagerAdapter implements ReactiveCacheManagerA
     private final ReactiveCacheMonoAdapter reactiveCacheMonoAdapter;
     @NonNull
     private final ReactiveCacheFluxAdapter reactiveCacheFluxAdapter;
+    /**
+     * The reactive cache options of each cache name
+     */
+    @NonNull
+    private final Map<String, ReactiveCacheOptions> cacheOptions;
+
+    public DefaultReactiveCacheManagerAdapter(@NonNull Duration maxWaitingDuration,
+                                              @NonNull ReactiveCacheLock reactiveCacheLock,
+                                              @NonNull ReactiveCacheMonoAdapter reactiveCacheMonoAdapter,
+                                              @NonNull ReactiveCacheFluxAdapter reactiveCacheFluxAdapter) {
+        this(maxWaitingDuration, reactiveCacheLock, reactiveCacheMonoAdapter, reactiveCacheFluxAdapter, Collections.emptyMap());
+    }
 
     @Override
     public ReactiveCache initializeReactiveCache(@NonNull String name) {
@@ -37,7 +52,8 @@ public class DefaultReactiveCacheManagerAdapter implements ReactiveCacheManagerA
                 maxWaitingDuration,
                 reactiveCacheLock,
                 reactiveCacheMonoAdapter,
-                reactiveCacheFluxAdapter
+                reactiveCacheFluxAdapter,
+                cacheOptions.getOrDefault(name, ReactiveCacheOptions.defaults())
         );
     }
 }
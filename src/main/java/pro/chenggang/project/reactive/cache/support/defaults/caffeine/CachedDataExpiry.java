@@ -0,0 +1,44 @@
+package pro.chenggang.project.reactive.cache.support.defaults.caffeine;
+
+import com.github.benmanes.caffeine.cache.Expiry;
+import lombok.NonNull;
+import pro.chenggang.project.reactive.cache.support.core.adapter.CachedData;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * The caffeine expiry of cached data, each cached data expires at its own expire time.
+ * <p>
+ * The cached data without expire time never expires, and reading doesn't extend the expire time.
+ *
+ * @param <V> the cached data type
+ * @author Gang Cheng
+ * @version 1.1.0
+ * @since 1.1.0
+ */
+class CachedDataExpiry<V> implements Expiry<String, CachedData<V>> {
+
+    @Override
+    public long expireAfterCreate(@NonNull String cacheKey, @NonNull CachedData<V> cachedData, long currentTime) {
+        return cachedData.getExpireTime()
+                .map(expireTime -> Math.max(Duration.between(Instant.now(), expireTime).toNanos(), 0L))
+                .orElse(Long.MAX_VALUE);
+    }
+
+    @Override
+    public long expireAfterUpdate(@NonNull String cacheKey,
+                                  @NonNull CachedData<V> cachedData,
+                                  long currentTime,
+                                  long currentDuration) {
+        return this.expireAfterCreate(cacheKey, cachedData, currentTime);
+    }
+
+    @Override
+    public long expireAfterRead(@NonNull String cacheKey,
+                                @NonNull CachedData<V> cachedData,
+                                long currentTime,
+                                long currentDuration) {
+        return currentDuration;
+    }
+}
@@ -0,0 +1,67 @@
+package pro.chenggang.project.reactive.cache.support.defaults.caffeine;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.NonNull;
+import pro.chenggang.project.reactive.cache.support.core.EvictionOptions;
+import pro.chenggang.project.reactive.cache.support.core.ReactiveCache;
+import pro.chenggang.project.reactive.cache.support.core.ReactiveCacheOptions;
+import pro.chenggang.project.reactive.cache.support.core.executor.ReactiveFluxCache;
+import pro.chenggang.project.reactive.cache.support.core.executor.ReactiveMonoCache;
+
+/**
+ * The reactive cache backed by caffeine async caches
+ * <p>
+ * Caffeine coalesces the concurrent loadings of the same cache key into one future,
+ * which replaces the initialize lock, the waiters are completed directly when the loading completes.
+ * The read consistency, recently written guard and flux replay buffer size of {@link ReactiveCacheOptions}
+ * don't apply, since the cached data is never read while it's loading.
+ *
+ * @author Gang Cheng
+ * @version 1.1.0
+ * @since 1.1.0
+ */
+public class CaffeineAsyncReactiveCache implements ReactiveCache {
+
+    /**
+     * The reactive mono cache
+     */
+    @NonNull
+    private final CaffeineAsyncReactiveMonoCache reactiveMonoCache;
+    /**
+     * The reactive flux cache
+     */
+    @NonNull
+    private final CaffeineAsyncReactiveFluxCache reactiveFluxCache;
+
+    public CaffeineAsyncReactiveCache(@NonNull String cacheName,
+                                      @NonNull ReactiveCacheOptions reactiveCacheOptions,
+                                      @NonNull CaffeineCacheOptions caffeineCacheOptions,
+                                      @NonNull EvictionOptions evictionOptions) {
+        this.reactiveMonoCache = new CaffeineAsyncReactiveMonoCache(cacheName,
+                reactiveCacheOptions,
+                caffeineCacheOptions,
+                evictionOptions
+        );
+        this.reactiveFluxCache = new CaffeineAsyncReactiveFluxCache(cacheName, caffeineCacheOptions, evictionOptions);
+    }
+
+    /**
+     * Gets the caffeine cache statistics, which sum the cached mono and cached flux up.
+     *
+     * @return the cache statistics
+     */
+    public CacheStats stats() {
+        return reactiveMonoCache.stats()
+                .plus(reactiveFluxCache.stats());
+    }
+
+    @Override
+    public ReactiveMonoCache monoCache() {
+        return this.reactiveMonoCache;
+    }
+
+    @Override
+    public ReactiveFluxCache fluxCache() {
+        return this.reactiveFluxCache;
+    }
+}
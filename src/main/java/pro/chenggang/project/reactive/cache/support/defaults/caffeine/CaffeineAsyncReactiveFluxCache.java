@@ -0,0 +1,208 @@
+package pro.chenggang.project.reactive.cache.support.defaults.caffeine;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import pro.chenggang.project.reactive.cache.support.core.EvictionOptions;
+import pro.chenggang.project.reactive.cache.support.core.ReactiveCacheOptions;
+import pro.chenggang.project.reactive.cache.support.core.adapter.CachedData;
+import pro.chenggang.project.reactive.cache.support.core.executor.ReactiveFluxCache;
+import pro.chenggang.project.reactive.cache.support.exception.NoSuchCachedReactiveDataException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The reactive flux cache backed by a caffeine async cache
+ * <p>
+ * The loading of a cache key is a future of all elements in the async cache, concurrent {@code cacheIfNecessary}
+ * and {@code get} callers of the same cache key are completed by the same future as soon as the source flux completes,
+ * so the initialize lock and its polling are not needed. The failed loading is removed from the async cache.
+ * Stale cached data could be served while it is refreshed in background, see soft/hard cache duration.
+ *
+ * @author Gang Cheng
+ * @version 1.1.0
+ * @since 1.1.0
+ */
+@Slf4j
+public class CaffeineAsyncReactiveFluxCache implements ReactiveFluxCache {
+
+    /**
+     * The Cache name.
+     */
+    @NonNull
+    private final String cacheName;
+    /**
+     * The cached data and the in-flight loadings of the cache name
+     */
+    private final AsyncCache<String, CachedData<Object[]>> fluxDataCache;
+    /**
+     * The revalidating cache keys, only one background refresh of the same cache key is triggered at a time
+     */
+    private final Set<String> revalidatingContainer = ConcurrentHashMap.newKeySet();
+
+    public CaffeineAsyncReactiveFluxCache(@NonNull String cacheName,
+                                          @NonNull CaffeineCacheOptions caffeineCacheOptions,
+                                          @NonNull EvictionOptions evictionOptions) {
+        this.cacheName = cacheName;
+        this.fluxDataCache = caffeineCacheOptions.newAsyncCache(evictionOptions, Arrays::asList);
+    }
+
+    /**
+     * Gets the statistics of the caffeine cache, which are all zero unless recording statistics is enabled.
+     *
+     * @return the cache statistics
+     */
+    public CacheStats stats() {
+        return fluxDataCache.synchronous()
+                .stats();
+    }
+
+    @Override
+    public <T> Flux<T> get(@NonNull String cacheKey) {
+        return Mono.defer(() -> Mono.justOrEmpty(fluxDataCache.getIfPresent(cacheKey)))
+                .flatMap(CaffeineAsyncReactiveMonoCache::toMono)
+                .switchIfEmpty(Mono.defer(() -> {
+                    log.warn("[Caffeine async reactive flux cache](Get-Flux)Cached data didn't exist, " +
+                            "return no such cached data exception instead of Flux.empty()"
+                    );
+                    return Mono.error(new NoSuchCachedReactiveDataException(cacheName, cacheKey));
+                }))
+                .flatMapMany(this::toFlux);
+    }
+
+    @Override
+    public <T> Flux<T> cacheIfNecessary(@NonNull String cacheKey,
+                                        @NonNull Duration cacheDuration,
+                                        @NonNull Flux<T> sourceFlux) {
+        return this.getOrLoad(cacheKey, cacheDuration, sourceFlux)
+                .flatMapMany(this::toFlux);
+    }
+
+    @Override
+    public <T> Flux<T> cacheIfNecessary(@NonNull String cacheKey,
+                                        @NonNull Duration softCacheDuration,
+                                        @NonNull Duration hardCacheDuration,
+                                        @NonNull Flux<T> sourceFlux) {
+        if (softCacheDuration.compareTo(hardCacheDuration) >= 0) {
+            throw new IllegalArgumentException("Soft cache duration should be shorter than hard cache duration, " +
+                    "current soft cache duration is : " + softCacheDuration +
+                    ", hard cache duration is : " + hardCacheDuration);
+        }
+        Duration staleDuration = hardCacheDuration.minus(softCacheDuration);
+        return this.getOrLoad(cacheKey, hardCacheDuration, sourceFlux)
+                .flatMapMany(cachedData -> {
+                    boolean stale = cachedData.getExpireTime()
+                            .map(expireTime -> Duration.between(Instant.now(), expireTime).compareTo(staleDuration) < 0)
+                            .orElse(false);
+                    if (stale) {
+                        this.revalidate(cacheKey, hardCacheDuration, sourceFlux);
+                    }
+                    return this.toFlux(cachedData);
+                });
+    }
+
+    /**
+     * Get the cached data, or load it from the source flux if it's absent.
+     * The caller which puts the loading future subscribes the source flux, the others wait for the future.
+     *
+     * @param <T>           the cached flux's data type
+     * @param cacheKey      the cache key
+     * @param cacheDuration the cache duration
+     * @param sourceFlux    the source flux
+     * @return the cached data
+     */
+    private <T> Mono<CachedData<Object[]>> getOrLoad(@NonNull String cacheKey,
+                                                    @NonNull Duration cacheDuration,
+                                                    @NonNull Flux<T> sourceFlux) {
+        return Mono.defer(() -> {
+            CompletableFuture<CachedData<Object[]>> newLoading = new CompletableFuture<>();
+            CompletableFuture<CachedData<Object[]>> loading = fluxDataCache.get(cacheKey,
+                    (key, executor) -> newLoading
+            );
+            if (loading != newLoading) {
+                return CaffeineAsyncReactiveMonoCache.toMono(loading);
+            }
+            log.debug("[Caffeine async reactive flux cache]Cached data didn't exist, load it from source, " +
+                            "CacheName:{}, CacheKey:{}",
+                    cacheName,
+                    cacheKey
+            );
+            // subscribed outside caffeine's computation, so the source flux could use this cache safely
+            this.load(cacheDuration, sourceFlux)
+                    .subscribe(newLoading::complete, newLoading::completeExceptionally);
+            return CaffeineAsyncReactiveMonoCache.toMono(newLoading);
+        });
+    }
+
+    /**
+     * Load the cached data of all elements from the source flux, which are sealed into an immutable array.
+     *
+     * @param <T>           the cached flux's data type
+     * @param cacheDuration the cache duration
+     * @param sourceFlux    the source flux
+     * @return the cached data
+     */
+    private <T> Mono<CachedData<Object[]>> load(@NonNull Duration cacheDuration, @NonNull Flux<T> sourceFlux) {
+        return sourceFlux.collectList()
+                .elapsed()
+                .map(elapsedData -> CachedData.of(elapsedData.getT2().toArray(),
+                        Instant.now().plus(cacheDuration),
+                        Duration.ofMillis(elapsedData.getT1())
+                ));
+    }
+
+    /**
+     * Refresh the cached data from the source flux in background.
+     * Only one refresh of the same cache key is triggered at a time, the current cached data is kept if the refresh fails.
+     *
+     * @param <T>           the cached flux's data type
+     * @param cacheKey      the cache key
+     * @param cacheDuration the cache duration of refreshed data
+     * @param sourceFlux    the source flux
+     */
+    private <T> void revalidate(@NonNull String cacheKey,
+                                @NonNull Duration cacheDuration,
+                                @NonNull Flux<T> sourceFlux) {
+        if (!revalidatingContainer.add(cacheKey)) {
+            return;
+        }
+        this.load(cacheDuration, sourceFlux)
+                .doFinally(signalType -> revalidatingContainer.remove(cacheKey))
+                .subscribe(cachedData -> fluxDataCache.put(cacheKey, CompletableFuture.completedFuture(cachedData)),
+                        throwable -> log.warn(
+                                "[Caffeine async reactive flux cache]Refresh cached data in background failed, " +
+                                        "keep the current cached data, CacheName:{}, CacheKey:{}",
+                                cacheName,
+                                cacheKey,
+                                throwable
+                        )
+                );
+    }
+
+    @Override
+    public Mono<Void> evictCache(@NonNull String cacheKey) {
+        return Mono.fromRunnable(() -> {
+            fluxDataCache.synchronous()
+                    .invalidate(cacheKey);
+            log.debug("[Caffeine async reactive flux cache]Cleanup cached data success, CacheName:{}, CacheKey:{}",
+                    cacheName,
+                    cacheKey
+            );
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> Flux<T> toFlux(@NonNull CachedData<Object[]> cachedData) {
+        return cachedData.getData()
+                .map(data -> (Flux<T>) Flux.fromArray(data))
+                .orElseGet(Flux::empty);
+    }
+}
@@ -0,0 +1,332 @@
+package pro.chenggang.project.reactive.cache.support.defaults.caffeine;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import pro.chenggang.project.reactive.cache.support.core.EvictionOptions;
+import pro.chenggang.project.reactive.cache.support.core.ReactiveCacheOptions;
+import pro.chenggang.project.reactive.cache.support.core.adapter.CachedData;
+import pro.chenggang.project.reactive.cache.support.core.executor.ReactiveMonoCache;
+import pro.chenggang.project.reactive.cache.support.exception.NoSuchCachedReactiveDataException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * The reactive mono cache backed by a caffeine async cache
+ * <p>
+ * The loading of a cache key is a future in the async cache, concurrent {@code cacheIfNecessary} and {@code get}
+ * callers of the same cache key are completed by the same future as soon as it completes,
+ * so the initialize lock and its polling are not needed.
+ * The failed loading and the empty loading without negative caching are removed from the async cache.
+ * Stale cached data could be served while it is refreshed in background, see soft/hard cache duration.
+ * Hot cached data could be refreshed in background before it expires, see {@link ReactiveCacheOptions}.
+ *
+ * @author Gang Cheng
+ * @version 1.1.0
+ * @since 1.1.0
+ */
+@Slf4j
+public class CaffeineAsyncReactiveMonoCache implements ReactiveMonoCache {
+
+    /**
+     * The Cache name.
+     */
+    @NonNull
+    private final String cacheName;
+    /**
+     * The reactive cache options
+     */
+    @NonNull
+    private final ReactiveCacheOptions reactiveCacheOptions;
+    /**
+     * The cached data and the in-flight loadings of the cache name
+     */
+    private final AsyncCache<String, CachedData<Object>> monoDataCache;
+    /**
+     * The revalidating cache keys, only one background refresh of the same cache key is triggered at a time
+     */
+    private final Set<String> revalidatingContainer = ConcurrentHashMap.newKeySet();
+
+    public CaffeineAsyncReactiveMonoCache(@NonNull String cacheName,
+                                          @NonNull ReactiveCacheOptions reactiveCacheOptions,
+                                          @NonNull CaffeineCacheOptions caffeineCacheOptions,
+                                          @NonNull EvictionOptions evictionOptions) {
+        this.cacheName = cacheName;
+        this.reactiveCacheOptions = reactiveCacheOptions;
+        this.monoDataCache = caffeineCacheOptions.newAsyncCache(evictionOptions, data -> data);
+    }
+
+    /**
+     * Gets the statistics of the caffeine cache, which are all zero unless recording statistics is enabled.
+     *
+     * @return the cache statistics
+     */
+    public CacheStats stats() {
+        return monoDataCache.synchronous()
+                .stats();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T> Mono<T> get(@NonNull String cacheKey) {
+        return Mono.defer(() -> Mono.justOrEmpty(monoDataCache.getIfPresent(cacheKey)))
+                .flatMap(CaffeineAsyncReactiveMonoCache::toMono)
+                .switchIfEmpty(Mono.defer(() -> {
+                    log.warn("[Caffeine async reactive mono cache](Get-Mono)Cached data didn't exist, " +
+                            "return no such cached data exception instead of Mono.empty()"
+                    );
+                    return Mono.error(new NoSuchCachedReactiveDataException(cacheName, cacheKey));
+                }))
+                .flatMap(cachedData -> (Mono<T>) Mono.justOrEmpty(cachedData.getData()));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T> Mono<T> cacheIfNecessary(@NonNull String cacheKey,
+                                        @NonNull Duration cacheDuration,
+                                        @NonNull Mono<T> sourceMono) {
+        return this.getOrLoad(cacheKey, cacheDuration, sourceMono)
+                .flatMap(cachedData -> {
+                    if (reactiveCacheOptions.getEarlyRefreshPolicy().shouldRefreshEarly(cachedData)) {
+                        log.debug("[Caffeine async reactive mono cache]Cached data is about to expire, refresh it early, " +
+                                        "CacheName:{}, CacheKey:{}",
+                                cacheName,
+                                cacheKey
+                        );
+                        this.revalidate(cacheKey, cacheDuration, sourceMono);
+                    }
+                    return (Mono<T>) Mono.justOrEmpty(cachedData.getData());
+                });
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T> Mono<T> cacheIfNecessary(@NonNull String cacheKey,
+                                        @NonNull Duration softCacheDuration,
+                                        @NonNull Duration hardCacheDuration,
+                                        @NonNull Mono<T> sourceMono) {
+        if (softCacheDuration.compareTo(hardCacheDuration) >= 0) {
+            throw new IllegalArgumentException("Soft cache duration should be shorter than hard cache duration, " +
+                    "current soft cache duration is : " + softCacheDuration +
+                    ", hard cache duration is : " + hardCacheDuration);
+        }
+        Duration staleDuration = hardCacheDuration.minus(softCacheDuration);
+        return this.getOrLoad(cacheKey, hardCacheDuration, sourceMono)
+                .flatMap(cachedData -> {
+                    boolean stale = cachedData.getExpireTime()
+                            .map(expireTime -> Duration.between(Instant.now(), expireTime).compareTo(staleDuration) < 0)
+                            .orElse(false);
+                    if (stale) {
+                        this.revalidate(cacheKey, hardCacheDuration, sourceMono);
+                    }
+                    return (Mono<T>) Mono.justOrEmpty(cachedData.getData());
+                });
+    }
+
+    /**
+     * Get the cached data, or load it from the source mono if it's absent.
+     * The caller which puts the loading future subscribes the source mono, the others wait for the future.
+     *
+     * @param <T>           the cached mono's data type
+     * @param cacheKey      the cache key
+     * @param cacheDuration the cache duration
+     * @param sourceMono    the source mono
+     * @return the cached data, or empty if the source mono is empty and negative caching is disabled
+     */
+    private <T> Mono<CachedData<Object>> getOrLoad(@NonNull String cacheKey,
+                                                   @NonNull Duration cacheDuration,
+                                                   @NonNull Mono<T> sourceMono) {
+        return Mono.defer(() -> {
+            CompletableFuture<CachedData<Object>> newLoading = new CompletableFuture<>();
+            CompletableFuture<CachedData<Object>> loading = monoDataCache.get(cacheKey, (key, executor) -> newLoading);
+            if (loading != newLoading) {
+                return toMono(loading);
+            }
+            log.debug("[Caffeine async reactive mono cache]Cached data didn't exist, load it from source, " +
+                            "CacheName:{}, CacheKey:{}",
+                    cacheName,
+                    cacheKey
+            );
+            // subscribed outside caffeine's computation, so the source mono could use this cache safely
+            this.load(cacheDuration, sourceMono)
+                    .subscribe(newLoading::complete,
+                            newLoading::completeExceptionally,
+                            () -> newLoading.complete(null)
+                    );
+            return toMono(newLoading);
+        });
+    }
+
+    /**
+     * Load the cached data from the source mono,
+     * the cached data is empty if the source mono is empty and negative caching is enabled.
+     *
+     * @param <T>           the cached mono's data type
+     * @param cacheDuration the cache duration
+     * @param sourceMono    the source mono
+     * @return the cached data, or empty if the source mono is empty and negative caching is disabled
+     */
+    private <T> Mono<CachedData<Object>> load(@NonNull Duration cacheDuration, @NonNull Mono<T> sourceMono) {
+        return sourceMono.elapsed()
+                .map(elapsedData -> CachedData.<Object>of(elapsedData.getT2(),
+                        Instant.now().plus(cacheDuration),
+                        Duration.ofMillis(elapsedData.getT1())
+                ))
+                .switchIfEmpty(Mono.defer(() -> Mono.justOrEmpty(reactiveCacheOptions.getNegativeCacheDuration())
+                        .map(negativeCacheDuration -> CachedData.empty(Instant.now().plus(negativeCacheDuration)))
+                ));
+    }
+
+    /**
+     * Refresh the cached data from the source mono in background.
+     * Only one refresh of the same cache key is triggered at a time, the current cached data is kept if the refresh fails.
+     *
+     * @param <T>           the cached mono's data type
+     * @param cacheKey      the cache key
+     * @param cacheDuration the cache duration of refreshed data
+     * @param sourceMono    the source mono
+     */
+    private <T> void revalidate(@NonNull String cacheKey,
+                                @NonNull Duration cacheDuration,
+                                @NonNull Mono<T> sourceMono) {
+        if (!revalidatingContainer.add(cacheKey)) {
+            return;
+        }
+        this.load(cacheDuration, sourceMono)
+                .doFinally(signalType -> revalidatingContainer.remove(cacheKey))
+                .subscribe(cachedData -> monoDataCache.put(cacheKey, CompletableFuture.completedFuture(cachedData)),
+                        throwable -> log.warn(
+                                "[Caffeine async reactive mono cache]Refresh cached data in background failed, " +
+                                        "keep the current cached data, CacheName:{}, CacheKey:{}",
+                                cacheName,
+                                cacheKey,
+                                throwable
+                        )
+                );
+    }
+
+    @Override
+    public Mono<Void> evictCache(@NonNull String cacheKey) {
+        return Mono.fromRunnable(() -> {
+            monoDataCache.synchronous()
+                    .invalidate(cacheKey);
+            log.debug("[Caffeine async reactive mono cache]Cleanup cached data success, CacheName:{}, CacheKey:{}",
+                    cacheName,
+                    cacheKey
+            );
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T> Mono<Map<String, T>> getAll(@NonNull Collection<String> cacheKeys) {
+        return Flux.defer(() -> Flux.fromIterable(new LinkedHashSet<>(cacheKeys)))
+                .concatMap(cacheKey -> Mono.justOrEmpty(monoDataCache.getIfPresent(cacheKey))
+                        .flatMap(CaffeineAsyncReactiveMonoCache::toMono)
+                        .flatMap(cachedData -> Mono.justOrEmpty(cachedData.getData()))
+                        .map(data -> Collections.singletonMap(cacheKey, (T) data))
+                )
+                .collect(LinkedHashMap::new, Map::putAll);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T> Mono<Map<String, T>> cacheAllIfNecessary(@NonNull Collection<String> cacheKeys,
+                                                        @NonNull Duration cacheDuration,
+                                                        @NonNull Function<Set<String>, Mono<Map<String, T>>> sourceLoader) {
+        final Set<String> distinctCacheKeys = new LinkedHashSet<>(cacheKeys);
+        if (distinctCacheKeys.isEmpty()) {
+            return Mono.just(Collections.emptyMap());
+        }
+        return Mono.defer(() -> toMono(monoDataCache.getAll(distinctCacheKeys,
+                        (missingCacheKeys, executor) -> this.loadAll(new LinkedHashSet<>(missingCacheKeys),
+                                        cacheDuration,
+                                        sourceLoader
+                                )
+                                .toFuture()
+                )))
+                .map(cachedDataMap -> {
+                    Map<String, T> result = new LinkedHashMap<>();
+                    cachedDataMap.forEach((cacheKey, cachedData) -> cachedData.getData()
+                            .ifPresent(data -> result.put(cacheKey, (T) data))
+                    );
+                    return result;
+                });
+    }
+
+    /**
+     * Load the cached data of the missing cache keys from the batch source loader,
+     * the cache key without data is cached as empty data if negative caching is enabled.
+     *
+     * @param <T>              the cached mono's data type
+     * @param missingCacheKeys the missing cache keys
+     * @param cacheDuration    the cache duration
+     * @param sourceLoader     the batch source loader
+     * @return the cached data of each cache key, the cache key without cached data is not included
+     */
+    private <T> Mono<Map<String, CachedData<Object>>> loadAll(@NonNull Set<String> missingCacheKeys,
+                                                              @NonNull Duration cacheDuration,
+                                                              @NonNull Function<Set<String>, Mono<Map<String, T>>> sourceLoader) {
+        log.debug("[Caffeine async reactive mono cache]Load the missing cached data from source, " +
+                        "CacheName:{}, MissingCacheKeys:{}",
+                cacheName,
+                missingCacheKeys
+        );
+        return sourceLoader.apply(Collections.unmodifiableSet(missingCacheKeys))
+                .defaultIfEmpty(Collections.emptyMap())
+                .map(loadedData -> {
+                    Instant expireTime = Instant.now().plus(cacheDuration);
+                    Map<String, CachedData<Object>> cachedDataMap = new LinkedHashMap<>();
+                    missingCacheKeys.forEach(cacheKey -> {
+                        T data = loadedData.get(cacheKey);
+                        if (Objects.nonNull(data)) {
+                            cachedDataMap.put(cacheKey, CachedData.of(data, expireTime));
+                            return;
+                        }
+                        reactiveCacheOptions.getNegativeCacheDuration()
+                                .ifPresent(negativeCacheDuration -> cachedDataMap.put(cacheKey,
+                                        CachedData.empty(Instant.now().plus(negativeCacheDuration))
+                                ));
+                    });
+                    return cachedDataMap;
+                });
+    }
+
+    @Override
+    public Mono<Void> evictAll(@NonNull Collection<String> cacheKeys) {
+        return Mono.fromRunnable(() -> {
+            Set<String> distinctCacheKeys = new LinkedHashSet<>(cacheKeys);
+            monoDataCache.synchronous()
+                    .invalidateAll(distinctCacheKeys);
+            log.debug("[Caffeine async reactive mono cache]Cleanup all cached data success, CacheName:{}, CacheKeys:{}",
+                    cacheName,
+                    distinctCacheKeys
+            );
+        });
+    }
+
+    /**
+     * Bridge the future to mono, cancelling the mono doesn't cancel the future which other callers may wait for.
+     *
+     * @param <V>    the value type
+     * @param future the future
+     * @return the mono of the future
+     */
+    static <V> Mono<V> toMono(@NonNull CompletableFuture<V> future) {
+        return Mono.fromFuture(future.copy());
+    }
+}
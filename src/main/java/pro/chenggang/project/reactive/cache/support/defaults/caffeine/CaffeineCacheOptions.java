@@ -0,0 +1,215 @@
+package pro.chenggang.project.reactive.cache.support.defaults.caffeine;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Scheduler;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+import pro.chenggang.project.reactive.cache.support.core.EvictionOptions;
+import pro.chenggang.project.reactive.cache.support.core.adapter.CachedData;
+
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+/**
+ * The options of the caffeine caches which hold the cached data.
+ *
+ * @author Gang Cheng
+ * @version 1.1.0
+ * @since 1.1.0
+ */
+@Getter
+@ToString
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public final class CaffeineCacheOptions {
+
+    /**
+     * Whether to record the caffeine cache statistics.
+     */
+    private final boolean recordStats;
+
+    /**
+     * Whether to load the cached data through caffeine async caches, see {@link CaffeineAsyncReactiveCache}.
+     */
+    private final boolean asyncLoading;
+
+    /**
+     * The executor of caffeine cache maintenance, caffeine's default is used if it's null.
+     */
+    private final Executor executor;
+
+    /**
+     * The scheduler which removes the expired data promptly.
+     */
+    @NonNull
+    private final Scheduler scheduler;
+
+    /**
+     * Gets the executor of caffeine cache maintenance.
+     *
+     * @return the optional executor, empty if caffeine's default is used
+     */
+    public Optional<Executor> getExecutor() {
+        return Optional.ofNullable(executor);
+    }
+
+    /**
+     * New caffeine cache of cached data, each cached data expires at its own expire time.
+     *
+     * @param <V>             the cached data type
+     * @param evictionOptions the eviction options
+     * @param weighedData     the function which converts cached data to the data passed to the weigher
+     * @return the caffeine cache
+     */
+    <V> Cache<String, CachedData<V>> newCache(@NonNull EvictionOptions evictionOptions,
+                                              @NonNull Function<V, Object> weighedData) {
+        return this.<V>newCaffeine(evictionOptions, weighedData)
+                .build();
+    }
+
+    /**
+     * New caffeine async cache of cached data, each cached data expires at its own expire time
+     * and is weighed after it's loaded.
+     *
+     * @param <V>             the cached data type
+     * @param evictionOptions the eviction options
+     * @param weighedData     the function which converts cached data to the data passed to the weigher
+     * @return the caffeine async cache
+     */
+    <V> AsyncCache<String, CachedData<V>> newAsyncCache(@NonNull EvictionOptions evictionOptions,
+                                                        @NonNull Function<V, Object> weighedData) {
+        return this.<V>newCaffeine(evictionOptions, weighedData)
+                .buildAsync();
+    }
+
+    private <V> Caffeine<String, CachedData<V>> newCaffeine(EvictionOptions evictionOptions,
+                                                            Function<V, Object> weighedData) {
+        validate(evictionOptions);
+        Caffeine<String, CachedData<V>> caffeine = Caffeine.newBuilder()
+                .expireAfter(new CachedDataExpiry<V>())
+                .scheduler(scheduler);
+        if (Objects.nonNull(executor)) {
+            caffeine.executor(executor);
+        }
+        if (recordStats) {
+            caffeine.recordStats();
+        }
+        evictionOptions.getMaximumSize()
+                .ifPresent(caffeine::maximumSize);
+        evictionOptions.getMaximumWeight()
+                .ifPresent(maximumWeight -> caffeine.maximumWeight(maximumWeight)
+                        .weigher((String cacheKey, CachedData<V> cachedData) -> cachedData.getData()
+                                .map(data -> evictionOptions.getWeigher().weigh(cacheKey, weighedData.apply(data)))
+                                .orElse(1)
+                        )
+                );
+        return caffeine;
+    }
+
+    /**
+     * Validate the eviction options are supported by caffeine, which could not bound a cache by both
+     * entry count and total weight.
+     *
+     * @param evictionOptions the eviction options
+     */
+    public static void validate(@NonNull EvictionOptions evictionOptions) {
+        if (evictionOptions.getMaximumSize().isPresent() && evictionOptions.getMaximumWeight().isPresent()) {
+            throw new IllegalArgumentException("Caffeine cache could not be bounded by both maximum size and maximum weight, " +
+                    "current eviction options is : " + evictionOptions);
+        }
+    }
+
+    /**
+     * The default caffeine cache options.
+     *
+     * @return the default caffeine cache options
+     */
+    public static CaffeineCacheOptions defaults() {
+        return newBuilder().build();
+    }
+
+    /**
+     * New caffeine cache options builder.
+     *
+     * @return the caffeine cache options builder
+     */
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    /**
+     * The caffeine cache options builder.
+     */
+    @NoArgsConstructor(access = AccessLevel.PRIVATE)
+    public static class Builder {
+
+        private boolean recordStats = false;
+        private boolean asyncLoading = false;
+        private Executor executor;
+        private Scheduler scheduler = Scheduler.systemScheduler();
+
+        /**
+         * With recording the caffeine cache statistics. Default is false
+         *
+         * @param recordStats whether to record the statistics
+         * @return the builder
+         */
+        public Builder withRecordStats(boolean recordStats) {
+            this.recordStats = recordStats;
+            return this;
+        }
+
+        /**
+         * With loading the cached data through caffeine async caches. Default is false
+         * <p>
+         * Concurrent loadings of the same cache key are coalesced by caffeine itself instead of the initialize lock,
+         * see {@link CaffeineAsyncReactiveCache}.
+         *
+         * @param asyncLoading whether to load through caffeine async caches
+         * @return the builder
+         */
+        public Builder withAsyncLoading(boolean asyncLoading) {
+            this.asyncLoading = asyncLoading;
+            return this;
+        }
+
+        /**
+         * With executor of caffeine cache maintenance. Default is caffeine's default
+         *
+         * @param executor the executor
+         * @return the builder
+         */
+        public Builder withExecutor(@NonNull Executor executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        /**
+         * With scheduler which removes the expired data promptly. Default is {@code Scheduler.systemScheduler()},
+         * {@code Scheduler.disabledScheduler()} removes the expired data during other cache operations only.
+         *
+         * @param scheduler the scheduler
+         * @return the builder
+         */
+        public Builder withScheduler(@NonNull Scheduler scheduler) {
+            this.scheduler = scheduler;
+            return this;
+        }
+
+        /**
+         * Build caffeine cache options.
+         *
+         * @return the caffeine cache options
+         */
+        public CaffeineCacheOptions build() {
+            return new CaffeineCacheOptions(recordStats, asyncLoading, executor, scheduler);
+        }
+    }
+}
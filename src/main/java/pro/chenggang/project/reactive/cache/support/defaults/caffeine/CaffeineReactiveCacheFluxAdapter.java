@@ -1,113 +1,191 @@
 package pro.chenggang.project.reactive.cache.support.defaults.caffeine;
 
 import com.github.benmanes.caffeine.cache.Cache;
-import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import lombok.NonNull;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import pro.chenggang.project.reactive.cache.support.core.EvictionOptions;
+import pro.chenggang.project.reactive.cache.support.core.adapter.CachedData;
 import pro.chenggang.project.reactive.cache.support.core.adapter.ReactiveCacheFluxAdapter;
+import pro.chenggang.project.reactive.cache.support.exception.ReactiveCacheLockLostException;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.util.function.Tuple2;
+import reactor.core.scheduler.Scheduler;
 
 import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentLinkedDeque;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
 
 /**
  * The inmemory reactive cache flux adapter by using caffeine
+ * <p>
+ * The operations complete synchronously on the subscribing thread by default,
+ * since they are plain in-memory lookups, they are subscribed on the scheduler if one is configured.
  *
  * @author Gang Cheng
  * @version 1.0.0
  * @since 1.0.0
  */
 @Slf4j
-@RequiredArgsConstructor
 public class CaffeineReactiveCacheFluxAdapter implements ReactiveCacheFluxAdapter {
 
-    private final ConcurrentHashMap<String, Cache<String, ConcurrentLinkedDeque<Object>>> fluxDataCache = new ConcurrentHashMap<>();
+    /**
+     * The cached data of the cache name, each cached data expires at its own expire time
+     */
+    private final Cache<String, CachedData<Object[]>> fluxDataCache;
+    /**
+     * The scheduler which the operations are subscribed on, null if they complete on the subscribing thread
+     */
+    private final Scheduler scheduler;
+
+    public CaffeineReactiveCacheFluxAdapter() {
+        this(CaffeineCacheOptions.defaults(), EvictionOptions.unbounded());
+    }
+
+    public CaffeineReactiveCacheFluxAdapter(@NonNull Scheduler scheduler) {
+        this(CaffeineCacheOptions.defaults(), EvictionOptions.unbounded(), scheduler);
+    }
+
+    public CaffeineReactiveCacheFluxAdapter(@NonNull CaffeineCacheOptions caffeineCacheOptions,
+                                            @NonNull EvictionOptions evictionOptions) {
+        this.fluxDataCache = caffeineCacheOptions.newCache(evictionOptions, Arrays::asList);
+        this.scheduler = null;
+    }
+
+    public CaffeineReactiveCacheFluxAdapter(@NonNull CaffeineCacheOptions caffeineCacheOptions,
+                                            @NonNull EvictionOptions evictionOptions,
+                                            @NonNull Scheduler scheduler) {
+        this.fluxDataCache = caffeineCacheOptions.newCache(evictionOptions, Arrays::asList);
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Gets the statistics of the caffeine cache, which are all zero unless recording statistics is enabled.
+     *
+     * @return the cache statistics
+     */
+    public CacheStats stats() {
+        return fluxDataCache.stats();
+    }
 
     @Override
     public Mono<Boolean> hasData(@NonNull String cacheKey) {
-        return Mono.defer(() -> Mono.fromFuture(CompletableFuture.supplyAsync(() ->
-                fluxDataCache.containsKey(cacheKey)
-                        &&
-                        fluxDataCache.get(cacheKey)
-                                .asMap()
-                                .containsKey(cacheKey)))
-        );
+        return this.execute(Mono.fromSupplier(() -> Objects.nonNull(fluxDataCache.getIfPresent(cacheKey))));
     }
 
     @SuppressWarnings("unchecked")
     @Override
     public <T> Flux<T> loadData(@NonNull String cacheKey) {
-        return Flux.defer(() -> Mono.fromFuture(CompletableFuture.supplyAsync(() ->
-                                Optional.ofNullable(fluxDataCache.get(cacheKey)))
-                        )
-                        .flatMap(Mono::justOrEmpty)
-                        .flatMapMany(cache -> Mono.justOrEmpty(cache.getIfPresent(cacheKey))
-                                .flatMapMany(cachedData -> (Flux<T>) Flux.fromIterable(cachedData))
-                        )
-        );
+        return this.execute(Mono.fromSupplier(() -> Optional.ofNullable(fluxDataCache.getIfPresent(cacheKey))
+                        .flatMap(CachedData::getData)
+                ))
+                .flatMap(Mono::justOrEmpty)
+                .flatMapMany(cachedData -> (Flux<T>) Flux.fromArray(cachedData));
     }
 
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T> Mono<CachedData<Flux<T>>> loadDataIfPresent(@NonNull String cacheKey) {
+        return this.execute(Mono.fromSupplier(() -> Optional.ofNullable(fluxDataCache.getIfPresent(cacheKey))))
+                .map(optionalData -> optionalData.map(cachedData -> cachedData.map(data -> (Flux<T>) Flux.fromArray(data)))
+                        .orElseGet(CachedData::absent)
+                );
+    }
+
+    /**
+     * The cached data is appended to a local buffer while the source flux emits,
+     * and sealed into an immutable array published as a whole when the source flux completes,
+     * so readers never observe a partially filled data and iterate a plain array.
+     */
     @Override
     public <T> Flux<T> cacheData(@NonNull String cacheKey,
                                  @NonNull Duration cacheDuration,
                                  @NonNull Flux<T> sourcePublisher) {
-        final AtomicBoolean initFlag = new AtomicBoolean(false);
-        return Flux.zip(sourcePublisher,
-                        sourcePublisher.share()
-                                .concatMap(item -> {
-                                    if (initFlag.compareAndSet(false, true)) {
-                                        return Mono.fromFuture(CompletableFuture.supplyAsync(() -> fluxDataCache.compute(
-                                                cacheKey,
-                                                (key, value) -> {
-                                                    ConcurrentLinkedDeque<Object> data = new ConcurrentLinkedDeque<>();
-                                                    data.add(item);
-                                                    if (Objects.isNull(value)) {
-                                                        Cache<String, ConcurrentLinkedDeque<Object>> cache = Caffeine.newBuilder()
-                                                                .expireAfterWrite(cacheDuration)
-                                                                .build();
-                                                        cache.put(cacheKey, data);
-                                                        return cache;
-                                                    }
-                                                    value.invalidateAll();
-                                                    Cache<String, ConcurrentLinkedDeque<Object>> cache = Caffeine.newBuilder()
-                                                            .expireAfterWrite(cacheDuration)
-                                                            .build();
-                                                    cache.put(cacheKey, data);
-                                                    return cache;
-                                                }
-                                        )));
-                                    }
-                                    return Mono.fromFuture(CompletableFuture.supplyAsync(() -> Optional.ofNullable(
-                                                    fluxDataCache.get(cacheKey))))
-                                            .flatMap(Mono::justOrEmpty)
-                                            .flatMap(asyncCache -> Mono.justOrEmpty(asyncCache.getIfPresent(cacheKey))
-                                                    .flatMap(deque -> Mono.fromFuture(CompletableFuture.supplyAsync(() -> {
-                                                        deque.add(item);
-                                                        return true;
-                                                    })))
-                                            );
-                                })
-                )
-                .map(Tuple2::getT1);
+        return this.cacheSealedData(sourcePublisher, sealedData -> {
+            CachedData<Object[]> cachedData = CachedData.of(sealedData,
+                    Instant.now().plus(cacheDuration)
+            );
+            return this.execute(Mono.fromRunnable(() -> fluxDataCache.put(cacheKey, cachedData)));
+        });
+    }
+
+    /**
+     * The operation id is stored along with the sealed data as fencing token,
+     * the sealed data is put only if it's not written by a later lock holder, which is checked in the same atomic compute.
+     */
+    @Override
+    public <T> Flux<T> cacheFencedData(@NonNull String cacheName,
+                                       @NonNull String cacheKey,
+                                       @NonNull String operationId,
+                                       @NonNull Duration cacheDuration,
+                                       @NonNull Flux<T> sourcePublisher) {
+        return this.cacheSealedData(sourcePublisher, sealedData -> {
+            CachedData<Object[]> fencedCachedData = CachedData.of(sealedData,
+                    Instant.now().plus(cacheDuration)
+            ).fencedBy(operationId);
+            return this.execute(Mono.fromSupplier(() -> fluxDataCache.asMap()
+                            .compute(cacheKey, (key, existsCachedData) -> Objects.nonNull(existsCachedData)
+                                    && existsCachedData.fencesOff(operationId) ? existsCachedData : fencedCachedData
+                            ) == fencedCachedData
+                    ))
+                    .filter(Boolean::booleanValue)
+                    .switchIfEmpty(Mono.defer(() -> {
+                        log.warn("[Caffeine reactive cache flux adapter]Cached data is written by a later lock holder, " +
+                                        "CacheName: {}, CacheKey: {}, OperationId: {}",
+                                cacheName,
+                                cacheKey,
+                                operationId
+                        );
+                        return Mono.error(new ReactiveCacheLockLostException(cacheName, cacheKey, operationId));
+                    }))
+                    .then();
+        });
     }
 
     @Override
     public Mono<Void> cleanupData(@NonNull String cacheKey) {
-        return Mono.fromFuture(CompletableFuture.runAsync(() -> {
-            Cache<String, ConcurrentLinkedDeque<Object>> cache = fluxDataCache.remove(cacheKey);
-            if (Objects.nonNull(cache)) {
-                cache.invalidateAll();
-            }
+        return this.execute(Mono.fromRunnable(() -> {
+            fluxDataCache.invalidate(cacheKey);
             log.debug("[Caffeine reactive cache flux adapter]Cleanup cached data success, CacheKey: {}", cacheKey);
         }));
     }
 
+    /**
+     * Buffer the data of the source flux, and write the sealed data when the source flux completes with data.
+     *
+     * @param <T>              the cached data type
+     * @param sourcePublisher  the source flux
+     * @param sealedDataWriter the writer of the sealed data
+     * @return the source flux which writes the sealed data before completion
+     */
+    private <T> Flux<T> cacheSealedData(@NonNull Flux<T> sourcePublisher,
+                                        @NonNull Function<Object[], Mono<Void>> sealedDataWriter) {
+        return Flux.defer(() -> {
+            // the signals of the source flux are serialized, so the buffer needn't be thread-safe
+            final List<Object> data = new ArrayList<>();
+            return sourcePublisher.doOnNext(data::add)
+                    .concatWith(Mono.defer(() -> {
+                        if (data.isEmpty()) {
+                            return Mono.empty();
+                        }
+                        return sealedDataWriter.apply(data.toArray());
+                    }).then(Mono.empty()));
+        });
+    }
+
+    /**
+     * Execute the operation on the scheduler if one is configured.
+     *
+     * @param <T>       the result type
+     * @param operation the operation
+     * @return the operation subscribed on the scheduler, or the operation itself
+     */
+    private <T> Mono<T> execute(@NonNull Mono<T> operation) {
+        return Objects.isNull(scheduler) ? operation : operation.subscribeOn(scheduler);
+    }
 }
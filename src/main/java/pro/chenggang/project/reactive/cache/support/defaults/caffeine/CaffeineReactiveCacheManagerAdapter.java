@@ -1,38 +1,159 @@
 package pro.chenggang.project.reactive.cache.support.defaults.caffeine;
 
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import lombok.NonNull;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import pro.chenggang.project.reactive.cache.support.core.EvictionOptions;
 import pro.chenggang.project.reactive.cache.support.core.ReactiveCache;
+import pro.chenggang.project.reactive.cache.support.core.ReactiveCacheOptions;
 import pro.chenggang.project.reactive.cache.support.core.adapter.ReactiveCacheManagerAdapter;
 import pro.chenggang.project.reactive.cache.support.defaults.DefaultReactiveCache;
 import pro.chenggang.project.reactive.cache.support.defaults.inmemory.InmemoryReactiveCacheLock;
+import reactor.core.scheduler.Scheduler;
 
 import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
 /**
  * The inmemory reactive cache manager adapter by using caffeine.
+ * <p>
+ * The reactive caches load through the initialize lock by default,
+ * or through caffeine async caches if async loading is enabled in {@link CaffeineCacheOptions}.
  *
  * @author Gang Cheng
- * @version 1.0.0
+ * @version 1.1.0
  * @since 1.0.0
  */
 @Slf4j
-@RequiredArgsConstructor
 public class CaffeineReactiveCacheManagerAdapter implements ReactiveCacheManagerAdapter {
 
     @NonNull
     private final Duration maxWaitingDuration;
     @NonNull
     private final InmemoryReactiveCacheLock inmemoryReactiveCacheLock;
+    /**
+     * The reactive cache options of each cache name
+     */
+    @NonNull
+    private final Map<String, ReactiveCacheOptions> cacheOptions;
+    /**
+     * The scheduler which the adapter operations are subscribed on, null if they complete on the subscribing thread
+     */
+    private final Scheduler scheduler;
+    /**
+     * The options of the caffeine caches
+     */
+    private final CaffeineCacheOptions caffeineCacheOptions;
+    /**
+     * The eviction options which bound the cached data of each reactive cache without specific eviction options,
+     * the cached mono and the cached flux of a reactive cache are bounded separately
+     */
+    private final EvictionOptions evictionOptions;
+    /**
+     * The caffeine cache statistics supplier of each cache name
+     */
+    private final Map<String, Supplier<CacheStats>> cacheStatsContainer = new ConcurrentHashMap<>();
+
+    public CaffeineReactiveCacheManagerAdapter(@NonNull Duration maxWaitingDuration,
+                                               @NonNull InmemoryReactiveCacheLock inmemoryReactiveCacheLock) {
+        this(maxWaitingDuration, inmemoryReactiveCacheLock, Collections.emptyMap());
+    }
+
+    public CaffeineReactiveCacheManagerAdapter(@NonNull Duration maxWaitingDuration,
+                                               @NonNull InmemoryReactiveCacheLock inmemoryReactiveCacheLock,
+                                               @NonNull Map<String, ReactiveCacheOptions> cacheOptions) {
+        this(maxWaitingDuration, inmemoryReactiveCacheLock, cacheOptions, null);
+    }
+
+    public CaffeineReactiveCacheManagerAdapter(@NonNull Duration maxWaitingDuration,
+                                               @NonNull InmemoryReactiveCacheLock inmemoryReactiveCacheLock,
+                                               @NonNull Map<String, ReactiveCacheOptions> cacheOptions,
+                                               Scheduler scheduler) {
+        this(maxWaitingDuration,
+                inmemoryReactiveCacheLock,
+                cacheOptions,
+                scheduler,
+                CaffeineCacheOptions.defaults(),
+                EvictionOptions.unbounded()
+        );
+    }
+
+    /**
+     * Instantiates a new caffeine reactive cache manager adapter.
+     *
+     * @param maxWaitingDuration        the max waiting duration
+     * @param inmemoryReactiveCacheLock the inmemory reactive cache lock
+     * @param cacheOptions              the reactive cache options of each cache name
+     * @param scheduler                 the scheduler which the adapter operations are subscribed on, nullable,
+     *                                  it's not used by async loading
+     * @param caffeineCacheOptions      the options of the caffeine caches
+     * @param evictionOptions           the eviction options which bound the cached mono and the cached flux
+     *                                  of each reactive cache separately
+     */
+    public CaffeineReactiveCacheManagerAdapter(@NonNull Duration maxWaitingDuration,
+                                               @NonNull InmemoryReactiveCacheLock inmemoryReactiveCacheLock,
+                                               @NonNull Map<String, ReactiveCacheOptions> cacheOptions,
+                                               Scheduler scheduler,
+                                               @NonNull CaffeineCacheOptions caffeineCacheOptions,
+                                               @NonNull EvictionOptions evictionOptions) {
+        CaffeineCacheOptions.validate(evictionOptions);
+        cacheOptions.values()
+                .forEach(reactiveCacheOptions -> reactiveCacheOptions.getEvictionOptions()
+                        .ifPresent(CaffeineCacheOptions::validate)
+                );
+        this.maxWaitingDuration = maxWaitingDuration;
+        this.inmemoryReactiveCacheLock = inmemoryReactiveCacheLock;
+        this.cacheOptions = cacheOptions;
+        this.scheduler = scheduler;
+        this.caffeineCacheOptions = caffeineCacheOptions;
+        this.evictionOptions = evictionOptions;
+    }
 
     @Override
     public ReactiveCache initializeReactiveCache(@NonNull String name) {
+        ReactiveCacheOptions reactiveCacheOptions = cacheOptions.getOrDefault(name, ReactiveCacheOptions.defaults());
+        EvictionOptions cacheEvictionOptions = reactiveCacheOptions.getEvictionOptions()
+                .orElse(evictionOptions);
+        if (caffeineCacheOptions.isAsyncLoading()) {
+            CaffeineAsyncReactiveCache caffeineAsyncReactiveCache = new CaffeineAsyncReactiveCache(name,
+                    reactiveCacheOptions,
+                    caffeineCacheOptions,
+                    cacheEvictionOptions
+            );
+            cacheStatsContainer.put(name, caffeineAsyncReactiveCache::stats);
+            return caffeineAsyncReactiveCache;
+        }
+        CaffeineReactiveCacheMonoAdapter caffeineReactiveCacheMonoAdapter = Objects.isNull(scheduler)
+                ? new CaffeineReactiveCacheMonoAdapter(caffeineCacheOptions, cacheEvictionOptions)
+                : new CaffeineReactiveCacheMonoAdapter(caffeineCacheOptions, cacheEvictionOptions, scheduler);
+        CaffeineReactiveCacheFluxAdapter caffeineReactiveCacheFluxAdapter = Objects.isNull(scheduler)
+                ? new CaffeineReactiveCacheFluxAdapter(caffeineCacheOptions, cacheEvictionOptions)
+                : new CaffeineReactiveCacheFluxAdapter(caffeineCacheOptions, cacheEvictionOptions, scheduler);
+        cacheStatsContainer.put(name, () -> caffeineReactiveCacheMonoAdapter.stats()
+                .plus(caffeineReactiveCacheFluxAdapter.stats())
+        );
         return new DefaultReactiveCache(name,
                 maxWaitingDuration,
                 inmemoryReactiveCacheLock,
-                new CaffeineReactiveCacheMonoAdapter(),
-                new CaffeineReactiveCacheFluxAdapter()
+                caffeineReactiveCacheMonoAdapter,
+                caffeineReactiveCacheFluxAdapter,
+                reactiveCacheOptions
         );
     }
+
+    /**
+     * Gets the caffeine cache statistics of the cache name, which sum the cached mono and cached flux up.
+     *
+     * @param name the cache name
+     * @return the optional cache statistics, empty if the cache is not initialized
+     */
+    public Optional<CacheStats> getCacheStats(@NonNull String name) {
+        return Optional.ofNullable(cacheStatsContainer.get(name))
+                .map(Supplier::get);
+    }
 }
@@ -1,86 +1,231 @@
 package pro.chenggang.project.reactive.cache.support.defaults.caffeine;
 
 import com.github.benmanes.caffeine.cache.Cache;
-import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import lombok.NonNull;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import pro.chenggang.project.reactive.cache.support.core.EvictionOptions;
+import pro.chenggang.project.reactive.cache.support.core.adapter.CachedData;
 import pro.chenggang.project.reactive.cache.support.core.adapter.ReactiveCacheMonoAdapter;
+import pro.chenggang.project.reactive.cache.support.exception.ReactiveCacheLockLostException;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
 
 import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Set;
 
 /**
  * The inmemory reactive cache mono adapter by using caffeine
+ * <p>
+ * The operations complete synchronously on the subscribing thread by default,
+ * since they are plain in-memory lookups, they are subscribed on the scheduler if one is configured.
  *
  * @author Gang Cheng
  * @version 1.0.0
  * @since 1.0.0
  */
 @Slf4j
-@RequiredArgsConstructor
 public class CaffeineReactiveCacheMonoAdapter implements ReactiveCacheMonoAdapter {
 
-    private final ConcurrentHashMap<String, Cache<String, Object>> monoDataCache = new ConcurrentHashMap<>();
+    /**
+     * The cached data of the cache name, each cached data expires at its own expire time
+     */
+    private final Cache<String, CachedData<Object>> monoDataCache;
+    /**
+     * The scheduler which the operations are subscribed on, null if they complete on the subscribing thread
+     */
+    private final Scheduler scheduler;
+
+    public CaffeineReactiveCacheMonoAdapter() {
+        this(CaffeineCacheOptions.defaults(), EvictionOptions.unbounded());
+    }
+
+    public CaffeineReactiveCacheMonoAdapter(@NonNull Scheduler scheduler) {
+        this(CaffeineCacheOptions.defaults(), EvictionOptions.unbounded(), scheduler);
+    }
+
+    public CaffeineReactiveCacheMonoAdapter(@NonNull CaffeineCacheOptions caffeineCacheOptions,
+                                            @NonNull EvictionOptions evictionOptions) {
+        this.monoDataCache = caffeineCacheOptions.newCache(evictionOptions, data -> data);
+        this.scheduler = null;
+    }
+
+    public CaffeineReactiveCacheMonoAdapter(@NonNull CaffeineCacheOptions caffeineCacheOptions,
+                                            @NonNull EvictionOptions evictionOptions,
+                                            @NonNull Scheduler scheduler) {
+        this.monoDataCache = caffeineCacheOptions.newCache(evictionOptions, data -> data);
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Gets the statistics of the caffeine cache, which are all zero unless recording statistics is enabled.
+     *
+     * @return the cache statistics
+     */
+    public CacheStats stats() {
+        return monoDataCache.stats();
+    }
 
     @Override
     public Mono<Boolean> hasData(@NonNull String cacheKey) {
-        return Mono.defer(() -> Mono.fromFuture(CompletableFuture.supplyAsync(() ->
-                monoDataCache.containsKey(cacheKey)
-                        &&
-                        monoDataCache.get(cacheKey)
-                                .asMap()
-                                .containsKey(cacheKey)))
-        );
+        return this.execute(Mono.fromSupplier(() -> Objects.nonNull(monoDataCache.getIfPresent(cacheKey))));
     }
 
     @SuppressWarnings("unchecked")
     @Override
     public <T> Mono<T> loadData(@NonNull String cacheKey) {
-        return Mono.defer(() -> Mono.fromFuture(CompletableFuture.supplyAsync(() ->
-                                Optional.ofNullable(monoDataCache.get(cacheKey)))
-                        )
-                        .flatMap(Mono::justOrEmpty)
-                        .flatMap(cache -> (Mono<T>) Mono.justOrEmpty(cache.getIfPresent(cacheKey)))
-        );
+        return this.execute(Mono.fromSupplier(() -> Optional.ofNullable(monoDataCache.getIfPresent(cacheKey))
+                        .flatMap(CachedData::getData)
+                ))
+                .flatMap(optionalData -> (Mono<T>) Mono.justOrEmpty(optionalData));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T> Mono<CachedData<T>> loadDataIfPresent(@NonNull String cacheKey) {
+        return this.execute(Mono.fromSupplier(() -> Optional.ofNullable(monoDataCache.getIfPresent(cacheKey))))
+                .map(optionalData -> optionalData.map(cachedData -> cachedData.map(data -> (T) data))
+                        .orElseGet(CachedData::absent)
+                );
     }
 
     @Override
     public <T> Mono<T> cacheData(@NonNull String cacheKey,
                                  @NonNull Duration cacheDuration,
                                  @NonNull Mono<T> sourcePublisher) {
-        return sourcePublisher.flatMap(nextData -> Mono.defer(() -> Mono.fromFuture(CompletableFuture.runAsync(() -> {
-                    monoDataCache.compute(cacheKey, (key, value) -> {
-                        if (Objects.isNull(value)) {
-                            Cache<String, Object> cache = Caffeine.newBuilder()
-                                    .expireAfterWrite(cacheDuration)
-                                    .build();
-                            cache.put(cacheKey, nextData);
-                            return cache;
-                        }
-                        value.invalidateAll();
-                        Cache<String, Object> cache = Caffeine.newBuilder()
-                                .expireAfterWrite(cacheDuration)
-                                .build();
-                        cache.put(cacheKey, nextData);
-                        return cache;
-                    });
-                })))
-                .thenReturn(nextData));
+        return sourcePublisher.elapsed()
+                .flatMap(elapsedData -> this.execute(Mono.fromRunnable(() -> monoDataCache.put(cacheKey,
+                                CachedData.of(elapsedData.getT2(),
+                                        Instant.now().plus(cacheDuration),
+                                        Duration.ofMillis(elapsedData.getT1())
+                                )
+                        )))
+                        .thenReturn(elapsedData.getT2()));
+    }
+
+    @Override
+    public Mono<Void> cacheEmptyData(@NonNull String cacheKey, @NonNull Duration cacheDuration) {
+        return this.execute(Mono.fromRunnable(() -> monoDataCache.put(cacheKey,
+                CachedData.empty(Instant.now().plus(cacheDuration))
+        )));
+    }
+
+    /**
+     * The operation id is stored along with the cached data as fencing token,
+     * the cached data is put only if it's not written by a later lock holder, which is checked in the same atomic compute.
+     */
+    @Override
+    public <T> Mono<T> cacheFencedData(@NonNull String cacheName,
+                                       @NonNull String cacheKey,
+                                       @NonNull String operationId,
+                                       @NonNull Duration cacheDuration,
+                                       @NonNull Mono<T> sourcePublisher) {
+        return sourcePublisher.elapsed()
+                .flatMap(elapsedData -> this.putFencedData(cacheName,
+                                cacheKey,
+                                operationId,
+                                CachedData.of(elapsedData.getT2(),
+                                        Instant.now().plus(cacheDuration),
+                                        Duration.ofMillis(elapsedData.getT1())
+                                )
+                        )
+                        .thenReturn(elapsedData.getT2()));
+    }
+
+    @Override
+    public Mono<Void> cacheFencedEmptyData(@NonNull String cacheName,
+                                           @NonNull String cacheKey,
+                                           @NonNull String operationId,
+                                           @NonNull Duration cacheDuration) {
+        return this.putFencedData(cacheName, cacheKey, operationId, CachedData.empty(Instant.now().plus(cacheDuration)));
     }
 
     @Override
     public Mono<Void> cleanupData(@NonNull String cacheKey) {
-        return Mono.defer(() -> Mono.fromFuture(CompletableFuture.runAsync(() -> {
-            Cache<String, Object> cache = monoDataCache.remove(cacheKey);
-            if (Objects.nonNull(cache)) {
-                cache.invalidateAll();
-            }
+        return this.execute(Mono.fromRunnable(() -> {
+            monoDataCache.invalidate(cacheKey);
             log.debug("[Caffeine reactive cache mono adapter]Cleanup cached data success, CacheKey: {}", cacheKey);
-        })));
+        }));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T> Mono<Map<String, CachedData<T>>> loadAllDataIfPresent(@NonNull Set<String> cacheKeys) {
+        return this.execute(Mono.fromSupplier(() -> {
+            Map<String, CachedData<Object>> presentDataMap = monoDataCache.getAllPresent(cacheKeys);
+            Map<String, CachedData<T>> cachedDataMap = new LinkedHashMap<>();
+            cacheKeys.forEach(cacheKey -> cachedDataMap.put(cacheKey, Optional.ofNullable(presentDataMap.get(cacheKey))
+                    .map(cachedData -> cachedData.map(data -> (T) data))
+                    .orElseGet(CachedData::absent)
+            ));
+            return cachedDataMap;
+        }));
+    }
+
+    @Override
+    public <T> Mono<Void> cacheAllData(@NonNull Map<String, T> data, @NonNull Duration cacheDuration) {
+        return this.execute(Mono.fromRunnable(() -> {
+            Instant expireTime = Instant.now().plus(cacheDuration);
+            Map<String, CachedData<Object>> cachedDataMap = new LinkedHashMap<>();
+            data.forEach((cacheKey, value) -> cachedDataMap.put(cacheKey, CachedData.of(value, expireTime)));
+            monoDataCache.putAll(cachedDataMap);
+        }));
+    }
+
+    @Override
+    public Mono<Void> cleanupAllData(@NonNull Set<String> cacheKeys) {
+        return this.execute(Mono.fromRunnable(() -> {
+            monoDataCache.invalidateAll(cacheKeys);
+            log.debug("[Caffeine reactive cache mono adapter]Cleanup all cached data success, CacheKeys: {}", cacheKeys);
+        }));
+    }
+
+    /**
+     * Put the cached data fenced by the operation id unless the exists cached data is written by a later lock holder.
+     *
+     * @param cacheName   the cache name
+     * @param cacheKey    the cache key
+     * @param operationId the operation id holding the initialize lock
+     * @param cachedData  the cached data
+     * @return empty if put, or error with {@link ReactiveCacheLockLostException}
+     */
+    private Mono<Void> putFencedData(@NonNull String cacheName,
+                                     @NonNull String cacheKey,
+                                     @NonNull String operationId,
+                                     @NonNull CachedData<Object> cachedData) {
+        return this.execute(Mono.fromSupplier(() -> {
+                    CachedData<Object> fencedCachedData = cachedData.fencedBy(operationId);
+                    return monoDataCache.asMap()
+                            .compute(cacheKey, (key, existsCachedData) -> Objects.nonNull(existsCachedData)
+                                    && existsCachedData.fencesOff(operationId) ? existsCachedData : fencedCachedData
+                            ) == fencedCachedData;
+                }))
+                .filter(Boolean::booleanValue)
+                .switchIfEmpty(Mono.defer(() -> {
+                    log.warn("[Caffeine reactive cache mono adapter]Cached data is written by a later lock holder, " +
+                                    "CacheName: {}, CacheKey: {}, OperationId: {}",
+                            cacheName,
+                            cacheKey,
+                            operationId
+                    );
+                    return Mono.error(new ReactiveCacheLockLostException(cacheName, cacheKey, operationId));
+                }))
+                .then();
+    }
+
+    /**
+     * Execute the operation on the scheduler if one is configured.
+     *
+     * @param <T>       the result type
+     * @param operation the operation
+     * @return the operation subscribed on the scheduler, or the operation itself
+     */
+    private <T> Mono<T> execute(@NonNull Mono<T> operation) {
+        return Objects.isNull(scheduler) ? operation : operation.subscribeOn(scheduler);
     }
 }
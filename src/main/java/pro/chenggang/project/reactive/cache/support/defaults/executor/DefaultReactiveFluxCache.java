@@ -1,26 +1,43 @@
 package pro.chenggang.project.reactive.cache.support.defaults.executor;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import lombok.NonNull;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import pro.chenggang.project.reactive.cache.support.core.ReactiveCacheLock;
+import pro.chenggang.project.reactive.cache.support.core.ReactiveCacheOptions;
+import pro.chenggang.project.reactive.cache.support.core.ReadConsistency;
+import pro.chenggang.project.reactive.cache.support.core.adapter.CachedData;
 import pro.chenggang.project.reactive.cache.support.core.adapter.ReactiveCacheFluxAdapter;
 import pro.chenggang.project.reactive.cache.support.core.executor.ReactiveFluxCache;
 import pro.chenggang.project.reactive.cache.support.exception.NoSuchCachedReactiveDataException;
+import pro.chenggang.project.reactive.cache.support.exception.ReactiveCacheLockLostException;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
 
 import java.time.Duration;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
 /**
  * The default reactive flux cache
+ * <p>
+ * Concurrent {@code cacheIfNecessary} calls with the same cache key in this JVM share one in-flight loading,
+ * only the first caller takes the initialize lock and subscribes its source flux,
+ * the others including {@code get} callers receive the elements from a bounded replay buffer as they are loaded.
+ * Stale cached data could be served while it is refreshed in background, see soft/hard cache duration.
+ * Cached data could be read before checking the initialize lock, see {@link ReadConsistency},
+ * the cache keys written by this JVM recently are always read after checking the initialize lock.
  *
  * @author Gang Cheng
  * @version 1.0.0
  * @since 1.0.0
  */
 @Slf4j
-@RequiredArgsConstructor
 public class DefaultReactiveFluxCache implements ReactiveFluxCache {
 
     /**
@@ -43,55 +60,360 @@ public class DefaultReactiveFluxCache implements ReactiveFluxCache {
      */
     @NonNull
     private final ReactiveCacheFluxAdapter reactiveCacheFluxAdapter;
+    /**
+     * The in-flight loading container, concurrent callers with the same cache key share one loading
+     * and receive the elements as they are loaded
+     */
+    private final ConcurrentHashMap<String, Flux<? extends Tuple2<Long, ?>>> inflightLoadingContainer = new ConcurrentHashMap<>();
+    /**
+     * The revalidating cache keys, only one background refresh of the same cache key is triggered at a time
+     */
+    private final Set<String> revalidatingContainer = ConcurrentHashMap.newKeySet();
+    /**
+     * The reactive cache options
+     */
+    private final ReactiveCacheOptions reactiveCacheOptions;
+    /**
+     * The recently written cache keys, optimistic readers of them still check the initialize lock.
+     * It's null if the recently written guard is disabled.
+     */
+    private final Cache<String, Boolean> recentlyWrittenContainer;
 
+    public DefaultReactiveFluxCache(@NonNull String cacheName,
+                                    @NonNull Duration maxWaitingDuration,
+                                    @NonNull ReactiveCacheLock reactiveCacheLock,
+                                    @NonNull ReactiveCacheFluxAdapter reactiveCacheFluxAdapter) {
+        this(cacheName, maxWaitingDuration, reactiveCacheLock, reactiveCacheFluxAdapter, ReactiveCacheOptions.defaults());
+    }
+
+    public DefaultReactiveFluxCache(@NonNull String cacheName,
+                                    @NonNull Duration maxWaitingDuration,
+                                    @NonNull ReactiveCacheLock reactiveCacheLock,
+                                    @NonNull ReactiveCacheFluxAdapter reactiveCacheFluxAdapter,
+                                    @NonNull ReactiveCacheOptions reactiveCacheOptions) {
+        this.cacheName = cacheName;
+        this.maxWaitingDuration = maxWaitingDuration;
+        this.reactiveCacheLock = reactiveCacheLock;
+        this.reactiveCacheFluxAdapter = reactiveCacheFluxAdapter;
+        this.reactiveCacheOptions = reactiveCacheOptions;
+        Duration recentlyWrittenGuardDuration = reactiveCacheOptions.getRecentlyWrittenGuardDuration();
+        if (ReadConsistency.OPTIMISTIC.equals(reactiveCacheOptions.getReadConsistency())
+                && !recentlyWrittenGuardDuration.isZero()) {
+            this.recentlyWrittenContainer = Caffeine.newBuilder()
+                    .expireAfterWrite(recentlyWrittenGuardDuration)
+                    .build();
+        } else {
+            this.recentlyWrittenContainer = null;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
     @Override
     public <T> Flux<T> get(@NonNull String cacheKey) {
-        return reactiveCacheLock.checkInitializeLock(cacheName, cacheKey, maxWaitingDuration)
-                .then(reactiveCacheFluxAdapter.hasData(cacheKey))
-                .filter(Boolean::booleanValue)
+        return Flux.defer(() -> {
+            Flux<Tuple2<Long, T>> inflightLoading = (Flux<Tuple2<Long, T>>) inflightLoadingContainer.get(cacheKey);
+            if (Objects.isNull(inflightLoading)) {
+                return this.getCachedData(cacheKey);
+            }
+            log.debug("[Reactive Cache](Get-Flux)Cached data is loading, attach to the in-flight loading, " +
+                            "CacheName:{}, CacheKey:{}",
+                    cacheName,
+                    cacheKey
+            );
+            return this.attachInflightLoading(cacheKey, inflightLoading, () -> this.getCachedData(cacheKey));
+        });
+    }
+
+    /**
+     * Get the cached data, return no such cached data exception if it doesn't exist.
+     *
+     * @param <T>      the cached flux's data type
+     * @param cacheKey the cache key
+     * @return the cached flux
+     */
+    private <T> Flux<T> getCachedData(@NonNull String cacheKey) {
+        return this.<T>loadCachedData(cacheKey)
+                .filter(CachedData::isPresent)
                 .switchIfEmpty(Mono.defer(() -> {
                     log.warn("[Reactive Cache](Get-Flux)Cached data didn't exist, " +
                             "return no such cached data exception instead of Flux.empty()"
                     );
                     return Mono.error(new NoSuchCachedReactiveDataException(cacheName, cacheKey));
                 }))
-                .flatMapMany(hasData -> reactiveCacheFluxAdapter.loadData(cacheKey));
+                .flatMapMany(cachedData -> cachedData.getData()
+                        .orElseGet(Flux::empty)
+                );
     }
 
+    @SuppressWarnings("unchecked")
     @Override
     public <T> Flux<T> cacheIfNecessary(@NonNull String cacheKey,
                                         @NonNull Duration cacheDuration,
                                         @NonNull Flux<T> sourceFlux) {
-        return reactiveCacheLock.checkInitializeLock(cacheName, cacheKey, maxWaitingDuration)
-                .then(reactiveCacheFluxAdapter.hasData(cacheKey))
-                .flatMapMany(hasData -> {
-                    if (hasData) {
+        return Flux.defer(() -> this.attachInflightLoading(cacheKey,
+                (Flux<Tuple2<Long, T>>) inflightLoadingContainer.computeIfAbsent(cacheKey,
+                        key -> this.loadIfNecessary(key, cacheDuration, sourceFlux)
+                                .index()
+                                .doFinally(signalType -> inflightLoadingContainer.remove(key))
+                                .replay(reactiveCacheOptions.getFluxReplayBufferSize())
+                                .refCount()
+                ),
+                () -> this.loadIfNecessary(cacheKey, cacheDuration, sourceFlux)
+        ));
+    }
+
+    /**
+     * Attach to the in-flight loading, the loaded elements are replayed from a bounded buffer.
+     * If the buffer has already dropped the first elements, cancel the attachment so the loading is not held back
+     * and fallback to read the cached data after the in-flight loading releases the initialize lock.
+     *
+     * @param <T>             the cached flux's data type
+     * @param cacheKey        the cache key
+     * @param inflightLoading the in-flight loading with element index
+     * @param fallback        the fallback if the first elements are missed
+     * @return the attached flux
+     */
+    private <T> Flux<T> attachInflightLoading(@NonNull String cacheKey,
+                                              @NonNull Flux<Tuple2<Long, T>> inflightLoading,
+                                              @NonNull Supplier<Flux<T>> fallback) {
+        return inflightLoading.switchOnFirst((firstSignal, indexedFlux) -> {
+            if (firstSignal.hasValue() && firstSignal.get().getT1() > 0) {
+                log.debug("[Reactive Cache](Flux)Replayed elements of in-flight loading are missed, " +
+                                "fallback to read the cached data, CacheName:{}, CacheKey:{}, FirstReplayedIndex:{}",
+                        cacheName,
+                        cacheKey,
+                        firstSignal.get().getT1()
+                );
+                return indexedFlux.take(0)
+                        .thenMany(Flux.defer(fallback));
+            }
+            return indexedFlux.map(Tuple2::getT2);
+        });
+    }
+
+    @Override
+    public <T> Flux<T> cacheIfNecessary(@NonNull String cacheKey,
+                                        @NonNull Duration softCacheDuration,
+                                        @NonNull Duration hardCacheDuration,
+                                        @NonNull Flux<T> sourceFlux) {
+        if (softCacheDuration.compareTo(hardCacheDuration) >= 0) {
+            throw new IllegalArgumentException("Soft cache duration should be shorter than hard cache duration, " +
+                    "current soft cache duration is : " + softCacheDuration +
+                    ", hard cache duration is : " + hardCacheDuration);
+        }
+        return reactiveCacheFluxAdapter.<T>loadDataIfPresent(cacheKey)
+                .flatMapMany(cachedData -> {
+                    if (!cachedData.isPresent()) {
+                        return this.cacheIfNecessary(cacheKey, hardCacheDuration, sourceFlux);
+                    }
+                    if (this.isStale(cachedData, softCacheDuration, hardCacheDuration)) {
+                        this.revalidate(cacheKey, softCacheDuration, hardCacheDuration, sourceFlux);
+                    }
+                    return cachedData.getData().orElseGet(Flux::empty);
+                });
+    }
+
+    /**
+     * Whether the cached data is stale, which is older than the soft cache duration.
+     * The cached data with unknown expire time is considered fresh.
+     *
+     * @param cachedData        the cached data
+     * @param softCacheDuration the soft cache duration
+     * @param hardCacheDuration the hard cache duration
+     * @return true if the cached data is stale
+     */
+    private boolean isStale(@NonNull CachedData<?> cachedData,
+                            @NonNull Duration softCacheDuration,
+                            @NonNull Duration hardCacheDuration) {
+        Duration staleDuration = hardCacheDuration.minus(softCacheDuration);
+        return cachedData.getExpireTime()
+                .map(expireTime -> Duration.between(Instant.now(), expireTime).compareTo(staleDuration) < 0)
+                .orElse(false);
+    }
+
+    /**
+     * Refresh the stale cached data from the source flux in background under the initialize lock.
+     * Only one refresh of the same cache key is triggered in this JVM at a time,
+     * the stale cached data is kept if the refresh fails.
+     *
+     * @param <T>               the cached flux's data type
+     * @param cacheKey          the cache key
+     * @param softCacheDuration the soft cache duration
+     * @param hardCacheDuration the hard cache duration
+     * @param sourceFlux        the source flux
+     */
+    private <T> void revalidate(@NonNull String cacheKey,
+                                @NonNull Duration softCacheDuration,
+                                @NonNull Duration hardCacheDuration,
+                                @NonNull Flux<T> sourceFlux) {
+        if (!revalidatingContainer.add(cacheKey)) {
+            return;
+        }
+        Mono.usingWhen(
+                        this.reactiveCacheLock.tryLockInitializeLock(cacheName,
+                                cacheKey,
+                                maxWaitingDuration
+                        ),
+                        currentOperationId -> reactiveCacheFluxAdapter.<T>loadDataIfPresent(cacheKey)
+                                .filter(lockedCachedData -> !lockedCachedData.isPresent()
+                                        || this.isStale(lockedCachedData, softCacheDuration, hardCacheDuration)
+                                )
+                                .flatMap(lockedCachedData -> this.markRecentlyWritten(cacheKey,
+                                        reactiveCacheFluxAdapter.cacheFencedData(cacheName,
+                                                cacheKey,
+                                                currentOperationId,
+                                                hardCacheDuration,
+                                                sourceFlux
+                                        )
+                                ).then())
+                        ,
+                        currentOperationId -> this.reactiveCacheLock.releaseInitializeLock(cacheName, cacheKey, currentOperationId)
+                                .doOnNext(operationId -> log.debug(
+                                        "[Reactive Cache](Flux)Release revalidation lock, CacheName:{}, CacheKey:{}, " +
+                                                "ReleasedOperationId:{}, CurrentOperationId:{}",
+                                        cacheName,
+                                        cacheKey,
+                                        operationId,
+                                        currentOperationId
+                                ))
+                                .then()
+                        ,
+                        (currentOperationId, throwable) -> this.reactiveCacheLock.releaseInitializeLock(cacheName,
+                                        cacheKey,
+                                        currentOperationId
+                                )
+                                .doOnNext(operationId -> log.debug(
+                                        "[Reactive Cache](Flux)Release revalidation lock on Error, " +
+                                                "CacheName:{}, CacheKey:{}, " +
+                                                "ReleasedOperationId:{}, CurrentOperationId:{}",
+                                        cacheName,
+                                        cacheKey,
+                                        operationId,
+                                        currentOperationId
+                                ))
+                                .then()
+                        ,
+                        (currentOperationId) -> this.reactiveCacheLock.releaseInitializeLock(cacheName, cacheKey, currentOperationId)
+                                .doOnNext(operationId -> log.debug(
+                                        "[Reactive Cache](Flux)Release revalidation lock, " +
+                                                "CacheName:{}, CacheKey:{}, " +
+                                                "ReleasedOperationId:{}, CurrentOperationId:{}",
+                                        cacheName,
+                                        cacheKey,
+                                        operationId,
+                                        currentOperationId
+                                ))
+                                .then()
+                )
+                .doFinally(signalType -> revalidatingContainer.remove(cacheKey))
+                .subscribe(null, throwable -> log.warn(
+                        "[Reactive Cache](Flux)Revalidate stale cached data failed, keep the stale cached data, " +
+                                "CacheName:{}, CacheKey:{}",
+                        cacheName,
+                        cacheKey,
+                        throwable
+                ));
+    }
+
+    /**
+     * Load cached data according to the read consistency.
+     * The initialize lock is checked before reading in {@code ReadConsistency.STRICT},
+     * and only on a miss or a recently written cache key in {@code ReadConsistency.OPTIMISTIC}.
+     *
+     * @param <T>      the cached flux's data type
+     * @param cacheKey the cache key
+     * @return the cached data
+     */
+    private <T> Mono<CachedData<Flux<T>>> loadCachedData(@NonNull String cacheKey) {
+        Mono<CachedData<Flux<T>>> checkedLoading = reactiveCacheLock.checkInitializeLock(cacheName,
+                        cacheKey,
+                        maxWaitingDuration
+                )
+                .then(reactiveCacheFluxAdapter.<T>loadDataIfPresent(cacheKey));
+        if (ReadConsistency.STRICT.equals(reactiveCacheOptions.getReadConsistency())) {
+            return checkedLoading;
+        }
+        return Mono.defer(() -> {
+            if (Objects.nonNull(recentlyWrittenContainer)
+                    && Objects.nonNull(recentlyWrittenContainer.getIfPresent(cacheKey))) {
+                log.debug("[Reactive Cache](Flux)Cache key is written recently, check initialize lock before reading, " +
+                                "CacheName:{}, CacheKey:{}",
+                        cacheName,
+                        cacheKey
+                );
+                return checkedLoading;
+            }
+            return reactiveCacheFluxAdapter.<T>loadDataIfPresent(cacheKey)
+                    .flatMap(cachedData -> cachedData.isPresent() ? Mono.just(cachedData) : checkedLoading);
+        });
+    }
+
+    /**
+     * Mark the cache key as recently written while the cached flux is written and for the guard duration after that.
+     *
+     * @param <T>        the cached flux's data type
+     * @param cacheKey   the cache key
+     * @param cachedFlux the flux which writes the cached data
+     * @return the marked flux
+     */
+    private <T> Flux<T> markRecentlyWritten(@NonNull String cacheKey, @NonNull Flux<T> cachedFlux) {
+        if (Objects.isNull(recentlyWrittenContainer)) {
+            return cachedFlux;
+        }
+        return cachedFlux.doOnSubscribe(subscription -> recentlyWrittenContainer.put(cacheKey, Boolean.TRUE))
+                .doFinally(signalType -> recentlyWrittenContainer.put(cacheKey, Boolean.TRUE));
+    }
+
+    /**
+     * Load cached data or initialize it from the source flux under the initialize lock.
+     *
+     * @param <T>           the cached flux's data type
+     * @param cacheKey      the cache key
+     * @param cacheDuration the cache duration
+     * @param sourceFlux    the source flux
+     * @return the cached flux
+     */
+    private <T> Flux<T> loadIfNecessary(@NonNull String cacheKey,
+                                        @NonNull Duration cacheDuration,
+                                        @NonNull Flux<T> sourceFlux) {
+        return this.<T>loadCachedData(cacheKey)
+                .flatMapMany(cachedData -> {
+                    if (cachedData.isPresent()) {
                         log.debug(
                                 "[Reactive Cache](Flux)Cache data exist, return the cached data, " +
                                         "CacheName:{}, CacheKey:{}",
                                 cacheName,
                                 cacheKey
                         );
-                        return reactiveCacheFluxAdapter.loadData(cacheKey);
+                        return cachedData.getData()
+                                .orElseGet(Flux::empty);
                     }
                     return Flux.usingWhen(
                             this.reactiveCacheLock.tryLockInitializeLock(cacheName,
                                     cacheKey,
                                     maxWaitingDuration
                             ),
-                            currentOperationId -> reactiveCacheFluxAdapter.<T>loadData(cacheKey)
-                                    .switchIfEmpty(Flux.defer(() -> reactiveCacheFluxAdapter.<T>cacheData(
-                                                            cacheKey,
-                                                            cacheDuration,
-                                                            sourceFlux
-                                                    )
-                                                    .onErrorResume(throwable -> reactiveCacheFluxAdapter.cleanupData(
-                                                                    cacheKey)
-                                                            .then(Mono.error(throwable))
-                                                    ))
-                                    )
+                            currentOperationId -> reactiveCacheFluxAdapter.<T>loadDataIfPresent(cacheKey)
+                                    .flatMapMany(lockedCachedData -> {
+                                        if (lockedCachedData.isPresent()) {
+                                            return lockedCachedData.getData()
+                                                    .orElseGet(Flux::empty);
+                                        }
+                                        return this.markRecentlyWritten(cacheKey,
+                                                        reactiveCacheFluxAdapter.cacheFencedData(cacheName,
+                                                                cacheKey,
+                                                                currentOperationId,
+                                                                cacheDuration,
+                                                                sourceFlux
+                                                        )
+                                                )
+                                                .onErrorResume(throwable -> !(throwable instanceof ReactiveCacheLockLostException),
+                                                        throwable -> reactiveCacheFluxAdapter.cleanupData(cacheKey)
+                                                                .then(Mono.error(throwable))
+                                                );
+                                    })
                             ,
-                            currentOperationId -> this.reactiveCacheLock.releaseInitializeLock(cacheName, cacheKey)
+                            currentOperationId -> this.reactiveCacheLock.releaseInitializeLock(cacheName, cacheKey, currentOperationId)
                                     .doOnNext(operationId -> log.debug(
                                             "[Reactive Cache](Flux)Release initialization lock, CacheName:{}, CacheKey:{}, " +
                                                     "ReleasedOperationId:{}, CurrentOperationId:{}",
@@ -103,7 +425,8 @@ public class DefaultReactiveFluxCache implements ReactiveFluxCache {
                                     .then()
                             ,
                             (currentOperationId, throwable) -> this.reactiveCacheLock.releaseInitializeLock(cacheName,
-                                            cacheKey
+                                            cacheKey,
+                                            currentOperationId
                                     )
                                     .doOnNext(operationId -> log.debug(
                                             "[Reactive Cache](Flux)Release initialization lock on Error, " +
@@ -116,7 +439,7 @@ public class DefaultReactiveFluxCache implements ReactiveFluxCache {
                                     ))
                                     .then()
                             ,
-                            (currentOperationId) -> this.reactiveCacheLock.releaseInitializeLock(cacheName, cacheKey)
+                            (currentOperationId) -> this.reactiveCacheLock.releaseInitializeLock(cacheName, cacheKey, currentOperationId)
                                     .doOnNext(operationId -> log.debug(
                                             "[Reactive Cache](Flux)Release initialization lock, " +
                                                     "CacheName:{}, CacheKey:{}, " +
@@ -142,7 +465,7 @@ public class DefaultReactiveFluxCache implements ReactiveFluxCache {
                         .filter(Boolean::booleanValue)
                         .flatMap(hasData -> reactiveCacheFluxAdapter.cleanupData(cacheKey))
                 ,
-                currentOperationId -> this.reactiveCacheLock.releaseInitializeLock(cacheName, cacheKey)
+                currentOperationId -> this.reactiveCacheLock.releaseInitializeLock(cacheName, cacheKey, currentOperationId)
                         .doOnNext(operationId -> log.debug(
                                 "[Reactive Cache](Cleanup)Release initialization lock, CacheName:{}, CacheKey:{}, " +
                                         "ReleasedOperationId:{}, CurrentOperationId:{}",
@@ -153,7 +476,7 @@ public class DefaultReactiveFluxCache implements ReactiveFluxCache {
                         ))
                         .then()
                 ,
-                (currentOperationId, throwable) -> this.reactiveCacheLock.releaseInitializeLock(cacheName, cacheKey)
+                (currentOperationId, throwable) -> this.reactiveCacheLock.releaseInitializeLock(cacheName, cacheKey, currentOperationId)
                         .doOnNext(operationId -> log.debug(
                                 "[Reactive Cache](Cleanup)Release initialization lock on Error, " +
                                         "CacheName:{}, CacheKey:{}, " +
@@ -165,7 +488,7 @@ public class DefaultReactiveFluxCache implements ReactiveFluxCache {
                         ))
                         .then()
                 ,
-                (currentOperationId) -> this.reactiveCacheLock.releaseInitializeLock(cacheName, cacheKey)
+                (currentOperationId) -> this.reactiveCacheLock.releaseInitializeLock(cacheName, cacheKey, currentOperationId)
                         .doOnNext(operationId -> log.debug(
                                 "[Reactive Cache](Cleanup)Release initialization lock, " +
                                         "CacheName:{}, CacheKey:{}, " +
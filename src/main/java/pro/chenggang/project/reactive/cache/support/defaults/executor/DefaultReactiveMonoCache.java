@@ -4,15 +4,42 @@ import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import pro.chenggang.project.reactive.cache.support.core.ReactiveCacheLock;
+import pro.chenggang.project.reactive.cache.support.core.ReactiveCacheOptions;
+import pro.chenggang.project.reactive.cache.support.core.ReadConsistency;
+import pro.chenggang.project.reactive.cache.support.core.adapter.CachedData;
 import pro.chenggang.project.reactive.cache.support.core.adapter.ReactiveCacheMonoAdapter;
+import pro.chenggang.project.reactive.cache.support.core.adapter.ReactiveCacheMonoLockingAdapter;
+import pro.chenggang.project.reactive.cache.support.core.executor.EarlyRefreshPolicy;
 import pro.chenggang.project.reactive.cache.support.core.executor.ReactiveMonoCache;
 import pro.chenggang.project.reactive.cache.support.exception.NoSuchCachedReactiveDataException;
+import pro.chenggang.project.reactive.cache.support.exception.ReactiveCacheLockLostException;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
 
 /**
  * The default reactive mono cache
+ * <p>
+ * Concurrent {@code cacheIfNecessary} calls with the same cache key in this JVM share one in-flight loading,
+ * only the first caller takes the initialize lock and subscribes its source mono.
+ * Stale cached data could be served while it is refreshed in background, see soft/hard cache duration.
+ * Hot cached data could be refreshed in background before it expires, see {@link EarlyRefreshPolicy}.
+ * Empty mono could be cached with a separate negative cache duration, see {@link ReactiveCacheOptions}.
+ * Cached data could be read before checking the initialize lock, see {@link ReadConsistency}.
+ * The miss path is fused into two operations if the mono adapter is a {@link ReactiveCacheMonoLockingAdapter}.
  *
  * @author Gang Cheng
  * @version 1.0.0
@@ -42,94 +69,532 @@ public class DefaultReactiveMonoCache implements ReactiveMonoCache {
      */
     @NonNull
     private final ReactiveCacheMonoAdapter reactiveCacheMonoAdapter;
+    /**
+     * The reactive cache options
+     */
+    @NonNull
+    private final ReactiveCacheOptions reactiveCacheOptions;
+    /**
+     * The in-flight loading container, concurrent callers with the same cache key share one loading
+     */
+    private final ConcurrentHashMap<String, Mono<?>> inflightLoadingContainer = new ConcurrentHashMap<>();
+    /**
+     * The revalidating cache keys, only one background refresh of the same cache key is triggered at a time
+     */
+    private final Set<String> revalidatingContainer = ConcurrentHashMap.newKeySet();
+
+    public DefaultReactiveMonoCache(@NonNull String cacheName,
+                                    @NonNull Duration maxWaitingDuration,
+                                    @NonNull ReactiveCacheLock reactiveCacheLock,
+                                    @NonNull ReactiveCacheMonoAdapter reactiveCacheMonoAdapter) {
+        this(cacheName, maxWaitingDuration, reactiveCacheLock, reactiveCacheMonoAdapter, ReactiveCacheOptions.defaults());
+    }
 
     @Override
     public <T> Mono<T> get(@NonNull String cacheKey) {
-        return reactiveCacheLock.checkInitializeLock(cacheName, cacheKey, maxWaitingDuration)
-                .then(reactiveCacheMonoAdapter.hasData(cacheKey))
-                .filter(Boolean::booleanValue)
+        return this.<T>loadCachedData(cacheKey)
+                .filter(CachedData::isPresent)
                 .switchIfEmpty(Mono.defer(() -> {
                     log.warn("[Reactive Cache](Get-Mono)Cached data didn't exist, " +
                             "return no such cached data exception instead of Mono.empty()"
                     );
                     return Mono.error(new NoSuchCachedReactiveDataException(cacheName, cacheKey));
                 }))
-                .flatMap(hasData -> reactiveCacheMonoAdapter.loadData(cacheKey));
+                .flatMap(cachedData -> Mono.justOrEmpty(cachedData.getData()));
     }
 
+    @SuppressWarnings("unchecked")
     @Override
     public <T> Mono<T> cacheIfNecessary(@NonNull String cacheKey,
                                         @NonNull Duration cacheDuration,
                                         @NonNull Mono<T> sourceMono) {
-        return reactiveCacheLock.checkInitializeLock(cacheName, cacheKey, maxWaitingDuration)
-                .then(reactiveCacheMonoAdapter.hasData(cacheKey))
-                .flatMap(hasData -> {
-                    if (hasData) {
-                        log.debug(
-                                "[Reactive Cache](Mono)Cached data exist, return the cached data, " +
-                                        "CacheName:{}, CacheKey:{}",
-                                cacheName,
-                                cacheKey
+        return Mono.defer(() -> (Mono<T>) inflightLoadingContainer.computeIfAbsent(cacheKey,
+                key -> this.loadIfNecessary(key, cacheDuration, sourceMono)
+                        .doFinally(signalType -> inflightLoadingContainer.remove(key))
+                        .flux()
+                        .replay(1)
+                        .refCount()
+                        .singleOrEmpty()
+        ));
+    }
+
+    @Override
+    public <T> Mono<T> cacheIfNecessary(@NonNull String cacheKey,
+                                        @NonNull Duration softCacheDuration,
+                                        @NonNull Duration hardCacheDuration,
+                                        @NonNull Mono<T> sourceMono) {
+        if (softCacheDuration.compareTo(hardCacheDuration) >= 0) {
+            throw new IllegalArgumentException("Soft cache duration should be shorter than hard cache duration, " +
+                    "current soft cache duration is : " + softCacheDuration +
+                    ", hard cache duration is : " + hardCacheDuration);
+        }
+        return reactiveCacheMonoAdapter.<T>loadDataIfPresent(cacheKey)
+                .flatMap(cachedData -> {
+                    if (!cachedData.isPresent()) {
+                        return this.cacheIfNecessary(cacheKey, hardCacheDuration, sourceMono);
+                    }
+                    if (this.isStale(cachedData, softCacheDuration, hardCacheDuration)) {
+                        this.revalidate(cacheKey,
+                                hardCacheDuration,
+                                sourceMono,
+                                lockedCachedData -> this.isStale(lockedCachedData, softCacheDuration, hardCacheDuration)
                         );
-                        return reactiveCacheMonoAdapter.loadData(cacheKey);
                     }
-                    return Mono.usingWhen(
-                            this.reactiveCacheLock.tryLockInitializeLock(cacheName,
+                    return Mono.justOrEmpty(cachedData.getData());
+                });
+    }
+
+    /**
+     * Whether the cached data is stale, which is older than the soft cache duration.
+     * The cached data with unknown expire time is considered fresh.
+     *
+     * @param cachedData        the cached data
+     * @param softCacheDuration the soft cache duration
+     * @param hardCacheDuration the hard cache duration
+     * @return true if the cached data is stale
+     */
+    private boolean isStale(@NonNull CachedData<?> cachedData,
+                            @NonNull Duration softCacheDuration,
+                            @NonNull Duration hardCacheDuration) {
+        Duration staleDuration = hardCacheDuration.minus(softCacheDuration);
+        return cachedData.getExpireTime()
+                .map(expireTime -> Duration.between(Instant.now(), expireTime).compareTo(staleDuration) < 0)
+                .orElse(false);
+    }
+
+    /**
+     * Whether the cached data loaded under the initialize lock is not refreshed since the cached data was hit.
+     * A refresh moves the expire time later by more than the load duration.
+     *
+     * @param lockedCachedData the cached data loaded under the initialize lock
+     * @param hitCachedData    the cached data when it was hit
+     * @return true if the cached data is not refreshed
+     */
+    private boolean isNotRefreshed(@NonNull CachedData<?> lockedCachedData, @NonNull CachedData<?> hitCachedData) {
+        Optional<Instant> optionalLockedExpireTime = lockedCachedData.getExpireTime();
+        Optional<Instant> optionalHitExpireTime = hitCachedData.getExpireTime();
+        if (!optionalLockedExpireTime.isPresent() || !optionalHitExpireTime.isPresent()) {
+            return false;
+        }
+        Duration loadDuration = hitCachedData.getLoadDuration()
+                .orElse(Duration.ZERO);
+        return !optionalLockedExpireTime.get()
+                .isAfter(optionalHitExpireTime.get().plus(loadDuration));
+    }
+
+    /**
+     * Refresh the cached data from the source mono in background under the initialize lock.
+     * Only one refresh of the same cache key is triggered in this JVM at a time,
+     * the current cached data is kept if the refresh fails.
+     *
+     * @param <T>             the cached mono's data type
+     * @param cacheKey        the cache key
+     * @param cacheDuration   the cache duration of refreshed data
+     * @param sourceMono      the source mono
+     * @param refreshRequired whether the cached data loaded under the initialize lock still requires refresh
+     */
+    private <T> void revalidate(@NonNull String cacheKey,
+                                @NonNull Duration cacheDuration,
+                                @NonNull Mono<T> sourceMono,
+                                @NonNull Predicate<CachedData<T>> refreshRequired) {
+        if (!revalidatingContainer.add(cacheKey)) {
+            return;
+        }
+        Mono.usingWhen(
+                        this.reactiveCacheLock.tryLockInitializeLock(cacheName,
+                                cacheKey,
+                                maxWaitingDuration
+                        ),
+                        currentOperationId -> reactiveCacheMonoAdapter.<T>loadDataIfPresent(cacheKey)
+                                .filter(lockedCachedData -> !lockedCachedData.isPresent()
+                                        || refreshRequired.test(lockedCachedData)
+                                )
+                                .flatMap(lockedCachedData -> this.cacheDataOrEmpty(cacheKey,
+                                        currentOperationId,
+                                        cacheDuration,
+                                        sourceMono
+                                ))
+                        ,
+                        currentOperationId -> this.reactiveCacheLock.releaseInitializeLock(cacheName, cacheKey, currentOperationId)
+                                .doOnNext(operationId -> log.debug(
+                                        "[Reactive Cache](Mono)Release revalidation lock, CacheName:{}, CacheKey:{}, " +
+                                                "ReleasedOperationId:{}, CurrentOperationId:{}",
+                                        cacheName,
+                                        cacheKey,
+                                        operationId,
+                                        currentOperationId
+                                ))
+                                .then()
+                        ,
+                        (currentOperationId, throwable) -> this.reactiveCacheLock.releaseInitializeLock(cacheName,
+                                        cacheKey,
+                                        currentOperationId
+                                )
+                                .doOnNext(operationId -> log.debug(
+                                        "[Reactive Cache](Mono)Release revalidation lock on Error, " +
+                                                "CacheName:{}, CacheKey:{}, " +
+                                                "ReleasedOperationId:{}, CurrentOperationId:{}",
+                                        cacheName,
+                                        cacheKey,
+                                        operationId,
+                                        currentOperationId
+                                ))
+                                .then()
+                        ,
+                        (currentOperationId) -> this.reactiveCacheLock.releaseInitializeLock(cacheName, cacheKey, currentOperationId)
+                                .doOnNext(operationId -> log.debug(
+                                        "[Reactive Cache](Mono)Release revalidation lock, " +
+                                                "CacheName:{}, CacheKey:{}, " +
+                                                "ReleasedOperationId:{}, CurrentOperationId:{}",
+                                        cacheName,
+                                        cacheKey,
+                                        operationId,
+                                        currentOperationId
+                                ))
+                                .then()
+                )
+                .doFinally(signalType -> revalidatingContainer.remove(cacheKey))
+                .subscribe(null, throwable -> log.warn(
+                        "[Reactive Cache](Mono)Refresh cached data in background failed, keep the current cached data, " +
+                                "CacheName:{}, CacheKey:{}",
+                        cacheName,
+                        cacheKey,
+                        throwable
+                ));
+    }
+
+    /**
+     * Cache data from the source mono under the initialize lock,
+     * and cache empty data if the source mono is empty and negative caching is enabled.
+     * The writes are fenced by the operation id, so the data is not written if a later lock holder takes over.
+     *
+     * @param <T>           the cached mono's data type
+     * @param cacheKey      the cache key
+     * @param operationId   the operation id holding the initialize lock
+     * @param cacheDuration the cache duration
+     * @param sourceMono    the source mono
+     * @return the cached mono
+     */
+    private <T> Mono<T> cacheDataOrEmpty(@NonNull String cacheKey,
+                                         @NonNull String operationId,
+                                         @NonNull Duration cacheDuration,
+                                         @NonNull Mono<T> sourceMono) {
+        return reactiveCacheMonoAdapter.cacheFencedData(cacheName, cacheKey, operationId, cacheDuration, sourceMono)
+                .switchIfEmpty(Mono.defer(() -> Mono.justOrEmpty(reactiveCacheOptions.getNegativeCacheDuration())
+                        .flatMap(negativeCacheDuration -> reactiveCacheMonoAdapter.cacheFencedEmptyData(cacheName,
+                                        cacheKey,
+                                        operationId,
+                                        negativeCacheDuration
+                                )
+                                .doOnSuccess(ignore -> log.debug(
+                                        "[Reactive Cache](Mono)Source mono is empty, cache the empty data, " +
+                                                "CacheName:{}, CacheKey:{}, NegativeCacheDuration:{}",
+                                        cacheName,
+                                        cacheKey,
+                                        negativeCacheDuration
+                                ))
+                        )
+                        .then(Mono.empty())
+                ));
+    }
+
+    /**
+     * Load cached data according to the read consistency.
+     * The initialize lock is checked before reading in {@code ReadConsistency.STRICT},
+     * and only on a miss in {@code ReadConsistency.OPTIMISTIC}.
+     *
+     * @param <T>      the cached mono's data type
+     * @param cacheKey the cache key
+     * @return the cached data
+     */
+    private <T> Mono<CachedData<T>> loadCachedData(@NonNull String cacheKey) {
+        Mono<CachedData<T>> checkedLoading = reactiveCacheLock.checkInitializeLock(cacheName,
+                        cacheKey,
+                        maxWaitingDuration
+                )
+                .then(reactiveCacheMonoAdapter.<T>loadDataIfPresent(cacheKey));
+        if (ReadConsistency.STRICT.equals(reactiveCacheOptions.getReadConsistency())) {
+            return checkedLoading;
+        }
+        return reactiveCacheMonoAdapter.<T>loadDataIfPresent(cacheKey)
+                .flatMap(cachedData -> cachedData.isPresent() ? Mono.just(cachedData) : checkedLoading);
+    }
+
+    /**
+     * Load cached data or initialize it from the source mono under the initialize lock.
+     *
+     * @param <T>           the cached mono's data type
+     * @param cacheKey      the cache key
+     * @param cacheDuration the cache duration
+     * @param sourceMono    the source mono
+     * @return the cached mono
+     */
+    private <T> Mono<T> loadIfNecessary(@NonNull String cacheKey,
+                                        @NonNull Duration cacheDuration,
+                                        @NonNull Mono<T> sourceMono) {
+        if (reactiveCacheMonoAdapter instanceof ReactiveCacheMonoLockingAdapter) {
+            return this.loadOrLockIfNecessary((ReactiveCacheMonoLockingAdapter) reactiveCacheMonoAdapter,
+                    cacheKey,
+                    cacheDuration,
+                    sourceMono
+            );
+        }
+        return this.loadOrInitialize(cacheKey, cacheDuration, sourceMono);
+    }
+
+    /**
+     * Load cached data, or initialize it from the source mono under the initialize lock if it's absent.
+     *
+     * @param <T>           the cached mono's data type
+     * @param cacheKey      the cache key
+     * @param cacheDuration the cache duration
+     * @param sourceMono    the source mono
+     * @return the cached mono
+     */
+    private <T> Mono<T> loadOrInitialize(@NonNull String cacheKey,
+                                         @NonNull Duration cacheDuration,
+                                         @NonNull Mono<T> sourceMono) {
+        return this.<T>loadCachedData(cacheKey)
+                .flatMap(cachedData -> {
+                    if (cachedData.isPresent()) {
+                        return this.returnCachedData(cacheKey, cacheDuration, sourceMono, cachedData);
+                    }
+                    return this.initialize(cacheKey, cacheDuration, sourceMono);
+                });
+    }
+
+    /**
+     * Load cached data or acquire the initialize lock in one operation of the locking adapter,
+     * then initialize the cached data and release the initialize lock in one operation.
+     * Falls back to {@link #loadOrInitialize(String, Duration, Mono)} if the initialize lock is held by another operation.
+     *
+     * @param <T>                             the cached mono's data type
+     * @param reactiveCacheMonoLockingAdapter the reactive mono locking adapter
+     * @param cacheKey                        the cache key
+     * @param cacheDuration                   the cache duration
+     * @param sourceMono                      the source mono
+     * @return the cached mono
+     */
+    private <T> Mono<T> loadOrLockIfNecessary(@NonNull ReactiveCacheMonoLockingAdapter reactiveCacheMonoLockingAdapter,
+                                              @NonNull String cacheKey,
+                                              @NonNull Duration cacheDuration,
+                                              @NonNull Mono<T> sourceMono) {
+        return reactiveCacheMonoLockingAdapter.<T>loadDataOrTryLock(cacheName,
+                        cacheKey,
+                        reactiveCacheOptions.getReadConsistency()
+                )
+                .flatMap(cachedDataOrLock -> {
+                    CachedData<T> cachedData = cachedDataOrLock.getCachedData();
+                    if (cachedData.isPresent()) {
+                        return this.returnCachedData(cacheKey, cacheDuration, sourceMono, cachedData);
+                    }
+                    return cachedDataOrLock.getOperationId()
+                            .map(operationId -> this.initializeAndReleaseLock(reactiveCacheMonoLockingAdapter,
                                     cacheKey,
-                                    maxWaitingDuration
-                            ),
-                            currentOperationId -> reactiveCacheMonoAdapter.<T>loadData(cacheKey)
-                                    .switchIfEmpty(Mono.defer(() -> reactiveCacheMonoAdapter.<T>cacheData(
-                                                            cacheKey,
-                                                            cacheDuration,
-                                                            sourceMono
-                                                    )
-                                                    .onErrorResume(throwable -> reactiveCacheMonoAdapter.cleanupData(
-                                                                    cacheKey)
-                                                            .then(Mono.error(throwable))
-                                                    )
-                                    ))
-                            ,
-                            currentOperationId -> this.reactiveCacheLock.releaseInitializeLock(cacheName, cacheKey)
-                                    .doOnNext(operationId -> log.debug(
-                                            "[Reactive Cache](Mono)Release initialization lock, CacheName:{}, CacheKey:{}, " +
-                                                    "ReleasedOperationId:{}, CurrentOperationId:{}",
-                                            cacheName,
-                                            cacheKey,
-                                            operationId,
-                                            currentOperationId
-                                    ))
-                                    .then()
-                            ,
-                            (currentOperationId, throwable) -> this.reactiveCacheLock.releaseInitializeLock(cacheName,
-                                            cacheKey
-                                    )
-                                    .doOnNext(operationId -> log.debug(
-                                            "[Reactive Cache](Mono)Release initialization lock on Error, " +
-                                                    "CacheName:{}, CacheKey:{}, " +
-                                                    "ReleasedOperationId:{}, CurrentOperationId:{}",
-                                            cacheName,
-                                            cacheKey,
-                                            operationId,
-                                            currentOperationId
-                                    ))
-                                    .then()
-                            ,
-                            (currentOperationId) -> this.reactiveCacheLock.releaseInitializeLock(cacheName, cacheKey)
-                                    .doOnNext(operationId -> log.debug(
-                                            "[Reactive Cache](Mono)Release initialization lock, " +
-                                                    "CacheName:{}, CacheKey:{}, " +
-                                                    "ReleasedOperationId:{}, CurrentOperationId:{}",
-                                            cacheName,
-                                            cacheKey,
-                                            operationId,
-                                            currentOperationId
-                                    ))
-                                    .then()
-                    );
+                                    operationId,
+                                    cacheDuration,
+                                    sourceMono
+                            ))
+                            .orElseGet(() -> this.loadOrInitialize(cacheKey, cacheDuration, sourceMono));
                 });
     }
 
+    /**
+     * Return the present cached data, and refresh it in background if it's about to expire.
+     *
+     * @param <T>           the cached mono's data type
+     * @param cacheKey      the cache key
+     * @param cacheDuration the cache duration
+     * @param sourceMono    the source mono
+     * @param cachedData    the present cached data
+     * @return the cached mono
+     */
+    private <T> Mono<T> returnCachedData(@NonNull String cacheKey,
+                                         @NonNull Duration cacheDuration,
+                                         @NonNull Mono<T> sourceMono,
+                                         @NonNull CachedData<T> cachedData) {
+        log.debug(
+                "[Reactive Cache](Mono)Cached data exist, return the cached data, " +
+                        "CacheName:{}, CacheKey:{}",
+                cacheName,
+                cacheKey
+        );
+        if (reactiveCacheOptions.getEarlyRefreshPolicy().shouldRefreshEarly(cachedData)) {
+            log.debug(
+                    "[Reactive Cache](Mono)Cached data is about to expire, refresh it early, " +
+                            "CacheName:{}, CacheKey:{}",
+                    cacheName,
+                    cacheKey
+            );
+            this.revalidate(cacheKey,
+                    cacheDuration,
+                    sourceMono,
+                    lockedCachedData -> this.isNotRefreshed(lockedCachedData, cachedData)
+            );
+        }
+        return Mono.justOrEmpty(cachedData.getData());
+    }
+
+    /**
+     * Initialize the cached data from the source mono under the initialize lock.
+     *
+     * @param <T>           the cached mono's data type
+     * @param cacheKey      the cache key
+     * @param cacheDuration the cache duration
+     * @param sourceMono    the source mono
+     * @return the cached mono
+     */
+    private <T> Mono<T> initialize(@NonNull String cacheKey,
+                                   @NonNull Duration cacheDuration,
+                                   @NonNull Mono<T> sourceMono) {
+        return Mono.usingWhen(
+                this.reactiveCacheLock.tryLockInitializeLock(cacheName,
+                        cacheKey,
+                        maxWaitingDuration
+                ),
+                currentOperationId -> reactiveCacheMonoAdapter.<T>loadDataIfPresent(cacheKey)
+                        .flatMap(lockedCachedData -> {
+                            if (lockedCachedData.isPresent()) {
+                                return Mono.justOrEmpty(lockedCachedData.getData());
+                            }
+                            return this.cacheDataOrEmpty(cacheKey,
+                                            currentOperationId,
+                                            cacheDuration,
+                                            sourceMono
+                                    )
+                                    .onErrorResume(throwable -> !(throwable instanceof ReactiveCacheLockLostException),
+                                            throwable -> reactiveCacheMonoAdapter.cleanupData(cacheKey)
+                                                    .then(Mono.error(throwable))
+                                    );
+                        })
+                ,
+                currentOperationId -> this.reactiveCacheLock.releaseInitializeLock(cacheName, cacheKey, currentOperationId)
+                        .doOnNext(operationId -> log.debug(
+                                "[Reactive Cache](Mono)Release initialization lock, CacheName:{}, CacheKey:{}, " +
+                                        "ReleasedOperationId:{}, CurrentOperationId:{}",
+                                cacheName,
+                                cacheKey,
+                                operationId,
+                                currentOperationId
+                        ))
+                        .then()
+                ,
+                (currentOperationId, throwable) -> this.reactiveCacheLock.releaseInitializeLock(cacheName,
+                                cacheKey,
+                                currentOperationId
+                        )
+                        .doOnNext(operationId -> log.debug(
+                                "[Reactive Cache](Mono)Release initialization lock on Error, " +
+                                        "CacheName:{}, CacheKey:{}, " +
+                                        "ReleasedOperationId:{}, CurrentOperationId:{}",
+                                cacheName,
+                                cacheKey,
+                                operationId,
+                                currentOperationId
+                        ))
+                        .then()
+                ,
+                (currentOperationId) -> this.reactiveCacheLock.releaseInitializeLock(cacheName, cacheKey, currentOperationId)
+                        .doOnNext(operationId -> log.debug(
+                                "[Reactive Cache](Mono)Release initialization lock, " +
+                                        "CacheName:{}, CacheKey:{}, " +
+                                        "ReleasedOperationId:{}, CurrentOperationId:{}",
+                                cacheName,
+                                cacheKey,
+                                operationId,
+                                currentOperationId
+                        ))
+                        .then()
+        );
+    }
+
+    /**
+     * Initialize the cached data from the source mono with the initialize lock acquired by the locking adapter.
+     * The cached data is written and the lock is released in one operation,
+     * the lock is released alone if the source mono is empty without negative caching, failed or cancelled.
+     *
+     * @param <T>                             the cached mono's data type
+     * @param reactiveCacheMonoLockingAdapter the reactive mono locking adapter
+     * @param cacheKey                        the cache key
+     * @param operationId                     the operation id holding the initialize lock
+     * @param cacheDuration                   the cache duration
+     * @param sourceMono                      the source mono
+     * @return the cached mono
+     */
+    private <T> Mono<T> initializeAndReleaseLock(@NonNull ReactiveCacheMonoLockingAdapter reactiveCacheMonoLockingAdapter,
+                                                 @NonNull String cacheKey,
+                                                 @NonNull String operationId,
+                                                 @NonNull Duration cacheDuration,
+                                                 @NonNull Mono<T> sourceMono) {
+        return Mono.usingWhen(
+                Mono.just(operationId),
+                currentOperationId -> reactiveCacheMonoLockingAdapter.cacheDataAndReleaseLock(cacheName,
+                                cacheKey,
+                                currentOperationId,
+                                cacheDuration,
+                                sourceMono
+                        )
+                        .switchIfEmpty(Mono.defer(() -> reactiveCacheOptions.getNegativeCacheDuration()
+                                .map(negativeCacheDuration -> reactiveCacheMonoLockingAdapter.cacheEmptyDataAndReleaseLock(cacheName,
+                                                cacheKey,
+                                                currentOperationId,
+                                                negativeCacheDuration
+                                        )
+                                        .doOnSuccess(ignore -> log.debug(
+                                                "[Reactive Cache](Mono)Source mono is empty, cache the empty data, " +
+                                                        "CacheName:{}, CacheKey:{}, NegativeCacheDuration:{}",
+                                                cacheName,
+                                                cacheKey,
+                                                negativeCacheDuration
+                                        ))
+                                )
+                                .orElseGet(() -> this.reactiveCacheLock.releaseInitializeLock(cacheName,
+                                                cacheKey,
+                                                currentOperationId
+                                        )
+                                        .then()
+                                )
+                                .then(Mono.empty())
+                        ))
+                        .doOnSuccess(ignore -> log.debug(
+                                "[Reactive Cache](Mono)Initialization completed and the lock is released, " +
+                                        "CacheName:{}, CacheKey:{}, CurrentOperationId:{}",
+                                cacheName,
+                                cacheKey,
+                                currentOperationId
+                        ))
+                ,
+                currentOperationId -> Mono.empty()
+                ,
+                (currentOperationId, throwable) -> this.reactiveCacheLock.releaseInitializeLock(cacheName,
+                                cacheKey,
+                                currentOperationId
+                        )
+                        .doOnNext(releasedOperationId -> log.debug(
+                                "[Reactive Cache](Mono)Release initialization lock on Error, " +
+                                        "CacheName:{}, CacheKey:{}, " +
+                                        "ReleasedOperationId:{}, CurrentOperationId:{}",
+                                cacheName,
+                                cacheKey,
+                                releasedOperationId,
+                                currentOperationId
+                        ))
+                        .then()
+                ,
+                (currentOperationId) -> this.reactiveCacheLock.releaseInitializeLock(cacheName, cacheKey, currentOperationId)
+                        .doOnNext(releasedOperationId -> log.debug(
+                                "[Reactive Cache](Mono)Release initialization lock, " +
+                                        "CacheName:{}, CacheKey:{}, " +
+                                        "ReleasedOperationId:{}, CurrentOperationId:{}",
+                                cacheName,
+                                cacheKey,
+                                releasedOperationId,
+                                currentOperationId
+                        ))
+                        .then()
+        );
+    }
+
     @Override
     public Mono<Void> evictCache(@NonNull String cacheKey) {
         return Mono.usingWhen(
@@ -141,7 +606,7 @@ public class DefaultReactiveMonoCache implements ReactiveMonoCache {
                         .filter(Boolean::booleanValue)
                         .flatMap(hasData -> reactiveCacheMonoAdapter.cleanupData(cacheKey))
                 ,
-                currentOperationId -> this.reactiveCacheLock.releaseInitializeLock(cacheName, cacheKey)
+                currentOperationId -> this.reactiveCacheLock.releaseInitializeLock(cacheName, cacheKey, currentOperationId)
                         .doOnNext(operationId -> log.debug(
                                 "[Reactive Cache](Cleanup)Release initialization lock, CacheName:{}, CacheKey:{}, " +
                                         "ReleasedOperationId:{}, CurrentOperationId:{}",
@@ -152,7 +617,7 @@ public class DefaultReactiveMonoCache implements ReactiveMonoCache {
                         ))
                         .then()
                 ,
-                (currentOperationId, throwable) -> this.reactiveCacheLock.releaseInitializeLock(cacheName, cacheKey)
+                (currentOperationId, throwable) -> this.reactiveCacheLock.releaseInitializeLock(cacheName, cacheKey, currentOperationId)
                         .doOnNext(operationId -> log.debug(
                                 "[Reactive Cache](Cleanup)Release initialization lock on Error, " +
                                         "CacheName:{}, CacheKey:{}, " +
@@ -164,7 +629,7 @@ public class DefaultReactiveMonoCache implements ReactiveMonoCache {
                         ))
                         .then()
                 ,
-                (currentOperationId) -> this.reactiveCacheLock.releaseInitializeLock(cacheName, cacheKey)
+                (currentOperationId) -> this.reactiveCacheLock.releaseInitializeLock(cacheName, cacheKey, currentOperationId)
                         .doOnNext(operationId -> log.debug(
                                 "[Reactive Cache](Cleanup)Release initialization lock, " +
                                         "CacheName:{}, CacheKey:{}, " +
@@ -177,4 +642,87 @@ public class DefaultReactiveMonoCache implements ReactiveMonoCache {
                         .then()
         );
     }
+
+    @Override
+    public <T> Mono<Map<String, T>> getAll(@NonNull Collection<String> cacheKeys) {
+        return Mono.defer(() -> reactiveCacheMonoAdapter.<T>loadAllDataIfPresent(new LinkedHashSet<>(cacheKeys)))
+                .map(cachedDataMap -> {
+                    Map<String, T> result = new LinkedHashMap<>();
+                    cachedDataMap.forEach((cacheKey, cachedData) -> cachedData.getData()
+                            .ifPresent(data -> result.put(cacheKey, data))
+                    );
+                    return result;
+                });
+    }
+
+    @Override
+    public <T> Mono<Map<String, T>> cacheAllIfNecessary(@NonNull Collection<String> cacheKeys,
+                                                        @NonNull Duration cacheDuration,
+                                                        @NonNull Function<Set<String>, Mono<Map<String, T>>> sourceLoader) {
+        final Set<String> distinctCacheKeys = new LinkedHashSet<>(cacheKeys);
+        if (distinctCacheKeys.isEmpty()) {
+            return Mono.just(Collections.emptyMap());
+        }
+        return Mono.defer(() -> reactiveCacheMonoAdapter.<T>loadAllDataIfPresent(distinctCacheKeys))
+                .flatMap(cachedDataMap -> {
+                    Map<String, T> result = new LinkedHashMap<>();
+                    Set<String> missingCacheKeys = new LinkedHashSet<>();
+                    distinctCacheKeys.forEach(cacheKey -> {
+                        CachedData<T> cachedData = cachedDataMap.getOrDefault(cacheKey, CachedData.absent());
+                        if (cachedData.isPresent()) {
+                            cachedData.getData().ifPresent(data -> result.put(cacheKey, data));
+                            return;
+                        }
+                        missingCacheKeys.add(cacheKey);
+                    });
+                    if (missingCacheKeys.isEmpty()) {
+                        log.debug("[Reactive Cache](Mono)All cached data exist, return the cached data, " +
+                                        "CacheName:{}, CacheKeys:{}",
+                                cacheName,
+                                distinctCacheKeys
+                        );
+                        return Mono.just(result);
+                    }
+                    log.debug("[Reactive Cache](Mono)Load the missing cached data from source, " +
+                                    "CacheName:{}, MissingCacheKeys:{}",
+                            cacheName,
+                            missingCacheKeys
+                    );
+                    return sourceLoader.apply(Collections.unmodifiableSet(missingCacheKeys))
+                            .defaultIfEmpty(Collections.emptyMap())
+                            .flatMap(loadedData -> {
+                                Map<String, T> missingData = new LinkedHashMap<>();
+                                missingCacheKeys.forEach(cacheKey -> {
+                                    T data = loadedData.get(cacheKey);
+                                    if (Objects.nonNull(data)) {
+                                        missingData.put(cacheKey, data);
+                                    }
+                                });
+                                Set<String> emptyCacheKeys = new LinkedHashSet<>(missingCacheKeys);
+                                emptyCacheKeys.removeAll(missingData.keySet());
+                                Mono<Void> cacheEmptyData = Mono.justOrEmpty(reactiveCacheOptions.getNegativeCacheDuration())
+                                        .filter(negativeCacheDuration -> !emptyCacheKeys.isEmpty())
+                                        .flatMap(negativeCacheDuration -> Flux.fromIterable(emptyCacheKeys)
+                                                .flatMap(cacheKey -> reactiveCacheMonoAdapter.cacheEmptyData(cacheKey,
+                                                        negativeCacheDuration
+                                                ))
+                                                .then()
+                                        );
+                                if (missingData.isEmpty()) {
+                                    return cacheEmptyData.thenReturn(result);
+                                }
+                                return reactiveCacheMonoAdapter.cacheAllData(missingData, cacheDuration)
+                                        .then(cacheEmptyData)
+                                        .then(Mono.fromSupplier(() -> {
+                                            result.putAll(missingData);
+                                            return result;
+                                        }));
+                            });
+                });
+    }
+
+    @Override
+    public Mono<Void> evictAll(@NonNull Collection<String> cacheKeys) {
+        return Mono.defer(() -> reactiveCacheMonoAdapter.cleanupAllData(new LinkedHashSet<>(cacheKeys)));
+    }
 }
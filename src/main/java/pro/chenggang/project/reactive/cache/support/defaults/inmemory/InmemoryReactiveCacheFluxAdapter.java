@@ -1,78 +1,204 @@
 package pro.chenggang.project.reactive.cache.support.defaults.inmemory;
 
 import lombok.NonNull;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import pro.chenggang.project.reactive.cache.support.core.EvictionOptions;
+import pro.chenggang.project.reactive.cache.support.core.adapter.CachedData;
 import pro.chenggang.project.reactive.cache.support.core.adapter.ReactiveCacheFluxAdapter;
+import pro.chenggang.project.reactive.cache.support.exception.ReactiveCacheLockLostException;
 import pro.chenggang.project.reactive.cache.support.toolkit.AutoExpiredDataCache;
+import pro.chenggang.project.reactive.cache.support.toolkit.TimingWheel;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.util.function.Tuple2;
+import reactor.core.scheduler.Scheduler;
 
 import java.time.Duration;
-import java.util.Optional;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ConcurrentLinkedDeque;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
 
 /**
  * The inmemory reactive cache flux adapter
+ * <p>
+ * The operations complete synchronously on the subscribing thread by default,
+ * since they are plain in-memory lookups, they are subscribed on the scheduler if one is configured.
  *
  * @author Gang Cheng
  * @version 1.0.0
  * @since 1.0.0
  */
 @Slf4j
-@RequiredArgsConstructor
 public class InmemoryReactiveCacheFluxAdapter implements ReactiveCacheFluxAdapter {
 
-    private final AutoExpiredDataCache<ConcurrentLinkedDeque<Object>> fluxDataCache = AutoExpiredDataCache.newInstance();
+    private final AutoExpiredDataCache<CachedData<Object[]>> fluxDataCache;
+    /**
+     * The scheduler which the operations are subscribed on, null if they complete on the subscribing thread
+     */
+    private final Scheduler scheduler;
+
+    /**
+     * Instantiates a new inmemory reactive cache flux adapter which expires data by {@link TimingWheel#shared()}.
+     */
+    public InmemoryReactiveCacheFluxAdapter() {
+        this.fluxDataCache = AutoExpiredDataCache.newInstance();
+        this.scheduler = null;
+    }
+
+    /**
+     * Instantiates a new inmemory reactive cache flux adapter which expires data by {@link TimingWheel#shared()}.
+     *
+     * @param scheduler the scheduler which the operations are subscribed on
+     */
+    public InmemoryReactiveCacheFluxAdapter(@NonNull Scheduler scheduler) {
+        this.fluxDataCache = AutoExpiredDataCache.newInstance();
+        this.scheduler = scheduler;
+    }
+
+    public InmemoryReactiveCacheFluxAdapter(@NonNull TimingWheel expirationTimingWheel,
+                                            @NonNull EvictionOptions evictionOptions) {
+        this.fluxDataCache = newDataCache(expirationTimingWheel, evictionOptions);
+        this.scheduler = null;
+    }
+
+    public InmemoryReactiveCacheFluxAdapter(@NonNull TimingWheel expirationTimingWheel,
+                                            @NonNull EvictionOptions evictionOptions,
+                                            @NonNull Scheduler scheduler) {
+        this.fluxDataCache = newDataCache(expirationTimingWheel, evictionOptions);
+        this.scheduler = scheduler;
+    }
 
     @Override
     public Mono<Boolean> hasData(@NonNull String cacheKey) {
-        return Mono.defer(() -> Mono.fromFuture(CompletableFuture.supplyAsync(() -> fluxDataCache.hasData(cacheKey))));
+        return this.execute(Mono.fromSupplier(() -> fluxDataCache.hasData(cacheKey)));
     }
 
     @SuppressWarnings("unchecked")
     @Override
     public <T> Flux<T> loadData(@NonNull String cacheKey) {
-        return Mono.defer(() -> Mono.fromFuture(CompletableFuture.supplyAsync(() -> fluxDataCache.getData(cacheKey))))
-                .flatMap(Mono::justOrEmpty)
-                .flatMapMany(cachedData -> (Flux<T>) Flux.fromIterable(cachedData));
+        return this.execute(Mono.fromSupplier(() -> fluxDataCache.getData(cacheKey)))
+                .flatMap(optionalData -> Mono.justOrEmpty(optionalData.flatMap(CachedData::getData)))
+                .flatMapMany(cachedData -> (Flux<T>) Flux.fromArray(cachedData));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T> Mono<CachedData<Flux<T>>> loadDataIfPresent(@NonNull String cacheKey) {
+        return this.execute(Mono.fromSupplier(() -> fluxDataCache.getData(cacheKey)))
+                .map(optionalData -> optionalData.map(cachedData -> cachedData.map(data -> (Flux<T>) Flux.fromArray(data)))
+                        .orElseGet(CachedData::absent)
+                );
     }
 
+    /**
+     * The cached data is appended to a local buffer while the source flux emits,
+     * and sealed into an immutable array published as a whole when the source flux completes,
+     * so readers never observe a partially filled data and iterate a plain array.
+     */
     @Override
     public <T> Flux<T> cacheData(@NonNull String cacheKey,
                                  @NonNull Duration cacheDuration,
                                  @NonNull Flux<T> sourcePublisher) {
-        final AtomicBoolean initFlag = new AtomicBoolean(false);
-        return Flux.zip(sourcePublisher,
-                        sourcePublisher.share()
-                                .concatMap(value -> {
-                                    if (initFlag.compareAndSet(false, true)) {
-                                        return Mono.fromFuture(CompletableFuture.supplyAsync(() -> {
-                                            ConcurrentLinkedDeque<Object> data = new ConcurrentLinkedDeque<>();
-                                            data.add(value);
-                                            fluxDataCache.putData(cacheKey, data, cacheDuration);
-                                            return true;
-                                        }));
-                                    }
-                                    return Mono.fromFuture(CompletableFuture.supplyAsync(() -> {
-                                        Optional<ConcurrentLinkedDeque<Object>> optionalDeque = fluxDataCache.getData(cacheKey);
-                                        optionalDeque.ifPresent(deque -> deque.add(value));
-                                        return true;
-                                    }));
-                                })
-                )
-                .map(Tuple2::getT1);
+        return this.cacheSealedData(sourcePublisher,
+                sealedData -> this.execute(Mono.fromRunnable(() -> fluxDataCache.putData(cacheKey,
+                        CachedData.of(sealedData, Instant.now().plus(cacheDuration)),
+                        cacheDuration
+                )))
+        );
+    }
+
+    /**
+     * The operation id is stored along with the sealed data as fencing token,
+     * the sealed data is put only if it's not written by a later lock holder, which is checked in the same atomic put.
+     */
+    @Override
+    public <T> Flux<T> cacheFencedData(@NonNull String cacheName,
+                                       @NonNull String cacheKey,
+                                       @NonNull String operationId,
+                                       @NonNull Duration cacheDuration,
+                                       @NonNull Flux<T> sourcePublisher) {
+        return this.cacheSealedData(sourcePublisher,
+                sealedData -> this.execute(Mono.fromSupplier(() -> fluxDataCache.putDataIf(cacheKey,
+                                CachedData.of(sealedData, Instant.now().plus(cacheDuration)).fencedBy(operationId),
+                                cacheDuration,
+                                existsCachedData -> !existsCachedData.fencesOff(operationId)
+                        )))
+                        .filter(Boolean::booleanValue)
+                        .switchIfEmpty(Mono.defer(() -> {
+                            log.warn("[Inmemory reactive cache flux adapter]Cached data is written by a later lock holder, " +
+                                            "CacheName: {}, CacheKey: {}, OperationId: {}",
+                                    cacheName,
+                                    cacheKey,
+                                    operationId
+                            );
+                            return Mono.error(new ReactiveCacheLockLostException(cacheName, cacheKey, operationId));
+                        }))
+                        .then()
+        );
     }
 
     @Override
     public Mono<Void> cleanupData(@NonNull String cacheKey) {
-        return Mono.fromFuture(CompletableFuture.runAsync(() -> {
+        return this.execute(Mono.fromRunnable(() -> {
             fluxDataCache.removeData(cacheKey);
             log.debug("[Inmemory reactive cache flux adapter]Cleanup cached data success, CacheKey: {}", cacheKey);
         }));
     }
 
+    /**
+     * Buffer the data of the source flux, and write the sealed data when the source flux completes with data.
+     *
+     * @param <T>              the cached data type
+     * @param sourcePublisher  the source flux
+     * @param sealedDataWriter the writer of the sealed data
+     * @return the source flux which writes the sealed data before completion
+     */
+    private <T> Flux<T> cacheSealedData(@NonNull Flux<T> sourcePublisher,
+                                        @NonNull Function<Object[], Mono<Void>> sealedDataWriter) {
+        return Flux.defer(() -> {
+            // the signals of the source flux are serialized, so the buffer needn't be thread-safe
+            final List<Object> data = new ArrayList<>();
+            return sourcePublisher.doOnNext(data::add)
+                    .concatWith(Mono.defer(() -> {
+                        if (data.isEmpty()) {
+                            return Mono.empty();
+                        }
+                        return sealedDataWriter.apply(data.toArray());
+                    }).then(Mono.empty()));
+        });
+    }
+
+    /**
+     * New data cache bounded by the eviction options.
+     *
+     * @param expirationTimingWheel the expiration timing wheel
+     * @param evictionOptions       the eviction options
+     * @return the data cache
+     */
+    private static AutoExpiredDataCache<CachedData<Object[]>> newDataCache(TimingWheel expirationTimingWheel,
+                                                                           EvictionOptions evictionOptions) {
+        if (!evictionOptions.isBounded()) {
+            return AutoExpiredDataCache.newInstance(expirationTimingWheel);
+        }
+        return AutoExpiredDataCache.newInstance(expirationTimingWheel,
+                evictionOptions.getMaximumSize().orElse(AutoExpiredDataCache.UNBOUNDED),
+                evictionOptions.getMaximumWeight().orElse(AutoExpiredDataCache.UNBOUNDED),
+                (cacheKey, cachedData) -> cachedData.getData()
+                        .map(data -> evictionOptions.getWeigher().weigh(cacheKey, Arrays.asList(data)))
+                        .orElse(1)
+        );
+    }
+
+    /**
+     * Execute the operation on the scheduler if one is configured.
+     *
+     * @param <T>       the result type
+     * @param operation the operation
+     * @return the operation subscribed on the scheduler, or the operation itself
+     */
+    private <T> Mono<T> execute(@NonNull Mono<T> operation) {
+        return Objects.isNull(scheduler) ? operation : operation.subscribeOn(scheduler);
+    }
 }
@@ -4,19 +4,37 @@ import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 import pro.chenggang.project.reactive.cache.support.core.ReactiveCacheLock;
 import pro.chenggang.project.reactive.cache.support.exception.ReactiveCacheLoadExhaustedException;
+import reactor.core.Disposable;
 import reactor.core.publisher.Mono;
-import reactor.retry.Backoff;
-import reactor.retry.Repeat;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
 
 import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
-import java.util.UUID;
-import java.util.concurrent.CompletableFuture;
+import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
 
 /**
  * The inmemory reactive cache initialize lock
+ * <p>
+ * Waiters are notified instead of polling: releasing the lock hands it over to the next queued operation,
+ * or wakes up all the waiters of {@code checkInitializeLock} if there is no queued operation.
+ * <p>
+ * The lock state of a key is reclaimed as soon as no operation is queued, so idle keys cost nothing.
+ * The lock is a lease: if the holder never releases it, e.g. its subscription is dropped without releasing,
+ * the lock expires after the lease duration and is handed over to the next queued operation.
  *
  * @author Gang Cheng
  * @version 1.0.0
@@ -25,40 +43,75 @@ import java.util.concurrent.ConcurrentLinkedDeque;
 @Slf4j
 public class InmemoryReactiveCacheLock implements ReactiveCacheLock {
 
-    private final ConcurrentHashMap<String, ConcurrentLinkedDeque<String>> lockContainer = new ConcurrentHashMap<>();
+    /**
+     * The default lease duration of the lock, which is far longer than any normal loading
+     */
+    public static final Duration DEFAULT_LEASE_DURATION = Duration.ofMinutes(1);
+
+    /**
+     * The lock state of each locked key, it only exists while any operation is queued
+     * and is only accessed inside the compute of the container
+     */
+    private final ConcurrentHashMap<String, InitializeLockState> lockContainer = new ConcurrentHashMap<>();
+
+    /**
+     * The operation id generator, operation ids are unique in this lock
+     */
+    private final AtomicLong operationIdGenerator = new AtomicLong();
+
+    /**
+     * The lease duration of the lock
+     */
+    private final Duration leaseDuration;
+
+    public InmemoryReactiveCacheLock() {
+        this(DEFAULT_LEASE_DURATION);
+    }
+
+    public InmemoryReactiveCacheLock(@NonNull Duration leaseDuration) {
+        if (leaseDuration.isNegative() || leaseDuration.isZero()) {
+            throw new IllegalArgumentException("Lease duration should be positive, current value is : " + leaseDuration);
+        }
+        this.leaseDuration = leaseDuration;
+    }
 
     @Override
     public Mono<Void> checkInitializeLock(@NonNull String cacheName,
                                           @NonNull String cacheKey,
                                           @NonNull Duration maxWaitingDuration) {
         final String decoratedCacheInitializeLockKey = decorateCacheInitializeLockKey(cacheName, cacheKey);
-        return Mono.defer(() -> Mono.fromFuture(CompletableFuture.supplyAsync(() -> lockContainer.get(
-                        decoratedCacheInitializeLockKey)))
-                )
-                .map(ConcurrentLinkedDeque::size)
-                .defaultIfEmpty(0)
-                .filter(lockedSize -> lockedSize == 0)
-                .repeatWhenEmpty(Repeat.onlyIf(repeatContext -> true)
-                        .timeout(maxWaitingDuration)
-                        .backoff(Backoff.fixed(Duration.ofMillis(300)))
-                )
-                .switchIfEmpty(Mono.defer(() -> {
-                    log.error(
-                            "[Inmemory reactive cache initialize lock](Check whether any cache initialization running): " +
-                                    "Initialization is running and reach the max waiting duration:{}, CacheName:{},CacheKey:{}",
-                            maxWaitingDuration,
-                            cacheName,
-                            cacheKey
-                    );
-                    return Mono.error(new ReactiveCacheLoadExhaustedException(cacheName, cacheKey));
-                }))
-                .doOnNext(lockNotExist -> log.debug(
+        return Mono.defer(() -> {
+                    final Sinks.Empty<Void> releaseWaiter = Sinks.empty();
+                    final AtomicBoolean locked = new AtomicBoolean(false);
+                    lockContainer.computeIfPresent(decoratedCacheInitializeLockKey, (key, lockState) -> {
+                        locked.set(true);
+                        lockState.addReleaseWaiter(releaseWaiter);
+                        return lockState;
+                    });
+                    if (!locked.get()) {
+                        return Mono.<Void>empty();
+                    }
+                    return releaseWaiter.asMono()
+                            .publishOn(Schedulers.parallel())
+                            .timeout(maxWaitingDuration, Mono.defer(() -> {
+                                this.removeReleaseWaiter(decoratedCacheInitializeLockKey, releaseWaiter);
+                                log.error(
+                                        "[Inmemory reactive cache initialize lock](Check whether any cache initialization running): " +
+                                                "Initialization is running and reach the max waiting duration:{}, CacheName:{},CacheKey:{}",
+                                        maxWaitingDuration,
+                                        cacheName,
+                                        cacheKey
+                                );
+                                return Mono.error(new ReactiveCacheLoadExhaustedException(cacheName, cacheKey));
+                            }))
+                            .doOnCancel(() -> this.removeReleaseWaiter(decoratedCacheInitializeLockKey, releaseWaiter));
+                })
+                .doOnSuccess(lockNotExist -> log.debug(
                         "[Inmemory reactive cache initialize lock](Check whether any cache initialization running): " +
                                 "None of initialization is running, CacheName:{},CacheKey:{}",
                         cacheName,
                         cacheKey
-                ))
-                .then();
+                ));
     }
 
     @Override
@@ -66,59 +119,66 @@ public class InmemoryReactiveCacheLock implements ReactiveCacheLock {
                                               @NonNull String cacheKey,
                                               @NonNull Duration maxWaitingDuration) {
         final String cacheInitializeLockKey = decorateCacheInitializeLockKey(cacheName, cacheKey);
-        final String currentOperationId = UUID.randomUUID()
-                .toString();
-        return Mono.fromFuture(CompletableFuture.supplyAsync(() -> lockContainer.computeIfAbsent(cacheInitializeLockKey,
-                        key -> new ConcurrentLinkedDeque<>()
-                )))
-                .map(deque -> deque.add(currentOperationId))
-                .flatMap(__ -> Mono.defer(() -> Mono.just(lockContainer.get(cacheInitializeLockKey))
-                                        .map(ConcurrentLinkedDeque::peekFirst)
-                                )
-                                .filter(value -> Objects.equals(value, currentOperationId))
-                                .repeatWhenEmpty(Repeat.onlyIf(repeatContext -> true)
-                                        .timeout(maxWaitingDuration)
-                                        .backoff(Backoff.fixed(Duration.ofMillis(300)))
-                                )
-                                .switchIfEmpty(Mono.defer(() -> {
-                                    log.error(
-                                            "[Inmemory reactive cache initialize lock](Check whether any cache initialization running): " +
-                                                    "Current operation is not the head of lock queue and reach the max waiting duration: {}, " +
-                                                    "CacheName: {},CacheKey: {}, CurrentOperationId: {}",
-                                            maxWaitingDuration,
-                                            cacheName,
-                                            cacheKey,
-                                            currentOperationId
-                                    );
-                                    return Mono.just(lockContainer.get(cacheInitializeLockKey))
-                                            .flatMap(deque -> Mono.fromFuture(CompletableFuture.runAsync(() ->
-                                                                    deque.removeIf(value -> Objects.equals(value,
-                                                                                    currentOperationId
-                                                                            )
-                                                                    ))
-                                                            )
-                                                            .then(Mono.error(new ReactiveCacheLoadExhaustedException(cacheName,
-                                                                    cacheKey
-                                                            )))
-                                            );
-                                }))
-                )
-                .doOnNext(operationId -> log.debug(
-                        "[Inmemory reactive cache initialize lock](Lock initialization success): " +
-                                "CacheName: {},CacheKey: {},LockedOperationId: {},CurrentOperationId: {}",
-                        cacheName,
-                        cacheKey,
-                        operationId,
-                        currentOperationId
-                ))
-                .thenReturn(currentOperationId);
+        return Mono.defer(() -> {
+            final String currentOperationId = String.valueOf(operationIdGenerator.incrementAndGet());
+            final Sinks.One<String> acquireWaiter = Sinks.one();
+            final AtomicBoolean lockedImmediately = new AtomicBoolean(false);
+            lockContainer.compute(cacheInitializeLockKey, (key, existingLockState) -> {
+                InitializeLockState lockState = Objects.isNull(existingLockState)
+                        ? new InitializeLockState()
+                        : existingLockState;
+                lockState.operationIds.addLast(currentOperationId);
+                if (lockState.operationIds.size() == 1) {
+                    lockedImmediately.set(true);
+                    this.startLease(key, lockState, currentOperationId);
+                } else {
+                    lockState.addAcquireWaiter(currentOperationId, acquireWaiter);
+                }
+                return lockState;
+            });
+            if (lockedImmediately.get()) {
+                return Mono.just(currentOperationId);
+            }
+            final AtomicBoolean delivered = new AtomicBoolean(false);
+            return acquireWaiter.asMono()
+                    .publishOn(Schedulers.parallel())
+                    .timeout(maxWaitingDuration, Mono.defer(() -> {
+                        log.error(
+                                "[Inmemory reactive cache initialize lock](Check whether any cache initialization running): " +
+                                        "Current operation is not the head of lock queue and reach the max waiting duration: {}, " +
+                                        "CacheName: {},CacheKey: {}, CurrentOperationId: {}",
+                                maxWaitingDuration,
+                                cacheName,
+                                cacheKey,
+                                currentOperationId
+                        );
+                        this.removeOperation(cacheInitializeLockKey,
+                                operationIds -> operationIds.remove(currentOperationId) ? currentOperationId : null
+                        );
+                        return Mono.error(new ReactiveCacheLoadExhaustedException(cacheName, cacheKey));
+                    }))
+                    .doOnNext(operationId -> delivered.set(true))
+                    .doOnCancel(() -> {
+                        if (!delivered.get()) {
+                            this.removeOperation(cacheInitializeLockKey,
+                                    operationIds -> operationIds.remove(currentOperationId) ? currentOperationId : null
+                            );
+                        }
+                    });
+        }).doOnNext(currentOperationId -> log.debug(
+                "[Inmemory reactive cache initialize lock](Lock initialization success): " +
+                        "CacheName: {},CacheKey: {},LockedOperationId: {},CurrentOperationId: {}",
+                cacheName,
+                cacheKey,
+                currentOperationId,
+                currentOperationId
+        ));
     }
 
     @Override
     public Mono<String> releaseInitializeLock(@NonNull String cacheName, @NonNull String cacheKey) {
         final String cacheInitializeLockKey = decorateCacheInitializeLockKey(cacheName, cacheKey);
-        return Mono.fromFuture(CompletableFuture.supplyAsync(() -> lockContainer.get(cacheInitializeLockKey)))
-                .map(ConcurrentLinkedDeque::pollFirst)
+        return Mono.defer(() -> Mono.justOrEmpty(this.removeOperation(cacheInitializeLockKey, Deque::pollFirst)))
                 .doOnNext(operationId -> log.debug(
                         "[Inmemory reactive cache initialize lock](Release initialization lock): " +
                                 "CacheName: {}, CacheKey: {},LockedOperationId: {}",
@@ -128,4 +188,187 @@ public class InmemoryReactiveCacheLock implements ReactiveCacheLock {
                 ));
     }
 
+    @Override
+    public Mono<String> releaseInitializeLock(@NonNull String cacheName,
+                                              @NonNull String cacheKey,
+                                              @NonNull String operationId) {
+        final String cacheInitializeLockKey = decorateCacheInitializeLockKey(cacheName, cacheKey);
+        return Mono.defer(() -> Mono.justOrEmpty(this.removeOperation(cacheInitializeLockKey,
+                        operationIds -> operationIds.remove(operationId) ? operationId : null
+                )))
+                .doOnNext(releasedOperationId -> log.debug(
+                        "[Inmemory reactive cache initialize lock](Release initialization lock): " +
+                                "CacheName: {}, CacheKey: {},LockedOperationId: {}",
+                        cacheName,
+                        cacheKey,
+                        releasedOperationId
+                ));
+    }
+
+    @Override
+    public Mono<Boolean> isInitializeLockHeld(@NonNull String cacheName,
+                                              @NonNull String cacheKey,
+                                              @NonNull String operationId) {
+        final String cacheInitializeLockKey = decorateCacheInitializeLockKey(cacheName, cacheKey);
+        return Mono.fromSupplier(() -> {
+            final AtomicBoolean held = new AtomicBoolean(false);
+            lockContainer.computeIfPresent(cacheInitializeLockKey, (key, lockState) -> {
+                held.set(Objects.equals(lockState.operationIds.peekFirst(), operationId));
+                return lockState;
+            });
+            return held.get();
+        });
+    }
+
+    /**
+     * Remove an operation from the lock queue.
+     * If the removed operation held the lock, the lock is handed over to the next queued operation,
+     * if there is no queued operation any more, all the waiters of lock release are woken up.
+     * The waiters are notified after the lock state is updated.
+     *
+     * @param lockKey          the decorated cache initialize lock key
+     * @param operationRemover the remover of the operation id from the lock queue, returns null if nothing removed
+     * @return the removed operation id
+     */
+    private Optional<String> removeOperation(@NonNull String lockKey,
+                                             @NonNull Function<Deque<String>, String> operationRemover) {
+        final AtomicReference<String> removedOperationId = new AtomicReference<>();
+        final List<Runnable> notifications = new ArrayList<>();
+        lockContainer.computeIfPresent(lockKey, (key, lockState) -> {
+            String lockedOperationId = lockState.operationIds.peekFirst();
+            String operationId = operationRemover.apply(lockState.operationIds);
+            if (Objects.isNull(operationId)) {
+                return lockState;
+            }
+            removedOperationId.set(operationId);
+            lockState.removeAcquireWaiter(operationId);
+            boolean lockedOperationRemoved = Objects.equals(operationId, lockedOperationId);
+            if (lockedOperationRemoved) {
+                lockState.stopLease();
+            }
+            if (lockState.operationIds.isEmpty()) {
+                lockState.getReleaseWaiters().forEach(releaseWaiter -> notifications.add(releaseWaiter::tryEmitEmpty));
+                return null;
+            }
+            if (lockedOperationRemoved) {
+                String nextOperationId = lockState.operationIds.peekFirst();
+                this.startLease(key, lockState, nextOperationId);
+                Sinks.One<String> nextAcquireWaiter = lockState.removeAcquireWaiter(nextOperationId);
+                if (Objects.nonNull(nextAcquireWaiter)) {
+                    notifications.add(() -> nextAcquireWaiter.tryEmitValue(nextOperationId));
+                }
+            }
+            return lockState;
+        });
+        notifications.forEach(Runnable::run);
+        return Optional.ofNullable(removedOperationId.get());
+    }
+
+    /**
+     * Remove the waiter of lock release which is timeout or cancelled.
+     *
+     * @param lockKey       the decorated cache initialize lock key
+     * @param releaseWaiter the waiter of lock release
+     */
+    private void removeReleaseWaiter(@NonNull String lockKey, @NonNull Sinks.Empty<Void> releaseWaiter) {
+        lockContainer.computeIfPresent(lockKey, (key, lockState) -> {
+            lockState.removeReleaseWaiter(releaseWaiter);
+            return lockState;
+        });
+    }
+
+    /**
+     * Start the lease of the operation which just acquired the lock, it's called inside the compute of the container.
+     *
+     * @param lockKey     the decorated cache initialize lock key
+     * @param lockState   the lock state
+     * @param operationId the operation id holding the lock
+     */
+    private void startLease(@NonNull String lockKey, @NonNull InitializeLockState lockState, @NonNull String operationId) {
+        lockState.leaseExpiration = Schedulers.parallel()
+                .schedule(() -> this.expireLease(lockKey, operationId), leaseDuration.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Expire the lease of the operation if it still holds the lock.
+     *
+     * @param lockKey     the decorated cache initialize lock key
+     * @param operationId the operation id
+     */
+    private void expireLease(@NonNull String lockKey, @NonNull String operationId) {
+        this.removeOperation(lockKey,
+                        operationIds -> Objects.equals(operationIds.peekFirst(), operationId) ? operationIds.pollFirst() : null
+                )
+                .ifPresent(expiredOperationId -> log.warn(
+                        "[Inmemory reactive cache initialize lock](Expire lease): " +
+                                "Initialization lock is not released within the lease duration: {}, release it, " +
+                                "LockKey: {}, OperationId: {}",
+                        leaseDuration,
+                        lockKey,
+                        expiredOperationId
+                ));
+    }
+
+    /**
+     * The lock state of a key, the waiter containers are only allocated once there is any waiter,
+     * since most of the keys are locked without contention.
+     */
+    private static class InitializeLockState {
+
+        /**
+         * The queued operation ids, the head one holds the lock
+         */
+        private final Deque<String> operationIds = new ArrayDeque<>(2);
+
+        /**
+         * The waiters of queued operations which don't hold the lock yet
+         */
+        private Map<String, Sinks.One<String>> acquireWaiters;
+
+        /**
+         * The waiters of lock release
+         */
+        private List<Sinks.Empty<Void>> releaseWaiters;
+
+        /**
+         * The lease expiration of the operation holding the lock
+         */
+        private Disposable leaseExpiration;
+
+        private void addAcquireWaiter(@NonNull String operationId, @NonNull Sinks.One<String> acquireWaiter) {
+            if (Objects.isNull(acquireWaiters)) {
+                acquireWaiters = new HashMap<>(4);
+            }
+            acquireWaiters.put(operationId, acquireWaiter);
+        }
+
+        private Sinks.One<String> removeAcquireWaiter(@NonNull String operationId) {
+            return Objects.isNull(acquireWaiters) ? null : acquireWaiters.remove(operationId);
+        }
+
+        private void addReleaseWaiter(@NonNull Sinks.Empty<Void> releaseWaiter) {
+            if (Objects.isNull(releaseWaiters)) {
+                releaseWaiters = new ArrayList<>(4);
+            }
+            releaseWaiters.add(releaseWaiter);
+        }
+
+        private void removeReleaseWaiter(@NonNull Sinks.Empty<Void> releaseWaiter) {
+            if (Objects.nonNull(releaseWaiters)) {
+                releaseWaiters.remove(releaseWaiter);
+            }
+        }
+
+        private List<Sinks.Empty<Void>> getReleaseWaiters() {
+            return Objects.isNull(releaseWaiters) ? Collections.emptyList() : releaseWaiters;
+        }
+
+        private void stopLease() {
+            if (Objects.nonNull(leaseExpiration)) {
+                leaseExpiration.dispose();
+                leaseExpiration = null;
+            }
+        }
+    }
+
 }
@@ -1,13 +1,19 @@
 package pro.chenggang.project.reactive.cache.support.defaults.inmemory;
 
 import lombok.NonNull;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import pro.chenggang.project.reactive.cache.support.core.EvictionOptions;
 import pro.chenggang.project.reactive.cache.support.core.ReactiveCache;
+import pro.chenggang.project.reactive.cache.support.core.ReactiveCacheOptions;
 import pro.chenggang.project.reactive.cache.support.core.adapter.ReactiveCacheManagerAdapter;
 import pro.chenggang.project.reactive.cache.support.defaults.DefaultReactiveCache;
+import pro.chenggang.project.reactive.cache.support.toolkit.TimingWheel;
+import reactor.core.scheduler.Scheduler;
 
 import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
 
 /**
  * The inmemory reactive cache manager adapter.
@@ -17,21 +23,102 @@ import java.time.Duration;
  * @since 1.0.0
  */
 @Slf4j
-@RequiredArgsConstructor
 public class InmemoryReactiveCacheManagerAdapter implements ReactiveCacheManagerAdapter {
 
     @NonNull
     private final Duration maxWaitingDuration;
     @NonNull
     private final InmemoryReactiveCacheLock inmemoryReactiveCacheLock;
+    /**
+     * The reactive cache options of each cache name
+     */
+    @NonNull
+    private final Map<String, ReactiveCacheOptions> cacheOptions;
+    /**
+     * The scheduler which the adapter operations are subscribed on, null if they complete on the subscribing thread
+     */
+    private final Scheduler scheduler;
+    /**
+     * The timing wheel which expires the cached data of all reactive caches initialized by this adapter
+     */
+    private final TimingWheel expirationTimingWheel;
+    /**
+     * The eviction options which bound the cached data of each reactive cache without specific eviction options,
+     * the cached mono and the cached flux of a reactive cache are bounded separately
+     */
+    private final EvictionOptions evictionOptions;
+
+    public InmemoryReactiveCacheManagerAdapter(@NonNull Duration maxWaitingDuration,
+                                               @NonNull InmemoryReactiveCacheLock inmemoryReactiveCacheLock) {
+        this(maxWaitingDuration, inmemoryReactiveCacheLock, Collections.emptyMap());
+    }
+
+    public InmemoryReactiveCacheManagerAdapter(@NonNull Duration maxWaitingDuration,
+                                               @NonNull InmemoryReactiveCacheLock inmemoryReactiveCacheLock,
+                                               @NonNull Map<String, ReactiveCacheOptions> cacheOptions) {
+        this(maxWaitingDuration, inmemoryReactiveCacheLock, cacheOptions, null);
+    }
+
+    public InmemoryReactiveCacheManagerAdapter(@NonNull Duration maxWaitingDuration,
+                                               @NonNull InmemoryReactiveCacheLock inmemoryReactiveCacheLock,
+                                               @NonNull Map<String, ReactiveCacheOptions> cacheOptions,
+                                               Scheduler scheduler) {
+        this(maxWaitingDuration,
+                inmemoryReactiveCacheLock,
+                cacheOptions,
+                scheduler,
+                new TimingWheel(),
+                EvictionOptions.unbounded()
+        );
+    }
+
+    /**
+     * Instantiates a new inmemory reactive cache manager adapter.
+     * The expiration timing wheel is owned by the adapter, which is disposed when the adapter is closed.
+     *
+     * @param maxWaitingDuration        the max waiting duration
+     * @param inmemoryReactiveCacheLock the inmemory reactive cache lock
+     * @param cacheOptions              the reactive cache options of each cache name
+     * @param scheduler                 the scheduler which the adapter operations are subscribed on, nullable
+     * @param expirationTimingWheel     the expiration timing wheel shared by all reactive caches
+     * @param evictionOptions           the eviction options which bound the cached mono and the cached flux
+     *                                  of each reactive cache separately
+     */
+    public InmemoryReactiveCacheManagerAdapter(@NonNull Duration maxWaitingDuration,
+                                               @NonNull InmemoryReactiveCacheLock inmemoryReactiveCacheLock,
+                                               @NonNull Map<String, ReactiveCacheOptions> cacheOptions,
+                                               Scheduler scheduler,
+                                               @NonNull TimingWheel expirationTimingWheel,
+                                               @NonNull EvictionOptions evictionOptions) {
+        this.maxWaitingDuration = maxWaitingDuration;
+        this.inmemoryReactiveCacheLock = inmemoryReactiveCacheLock;
+        this.cacheOptions = cacheOptions;
+        this.scheduler = scheduler;
+        this.expirationTimingWheel = expirationTimingWheel;
+        this.evictionOptions = evictionOptions;
+    }
 
     @Override
     public ReactiveCache initializeReactiveCache(@NonNull String name) {
+        ReactiveCacheOptions reactiveCacheOptions = cacheOptions.getOrDefault(name, ReactiveCacheOptions.defaults());
+        EvictionOptions cacheEvictionOptions = reactiveCacheOptions.getEvictionOptions()
+                .orElse(evictionOptions);
         return new DefaultReactiveCache(name,
                 maxWaitingDuration,
                 inmemoryReactiveCacheLock,
-                new InmemoryReactiveCacheMonoAdapter(),
-                new InmemoryReactiveCacheFluxAdapter()
+                Objects.isNull(scheduler)
+                        ? new InmemoryReactiveCacheMonoAdapter(expirationTimingWheel, cacheEvictionOptions)
+                        : new InmemoryReactiveCacheMonoAdapter(expirationTimingWheel, cacheEvictionOptions, scheduler),
+                Objects.isNull(scheduler)
+                        ? new InmemoryReactiveCacheFluxAdapter(expirationTimingWheel, cacheEvictionOptions)
+                        : new InmemoryReactiveCacheFluxAdapter(expirationTimingWheel, cacheEvictionOptions, scheduler),
+                reactiveCacheOptions
         );
     }
+
+    @Override
+    public void close() {
+        expirationTimingWheel.dispose();
+        log.debug("[Inmemory reactive cache manager adapter]Expiration timing wheel disposed");
+    }
 }
@@ -1,57 +1,256 @@
 package pro.chenggang.project.reactive.cache.support.defaults.inmemory;
 
 import lombok.NonNull;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import pro.chenggang.project.reactive.cache.support.core.EvictionOptions;
+import pro.chenggang.project.reactive.cache.support.core.adapter.CachedData;
 import pro.chenggang.project.reactive.cache.support.core.adapter.ReactiveCacheMonoAdapter;
+import pro.chenggang.project.reactive.cache.support.exception.ReactiveCacheLockLostException;
 import pro.chenggang.project.reactive.cache.support.toolkit.AutoExpiredDataCache;
+import pro.chenggang.project.reactive.cache.support.toolkit.TimingWheel;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
 
 import java.time.Duration;
-import java.util.concurrent.CompletableFuture;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 
 /**
  * The inmemory reactive cache mono adapter
+ * <p>
+ * The operations complete synchronously on the subscribing thread by default,
+ * since they are plain in-memory lookups, they are subscribed on the scheduler if one is configured.
  *
  * @author Gang Cheng
  * @version 1.0.0
  * @since 1.0.0
  */
 @Slf4j
-@RequiredArgsConstructor
 public class InmemoryReactiveCacheMonoAdapter implements ReactiveCacheMonoAdapter {
 
-    private final AutoExpiredDataCache<Object> monoDataCache = AutoExpiredDataCache.newInstance();
+    private final AutoExpiredDataCache<CachedData<Object>> monoDataCache;
+    /**
+     * The scheduler which the operations are subscribed on, null if they complete on the subscribing thread
+     */
+    private final Scheduler scheduler;
+
+    /**
+     * Instantiates a new inmemory reactive cache mono adapter which expires data by {@link TimingWheel#shared()}.
+     */
+    public InmemoryReactiveCacheMonoAdapter() {
+        this.monoDataCache = AutoExpiredDataCache.newInstance();
+        this.scheduler = null;
+    }
+
+    /**
+     * Instantiates a new inmemory reactive cache mono adapter which expires data by {@link TimingWheel#shared()}.
+     *
+     * @param scheduler the scheduler which the operations are subscribed on
+     */
+    public InmemoryReactiveCacheMonoAdapter(@NonNull Scheduler scheduler) {
+        this.monoDataCache = AutoExpiredDataCache.newInstance();
+        this.scheduler = scheduler;
+    }
+
+    public InmemoryReactiveCacheMonoAdapter(@NonNull TimingWheel expirationTimingWheel,
+                                            @NonNull EvictionOptions evictionOptions) {
+        this.monoDataCache = newDataCache(expirationTimingWheel, evictionOptions);
+        this.scheduler = null;
+    }
+
+    public InmemoryReactiveCacheMonoAdapter(@NonNull TimingWheel expirationTimingWheel,
+                                            @NonNull EvictionOptions evictionOptions,
+                                            @NonNull Scheduler scheduler) {
+        this.monoDataCache = newDataCache(expirationTimingWheel, evictionOptions);
+        this.scheduler = scheduler;
+    }
 
     @Override
     public Mono<Boolean> hasData(@NonNull String cacheKey) {
-        return Mono.defer(() -> Mono.fromFuture(CompletableFuture.supplyAsync(() -> monoDataCache.hasData(cacheKey))));
+        return this.execute(Mono.fromSupplier(() -> monoDataCache.hasData(cacheKey)));
     }
 
     @SuppressWarnings("unchecked")
     @Override
     public <T> Mono<T> loadData(@NonNull String cacheKey) {
-        return Mono.defer(() -> Mono.fromFuture(CompletableFuture.supplyAsync(() -> monoDataCache.getData(cacheKey))))
-                .flatMap(optionalData -> (Mono<T>) Mono.justOrEmpty(optionalData));
+        return this.execute(Mono.fromSupplier(() -> monoDataCache.getData(cacheKey)))
+                .flatMap(optionalData -> (Mono<T>) Mono.justOrEmpty(optionalData.flatMap(CachedData::getData)));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T> Mono<CachedData<T>> loadDataIfPresent(@NonNull String cacheKey) {
+        return this.execute(Mono.fromSupplier(() -> monoDataCache.getData(cacheKey)))
+                .map(optionalData -> optionalData.map(cachedData -> cachedData.map(data -> (T) data))
+                        .orElseGet(CachedData::absent)
+                );
     }
 
     @Override
     public <T> Mono<T> cacheData(@NonNull String cacheKey,
                                  @NonNull Duration cacheDuration,
                                  @NonNull Mono<T> sourcePublisher) {
-        return sourcePublisher.flatMap(nextData -> Mono.fromFuture(CompletableFuture.runAsync(() -> monoDataCache.putData(
-                        cacheKey,
-                        nextData,
-                        cacheDuration
-                )))
-                .thenReturn(nextData));
+        return sourcePublisher.elapsed()
+                .flatMap(elapsedData -> this.execute(Mono.fromRunnable(() -> monoDataCache.putData(
+                                cacheKey,
+                                CachedData.of(elapsedData.getT2(),
+                                        Instant.now().plus(cacheDuration),
+                                        Duration.ofMillis(elapsedData.getT1())
+                                ),
+                                cacheDuration
+                        )))
+                        .thenReturn(elapsedData.getT2()));
+    }
+
+    @Override
+    public Mono<Void> cacheEmptyData(@NonNull String cacheKey, @NonNull Duration cacheDuration) {
+        return this.execute(Mono.fromRunnable(() -> monoDataCache.putData(cacheKey,
+                CachedData.empty(Instant.now().plus(cacheDuration)),
+                cacheDuration
+        )));
+    }
+
+    /**
+     * The operation id is stored along with the cached data as fencing token,
+     * the cached data is put only if it's not written by a later lock holder, which is checked in the same atomic put.
+     */
+    @Override
+    public <T> Mono<T> cacheFencedData(@NonNull String cacheName,
+                                       @NonNull String cacheKey,
+                                       @NonNull String operationId,
+                                       @NonNull Duration cacheDuration,
+                                       @NonNull Mono<T> sourcePublisher) {
+        return sourcePublisher.elapsed()
+                .flatMap(elapsedData -> this.putFencedData(cacheName,
+                                cacheKey,
+                                operationId,
+                                cacheDuration,
+                                CachedData.of(elapsedData.getT2(),
+                                        Instant.now().plus(cacheDuration),
+                                        Duration.ofMillis(elapsedData.getT1())
+                                )
+                        )
+                        .thenReturn(elapsedData.getT2()));
+    }
+
+    @Override
+    public Mono<Void> cacheFencedEmptyData(@NonNull String cacheName,
+                                           @NonNull String cacheKey,
+                                           @NonNull String operationId,
+                                           @NonNull Duration cacheDuration) {
+        return this.putFencedData(cacheName,
+                cacheKey,
+                operationId,
+                cacheDuration,
+                CachedData.empty(Instant.now().plus(cacheDuration))
+        );
     }
 
     @Override
     public Mono<Void> cleanupData(@NonNull String cacheKey) {
-        return Mono.defer(() -> Mono.fromFuture(CompletableFuture.runAsync(() -> {
+        return this.execute(Mono.fromRunnable(() -> {
             monoDataCache.removeData(cacheKey);
             log.debug("[Inmemory reactive cache mono adapter]Cleanup cached data success, CacheKey: {}", cacheKey);
-        })));
+        }));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T> Mono<Map<String, CachedData<T>>> loadAllDataIfPresent(@NonNull Set<String> cacheKeys) {
+        return this.execute(Mono.fromSupplier(() -> {
+            Map<String, CachedData<T>> cachedDataMap = new LinkedHashMap<>();
+            cacheKeys.forEach(cacheKey -> cachedDataMap.put(cacheKey, monoDataCache.getData(cacheKey)
+                    .map(cachedData -> cachedData.map(data -> (T) data))
+                    .orElseGet(CachedData::absent)
+            ));
+            return cachedDataMap;
+        }));
+    }
+
+    @Override
+    public <T> Mono<Void> cacheAllData(@NonNull Map<String, T> data, @NonNull Duration cacheDuration) {
+        return this.execute(Mono.fromRunnable(() -> {
+            Instant expireTime = Instant.now().plus(cacheDuration);
+            data.forEach((cacheKey, value) -> monoDataCache.putData(cacheKey,
+                    CachedData.of(value, expireTime),
+                    cacheDuration
+            ));
+        }));
+    }
+
+    @Override
+    public Mono<Void> cleanupAllData(@NonNull Set<String> cacheKeys) {
+        return this.execute(Mono.fromRunnable(() -> {
+            cacheKeys.forEach(monoDataCache::removeData);
+            log.debug("[Inmemory reactive cache mono adapter]Cleanup all cached data success, CacheKeys: {}", cacheKeys);
+        }));
+    }
+
+    /**
+     * Put the cached data fenced by the operation id unless the exists cached data is written by a later lock holder.
+     *
+     * @param cacheName     the cache name
+     * @param cacheKey      the cache key
+     * @param operationId   the operation id holding the initialize lock
+     * @param cacheDuration the cache duration
+     * @param cachedData    the cached data
+     * @return empty if put, or error with {@link ReactiveCacheLockLostException}
+     */
+    private Mono<Void> putFencedData(@NonNull String cacheName,
+                                     @NonNull String cacheKey,
+                                     @NonNull String operationId,
+                                     @NonNull Duration cacheDuration,
+                                     @NonNull CachedData<Object> cachedData) {
+        return this.execute(Mono.fromSupplier(() -> monoDataCache.putDataIf(cacheKey,
+                        cachedData.fencedBy(operationId),
+                        cacheDuration,
+                        existsCachedData -> !existsCachedData.fencesOff(operationId)
+                )))
+                .filter(Boolean::booleanValue)
+                .switchIfEmpty(Mono.defer(() -> {
+                    log.warn("[Inmemory reactive cache mono adapter]Cached data is written by a later lock holder, " +
+                                    "CacheName: {}, CacheKey: {}, OperationId: {}",
+                            cacheName,
+                            cacheKey,
+                            operationId
+                    );
+                    return Mono.error(new ReactiveCacheLockLostException(cacheName, cacheKey, operationId));
+                }))
+                .then();
+    }
+
+    /**
+     * New data cache bounded by the eviction options.
+     *
+     * @param expirationTimingWheel the expiration timing wheel
+     * @param evictionOptions       the eviction options
+     * @return the data cache
+     */
+    private static AutoExpiredDataCache<CachedData<Object>> newDataCache(TimingWheel expirationTimingWheel,
+                                                                  EvictionOptions evictionOptions) {
+        if (!evictionOptions.isBounded()) {
+            return AutoExpiredDataCache.newInstance(expirationTimingWheel);
+        }
+        return AutoExpiredDataCache.newInstance(expirationTimingWheel,
+                evictionOptions.getMaximumSize().orElse(AutoExpiredDataCache.UNBOUNDED),
+                evictionOptions.getMaximumWeight().orElse(AutoExpiredDataCache.UNBOUNDED),
+                (cacheKey, cachedData) -> cachedData.getData()
+                        .map(data -> evictionOptions.getWeigher().weigh(cacheKey, data))
+                        .orElse(1)
+        );
+    }
+
+    /**
+     * Execute the operation on the scheduler if one is configured.
+     *
+     * @param <T>       the result type
+     * @param operation the operation
+     * @return the operation subscribed on the scheduler, or the operation itself
+     */
+    private <T> Mono<T> execute(@NonNull Mono<T> operation) {
+        return Objects.isNull(scheduler) ? operation : operation.subscribeOn(scheduler);
     }
 }
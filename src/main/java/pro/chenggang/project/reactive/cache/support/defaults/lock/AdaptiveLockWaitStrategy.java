@@ -0,0 +1,111 @@
+package pro.chenggang.project.reactive.cache.support.defaults.lock;
+
+import lombok.NonNull;
+import lombok.ToString;
+import pro.chenggang.project.reactive.cache.support.core.LockWaitStrategy;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The adaptive lock wait strategy
+ * <p>
+ * The first polling waits for the median of recent hold durations of the cache's lock,
+ * which is when the holder most likely finishes loading, the later pollings back off exponentially with full jitter.
+ *
+ * @author Gang Cheng
+ * @version 1.1.0
+ * @since 1.1.0
+ */
+@ToString(exclude = "holdDurationSamplesContainer")
+public class AdaptiveLockWaitStrategy implements LockWaitStrategy {
+
+    /**
+     * The count of recent hold durations kept for each cache
+     */
+    private static final int SAMPLE_SIZE = 32;
+
+    private final Duration initialDelay;
+    private final Duration maxDelay;
+    /**
+     * The recent hold duration samples of each cache name
+     */
+    private final ConcurrentHashMap<String, HoldDurationSamples> holdDurationSamplesContainer = new ConcurrentHashMap<>();
+
+    public AdaptiveLockWaitStrategy(@NonNull Duration initialDelay, @NonNull Duration maxDelay) {
+        if (initialDelay.isNegative() || initialDelay.isZero()) {
+            throw new IllegalArgumentException("Lock wait initial delay should be positive, current value is : " + initialDelay);
+        }
+        if (maxDelay.compareTo(initialDelay) < 0) {
+            throw new IllegalArgumentException("Lock wait max delay should not be shorter than initial delay, " +
+                    "current initial delay is : " + initialDelay +
+                    ", max delay is : " + maxDelay);
+        }
+        this.initialDelay = initialDelay;
+        this.maxDelay = maxDelay;
+    }
+
+    @Override
+    public Duration nextDelay(@NonNull String cacheName, int attempt) {
+        Duration baseDelay = initialDelay;
+        HoldDurationSamples holdDurationSamples = holdDurationSamplesContainer.get(cacheName);
+        if (Objects.nonNull(holdDurationSamples)) {
+            baseDelay = holdDurationSamples.median()
+                    .orElse(initialDelay);
+        }
+        if (baseDelay.compareTo(maxDelay) > 0) {
+            baseDelay = maxDelay;
+        }
+        if (attempt <= 1) {
+            return baseDelay.isZero() ? Duration.ofMillis(1) : baseDelay;
+        }
+        return ExponentialJitterLockWaitStrategy.jitter(baseDelay, maxDelay, attempt);
+    }
+
+    @Override
+    public void recordHoldDuration(@NonNull String cacheName, @NonNull Duration holdDuration) {
+        if (holdDuration.isNegative()) {
+            return;
+        }
+        holdDurationSamplesContainer.computeIfAbsent(cacheName, key -> new HoldDurationSamples())
+                .add(holdDuration.toMillis());
+    }
+
+    /**
+     * The ring of recent hold duration samples
+     */
+    private static class HoldDurationSamples {
+
+        private final long[] samples = new long[SAMPLE_SIZE];
+        private int count;
+        private int nextIndex;
+
+        /**
+         * Add a hold duration sample, the oldest one is overwritten if the ring is full.
+         *
+         * @param holdMillis the hold duration millis
+         */
+        private synchronized void add(long holdMillis) {
+            samples[nextIndex] = holdMillis;
+            nextIndex = (nextIndex + 1) % SAMPLE_SIZE;
+            count = Math.min(count + 1, SAMPLE_SIZE);
+        }
+
+        /**
+         * The median of the samples.
+         *
+         * @return the optional median, empty if there is no sample
+         */
+        private synchronized Optional<Duration> median() {
+            if (count == 0) {
+                return Optional.empty();
+            }
+            long[] sortedSamples = Arrays.copyOf(samples, count);
+            Arrays.sort(sortedSamples);
+            return Optional.of(Duration.ofMillis(sortedSamples[count / 2]));
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package pro.chenggang.project.reactive.cache.support.defaults.lock;
+
+import lombok.NonNull;
+import lombok.ToString;
+import pro.chenggang.project.reactive.cache.support.core.LockWaitStrategy;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The exponential lock wait strategy with full jitter
+ *
+ * @author Gang Cheng
+ * @version 1.1.0
+ * @since 1.1.0
+ */
+@ToString
+public class ExponentialJitterLockWaitStrategy implements LockWaitStrategy {
+
+    /**
+     * The max exponent of backoff, which keeps the delay from overflowing
+     */
+    private static final int MAX_EXPONENT = 30;
+
+    private final Duration initialDelay;
+    private final Duration maxDelay;
+
+    public ExponentialJitterLockWaitStrategy(@NonNull Duration initialDelay, @NonNull Duration maxDelay) {
+        if (initialDelay.isNegative() || initialDelay.isZero()) {
+            throw new IllegalArgumentException("Lock wait initial delay should be positive, current value is : " + initialDelay);
+        }
+        if (maxDelay.compareTo(initialDelay) < 0) {
+            throw new IllegalArgumentException("Lock wait max delay should not be shorter than initial delay, " +
+                    "current initial delay is : " + initialDelay +
+                    ", max delay is : " + maxDelay);
+        }
+        this.initialDelay = initialDelay;
+        this.maxDelay = maxDelay;
+    }
+
+    @Override
+    public Duration nextDelay(@NonNull String cacheName, int attempt) {
+        return jitter(initialDelay, maxDelay, attempt);
+    }
+
+    /**
+     * The full jitter delay, which is random between 1 millisecond and {@code min(maxDelay, baseDelay * 2 ^ (attempt - 1))}.
+     *
+     * @param baseDelay the base delay
+     * @param maxDelay  the max delay
+     * @param attempt   the polling attempt, starts from 1
+     * @return the full jitter delay
+     */
+    static Duration jitter(@NonNull Duration baseDelay, @NonNull Duration maxDelay, int attempt) {
+        int exponent = Math.min(Math.max(attempt - 1, 0), MAX_EXPONENT);
+        long baseMillis = Math.max(baseDelay.toMillis(), 1L);
+        long capMillis = Math.max(Math.min(maxDelay.toMillis(), baseMillis << exponent), 1L);
+        return Duration.ofMillis(1L + ThreadLocalRandom.current().nextLong(capMillis));
+    }
+}
@@ -0,0 +1,32 @@
+package pro.chenggang.project.reactive.cache.support.defaults.lock;
+
+import lombok.NonNull;
+import lombok.ToString;
+import pro.chenggang.project.reactive.cache.support.core.LockWaitStrategy;
+
+import java.time.Duration;
+
+/**
+ * The fixed lock wait strategy
+ *
+ * @author Gang Cheng
+ * @version 1.1.0
+ * @since 1.1.0
+ */
+@ToString
+public class FixedLockWaitStrategy implements LockWaitStrategy {
+
+    private final Duration delay;
+
+    public FixedLockWaitStrategy(@NonNull Duration delay) {
+        if (delay.isNegative() || delay.isZero()) {
+            throw new IllegalArgumentException("Lock wait delay should be positive, current value is : " + delay);
+        }
+        this.delay = delay;
+    }
+
+    @Override
+    public Duration nextDelay(@NonNull String cacheName, int attempt) {
+        return delay;
+    }
+}
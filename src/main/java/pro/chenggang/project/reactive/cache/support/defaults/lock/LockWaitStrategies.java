@@ -0,0 +1,58 @@
+package pro.chenggang.project.reactive.cache.support.defaults.lock;
+
+import lombok.NonNull;
+import pro.chenggang.project.reactive.cache.support.core.LockWaitStrategy;
+
+import java.time.Duration;
+
+/**
+ * The factories of the default lock wait strategies
+ *
+ * @author Gang Cheng
+ * @version 1.1.0
+ * @since 1.1.0
+ */
+public final class LockWaitStrategies {
+
+    private LockWaitStrategies() {
+    }
+
+    /**
+     * The fixed wait strategy, which polls with the same delay.
+     *
+     * @param delay the delay
+     * @return the fixed wait strategy
+     */
+    public static LockWaitStrategy fixed(@NonNull Duration delay) {
+        return new FixedLockWaitStrategy(delay);
+    }
+
+    /**
+     * The exponential wait strategy with full jitter,
+     * the delay is random between 1 millisecond and {@code min(maxDelay, initialDelay * 2 ^ (attempt - 1))},
+     * so waiters released at the same time don't poll in lockstep.
+     *
+     * @param initialDelay the initial delay
+     * @param maxDelay     the max delay
+     * @return the exponential wait strategy with full jitter
+     */
+    public static LockWaitStrategy exponentialJitter(@NonNull Duration initialDelay, @NonNull Duration maxDelay) {
+        return new ExponentialJitterLockWaitStrategy(initialDelay, maxDelay);
+    }
+
+    /**
+     * The adaptive wait strategy, which starts polling at the observed median hold duration of the cache's lock,
+     * then backs off exponentially with full jitter.
+     * <p>
+     * The hold durations are only recorded by the lock which reports them through
+     * {@link LockWaitStrategy#recordHoldDuration(String, Duration)}, which is {@code RedisReactiveCacheLock} for now.
+     * With any other lock nothing is observed, it always starts polling at the initial delay and never adapts.
+     *
+     * @param initialDelay the initial delay before any hold duration is observed
+     * @param maxDelay     the max delay
+     * @return the adaptive wait strategy
+     */
+    public static LockWaitStrategy adaptive(@NonNull Duration initialDelay, @NonNull Duration maxDelay) {
+        return new AdaptiveLockWaitStrategy(initialDelay, maxDelay);
+    }
+}
@@ -0,0 +1,47 @@
+package pro.chenggang.project.reactive.cache.support.defaults.redis;
+
+import lombok.NonNull;
+
+/**
+ * The hash tags of redis keys, which keep the keys derived from a cache key in the hash slot of the cache key,
+ * so the lua scripts touching them together run on Redis Cluster without CROSSSLOT errors.
+ * <p>
+ * Redis Cluster hashes only the content between the first '{' and the first '}' after it if the content is not empty,
+ * otherwise the whole key. The derived keys embed the cache key itself if it has a hash tag,
+ * otherwise the cache key wrapped in braces, and they're not supposed to have any brace before it.
+ * A cache key containing '}' without a hash tag can't be wrapped, it should carry a hash tag on Redis Cluster.
+ *
+ * @author Gang Cheng
+ * @version 1.1.0
+ * @since 1.1.0
+ */
+final class RedisHashTags {
+
+    private RedisHashTags() {
+    }
+
+    /**
+     * The cache key embedded in the derived keys, which hashes to the same slot as the cache key.
+     *
+     * @param cacheKey the cache key
+     * @return the cache key if it has a hash tag, otherwise the cache key wrapped in braces
+     */
+    static String hashTagged(@NonNull String cacheKey) {
+        return hasHashTag(cacheKey) ? cacheKey : "{" + cacheKey + "}";
+    }
+
+    /**
+     * Whether the key has a hash tag.
+     *
+     * @param key the key
+     * @return true if the key has a non-empty content between the first '{' and the first '}' after it
+     */
+    static boolean hasHashTag(@NonNull String key) {
+        int tagStart = key.indexOf('{');
+        if (tagStart < 0) {
+            return false;
+        }
+        int tagEnd = key.indexOf('}', tagStart + 1);
+        return tagEnd > tagStart + 1;
+    }
+}
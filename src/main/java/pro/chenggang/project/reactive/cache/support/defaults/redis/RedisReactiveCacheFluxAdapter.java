@@ -1,79 +1,333 @@
 package pro.chenggang.project.reactive.cache.support.defaults.redis;
 
 import lombok.NonNull;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.redis.core.ReactiveListOperations;
+import org.springframework.data.redis.connection.ReactiveRedisConnection;
+import org.springframework.data.redis.connection.ReturnType;
 import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.GenericToStringSerializer;
+import org.springframework.data.redis.serializer.RedisElementReader;
+import org.springframework.data.redis.serializer.RedisElementWriter;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+import pro.chenggang.project.reactive.cache.support.core.adapter.CachedData;
 import pro.chenggang.project.reactive.cache.support.core.adapter.ReactiveCacheFluxAdapter;
+import pro.chenggang.project.reactive.cache.support.exception.ReactiveCacheLockLostException;
+import pro.chenggang.project.reactive.cache.support.toolkit.FluxTee;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.util.concurrent.Queues;
-import reactor.util.function.Tuple2;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
 
 /**
- * The inmemory reactive cache flux adapter
+ * The redis reactive cache flux adapter
+ * <p>
+ * With the {@link RedisReactiveCacheLock} of the cache, the fenced writes check the lock holder and publish
+ * the staged cached data in one lua script, they are not fenced without the lock.
  *
  * @author Gang Cheng
  * @version 1.0.0
  * @since 1.0.0
  */
 @Slf4j
-@RequiredArgsConstructor
 public class RedisReactiveCacheFluxAdapter implements ReactiveCacheFluxAdapter {
 
+    /**
+     * The default max count of elements pushed by one command
+     */
+    public static final int DEFAULT_PUSH_BATCH_SIZE = Queues.SMALL_BUFFER_SIZE;
+
+    /**
+     * The default max count of push commands in flight at a time
+     */
+    public static final int DEFAULT_MAX_IN_FLIGHT_PUSH_BATCHES = 4;
+
+    /**
+     * The max count of elements pushed by one command, which keeps the arguments within the stack limit of lua unpack
+     */
+    public static final int MAX_PUSH_BATCH_SIZE = 4096;
+
+    /**
+     * Push the elements and set the expiration in one atomic operation, so the list never exists without expiration.
+     * KEYS[1]: list key, ARGV[1]: cache millis, ARGV[2..n]: elements.
+     * Returns the length of the list.
+     * <p>
+     * It's sent by plain EVAL instead of EVALSHA, the batches are pipelined on one connection,
+     * and a batch retried by EVAL after NOSCRIPT could land behind the following batch whose EVALSHA succeeds.
+     */
+    private static final byte[] PUSH_AND_EXPIRE_SCRIPT = ("local size = redis.call('RPUSH', KEYS[1], unpack(ARGV, 2)) " +
+            "redis.call('PEXPIRE', KEYS[1], ARGV[1]) " +
+            "return size").getBytes(StandardCharsets.UTF_8);
+
+    /**
+     * Load the whole cached list along with its time to live, so a reader never mixes the elements of two writes
+     * even if the list is replaced by a revalidation meanwhile.
+     * KEYS[1]: cache key.
+     * Returns {pttl, elements...} if cached, otherwise an empty list.
+     */
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> LOAD_SCRIPT = RedisScript.of(
+            "local pttl = redis.call('PTTL', KEYS[1]) " +
+                    "if pttl == -2 then " +
+                    "  return {} " +
+                    "end " +
+                    "local data = redis.call('LRANGE', KEYS[1], 0, -1) " +
+                    "table.insert(data, 1, pttl) " +
+                    "return data",
+            List.class
+    );
+
+    /**
+     * Publish the staged list to the cache key if the lock is held by the operation, otherwise drop the staged list.
+     * KEYS[1]: staging key, KEYS[2]: cache key, KEYS[3]: lock key, ARGV[1]: operation id.
+     * Returns 1 if published, otherwise 0.
+     */
+    private static final RedisScript<Long> FENCED_RENAME_SCRIPT = RedisScript.of(
+            "if redis.call('LINDEX', KEYS[3], -1) ~= ARGV[1] then " +
+                    "  redis.call('DEL', KEYS[1]) " +
+                    "  return 0 " +
+                    "end " +
+                    "redis.call('RENAME', KEYS[1], KEYS[2]) " +
+                    "return 1",
+            Long.class
+    );
+    private static final RedisElementWriter<String> SCRIPT_ARGS_WRITER = RedisElementWriter.from(StringRedisSerializer.UTF_8);
+    private static final RedisElementReader<Long> SCRIPT_RESULT_READER = RedisElementReader.from(new GenericToStringSerializer<>(Long.class));
+
     private final ReactiveRedisTemplate<String, Object> reactiveRedisTemplate;
+    /**
+     * The max count of elements pushed by one command
+     */
+    private final int pushBatchSize;
+    /**
+     * The max count of push commands in flight at a time
+     */
+    private final int maxInFlightPushBatches;
+    /**
+     * The redis reactive cache lock, null if the fenced writes are not fenced
+     */
+    private final RedisReactiveCacheLock redisReactiveCacheLock;
+
+    public RedisReactiveCacheFluxAdapter(@NonNull ReactiveRedisTemplate<String, Object> reactiveRedisTemplate) {
+        this(reactiveRedisTemplate, DEFAULT_PUSH_BATCH_SIZE, DEFAULT_MAX_IN_FLIGHT_PUSH_BATCHES);
+    }
+
+    public RedisReactiveCacheFluxAdapter(@NonNull ReactiveRedisTemplate<String, Object> reactiveRedisTemplate,
+                                         @NonNull RedisReactiveCacheLock redisReactiveCacheLock) {
+        this(reactiveRedisTemplate, redisReactiveCacheLock, DEFAULT_PUSH_BATCH_SIZE, DEFAULT_MAX_IN_FLIGHT_PUSH_BATCHES);
+    }
+
+    /**
+     * Instantiates a new redis reactive cache flux adapter.
+     *
+     * @param reactiveRedisTemplate  the reactive redis template
+     * @param pushBatchSize          the max count of elements pushed by one command
+     * @param maxInFlightPushBatches the max count of push commands in flight at a time
+     */
+    public RedisReactiveCacheFluxAdapter(@NonNull ReactiveRedisTemplate<String, Object> reactiveRedisTemplate,
+                                         int pushBatchSize,
+                                         int maxInFlightPushBatches) {
+        this(reactiveRedisTemplate, null, pushBatchSize, maxInFlightPushBatches);
+    }
+
+    /**
+     * Instantiates a new redis reactive cache flux adapter whose fenced writes are fenced by the lock.
+     *
+     * @param reactiveRedisTemplate  the reactive redis template
+     * @param redisReactiveCacheLock the redis reactive cache lock, null if the fenced writes are not fenced
+     * @param pushBatchSize          the max count of elements pushed by one command
+     * @param maxInFlightPushBatches the max count of push commands in flight at a time
+     */
+    public RedisReactiveCacheFluxAdapter(@NonNull ReactiveRedisTemplate<String, Object> reactiveRedisTemplate,
+                                         RedisReactiveCacheLock redisReactiveCacheLock,
+                                         int pushBatchSize,
+                                         int maxInFlightPushBatches) {
+        if (pushBatchSize < 1 || pushBatchSize > MAX_PUSH_BATCH_SIZE) {
+            throw new IllegalArgumentException("Push batch size should be between 1 and " + MAX_PUSH_BATCH_SIZE +
+                    ", current value is : " + pushBatchSize);
+        }
+        if (maxInFlightPushBatches < 1) {
+            throw new IllegalArgumentException("Max in-flight push batches should be positive, current value is : "
+                    + maxInFlightPushBatches);
+        }
+        this.reactiveRedisTemplate = reactiveRedisTemplate;
+        this.pushBatchSize = pushBatchSize;
+        this.maxInFlightPushBatches = maxInFlightPushBatches;
+        this.redisReactiveCacheLock = redisReactiveCacheLock;
+    }
 
     @Override
     public Mono<Boolean> hasData(@NonNull String cacheKey) {
         return reactiveRedisTemplate.hasKey(cacheKey);
     }
 
+    /**
+     * Load the whole cached list by one command, so a reader never mixes the elements of two writes
+     * even if the list is replaced by a revalidation meanwhile.
+     */
     @SuppressWarnings("unchecked")
     @Override
     public <T> Flux<T> loadData(@NonNull String cacheKey) {
-        return reactiveRedisTemplate.opsForList()
-                .size(cacheKey)
-                .filter(size -> size > 0)
-                .map(Long::intValue)
-                .flatMapMany(size -> Flux.range(0, size)
-                        .buffer(Queues.SMALL_BUFFER_SIZE)
-                        .concatMap(bufferedIndex -> (Flux<T>) reactiveRedisTemplate.opsForList()
-                                .range(cacheKey,
-                                        bufferedIndex.get(0),
-                                        bufferedIndex.get(bufferedIndex.size() - 1)
-                                )
-                        )
-                );
+        return (Flux<T>) reactiveRedisTemplate.opsForList()
+                .range(cacheKey, 0, -1);
     }
 
+    /**
+     * Load the whole cached list and its time to live in one script, so the expiration always matches the data read.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    @Override
+    public <T> Mono<CachedData<Flux<T>>> loadDataIfPresent(@NonNull String cacheKey) {
+        return reactiveRedisTemplate.execute(LOAD_SCRIPT,
+                        List.of(cacheKey),
+                        List.of(),
+                        SCRIPT_ARGS_WRITER,
+                        (RedisElementReader<List>) (RedisElementReader<?>) reactiveRedisTemplate.getSerializationContext()
+                                .getValueSerializationPair()
+                                .getReader()
+                )
+                .next()
+                .map(result -> {
+                    List<Object> values = (List<Object>) result;
+                    if (values.size() < 2) {
+                        return CachedData.absent();
+                    }
+                    Flux<T> cachedData = (Flux<T>) Flux.fromIterable(values.subList(1, values.size()));
+                    long expireMillis = ((Number) values.get(0)).longValue();
+                    if (expireMillis <= 0) {
+                        return CachedData.of(cachedData);
+                    }
+                    return CachedData.of(cachedData, Instant.now().plusMillis(expireMillis));
+                });
+    }
+
+    /**
+     * The cached data is written to a staging key and renamed to the cache key when the source flux completes,
+     * so readers never observe a partially filled data.
+     * The source flux is subscribed once, each element is forwarded downstream and pushed to the staging key
+     * by {@link FluxTee} in batches, each batch is pushed along with the expiration in one atomic script.
+     * The batches are pipelined in order on one connection, at most the max in-flight push batches at a time.
+     */
     @Override
     public <T> Flux<T> cacheData(@NonNull String cacheKey,
                                  @NonNull Duration cacheDuration,
                                  @NonNull Flux<T> sourcePublisher) {
-        final AtomicBoolean initFlag = new AtomicBoolean(false);
-        final ReactiveListOperations<String, Object> reactiveListOperations = reactiveRedisTemplate.opsForList();
-        return Flux.zip(sourcePublisher,
-                        sourcePublisher.share()
-                                .concatMap(value -> reactiveListOperations.rightPush(cacheKey,
-                                        value
-                                ))
-                                .concatMap(data -> Mono.just(initFlag)
-                                        .map(atomicBoolean -> atomicBoolean.compareAndSet(false,
-                                                true
-                                        ))
-                                        .filter(Boolean::booleanValue)
-                                        .flatMap(firstTouch -> reactiveRedisTemplate.expire(
-                                                cacheKey,
-                                                cacheDuration
-                                        ))
-                                        .then(Mono.just(data))
-                                )
-                )
-                .map(Tuple2::getT1);
+        return this.cacheStagedData(cacheKey,
+                cacheDuration,
+                sourcePublisher,
+                stagingCacheKey -> reactiveRedisTemplate.rename(stagingCacheKey, cacheKey).then()
+        );
+    }
+
+    /**
+     * The cached data is staged as {@link #cacheData(String, Duration, Flux)},
+     * and the lock holder is checked right before the staged data is renamed to the cache key in one script.
+     */
+    @Override
+    public <T> Flux<T> cacheFencedData(@NonNull String cacheName,
+                                       @NonNull String cacheKey,
+                                       @NonNull String operationId,
+                                       @NonNull Duration cacheDuration,
+                                       @NonNull Flux<T> sourcePublisher) {
+        if (Objects.isNull(redisReactiveCacheLock)) {
+            return this.cacheData(cacheKey, cacheDuration, sourcePublisher);
+        }
+        final String cacheInitializeLockKey = redisReactiveCacheLock.decorateCacheInitializeLockKey(cacheName, cacheKey);
+        return this.cacheStagedData(cacheKey,
+                cacheDuration,
+                sourcePublisher,
+                stagingCacheKey -> reactiveRedisTemplate.execute(FENCED_RENAME_SCRIPT,
+                                Arrays.asList(stagingCacheKey, cacheKey, cacheInitializeLockKey),
+                                List.of(operationId),
+                                SCRIPT_ARGS_WRITER,
+                                SCRIPT_RESULT_READER
+                        )
+                        .next()
+                        .filter(published -> published == 1)
+                        .switchIfEmpty(Mono.defer(() -> {
+                            log.warn("[Redis reactive cache flux adapter]Initialize lock is lost before writing cached data, " +
+                                            "CacheName: {}, CacheKey: {}, OperationId: {}",
+                                    cacheName,
+                                    cacheKey,
+                                    operationId
+                            );
+                            return Mono.error(new ReactiveCacheLockLostException(cacheName, cacheKey, operationId));
+                        }))
+                        .then()
+        );
+    }
+
+    /**
+     * Write the cached data to a staging key, and publish the staging key when the source flux completes with data.
+     *
+     * @param <T>              the cached data type
+     * @param cacheKey         the cache key
+     * @param cacheDuration    the cache duration
+     * @param sourcePublisher  the source flux
+     * @param stagingPublisher the publisher of the staging key
+     * @return the source flux which publishes the staging key before completion
+     */
+    private <T> Flux<T> cacheStagedData(@NonNull String cacheKey,
+                                        @NonNull Duration cacheDuration,
+                                        @NonNull Flux<T> sourcePublisher,
+                                        @NonNull Function<String, Mono<Void>> stagingPublisher) {
+        return Flux.defer(() -> {
+            final AtomicBoolean initFlag = new AtomicBoolean(false);
+            // staged in the hash slot of the cache key, so it could be renamed to the cache key on Redis Cluster
+            final String stagingCacheKey = RedisHashTags.hashTagged(cacheKey) + ":STAGING:" + UUID.randomUUID();
+            // the batches are bounded by size only, the staging key is invisible until it's published
+            // after the source flux completes, so flushing a partial batch earlier would not expose data sooner
+            return FluxTee.teeBatches(sourcePublisher,
+                            pushBatchSize,
+                            batches -> reactiveRedisTemplate.execute(connection -> batches.flatMapSequential(
+                                            batch -> this.pushAndExpire(connection, stagingCacheKey, cacheDuration, batch),
+                                            maxInFlightPushBatches,
+                                            1
+                                    ))
+                                    .doOnNext(size -> initFlag.set(true))
+                    )
+                    .concatWith(Mono.defer(() -> {
+                        if (!initFlag.get()) {
+                            return Mono.empty();
+                        }
+                        return stagingPublisher.apply(stagingCacheKey);
+                    }).then(Mono.empty()));
+        });
+    }
+
+    /**
+     * Push the batch of elements to the list and set the expiration of the list in one atomic script.
+     *
+     * @param connection    the reactive redis connection
+     * @param listKey       the list key
+     * @param cacheDuration the cache duration
+     * @param batch         the batch of elements
+     * @return the length of the list
+     */
+    private Flux<Long> pushAndExpire(@NonNull ReactiveRedisConnection connection,
+                                     @NonNull String listKey,
+                                     @NonNull Duration cacheDuration,
+                                     @NonNull List<?> batch) {
+        final RedisSerializationContext<String, Object> serializationContext = reactiveRedisTemplate.getSerializationContext();
+        ByteBuffer[] keysAndArgs = new ByteBuffer[batch.size() + 2];
+        keysAndArgs[0] = serializationContext.getKeySerializationPair().write(listKey);
+        keysAndArgs[1] = ByteBuffer.wrap(String.valueOf(cacheDuration.toMillis()).getBytes(StandardCharsets.UTF_8));
+        for (int i = 0; i < batch.size(); i++) {
+            keysAndArgs[i + 2] = serializationContext.getValueSerializationPair().write(batch.get(i));
+        }
+        return connection.scriptingCommands()
+                .eval(ByteBuffer.wrap(PUSH_AND_EXPIRE_SCRIPT), ReturnType.INTEGER, 1, keysAndArgs);
     }
 
     @Override
@@ -4,41 +4,306 @@ import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisElementReader;
+import org.springframework.data.redis.serializer.RedisElementWriter;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+import pro.chenggang.project.reactive.cache.support.core.LockWaitStrategy;
 import pro.chenggang.project.reactive.cache.support.core.ReactiveCacheLock;
+import pro.chenggang.project.reactive.cache.support.defaults.lock.LockWaitStrategies;
 import pro.chenggang.project.reactive.cache.support.exception.ReactiveCacheLoadExhaustedException;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.retry.Backoff;
-import reactor.retry.Repeat;
+import reactor.core.publisher.Sinks;
+import reactor.util.retry.Retry;
 
 import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Objects;
-import java.util.UUID;
-import java.util.function.Predicate;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * The redis reactive cache lock
+ * <p>
+ * Releasing the lock publishes the released lock key on the channel of the cache,
+ * waiters of this node are woken up by one shared pattern subscription of all the channels,
+ * so each node receives the releases of every cache and each waiter filters its own lock key,
+ * which costs one pub/sub connection per node instead of one per cache name.
+ * The notifications are best-effort: they are dropped rather than buffered while no waiter listens.
+ * Polling is kept as a slow safety net in case of missed notifications, the polling delays are decided by
+ * the {@link LockWaitStrategy}, which is fixed to the safety net polling interval by default.
+ * <p>
+ * The lock is a lease: the lock queue expires after the lease duration unless the holder renews it by a watchdog,
+ * so a dead holder blocks the cache key for at most one lease duration, the queued operations enqueue again
+ * if the lock queue expired. The operation ids are monotonic fencing tokens of the cache key,
+ * the redis adapters check the holder and write cached data in one lua script.
+ * <p>
+ * Every lock primitive is an atomic lua script executed by EVALSHA,
+ * the lock queue is only accessed by the scripts with raw string operation ids.
  *
  * @author Gang Cheng
  * @version 1.0.0
  * @since 1.0.0
  */
 @Slf4j
-@RequiredArgsConstructor
 public class RedisReactiveCacheLock implements ReactiveCacheLock {
 
+    /**
+     * The default polling interval of the safety net
+     */
+    public static final Duration DEFAULT_SAFETY_NET_POLLING_INTERVAL = LockWaitStrategy.DEFAULT_FIXED_DELAY;
+
+    /**
+     * The default lease duration of the lock
+     */
+    public static final Duration DEFAULT_LEASE_DURATION = Duration.ofSeconds(10);
+
+    private static final String LOCK_RELEASED_CHANNEL_SUFFIX = ":INITIALIZE_LOCK_RELEASED";
+    private static final String FENCING_TOKEN_SUFFIX = ":FENCING_TOKEN";
+    /**
+     * The retention of fencing token counter, which is far longer than any lease
+     */
+    static final Duration FENCING_TOKEN_RETENTION = Duration.ofDays(1);
+
+    /**
+     * Generate the fencing token as operation id and enqueue it, set the lease if it holds the lock at once.
+     * KEYS[1]: lock key, KEYS[2]: fencing token key, ARGV[1]: lease millis, ARGV[2]: fencing token retention millis.
+     * Returns the operation id if the lock is acquired, otherwise the negative operation id.
+     */
+    private static final RedisScript<Long> ACQUIRE_SCRIPT = RedisScript.of(
+            "local token = redis.call('INCR', KEYS[2]) " +
+                    "redis.call('PEXPIRE', KEYS[2], ARGV[2]) " +
+                    "if redis.call('LPUSH', KEYS[1], token) == 1 then " +
+                    "  redis.call('PEXPIRE', KEYS[1], ARGV[1]) " +
+                    "  return token " +
+                    "end " +
+                    "return -token",
+            Long.class
+    );
+
+    /**
+     * Try to acquire the lock by a queued operation, enqueue it again if the lock queue expired.
+     * The queue is scanned by LRANGE rather than LPOS, which needs Redis 6.0.6 or later,
+     * a lock queue only holds the waiting operations so the scan is short.
+     * KEYS[1]: lock key, ARGV[1]: operation id, ARGV[2]: lease millis.
+     * Returns 1 if the lock is acquired, otherwise 0.
+     */
+    private static final RedisScript<Long> TRY_ACQUIRE_SCRIPT = RedisScript.of(
+            "if redis.call('LINDEX', KEYS[1], -1) == ARGV[1] then " +
+                    "  redis.call('PEXPIRE', KEYS[1], ARGV[2]) " +
+                    "  return 1 " +
+                    "end " +
+                    "local queued = false " +
+                    "for _, operationId in ipairs(redis.call('LRANGE', KEYS[1], 0, -1)) do " +
+                    "  if operationId == ARGV[1] then " +
+                    "    queued = true " +
+                    "    break " +
+                    "  end " +
+                    "end " +
+                    "if not queued " +
+                    "  and redis.call('LPUSH', KEYS[1], ARGV[1]) == 1 then " +
+                    "  redis.call('PEXPIRE', KEYS[1], ARGV[2]) " +
+                    "  return 1 " +
+                    "end " +
+                    "return 0",
+            Long.class
+    );
+
+    /**
+     * Renew the lease if the lock is held by the operation.
+     * KEYS[1]: lock key, ARGV[1]: operation id, ARGV[2]: lease millis.
+     * Returns 1 if the lease is renewed, otherwise 0.
+     */
+    private static final RedisScript<Long> RENEW_SCRIPT = RedisScript.of(
+            "if redis.call('LINDEX', KEYS[1], -1) == ARGV[1] then " +
+                    "  return redis.call('PEXPIRE', KEYS[1], ARGV[2]) " +
+                    "end " +
+                    "return 0",
+            Long.class
+    );
+
+    /**
+     * Whether the lock is held by the operation.
+     * The result is a snapshot which may be stale before the caller acts on it, so the writes of cached data
+     * don't rely on it, the adapter scripts compare the queue head in the same script as the write.
+     * KEYS[1]: lock key, ARGV[1]: operation id.
+     * Returns 1 if the lock is held by the operation, otherwise 0.
+     */
+    private static final RedisScript<Long> HELD_SCRIPT = RedisScript.of(
+            "if redis.call('LINDEX', KEYS[1], -1) == ARGV[1] then " +
+                    "  return 1 " +
+                    "end " +
+                    "return 0",
+            Long.class
+    );
+
+    /**
+     * Remove the operation from the lock queue.
+     * KEYS[1]: lock key, ARGV[1]: operation id.
+     * Returns the removed count.
+     */
+    private static final RedisScript<Long> REMOVE_SCRIPT = RedisScript.of(
+            "return redis.call('LREM', KEYS[1], -1, ARGV[1])",
+            Long.class
+    );
+
+    /**
+     * Remove the head of lock queue whoever holds the lock.
+     * KEYS[1]: lock key.
+     * Returns the removed operation id.
+     */
+    private static final RedisScript<String> REMOVE_HEAD_SCRIPT = RedisScript.of(
+            "return redis.call('RPOP', KEYS[1])",
+            String.class
+    );
+
+    private static final RedisElementWriter<String> SCRIPT_ARGS_WRITER = RedisElementWriter.from(StringRedisSerializer.UTF_8);
+    private static final RedisElementReader<String> SCRIPT_RESULT_READER = RedisElementReader.from(StringRedisSerializer.UTF_8);
+
     private final ReactiveRedisTemplate<String, Object> reactiveRedisTemplate;
+    private final Duration safetyNetPollingInterval;
+    private final Duration leaseDuration;
+    private final LockWaitStrategy lockWaitStrategy;
+    private final Flux<String> releasedLockKeys;
+    /**
+     * The lease watchdogs of the lock held by this node, keyed by operation id
+     */
+    private final ConcurrentHashMap<String, LeaseWatchdog> leaseWatchdogContainer = new ConcurrentHashMap<>();
+
+    public RedisReactiveCacheLock(@NonNull ReactiveRedisTemplate<String, Object> reactiveRedisTemplate) {
+        this(reactiveRedisTemplate, DEFAULT_SAFETY_NET_POLLING_INTERVAL);
+    }
+
+    public RedisReactiveCacheLock(@NonNull ReactiveRedisTemplate<String, Object> reactiveRedisTemplate,
+                                  @NonNull Duration safetyNetPollingInterval) {
+        this(reactiveRedisTemplate, safetyNetPollingInterval, DEFAULT_LEASE_DURATION);
+    }
+
+    public RedisReactiveCacheLock(@NonNull ReactiveRedisTemplate<String, Object> reactiveRedisTemplate,
+                                  @NonNull Duration safetyNetPollingInterval,
+                                  @NonNull Duration leaseDuration) {
+        this(reactiveRedisTemplate, safetyNetPollingInterval, leaseDuration, LockWaitStrategies.fixed(safetyNetPollingInterval));
+    }
+
+    /**
+     * Instantiates a new Redis reactive cache lock.
+     *
+     * @param reactiveRedisTemplate    the reactive redis template
+     * @param safetyNetPollingInterval the interval of resubscribing the lock released channels if the subscription failed
+     * @param leaseDuration            the lease duration of the lock
+     * @param lockWaitStrategy         the wait strategy of the safety net polling
+     */
+    public RedisReactiveCacheLock(@NonNull ReactiveRedisTemplate<String, Object> reactiveRedisTemplate,
+                                  @NonNull Duration safetyNetPollingInterval,
+                                  @NonNull Duration leaseDuration,
+                                  @NonNull LockWaitStrategy lockWaitStrategy) {
+        if (safetyNetPollingInterval.isNegative() || safetyNetPollingInterval.isZero()) {
+            throw new IllegalArgumentException(
+                    "Safety net polling interval should be positive, current value is : " + safetyNetPollingInterval);
+        }
+        if (leaseDuration.compareTo(Duration.ofMillis(3)) < 0) {
+            throw new IllegalArgumentException(
+                    "Lease duration should be at least 3 milliseconds, current value is : " + leaseDuration);
+        }
+        this.reactiveRedisTemplate = reactiveRedisTemplate;
+        this.safetyNetPollingInterval = safetyNetPollingInterval;
+        this.leaseDuration = leaseDuration;
+        this.lockWaitStrategy = lockWaitStrategy;
+        final Flux<String> lockReleaseListener = Flux.defer(() -> reactiveRedisTemplate.listenToPattern("*" + LOCK_RELEASED_CHANNEL_SUFFIX))
+                .map(message -> String.valueOf(message.getMessage()))
+                .doOnError(throwable -> log.warn(
+                        "[Redis reactive cache initialize lock](Listen lock release): " +
+                                "Listen lock release failed, resubscribe later and rely on polling until then",
+                        throwable
+                ))
+                .retryWhen(Retry.fixedDelay(Long.MAX_VALUE, safetyNetPollingInterval));
+        final Sinks.Many<String> releasedLockKeySink = Sinks.many().multicast().directBestEffort();
+        final Mono<Disposable> lockReleaseListening = Mono.fromSupplier(() -> lockReleaseListener.subscribe(releasedLockKeySink::tryEmitNext))
+                .cache();
+        // listen once the first waiter comes, the released lock keys are only delivered to the current waiters
+        this.releasedLockKeys = releasedLockKeySink.asFlux()
+                .doOnSubscribe(subscription -> lockReleaseListening.subscribe());
+    }
+
+    /**
+     * The cache key is hash tagged in the lock key, so the lock and fencing token keys share the hash slot
+     * of the cached data, the cache name is not supposed to contain any brace.
+     */
+    @Override
+    public String decorateCacheInitializeLockKey(@NonNull String cacheName, @NonNull String cacheKey) {
+        return cacheName + ":INITIALIZE_LOCK:" + RedisHashTags.hashTagged(cacheKey);
+    }
+
+    /**
+     * Decorate the channel which the released lock key of the cache is published on.
+     *
+     * @param cacheName the cache name
+     * @return the decorated lock released channel
+     */
+    protected String decorateCacheInitializeLockReleasedChannel(@NonNull String cacheName) {
+        return cacheName + LOCK_RELEASED_CHANNEL_SUFFIX;
+    }
+
+    /**
+     * Decorate the key of fencing token counter of the lock.
+     *
+     * @param lockKey the decorated cache initialize lock key
+     * @return the decorated fencing token key
+     */
+    String decorateFencingTokenKey(@NonNull String lockKey) {
+        return lockKey + FENCING_TOKEN_SUFFIX;
+    }
+
+    /**
+     * Gets the lease duration of the lock.
+     *
+     * @return the lease duration
+     */
+    Duration getLeaseDuration() {
+        return leaseDuration;
+    }
+
+    /**
+     * Wait until the lock condition is satisfied.
+     * The condition is checked at once, then every time the lock is released
+     * and after every polling delay of the lock wait strategy.
+     *
+     * @param cacheName          the cache name
+     * @param lockKey            the decorated cache initialize lock key
+     * @param lockCondition      the lock condition
+     * @param maxWaitingDuration the max waiting duration
+     * @param <T>                the result type of lock condition
+     * @return the result of lock condition, empty if it's not satisfied within the max waiting duration
+     */
+    private <T> Mono<T> awaitLockCondition(@NonNull String cacheName,
+                                           @NonNull String lockKey,
+                                           @NonNull Mono<T> lockCondition,
+                                           @NonNull Duration maxWaitingDuration) {
+        return Flux.merge(releasedLockKeys.filter(lockKey::equals)
+                                .map(releasedLockKey -> 0L),
+                        Flux.range(1, Integer.MAX_VALUE)
+                                .concatMap(attempt -> Mono.delay(lockWaitStrategy.nextDelay(cacheName, attempt)), 1),
+                        Mono.just(0L)
+                )
+                .onBackpressureLatest()
+                .concatMap(trigger -> lockCondition, 1)
+                .next()
+                .take(maxWaitingDuration);
+    }
 
     @Override
     public Mono<Void> checkInitializeLock(@NonNull String cacheName,
                                           @NonNull String cacheKey,
                                           @NonNull Duration maxWaitingDuration) {
         final String decoratedCacheInitializeLockKey = decorateCacheInitializeLockKey(cacheName, cacheKey);
-        return reactiveRedisTemplate.hasKey(decoratedCacheInitializeLockKey)
-                .defaultIfEmpty(false)
-                .filter(Predicate.not(Boolean::booleanValue))
-                .repeatWhenEmpty(Repeat.onlyIf(repeatContext -> true)
-                        .timeout(maxWaitingDuration)
-                        .backoff(Backoff.fixed(Duration.ofMillis(300)))
+        return this.awaitLockCondition(cacheName,
+                        decoratedCacheInitializeLockKey,
+                        reactiveRedisTemplate.hasKey(decoratedCacheInitializeLockKey)
+                                .defaultIfEmpty(false)
+                                .filter(locked -> !locked),
+                        maxWaitingDuration
                 )
                 .switchIfEmpty(Mono.defer(() -> {
                     log.error(
@@ -64,57 +329,215 @@ public class RedisReactiveCacheLock implements ReactiveCacheLock {
                                               @NonNull String cacheKey,
                                               @NonNull Duration maxWaitingDuration) {
         final String cacheInitializeLockKey = decorateCacheInitializeLockKey(cacheName, cacheKey);
-        final String currentOperationId = UUID.randomUUID()
-                .toString();
-        return reactiveRedisTemplate.opsForList()
-                .leftPush(cacheInitializeLockKey, currentOperationId)
-                .flatMap(__ -> reactiveRedisTemplate.opsForList()
-                        .range(cacheInitializeLockKey, -1, -1)
-                        .next()
-                        .filter(value -> Objects.equals(currentOperationId, value))
-                        .repeatWhenEmpty(Repeat.onlyIf(repeatContext -> true)
-                                .timeout(maxWaitingDuration)
-                                .backoff(Backoff.fixed(Duration.ofMillis(300)))
-                        )
-                        .switchIfEmpty(Mono.defer(() -> {
-                            log.error(
-                                    "[Redis reactive cache initialize lock](Check whether any cache initialization running): " +
-                                            "Current operation is not the head of lock queue and reach the max waiting duration: {}, " +
-                                            "CacheName: {},CacheKey: {}, CurrentOperationId: {}",
-                                    maxWaitingDuration,
-                                    cacheName,
-                                    cacheKey,
-                                    currentOperationId
-                            );
-                            return reactiveRedisTemplate.opsForList()
-                                    .remove(cacheInitializeLockKey, 1, currentOperationId)
-                                    .then(Mono.error(new ReactiveCacheLoadExhaustedException(cacheName,
-                                            cacheKey
-                                    )));
-                        })))
-                .doOnNext(operationId -> log.debug(
+        final String leaseMillis = String.valueOf(leaseDuration.toMillis());
+        return this.executeScript(ACQUIRE_SCRIPT,
+                        Arrays.asList(cacheInitializeLockKey, this.decorateFencingTokenKey(cacheInitializeLockKey)),
+                        leaseMillis,
+                        String.valueOf(FENCING_TOKEN_RETENTION.toMillis())
+                )
+                .flatMap(fencingToken -> {
+                    final String currentOperationId = String.valueOf(Math.abs(fencingToken));
+                    if (fencingToken > 0) {
+                        return Mono.just(currentOperationId);
+                    }
+                    return this.awaitLockCondition(cacheName,
+                                    cacheInitializeLockKey,
+                                    this.executeScript(TRY_ACQUIRE_SCRIPT,
+                                                    List.of(cacheInitializeLockKey),
+                                                    currentOperationId,
+                                                    leaseMillis
+                                            )
+                                            .filter(acquired -> acquired == 1)
+                                            .map(acquired -> currentOperationId),
+                                    maxWaitingDuration
+                            )
+                            .switchIfEmpty(Mono.defer(() -> {
+                                log.error(
+                                        "[Redis reactive cache initialize lock](Check whether any cache initialization running): " +
+                                                "Current operation is not the head of lock queue and reach the max waiting duration: {}, " +
+                                                "CacheName: {},CacheKey: {}, CurrentOperationId: {}",
+                                        maxWaitingDuration,
+                                        cacheName,
+                                        cacheKey,
+                                        currentOperationId
+                                );
+                                return this.executeScript(REMOVE_SCRIPT, List.of(cacheInitializeLockKey), currentOperationId)
+                                        .then(Mono.error(new ReactiveCacheLoadExhaustedException(cacheName,
+                                                cacheKey
+                                        )));
+                            }));
+                })
+                .doOnNext(currentOperationId -> this.startLeaseWatchdog(cacheName, cacheInitializeLockKey, currentOperationId))
+                .doOnNext(currentOperationId -> log.debug(
                         "[Redis reactive cache initialize lock](Lock initialization success): " +
                                 "CacheName: {},CacheKey: {},LockedOperationId: {},CurrentOperationId: {}",
                         cacheName,
                         cacheKey,
-                        operationId,
+                        currentOperationId,
                         currentOperationId
-                ))
-                .thenReturn(currentOperationId);
+                ));
+    }
+
+    /**
+     * Execute the lua script with raw string arguments.
+     *
+     * @param <T>    the result type
+     * @param script the lua script
+     * @param keys   the keys
+     * @param args   the raw string arguments
+     * @return the result of the script, empty if the result is nil
+     */
+    @SuppressWarnings("unchecked")
+    private <T> Mono<T> executeScript(@NonNull RedisScript<T> script, @NonNull List<String> keys, String... args) {
+        return reactiveRedisTemplate.execute(script,
+                        keys,
+                        Arrays.asList(args),
+                        SCRIPT_ARGS_WRITER,
+                        (RedisElementReader<T>) SCRIPT_RESULT_READER
+                )
+                .next();
+    }
+
+    /**
+     * Start the watchdog which renews the lease of the acquired lock until the lock is released or lost.
+     *
+     * @param cacheName   the cache name
+     * @param lockKey     the decorated cache initialize lock key
+     * @param operationId the operation id holding the lock
+     */
+    void startLeaseWatchdog(@NonNull String cacheName, @NonNull String lockKey, @NonNull String operationId) {
+        final long acquiredNanos = System.nanoTime();
+        Disposable renewal = Flux.interval(leaseDuration.dividedBy(3))
+                .concatMap(tick -> this.renewLease(lockKey, operationId))
+                .takeWhile(Boolean::booleanValue)
+                .doFinally(signalType -> leaseWatchdogContainer.remove(operationId))
+                .subscribe();
+        leaseWatchdogContainer.put(operationId, new LeaseWatchdog(cacheName, acquiredNanos, renewal));
+    }
+
+    /**
+     * Renew the lease if the lock is still held by the operation.
+     *
+     * @param lockKey     the decorated cache initialize lock key
+     * @param operationId the operation id
+     * @return true if the lease is renewed or should be tried again, false if the lock is lost
+     */
+    private Mono<Boolean> renewLease(@NonNull String lockKey, @NonNull String operationId) {
+        return this.executeScript(RENEW_SCRIPT,
+                        List.of(lockKey),
+                        operationId,
+                        String.valueOf(leaseDuration.toMillis())
+                )
+                .map(renewed -> renewed == 1)
+                .defaultIfEmpty(false)
+                .doOnNext(renewed -> {
+                    if (!renewed) {
+                        log.warn("[Redis reactive cache initialize lock](Renew lease): " +
+                                        "Lock is lost, stop renewing the lease, LockKey: {}, OperationId: {}",
+                                lockKey,
+                                operationId
+                        );
+                    }
+                })
+                .onErrorResume(throwable -> {
+                    log.warn("[Redis reactive cache initialize lock](Renew lease): " +
+                                    "Renew lease failed, try again later, LockKey: {}, OperationId: {}",
+                            lockKey,
+                            operationId,
+                            throwable
+                    );
+                    return Mono.just(true);
+                });
+    }
+
+    /**
+     * Stop the lease watchdog of the operation, and record how long the lock was held to the lock wait strategy.
+     *
+     * @param operationId the operation id
+     */
+    void stopLeaseWatchdog(@NonNull String operationId) {
+        LeaseWatchdog leaseWatchdog = leaseWatchdogContainer.remove(operationId);
+        if (Objects.nonNull(leaseWatchdog)) {
+            leaseWatchdog.renewal.dispose();
+            lockWaitStrategy.recordHoldDuration(leaseWatchdog.cacheName,
+                    Duration.ofNanos(System.nanoTime() - leaseWatchdog.acquiredNanos)
+            );
+        }
     }
 
     @Override
     public Mono<String> releaseInitializeLock(@NonNull String cacheName, @NonNull String cacheKey) {
         final String cacheInitializeLockKey = decorateCacheInitializeLockKey(cacheName, cacheKey);
-        return reactiveRedisTemplate.opsForList()
-                .rightPop(cacheInitializeLockKey)
-                .cast(String.class)
-                .doOnNext(operationId -> log.debug(
-                        "[Redis reactive cache initialize lock](Release initialization lock): " +
-                                "CacheName: {}, CacheKey: {},LockedOperationId: {}",
-                        cacheName,
-                        cacheKey,
-                        operationId
-                ));
+        return this.executeScript(REMOVE_HEAD_SCRIPT, List.of(cacheInitializeLockKey))
+                .doOnNext(this::stopLeaseWatchdog)
+                .flatMap(operationId -> this.publishLockReleased(cacheName, cacheKey, operationId));
+    }
+
+    @Override
+    public Mono<String> releaseInitializeLock(@NonNull String cacheName,
+                                              @NonNull String cacheKey,
+                                              @NonNull String operationId) {
+        final String cacheInitializeLockKey = decorateCacheInitializeLockKey(cacheName, cacheKey);
+        return Mono.fromRunnable(() -> this.stopLeaseWatchdog(operationId))
+                .then(this.executeScript(REMOVE_SCRIPT, List.of(cacheInitializeLockKey), operationId))
+                .filter(removedCount -> removedCount > 0)
+                .flatMap(removedCount -> this.publishLockReleased(cacheName, cacheKey, operationId));
+    }
+
+    @Override
+    public Mono<Boolean> isInitializeLockHeld(@NonNull String cacheName,
+                                              @NonNull String cacheKey,
+                                              @NonNull String operationId) {
+        final String cacheInitializeLockKey = decorateCacheInitializeLockKey(cacheName, cacheKey);
+        return this.executeScript(HELD_SCRIPT, List.of(cacheInitializeLockKey), operationId)
+                .map(held -> held == 1)
+                .defaultIfEmpty(false);
+    }
+
+    /**
+     * Publish the released lock key to wake up the waiters.
+     *
+     * @param cacheName   the cache name
+     * @param cacheKey    the cache key
+     * @param operationId the released operation id
+     * @return the released operation id
+     */
+    private Mono<String> publishLockReleased(@NonNull String cacheName,
+                                             @NonNull String cacheKey,
+                                             @NonNull String operationId) {
+        log.debug("[Redis reactive cache initialize lock](Release initialization lock): " +
+                        "CacheName: {}, CacheKey: {},LockedOperationId: {}",
+                cacheName,
+                cacheKey,
+                operationId
+        );
+        return reactiveRedisTemplate.convertAndSend(this.decorateCacheInitializeLockReleasedChannel(cacheName),
+                        decorateCacheInitializeLockKey(cacheName, cacheKey)
+                )
+                .onErrorResume(throwable -> {
+                    log.warn("[Redis reactive cache initialize lock](Release initialization lock): " +
+                                    "Publish lock release failed, waiters are woken up by polling, " +
+                                    "CacheName: {}, CacheKey: {}",
+                            cacheName,
+                            cacheKey,
+                            throwable
+                    );
+                    return Mono.empty();
+                })
+                .thenReturn(operationId);
+    }
+
+    /**
+     * The lease watchdog of the lock held by this node
+     */
+    @RequiredArgsConstructor
+    private static class LeaseWatchdog {
+
+        private final String cacheName;
+        /**
+         * The nano time when the lock is acquired
+         */
+        private final long acquiredNanos;
+        private final Disposable renewal;
     }
 }
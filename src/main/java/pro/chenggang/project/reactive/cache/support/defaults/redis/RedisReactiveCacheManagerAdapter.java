@@ -1,14 +1,16 @@
 package pro.chenggang.project.reactive.cache.support.defaults.redis;
 
 import lombok.NonNull;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.redis.core.ReactiveRedisTemplate;
 import pro.chenggang.project.reactive.cache.support.core.ReactiveCache;
+import pro.chenggang.project.reactive.cache.support.core.ReactiveCacheOptions;
 import pro.chenggang.project.reactive.cache.support.core.adapter.ReactiveCacheManagerAdapter;
 import pro.chenggang.project.reactive.cache.support.defaults.DefaultReactiveCache;
 
 import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
 
 /**
  * The redis reactive cache manager adapter.
@@ -19,7 +21,6 @@ import java.time.Duration;
  */
 @SuppressWarnings("all")
 @Slf4j
-@RequiredArgsConstructor
 public class RedisReactiveCacheManagerAdapter implements ReactiveCacheManagerAdapter {
 
     @NonNull
@@ -28,14 +29,75 @@ public class RedisReactiveCacheManagerAdapter implements ReactiveCacheManagerAda
     private final RedisReactiveCacheLock redisReactiveCacheLock;
     @NonNull
     private final ReactiveRedisTemplate reactiveRedisTemplate;
+    /**
+     * The reactive cache options of each cache name
+     */
+    @NonNull
+    private final Map<String, ReactiveCacheOptions> cacheOptions;
+    /**
+     * The max count of elements pushed by one command when caching flux
+     */
+    private final int fluxPushBatchSize;
+    /**
+     * The max count of push commands in flight at a time when caching flux
+     */
+    private final int maxInFlightFluxPushBatches;
+
+    public RedisReactiveCacheManagerAdapter(@NonNull Duration maxWaitingDuration,
+                                            @NonNull RedisReactiveCacheLock redisReactiveCacheLock,
+                                            @NonNull ReactiveRedisTemplate reactiveRedisTemplate) {
+        this(maxWaitingDuration, redisReactiveCacheLock, reactiveRedisTemplate, Collections.emptyMap());
+    }
+
+    public RedisReactiveCacheManagerAdapter(@NonNull Duration maxWaitingDuration,
+                                            @NonNull RedisReactiveCacheLock redisReactiveCacheLock,
+                                            @NonNull ReactiveRedisTemplate reactiveRedisTemplate,
+                                            @NonNull Map<String, ReactiveCacheOptions> cacheOptions) {
+        this(maxWaitingDuration,
+                redisReactiveCacheLock,
+                reactiveRedisTemplate,
+                cacheOptions,
+                RedisReactiveCacheFluxAdapter.DEFAULT_PUSH_BATCH_SIZE,
+                RedisReactiveCacheFluxAdapter.DEFAULT_MAX_IN_FLIGHT_PUSH_BATCHES
+        );
+    }
+
+    /**
+     * Instantiates a new redis reactive cache manager adapter.
+     *
+     * @param maxWaitingDuration         the max waiting duration
+     * @param redisReactiveCacheLock     the redis reactive cache lock
+     * @param reactiveRedisTemplate      the reactive redis template
+     * @param cacheOptions               the reactive cache options of each cache name
+     * @param fluxPushBatchSize          the max count of elements pushed by one command when caching flux
+     * @param maxInFlightFluxPushBatches the max count of push commands in flight at a time when caching flux
+     */
+    public RedisReactiveCacheManagerAdapter(@NonNull Duration maxWaitingDuration,
+                                            @NonNull RedisReactiveCacheLock redisReactiveCacheLock,
+                                            @NonNull ReactiveRedisTemplate reactiveRedisTemplate,
+                                            @NonNull Map<String, ReactiveCacheOptions> cacheOptions,
+                                            int fluxPushBatchSize,
+                                            int maxInFlightFluxPushBatches) {
+        this.maxWaitingDuration = maxWaitingDuration;
+        this.redisReactiveCacheLock = redisReactiveCacheLock;
+        this.reactiveRedisTemplate = reactiveRedisTemplate;
+        this.cacheOptions = cacheOptions;
+        this.fluxPushBatchSize = fluxPushBatchSize;
+        this.maxInFlightFluxPushBatches = maxInFlightFluxPushBatches;
+    }
 
     @Override
     public ReactiveCache initializeReactiveCache(@NonNull String name) {
         return new DefaultReactiveCache(name,
                 maxWaitingDuration,
                 redisReactiveCacheLock,
-                new RedisReactiveCacheMonoAdapter(reactiveRedisTemplate),
-                new RedisReactiveCacheFluxAdapter(reactiveRedisTemplate)
+                new RedisReactiveCacheMonoAdapter(reactiveRedisTemplate, redisReactiveCacheLock),
+                new RedisReactiveCacheFluxAdapter(reactiveRedisTemplate,
+                        redisReactiveCacheLock,
+                        fluxPushBatchSize,
+                        maxInFlightFluxPushBatches
+                ),
+                cacheOptions.getOrDefault(name, ReactiveCacheOptions.defaults())
         );
     }
 }
@@ -1,26 +1,188 @@
 package pro.chenggang.project.reactive.cache.support.defaults.redis;
 
 import lombok.NonNull;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.redis.core.ReactiveRedisTemplate;
-import pro.chenggang.project.reactive.cache.support.core.adapter.ReactiveCacheMonoAdapter;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisElementReader;
+import org.springframework.data.redis.serializer.RedisElementWriter;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import pro.chenggang.project.reactive.cache.support.core.ReadConsistency;
+import pro.chenggang.project.reactive.cache.support.core.adapter.CachedData;
+import pro.chenggang.project.reactive.cache.support.core.adapter.CachedDataOrLock;
+import pro.chenggang.project.reactive.cache.support.core.adapter.ReactiveCacheMonoLockingAdapter;
+import pro.chenggang.project.reactive.cache.support.exception.ReactiveCacheLockLostException;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 
 /**
  * The redis reactive cache mono adapter
+ * <p>
+ * With the {@link RedisReactiveCacheLock} of the cache, reading cached data or acquiring the initialize lock,
+ * writing cached data and releasing the initialize lock are fused into atomic lua scripts,
+ * so a miss costs two round trips. Without the lock, the fused operations always report the lock as contended
+ * and the cache falls back to the separate operations.
+ * <p>
+ * The fenced writes check the lock holder and write the cached data in one lua script as well,
+ * they are not fenced without the lock.
+ * <p>
+ * The load duration, lock and fencing token keys are hash tagged with the cache key by {@link RedisHashTags},
+ * so the scripts touching them along with the cached data run on Redis Cluster as well.
  *
  * @author Gang Cheng
  * @version 1.0.0
  * @since 1.0.0
  */
 @Slf4j
-@RequiredArgsConstructor
-public class RedisReactiveCacheMonoAdapter implements ReactiveCacheMonoAdapter {
+public class RedisReactiveCacheMonoAdapter implements ReactiveCacheMonoLockingAdapter {
+
+    /**
+     * The marker value of cached empty data
+     */
+    private static final String EMPTY_DATA_MARKER = "[REACTIVE_CACHE_EMPTY_DATA]";
+
+    private static final long CACHED_STATE = 1L;
+    private static final long LOCKED_STATE = 2L;
+
+    /**
+     * Load the cached data along with its time to live and load duration.
+     * KEYS[1]: cache key, KEYS[2]: load duration key.
+     * Returns {data, pttl, load duration} if cached, otherwise an empty list.
+     */
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> LOAD_SCRIPT = RedisScript.of(
+            "local data = redis.call('GET', KEYS[1]) " +
+                    "if data then " +
+                    "  return {data, redis.call('PTTL', KEYS[1]), redis.call('GET', KEYS[2])} " +
+                    "end " +
+                    "return {}",
+            List.class
+    );
+
+    /**
+     * Write the cached data along with its load duration, the stale load duration is removed if it's not stored.
+     * KEYS[1]: cache key, KEYS[2]: load duration key,
+     * ARGV[1]: cache millis, ARGV[2]: data, ARGV[3]: load duration, which is optional.
+     * Returns 1.
+     */
+    private static final RedisScript<Long> CACHE_SCRIPT = RedisScript.of(
+            "redis.call('SET', KEYS[1], ARGV[2], 'PX', ARGV[1]) " +
+                    "if ARGV[3] then " +
+                    "  redis.call('SET', KEYS[2], ARGV[3], 'PX', ARGV[1]) " +
+                    "else " +
+                    "  redis.call('DEL', KEYS[2]) " +
+                    "end " +
+                    "return 1",
+            Long.class
+    );
+
+    /**
+     * Load the cached data if present, otherwise acquire the lock at once if nobody holds it.
+     * KEYS[1]: cache key, KEYS[2]: load duration key, KEYS[3]: lock key, KEYS[4]: fencing token key,
+     * ARGV[1]: lease millis, ARGV[2]: fencing token retention millis, ARGV[3]: '1' if the lock is checked before reading.
+     * Returns {1, data, pttl, load duration} if cached, {2, operation id} if locked, otherwise {0}.
+     */
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> LOAD_OR_LOCK_SCRIPT = RedisScript.of(
+            "local locked = redis.call('EXISTS', KEYS[3]) == 1 " +
+                    "if locked and ARGV[3] == '1' then " +
+                    "  return {0} " +
+                    "end " +
+                    "local data = redis.call('GET', KEYS[1]) " +
+                    "if data then " +
+                    "  return {1, data, redis.call('PTTL', KEYS[1]), redis.call('GET', KEYS[2])} " +
+                    "end " +
+                    "if locked then " +
+                    "  return {0} " +
+                    "end " +
+                    "local token = redis.call('INCR', KEYS[4]) " +
+                    "redis.call('PEXPIRE', KEYS[4], ARGV[2]) " +
+                    "redis.call('LPUSH', KEYS[3], token) " +
+                    "redis.call('PEXPIRE', KEYS[3], ARGV[1]) " +
+                    "return {2, token}",
+            List.class
+    );
+
+    /**
+     * Write the cached data if the lock is held by the operation, the stale load duration is removed if it's not stored.
+     * KEYS[1]: cache key, KEYS[2]: load duration key, KEYS[3]: lock key,
+     * ARGV[1]: operation id, ARGV[2]: cache millis, ARGV[3]: data, ARGV[4]: load duration, which is optional.
+     * Returns 1 if written, otherwise 0.
+     */
+    private static final RedisScript<Long> FENCED_CACHE_SCRIPT = RedisScript.of(
+            "if redis.call('LINDEX', KEYS[3], -1) ~= ARGV[1] then " +
+                    "  return 0 " +
+                    "end " +
+                    "redis.call('SET', KEYS[1], ARGV[3], 'PX', ARGV[2]) " +
+                    "if ARGV[4] then " +
+                    "  redis.call('SET', KEYS[2], ARGV[4], 'PX', ARGV[2]) " +
+                    "else " +
+                    "  redis.call('DEL', KEYS[2]) " +
+                    "end " +
+                    "return 1",
+            Long.class
+    );
+
+    /**
+     * Write the cached data and release the lock if the lock is held by the operation,
+     * the stale load duration is removed if it's not stored.
+     * KEYS[1]: cache key, KEYS[2]: load duration key, KEYS[3]: lock key,
+     * ARGV[1]: operation id, ARGV[2]: cache millis, ARGV[3]: lock released channel, ARGV[4]: lock released message,
+     * ARGV[5]: data, ARGV[6]: load duration, which is optional.
+     * Returns 1 if written, otherwise 0.
+     */
+    private static final RedisScript<Long> CACHE_AND_RELEASE_SCRIPT = RedisScript.of(
+            "if redis.call('LINDEX', KEYS[3], -1) ~= ARGV[1] then " +
+                    "  return 0 " +
+                    "end " +
+                    "redis.call('SET', KEYS[1], ARGV[5], 'PX', ARGV[2]) " +
+                    "if ARGV[6] then " +
+                    "  redis.call('SET', KEYS[2], ARGV[6], 'PX', ARGV[2]) " +
+                    "else " +
+                    "  redis.call('DEL', KEYS[2]) " +
+                    "end " +
+                    "redis.call('LREM', KEYS[3], -1, ARGV[1]) " +
+                    "redis.call('PUBLISH', ARGV[3], ARGV[4]) " +
+                    "return 1",
+            Long.class
+    );
+
+    /**
+     * The writer of script arguments, the serialized values are passed through and the others are raw strings
+     */
+    private static final RedisElementWriter<Object> SCRIPT_ARGS_WRITER = element -> element instanceof ByteBuffer
+            ? (ByteBuffer) element
+            : ByteBuffer.wrap(String.valueOf(element).getBytes(StandardCharsets.UTF_8));
 
     private final ReactiveRedisTemplate<String, Object> reactiveRedisTemplate;
+    /**
+     * The redis reactive cache lock, null if the fused operations are not supported
+     */
+    private final RedisReactiveCacheLock redisReactiveCacheLock;
+
+    public RedisReactiveCacheMonoAdapter(@NonNull ReactiveRedisTemplate<String, Object> reactiveRedisTemplate) {
+        this.reactiveRedisTemplate = reactiveRedisTemplate;
+        this.redisReactiveCacheLock = null;
+    }
+
+    public RedisReactiveCacheMonoAdapter(@NonNull ReactiveRedisTemplate<String, Object> reactiveRedisTemplate,
+                                         @NonNull RedisReactiveCacheLock redisReactiveCacheLock) {
+        this.reactiveRedisTemplate = reactiveRedisTemplate;
+        this.redisReactiveCacheLock = redisReactiveCacheLock;
+    }
 
     @Override
     public Mono<Boolean> hasData(@NonNull String cacheKey) {
@@ -30,29 +192,443 @@ public class RedisReactiveCacheMonoAdapter implements ReactiveCacheMonoAdapter {
     @SuppressWarnings("unchecked")
     @Override
     public <T> Mono<T> loadData(@NonNull String cacheKey) {
-        return reactiveRedisTemplate.hasKey(cacheKey)
-                .filter(Boolean::booleanValue)
-                .flatMap(hasKey -> (Mono<T>) reactiveRedisTemplate.opsForValue()
-                        .get(cacheKey)
-                );
+        return (Mono<T>) reactiveRedisTemplate.opsForValue()
+                .get(cacheKey)
+                .filter(data -> !EMPTY_DATA_MARKER.equals(data));
     }
 
+    /**
+     * Load the cached data, its time to live and load duration in one script,
+     * so they are always read from the same write.
+     */
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T> Mono<CachedData<T>> loadDataIfPresent(@NonNull String cacheKey) {
+        return this.executeScript(LOAD_SCRIPT, Arrays.asList(cacheKey, decorateLoadDurationKey(cacheKey)))
+                .map(result -> {
+                    List<Object> values = (List<Object>) result;
+                    if (values.isEmpty()) {
+                        return CachedData.<T>absent();
+                    }
+                    return this.<T>toCachedData(values, 0);
+                });
+    }
+
+    /**
+     * Write the cached data and its load duration in one script, so they are always written together.
+     */
     @Override
     public <T> Mono<T> cacheData(@NonNull String cacheKey,
                                  @NonNull Duration cacheDuration,
                                  @NonNull Mono<T> sourcePublisher) {
-        return sourcePublisher.flatMap(nextData -> reactiveRedisTemplate.opsForValue()
-                .set(cacheKey, nextData, cacheDuration)
-                .thenReturn(nextData)
-        );
+        return sourcePublisher.elapsed()
+                .flatMap(elapsedData -> this.writeData(cacheKey, cacheDuration, elapsedData.getT2(), elapsedData.getT1())
+                        .thenReturn(elapsedData.getT2())
+                );
+    }
+
+    /**
+     * Write the empty data marker and remove the load duration of the former cached data in one script.
+     */
+    @Override
+    public Mono<Void> cacheEmptyData(@NonNull String cacheKey, @NonNull Duration cacheDuration) {
+        return this.writeData(cacheKey, cacheDuration, EMPTY_DATA_MARKER, null);
+    }
+
+    /**
+     * Check the lock holder and write the cached data along with its load duration in one script.
+     */
+    @Override
+    public <T> Mono<T> cacheFencedData(@NonNull String cacheName,
+                                       @NonNull String cacheKey,
+                                       @NonNull String operationId,
+                                       @NonNull Duration cacheDuration,
+                                       @NonNull Mono<T> sourcePublisher) {
+        if (Objects.isNull(redisReactiveCacheLock)) {
+            return this.cacheData(cacheKey, cacheDuration, sourcePublisher);
+        }
+        return sourcePublisher.elapsed()
+                .flatMap(elapsedData -> this.writeFencedData(cacheName,
+                                cacheKey,
+                                operationId,
+                                cacheDuration,
+                                elapsedData.getT2(),
+                                elapsedData.getT1()
+                        )
+                        .thenReturn(elapsedData.getT2())
+                );
+    }
+
+    /**
+     * Check the lock holder, write the empty data marker and remove the stale load duration in one script.
+     */
+    @Override
+    public Mono<Void> cacheFencedEmptyData(@NonNull String cacheName,
+                                           @NonNull String cacheKey,
+                                           @NonNull String operationId,
+                                           @NonNull Duration cacheDuration) {
+        if (Objects.isNull(redisReactiveCacheLock)) {
+            return this.cacheEmptyData(cacheKey, cacheDuration);
+        }
+        return this.writeFencedData(cacheName, cacheKey, operationId, cacheDuration, EMPTY_DATA_MARKER, null);
     }
 
     @Override
     public Mono<Void> cleanupData(@NonNull String cacheKey) {
-        return reactiveRedisTemplate.delete(cacheKey)
+        return reactiveRedisTemplate.delete(cacheKey, decorateLoadDurationKey(cacheKey))
                 .then(Mono.defer(() -> {
                     log.debug("[Redis reactive cache mono adapter]Cleanup cached data success, CacheKey: {}",cacheKey);
                     return Mono.empty();
                 }));
     }
+
+    /**
+     * Load all data with a single MGET.
+     */
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T> Mono<Map<String, CachedData<T>>> loadAllDataIfPresent(@NonNull Set<String> cacheKeys) {
+        if (cacheKeys.isEmpty()) {
+            return Mono.just(Collections.emptyMap());
+        }
+        List<String> orderedCacheKeys = new ArrayList<>(cacheKeys);
+        return reactiveRedisTemplate.opsForValue()
+                .multiGet(orderedCacheKeys)
+                .map(values -> {
+                    Map<String, CachedData<T>> cachedDataMap = new LinkedHashMap<>();
+                    for (int i = 0; i < orderedCacheKeys.size(); i++) {
+                        Object value = i < values.size() ? values.get(i) : null;
+                        cachedDataMap.put(orderedCacheKeys.get(i),
+                                this.toCachedData(value)
+                        );
+                    }
+                    return cachedDataMap;
+                });
+    }
+
+    /**
+     * Cache all data with pipelined scripts, which are issued without waiting for each other's reply.
+     * Each script writes the data and removes the load duration left by a former write of the same cache key.
+     */
+    @Override
+    public <T> Mono<Void> cacheAllData(@NonNull Map<String, T> data, @NonNull Duration cacheDuration) {
+        return Flux.fromIterable(data.entrySet())
+                .flatMap(entry -> this.writeData(entry.getKey(), cacheDuration, entry.getValue(), null))
+                .then();
+    }
+
+    /**
+     * Cleanup all cache data with a single DEL.
+     */
+    @Override
+    public Mono<Void> cleanupAllData(@NonNull Set<String> cacheKeys) {
+        if (cacheKeys.isEmpty()) {
+            return Mono.empty();
+        }
+        List<String> deletedKeys = new ArrayList<>(cacheKeys.size() * 2);
+        cacheKeys.forEach(cacheKey -> {
+            deletedKeys.add(cacheKey);
+            deletedKeys.add(decorateLoadDurationKey(cacheKey));
+        });
+        return reactiveRedisTemplate.delete(deletedKeys.toArray(new String[0]))
+                .then(Mono.defer(() -> {
+                    log.debug("[Redis reactive cache mono adapter]Cleanup all cached data success, CacheKeys: {}", cacheKeys);
+                    return Mono.empty();
+                }));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T> Mono<CachedDataOrLock<T>> loadDataOrTryLock(@NonNull String cacheName,
+                                                           @NonNull String cacheKey,
+                                                           @NonNull ReadConsistency readConsistency) {
+        if (Objects.isNull(redisReactiveCacheLock)) {
+            return Mono.just(CachedDataOrLock.contended());
+        }
+        final String cacheInitializeLockKey = redisReactiveCacheLock.decorateCacheInitializeLockKey(cacheName, cacheKey);
+        return this.executeScript(LOAD_OR_LOCK_SCRIPT,
+                        Arrays.asList(cacheKey,
+                                decorateLoadDurationKey(cacheKey),
+                                cacheInitializeLockKey,
+                                redisReactiveCacheLock.decorateFencingTokenKey(cacheInitializeLockKey)
+                        ),
+                        String.valueOf(redisReactiveCacheLock.getLeaseDuration().toMillis()),
+                        String.valueOf(RedisReactiveCacheLock.FENCING_TOKEN_RETENTION.toMillis()),
+                        ReadConsistency.STRICT.equals(readConsistency) ? "1" : "0"
+                )
+                .map(result -> {
+                    List<Object> values = (List<Object>) result;
+                    long state = ((Number) values.get(0)).longValue();
+                    if (state == CACHED_STATE) {
+                        return CachedDataOrLock.cached(this.<T>toCachedData(values, 1));
+                    }
+                    if (state == LOCKED_STATE) {
+                        String currentOperationId = String.valueOf(values.get(1));
+                        redisReactiveCacheLock.startLeaseWatchdog(cacheName, cacheInitializeLockKey, currentOperationId);
+                        log.debug("[Redis reactive cache mono adapter]Cached data is absent and lock initialization success, " +
+                                        "CacheName: {}, CacheKey: {}, CurrentOperationId: {}",
+                                cacheName,
+                                cacheKey,
+                                currentOperationId
+                        );
+                        return CachedDataOrLock.<T>locked(currentOperationId);
+                    }
+                    return CachedDataOrLock.<T>contended();
+                });
+    }
+
+    @Override
+    public <T> Mono<T> cacheDataAndReleaseLock(@NonNull String cacheName,
+                                               @NonNull String cacheKey,
+                                               @NonNull String operationId,
+                                               @NonNull Duration cacheDuration,
+                                               @NonNull Mono<T> sourcePublisher) {
+        return sourcePublisher.elapsed()
+                .flatMap(elapsedData -> this.cacheAndReleaseLock(cacheName,
+                                cacheKey,
+                                operationId,
+                                cacheDuration,
+                                elapsedData.getT2(),
+                                elapsedData.getT1()
+                        )
+                        .thenReturn(elapsedData.getT2())
+                );
+    }
+
+    @Override
+    public Mono<Void> cacheEmptyDataAndReleaseLock(@NonNull String cacheName,
+                                                   @NonNull String cacheKey,
+                                                   @NonNull String operationId,
+                                                   @NonNull Duration cacheDuration) {
+        return this.cacheAndReleaseLock(cacheName, cacheKey, operationId, cacheDuration, EMPTY_DATA_MARKER, null);
+    }
+
+    /**
+     * Write the cached data and release the lock in one script.
+     *
+     * @param cacheName          the cache name
+     * @param cacheKey           the cache key
+     * @param operationId        the operation id holding the lock
+     * @param cacheDuration      the cache duration
+     * @param data               the cached data
+     * @param loadDurationMillis the load duration millis, null if it's not stored
+     * @return empty if written, or error with {@link ReactiveCacheLockLostException}
+     */
+    private Mono<Void> cacheAndReleaseLock(@NonNull String cacheName,
+                                           @NonNull String cacheKey,
+                                           @NonNull String operationId,
+                                           @NonNull Duration cacheDuration,
+                                           @NonNull Object data,
+                                           Long loadDurationMillis) {
+        if (Objects.isNull(redisReactiveCacheLock)) {
+            return Mono.error(new IllegalStateException("Redis reactive cache lock is required to release the lock along with cached data"));
+        }
+        final String cacheInitializeLockKey = redisReactiveCacheLock.decorateCacheInitializeLockKey(cacheName, cacheKey);
+        final RedisSerializationContext.SerializationPair<Object> valueSerializationPair = reactiveRedisTemplate.getSerializationContext()
+                .getValueSerializationPair();
+        List<Object> args = new ArrayList<>(6);
+        args.add(operationId);
+        args.add(String.valueOf(cacheDuration.toMillis()));
+        args.add(redisReactiveCacheLock.decorateCacheInitializeLockReleasedChannel(cacheName));
+        args.add(valueSerializationPair.write(cacheInitializeLockKey));
+        args.add(valueSerializationPair.write(data));
+        if (Objects.nonNull(loadDurationMillis)) {
+            args.add(valueSerializationPair.write(loadDurationMillis));
+        }
+        return this.executeScript(CACHE_AND_RELEASE_SCRIPT,
+                        Arrays.asList(cacheKey, decorateLoadDurationKey(cacheKey), cacheInitializeLockKey),
+                        args.toArray()
+                )
+                .doFinally(signalType -> redisReactiveCacheLock.stopLeaseWatchdog(operationId))
+                .transform(writtenCount -> this.ensureWritten(cacheName, cacheKey, operationId, writtenCount))
+                .doOnSuccess(ignore -> log.debug("[Redis reactive cache mono adapter]Cache data and release lock success, " +
+                                "CacheName: {}, CacheKey: {}, OperationId: {}",
+                        cacheName,
+                        cacheKey,
+                        operationId
+                ));
+    }
+
+    /**
+     * Write the cached data if the lock is held by the operation in one script.
+     *
+     * @param cacheName          the cache name
+     * @param cacheKey           the cache key
+     * @param operationId        the operation id holding the lock
+     * @param cacheDuration      the cache duration
+     * @param data               the cached data
+     * @param loadDurationMillis the load duration millis, null if it's not stored
+     * @return empty if written, or error with {@link ReactiveCacheLockLostException}
+     */
+    private Mono<Void> writeFencedData(@NonNull String cacheName,
+                                       @NonNull String cacheKey,
+                                       @NonNull String operationId,
+                                       @NonNull Duration cacheDuration,
+                                       @NonNull Object data,
+                                       Long loadDurationMillis) {
+        final String cacheInitializeLockKey = redisReactiveCacheLock.decorateCacheInitializeLockKey(cacheName, cacheKey);
+        final RedisSerializationContext.SerializationPair<Object> valueSerializationPair = reactiveRedisTemplate.getSerializationContext()
+                .getValueSerializationPair();
+        List<Object> args = new ArrayList<>(4);
+        args.add(operationId);
+        args.add(String.valueOf(cacheDuration.toMillis()));
+        args.add(valueSerializationPair.write(data));
+        if (Objects.nonNull(loadDurationMillis)) {
+            args.add(valueSerializationPair.write(loadDurationMillis));
+        }
+        return this.executeScript(FENCED_CACHE_SCRIPT,
+                        Arrays.asList(cacheKey, decorateLoadDurationKey(cacheKey), cacheInitializeLockKey),
+                        args.toArray()
+                )
+                .transform(writtenCount -> this.ensureWritten(cacheName, cacheKey, operationId, writtenCount));
+    }
+
+    /**
+     * Ensure the fenced script wrote the cached data.
+     *
+     * @param cacheName    the cache name
+     * @param cacheKey     the cache key
+     * @param operationId  the operation id holding the lock
+     * @param writtenCount the written count returned by the script
+     * @return empty if written, or error with {@link ReactiveCacheLockLostException}
+     */
+    private Mono<Void> ensureWritten(@NonNull String cacheName,
+                                     @NonNull String cacheKey,
+                                     @NonNull String operationId,
+                                     @NonNull Mono<Long> writtenCount) {
+        return writtenCount.filter(written -> written == 1)
+                .switchIfEmpty(Mono.defer(() -> {
+                    log.warn("[Redis reactive cache mono adapter]Initialize lock is lost before writing cached data, " +
+                                    "CacheName: {}, CacheKey: {}, OperationId: {}",
+                            cacheName,
+                            cacheKey,
+                            operationId
+                    );
+                    return Mono.error(new ReactiveCacheLockLostException(cacheName, cacheKey, operationId));
+                }))
+                .then();
+    }
+
+    /**
+     * Write the cached data and its load duration in one script.
+     *
+     * @param cacheKey           the cache key
+     * @param cacheDuration      the cache duration
+     * @param data               the cached data
+     * @param loadDurationMillis the load duration millis, null if it's not stored
+     * @return the Void
+     */
+    private Mono<Void> writeData(@NonNull String cacheKey,
+                                 @NonNull Duration cacheDuration,
+                                 @NonNull Object data,
+                                 Long loadDurationMillis) {
+        final RedisSerializationContext.SerializationPair<Object> valueSerializationPair = reactiveRedisTemplate.getSerializationContext()
+                .getValueSerializationPair();
+        List<Object> args = new ArrayList<>(3);
+        args.add(String.valueOf(cacheDuration.toMillis()));
+        args.add(valueSerializationPair.write(data));
+        if (Objects.nonNull(loadDurationMillis)) {
+            args.add(valueSerializationPair.write(loadDurationMillis));
+        }
+        return this.executeScript(CACHE_SCRIPT,
+                        Arrays.asList(cacheKey, decorateLoadDurationKey(cacheKey)),
+                        args.toArray()
+                )
+                .then();
+    }
+
+    /**
+     * Execute the lua script, the result is read by the value serializer of the template.
+     *
+     * @param <T>    the result type
+     * @param script the lua script
+     * @param keys   the keys
+     * @param args   the serialized values or raw string arguments
+     * @return the result of the script
+     */
+    @SuppressWarnings("unchecked")
+    private <T> Mono<T> executeScript(@NonNull RedisScript<T> script, @NonNull List<String> keys, Object... args) {
+        return reactiveRedisTemplate.execute(script,
+                        keys,
+                        Arrays.asList(args),
+                        SCRIPT_ARGS_WRITER,
+                        (RedisElementReader<T>) reactiveRedisTemplate.getSerializationContext()
+                                .getValueSerializationPair()
+                                .getReader()
+                )
+                .next();
+    }
+
+    /**
+     * Convert the values loaded by a script to cached data.
+     *
+     * @param <T>    the cached data type
+     * @param values the values loaded by the script
+     * @param offset the index of data, which is followed by the time to live millis and the load duration millis
+     * @return the cached data
+     */
+    private <T> CachedData<T> toCachedData(@NonNull List<Object> values, int offset) {
+        Object loadDurationMillis = values.size() > offset + 2 ? values.get(offset + 2) : null;
+        return this.toCachedData(values.get(offset),
+                Duration.ofMillis(((Number) values.get(offset + 1)).longValue()),
+                Objects.isNull(loadDurationMillis)
+                        ? Duration.ZERO
+                        : Duration.ofMillis(((Number) loadDurationMillis).longValue())
+        );
+    }
+
+    /**
+     * Convert the value loaded from redis to cached data.
+     *
+     * @param <T>            the cached data type
+     * @param data           the loaded value
+     * @param expireDuration the remaining time to live, zero or negative if unknown
+     * @param loadDuration   the load duration, zero if unknown
+     * @return the cached data
+     */
+    @SuppressWarnings("unchecked")
+    private <T> CachedData<T> toCachedData(@NonNull Object data,
+                                           @NonNull Duration expireDuration,
+                                           @NonNull Duration loadDuration) {
+        boolean emptyData = EMPTY_DATA_MARKER.equals(data);
+        if (expireDuration.isZero() || expireDuration.isNegative()) {
+            return emptyData ? CachedData.<T>empty() : CachedData.of((T) data);
+        }
+        Instant expireTime = Instant.now().plus(expireDuration);
+        if (emptyData) {
+            return CachedData.<T>empty(expireTime);
+        }
+        if (loadDuration.isZero()) {
+            return CachedData.of((T) data, expireTime);
+        }
+        return CachedData.of((T) data, expireTime, loadDuration);
+    }
+
+    /**
+     * Convert the value loaded from redis to cached data.
+     *
+     * @param <T>   the cached data type
+     * @param value the loaded value, null if absent
+     * @return the cached data
+     */
+    @SuppressWarnings("unchecked")
+    private <T> CachedData<T> toCachedData(Object value) {
+        if (Objects.isNull(value)) {
+            return CachedData.absent();
+        }
+        if (EMPTY_DATA_MARKER.equals(value)) {
+            return CachedData.empty();
+        }
+        return CachedData.of((T) value);
+    }
+
+    /**
+     * Decorate the key of load duration which is stored along with the cached data in the same hash slot.
+     *
+     * @param cacheKey the cache key
+     * @return the decorated load duration key
+     */
+    private String decorateLoadDurationKey(@NonNull String cacheKey) {
+        return RedisHashTags.hashTagged(cacheKey) + ":LOAD_DURATION";
+    }
 }
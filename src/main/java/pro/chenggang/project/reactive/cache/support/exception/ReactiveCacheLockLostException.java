@@ -0,0 +1,32 @@
+package pro.chenggang.project.reactive.cache.support.exception;
+
+import lombok.Getter;
+
+/**
+ * Initialize lock lost exception, the operation doesn't hold the initialize lock any more when writing cached data
+ *
+ * @author Gang Cheng
+ * @version 1.1.0
+ * @since 1.1.0
+ */
+@Getter
+public class ReactiveCacheLockLostException extends RuntimeException {
+
+    private static final long serialVersionUID = -2684375519376024917L;
+
+    private final String cacheName;
+    private final String cacheKey;
+    private final String operationId;
+
+    public ReactiveCacheLockLostException(String cacheName, String cacheKey, String operationId) {
+        super(String.format("Initialize lock for key '%s' of Cache '%s' is lost by operation '%s'",
+                cacheKey,
+                cacheName,
+                operationId
+        ));
+        this.cacheName = cacheName;
+        this.cacheKey = cacheKey;
+        this.operationId = operationId;
+    }
+
+}
@@ -2,67 +2,125 @@ package pro.chenggang.project.reactive.cache.support.toolkit;
 
 import lombok.Getter;
 import lombok.NonNull;
-import reactor.core.publisher.Flux;
-import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
+import lombok.extern.slf4j.Slf4j;
 
 import java.time.Duration;
+import java.util.Arrays;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.DelayQueue;
-import java.util.concurrent.Delayed;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
+import java.util.function.ToIntBiFunction;
 
 /**
  * The auto expired data cache.
+ * <p>
+ * The expired data is removed by a {@link TimingWheel} on the tick its duration elapses,
+ * and is treated as absent when it's read before being removed.
+ * The timing wheel could be shared by many instances, so they are serviced by one ticker thread.
+ * <p>
+ * The cache could also be bounded by entry count and total weight, the data is evicted by sampled LFU when
+ * exceeding the bounds: a few random entries are sampled and the least frequently read one is evicted,
+ * the access frequencies decay periodically, so a burst of one-off keys evicts each other instead of the hot data.
  *
  * @param <T> the cached data type
  * @author Gang Cheng
- * @version 1.0.0
+ * @version 1.1.0
  * @since 1.0.0
  */
+@Slf4j
 public class AutoExpiredDataCache<T> {
 
+    /**
+     * Unbounded entry count or total weight
+     */
+    public static final long UNBOUNDED = -1;
+
     private final AtomicBoolean startFlag = new AtomicBoolean(false);
     private final Map<String, AutoExpiredDataWrapper<T>> cachedDataContainer = new ConcurrentHashMap<>();
-    private final DelayQueue<AutoExpiredDataWrapper<T>> delayQueue = new DelayQueue<>();
+    private final TimingWheel timingWheel;
+    /**
+     * The eviction of bounded cache, null if unbounded
+     */
+    private final SampledEviction<T> sampledEviction;
 
     /**
-     * New instance of auto expired data cache.
+     * New instance of auto expired data cache which expires data by {@link TimingWheel#shared()}.
      *
      * @param <T> the cached data type
      * @return the auto expired data cache
      */
     public static <T> AutoExpiredDataCache<T> newInstance() {
-        return new AutoExpiredDataCache<>();
+        return new AutoExpiredDataCache<>(TimingWheel.shared());
+    }
+
+    /**
+     * New instance of auto expired data cache which expires data by the shared timing wheel.
+     * The timing wheel is started if it's not started yet, and is not disposed by the cache.
+     *
+     * @param <T>         the cached data type
+     * @param timingWheel the shared timing wheel
+     * @return the auto expired data cache
+     */
+    public static <T> AutoExpiredDataCache<T> newInstance(@NonNull TimingWheel timingWheel) {
+        return new AutoExpiredDataCache<>(timingWheel);
+    }
+
+    /**
+     * New instance of bounded auto expired data cache which expires data by the shared timing wheel.
+     *
+     * @param <T>           the cached data type
+     * @param timingWheel   the shared timing wheel
+     * @param maximumSize   the maximum entry count, {@link #UNBOUNDED} if unbounded
+     * @param maximumWeight the maximum total weight, {@link #UNBOUNDED} if unbounded
+     * @param weigher       the weigher of data
+     * @return the auto expired data cache
+     */
+    public static <T> AutoExpiredDataCache<T> newInstance(@NonNull TimingWheel timingWheel,
+                                                          long maximumSize,
+                                                          long maximumWeight,
+                                                          @NonNull ToIntBiFunction<String, T> weigher) {
+        return new AutoExpiredDataCache<>(timingWheel, maximumSize, maximumWeight, weigher);
     }
 
     /**
      * Instantiates a new Auto expired data cache.
+     *
+     * @param timingWheel the timing wheel
      */
-    protected AutoExpiredDataCache() {
+    protected AutoExpiredDataCache(@NonNull TimingWheel timingWheel) {
+        this.timingWheel = timingWheel;
+        this.sampledEviction = null;
+        startup();
+    }
+
+    /**
+     * Instantiates a new bounded Auto expired data cache.
+     *
+     * @param timingWheel   the timing wheel
+     * @param maximumSize   the maximum entry count, {@link #UNBOUNDED} if unbounded
+     * @param maximumWeight the maximum total weight, {@link #UNBOUNDED} if unbounded
+     * @param weigher       the weigher of data
+     */
+    protected AutoExpiredDataCache(@NonNull TimingWheel timingWheel,
+                                   long maximumSize,
+                                   long maximumWeight,
+                                   @NonNull ToIntBiFunction<String, T> weigher) {
+        this.timingWheel = timingWheel;
+        this.sampledEviction = maximumSize < 0 && maximumWeight < 0
+                ? null
+                : new SampledEviction<>(this, maximumSize, maximumWeight, weigher);
         startup();
     }
 
     protected void startup() {
         if (startFlag.compareAndSet(false, true)) {
-            Flux.interval(Duration.ofMillis(100))
-                    .flatMap(__ -> Mono.fromFuture(CompletableFuture.runAsync(() -> {
-                        AutoExpiredDataWrapper<T> data = delayQueue.poll();
-                        if (Objects.nonNull(data) && cachedDataContainer.containsKey(data.getDataKey())) {
-                            cachedDataContainer.remove(data.getDataKey(), data);
-                        }
-                    })))
-                    .subscribeOn(Schedulers.newSingle(r -> {
-                        Thread daemonThread = new Thread(r, "cache-daemon-");
-                        daemonThread.setDaemon(true);
-                        return daemonThread;
-                    }))
-                    .subscribe();
+            timingWheel.start();
         }
     }
 
@@ -73,7 +131,7 @@ public class AutoExpiredDataCache<T> {
      * @return true if associated data exists
      */
     public boolean hasData(@NonNull String dataKey) {
-        return this.cachedDataContainer.containsKey(dataKey);
+        return this.getAliveData(dataKey).isPresent();
     }
 
     /**
@@ -88,24 +146,48 @@ public class AutoExpiredDataCache<T> {
             throw new IllegalArgumentException(
                     "Expired duration could not be negative or zero, current value is : " + expiredDuration);
         }
-        return cachedDataContainer.compute(dataKey, (key, value) -> {
-                    if (Objects.isNull(value)) {
-                        AutoExpiredDataWrapper<T> autoExpiredDataWrapper = new AutoExpiredDataWrapper<>(dataKey,
-                                data,
-                                expiredDuration
-                        );
-                        delayQueue.add(autoExpiredDataWrapper);
-                        return autoExpiredDataWrapper;
-                    }
-                    value.terminate();
-                    AutoExpiredDataWrapper<T> autoExpiredDataWrapper = new AutoExpiredDataWrapper<>(dataKey,
-                            data,
-                            expiredDuration
-                    );
-                    delayQueue.add(autoExpiredDataWrapper);
-                    return autoExpiredDataWrapper;
-                })
-                .getData();
+        AutoExpiredDataWrapper<T> autoExpiredDataWrapper = new AutoExpiredDataWrapper<>(dataKey,
+                data,
+                expiredDuration
+        );
+        AutoExpiredDataWrapper<T> replacedDataWrapper = cachedDataContainer.put(dataKey, autoExpiredDataWrapper);
+        this.onPut(autoExpiredDataWrapper, replacedDataWrapper);
+        return data;
+    }
+
+    /**
+     * Put the auto expired data if it is absent, otherwise replace exists data if it's replaceable,
+     * checking and putting are done in one atomic operation of the data key.
+     *
+     * @param dataKey         the data key
+     * @param data            the data
+     * @param expiredDuration the expired duration
+     * @param replaceable     whether the alive exists data could be replaced
+     * @return true if the data is put
+     */
+    public boolean putDataIf(@NonNull String dataKey,
+                             @NonNull T data,
+                             @NonNull Duration expiredDuration,
+                             @NonNull Predicate<T> replaceable) {
+        AutoExpiredDataWrapper<T> autoExpiredDataWrapper = new AutoExpiredDataWrapper<>(dataKey,
+                data,
+                expiredDuration
+        );
+        AtomicReference<AutoExpiredDataWrapper<T>> replacedDataWrapper = new AtomicReference<>();
+        AutoExpiredDataWrapper<T> currentDataWrapper = cachedDataContainer.compute(dataKey, (key, existsDataWrapper) -> {
+            if (Objects.nonNull(existsDataWrapper)
+                    && !existsDataWrapper.isExpired()
+                    && !replaceable.test(existsDataWrapper.getData())) {
+                return existsDataWrapper;
+            }
+            replacedDataWrapper.set(existsDataWrapper);
+            return autoExpiredDataWrapper;
+        });
+        if (currentDataWrapper != autoExpiredDataWrapper) {
+            return false;
+        }
+        this.onPut(autoExpiredDataWrapper, replacedDataWrapper.get());
+        return true;
     }
 
     /**
@@ -115,8 +197,14 @@ public class AutoExpiredDataCache<T> {
      * @return the optional data
      */
     public Optional<T> getData(@NonNull String dataKey) {
-        return Optional.ofNullable(this.cachedDataContainer.get(dataKey))
-                .map(AutoExpiredDataWrapper::getData);
+        return this.getAliveData(dataKey)
+                .map(autoExpiredDataWrapper -> {
+                    if (Objects.nonNull(sampledEviction)) {
+                        autoExpiredDataWrapper.recordAccess();
+                        sampledEviction.onAccess();
+                    }
+                    return autoExpiredDataWrapper.getData();
+                });
     }
 
     /**
@@ -125,12 +213,233 @@ public class AutoExpiredDataCache<T> {
      * @param dataKey the data key
      */
     public void removeData(@NonNull String dataKey) {
-        if (!this.cachedDataContainer.containsKey(dataKey)) {
-            return;
+        AutoExpiredDataWrapper<T> autoExpiredDataWrapper = this.cachedDataContainer.remove(dataKey);
+        if (Objects.nonNull(autoExpiredDataWrapper)) {
+            autoExpiredDataWrapper.terminate();
+            if (Objects.nonNull(sampledEviction)) {
+                sampledEviction.onRemove(autoExpiredDataWrapper);
+            }
         }
+    }
+
+    /**
+     * The entry count of the cache, which may include the expired data not removed yet.
+     *
+     * @return the entry count
+     */
+    public int size() {
+        return this.cachedDataContainer.size();
+    }
+
+    /**
+     * Gets the data which is not expired yet, the expired one is removed eagerly.
+     *
+     * @param dataKey the data key
+     * @return the optional alive data
+     */
+    private Optional<AutoExpiredDataWrapper<T>> getAliveData(String dataKey) {
         AutoExpiredDataWrapper<T> autoExpiredDataWrapper = this.cachedDataContainer.get(dataKey);
-        autoExpiredDataWrapper.terminate();
-        cachedDataContainer.remove(dataKey);
+        if (Objects.isNull(autoExpiredDataWrapper)) {
+            return Optional.empty();
+        }
+        if (autoExpiredDataWrapper.isExpired()) {
+            if (this.remove(autoExpiredDataWrapper)) {
+                autoExpiredDataWrapper.terminate();
+            }
+            return Optional.empty();
+        }
+        return Optional.of(autoExpiredDataWrapper);
+    }
+
+    /**
+     * Schedule the removal of the put data, and terminate the replaced one.
+     *
+     * @param putDataWrapper      the put data
+     * @param replacedDataWrapper the replaced data, null if nothing replaced
+     */
+    private void onPut(AutoExpiredDataWrapper<T> putDataWrapper, AutoExpiredDataWrapper<T> replacedDataWrapper) {
+        putDataWrapper.timeout = timingWheel.schedule(() -> this.remove(putDataWrapper),
+                putDataWrapper.getExpiredDuration()
+        );
+        if (Objects.nonNull(replacedDataWrapper)) {
+            replacedDataWrapper.terminate();
+        }
+        if (Objects.nonNull(sampledEviction)) {
+            sampledEviction.onPut(putDataWrapper, replacedDataWrapper);
+        }
+    }
+
+    /**
+     * Remove the data if it's still associated with its data key.
+     *
+     * @param autoExpiredDataWrapper the data
+     * @return true if removed
+     */
+    private boolean remove(AutoExpiredDataWrapper<T> autoExpiredDataWrapper) {
+        if (!this.cachedDataContainer.remove(autoExpiredDataWrapper.getDataKey(), autoExpiredDataWrapper)) {
+            return false;
+        }
+        if (Objects.nonNull(sampledEviction)) {
+            sampledEviction.onRemove(autoExpiredDataWrapper);
+        }
+        return true;
+    }
+
+    /**
+     * The sampled LFU eviction of bounded cache
+     * <p>
+     * The tracked data are kept in an array, so random sampling is O(1), and removal swaps the last one into
+     * the hole. The array is guarded by the eviction itself, reading only bumps the frequency of the data.
+     *
+     * @param <DATA> the actual data type
+     */
+    private static class SampledEviction<DATA> {
+
+        /**
+         * The count of data sampled for each eviction
+         */
+        private static final int SAMPLE_SIZE = 5;
+        /**
+         * The minimum count of accesses between two frequency decays
+         */
+        private static final int MIN_DECAY_INTERVAL = 1024;
+        @SuppressWarnings("rawtypes")
+        private static final AtomicIntegerFieldUpdater<SampledEviction> ACCESS_COUNT_UPDATER =
+                AtomicIntegerFieldUpdater.newUpdater(SampledEviction.class, "accessCount");
+
+        private final AutoExpiredDataCache<DATA> autoExpiredDataCache;
+        private final long maximumSize;
+        private final long maximumWeight;
+        private final ToIntBiFunction<String, DATA> weigher;
+        private AutoExpiredDataWrapper<?>[] trackedData = new AutoExpiredDataWrapper<?>[16];
+        private int trackedSize;
+        private long totalWeight;
+        private volatile int accessCount;
+
+        private SampledEviction(AutoExpiredDataCache<DATA> autoExpiredDataCache,
+                                long maximumSize,
+                                long maximumWeight,
+                                ToIntBiFunction<String, DATA> weigher) {
+            this.autoExpiredDataCache = autoExpiredDataCache;
+            this.maximumSize = maximumSize;
+            this.maximumWeight = maximumWeight;
+            this.weigher = weigher;
+        }
+
+        private void onPut(AutoExpiredDataWrapper<DATA> putDataWrapper, AutoExpiredDataWrapper<DATA> replacedDataWrapper) {
+            int weight = maximumWeight < 0 ? 1 : weigher.applyAsInt(putDataWrapper.getDataKey(), putDataWrapper.getData());
+            if (weight < 0) {
+                throw new IllegalArgumentException("Weight of data could not be negative, current value is : " + weight);
+            }
+            synchronized (this) {
+                if (Objects.nonNull(replacedDataWrapper)) {
+                    this.untrack(replacedDataWrapper);
+                }
+                if (putDataWrapper.trackedIndex == AutoExpiredDataWrapper.UNTRACKED) {
+                    putDataWrapper.weight = weight;
+                    if (trackedSize == trackedData.length) {
+                        trackedData = Arrays.copyOf(trackedData, trackedSize << 1);
+                    }
+                    putDataWrapper.trackedIndex = trackedSize;
+                    trackedData[trackedSize++] = putDataWrapper;
+                    totalWeight += weight;
+                }
+                this.evictIfNecessary(putDataWrapper);
+            }
+        }
+
+        private synchronized void onRemove(AutoExpiredDataWrapper<DATA> removedDataWrapper) {
+            this.untrack(removedDataWrapper);
+        }
+
+        /**
+         * Record an access, the frequencies of all data are halved every a few times of tracked data count accesses,
+         * so the data hot in the past doesn't stay forever.
+         */
+        private void onAccess() {
+            if (ACCESS_COUNT_UPDATER.incrementAndGet(this) < this.decayInterval()) {
+                return;
+            }
+            synchronized (this) {
+                if (accessCount < this.decayInterval()) {
+                    return;
+                }
+                accessCount = 0;
+                for (int i = 0; i < trackedSize; i++) {
+                    trackedData[i].decayFrequency();
+                }
+            }
+        }
+
+        private int decayInterval() {
+            return Math.max(MIN_DECAY_INTERVAL, trackedSize * 10);
+        }
+
+        private void untrack(AutoExpiredDataWrapper<?> dataWrapper) {
+            int index = dataWrapper.trackedIndex;
+            dataWrapper.trackedIndex = AutoExpiredDataWrapper.REMOVED;
+            if (index < 0) {
+                return;
+            }
+            AutoExpiredDataWrapper<?> lastDataWrapper = trackedData[--trackedSize];
+            trackedData[index] = lastDataWrapper;
+            lastDataWrapper.trackedIndex = index;
+            trackedData[trackedSize] = null;
+            totalWeight -= dataWrapper.weight;
+        }
+
+        @SuppressWarnings("unchecked")
+        private void evictIfNecessary(AutoExpiredDataWrapper<DATA> putDataWrapper) {
+            if (maximumWeight >= 0 && putDataWrapper.weight > maximumWeight) {
+                // never fits, the other data is kept
+                this.evict(putDataWrapper);
+                return;
+            }
+            while (trackedSize > 0
+                    && ((maximumSize >= 0 && trackedSize > maximumSize) || (maximumWeight >= 0 && totalWeight > maximumWeight))) {
+                AutoExpiredDataWrapper<DATA> victim = (AutoExpiredDataWrapper<DATA>) this.sampleVictim(putDataWrapper);
+                if (Objects.isNull(victim)) {
+                    continue;
+                }
+                this.evict(victim);
+            }
+        }
+
+        private void evict(AutoExpiredDataWrapper<DATA> victim) {
+            this.untrack(victim);
+            if (autoExpiredDataCache.cachedDataContainer.remove(victim.getDataKey(), victim)) {
+                victim.terminate();
+                log.debug("[Auto expired data cache]Evicted data, DataKey: {}", victim.getDataKey());
+            }
+        }
+
+        /**
+         * Sample the victim, which is the least frequently accessed one, or the least recently accessed one
+         * if the frequencies are the same.
+         * The put data is not sampled unless it's the only one, so it's readable after put as long as it fits.
+         *
+         * @param putDataWrapper the put data
+         * @return the victim, null if only the put data is sampled
+         */
+        private AutoExpiredDataWrapper<?> sampleVictim(AutoExpiredDataWrapper<DATA> putDataWrapper) {
+            if (trackedSize == 1) {
+                return trackedData[0];
+            }
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            AutoExpiredDataWrapper<?> victim = null;
+            for (int i = 0; i < SAMPLE_SIZE; i++) {
+                AutoExpiredDataWrapper<?> candidate = trackedData[random.nextInt(trackedSize)];
+                if (candidate == putDataWrapper) {
+                    continue;
+                }
+                if (Objects.isNull(victim)
+                        || candidate.frequency < victim.frequency
+                        || (candidate.frequency == victim.frequency && candidate.lastAccessNanos - victim.lastAccessNanos < 0)) {
+                    victim = candidate;
+                }
+            }
+            return victim;
+        }
     }
 
     /**
@@ -138,10 +447,17 @@ public class AutoExpiredDataCache<T> {
      *
      * @param <DATA> the actual data type
      * @author Gang Cheng
-     * @version 1.0.0
+     * @version 1.1.0
      * @since 1.0.0
      */
-    private static class AutoExpiredDataWrapper<DATA> implements Delayed {
+    private static class AutoExpiredDataWrapper<DATA> {
+
+        private static final int UNTRACKED = -1;
+        private static final int REMOVED = -2;
+        private static final int MAX_FREQUENCY = 15;
+        @SuppressWarnings("rawtypes")
+        private static final AtomicIntegerFieldUpdater<AutoExpiredDataWrapper> FREQUENCY_UPDATER =
+                AtomicIntegerFieldUpdater.newUpdater(AutoExpiredDataWrapper.class, "frequency");
 
         @Getter
         @NonNull
@@ -152,8 +468,24 @@ public class AutoExpiredDataCache<T> {
         @Getter
         @NonNull
         private final Duration expiredDuration;
-        private final long targetExpireTime;
-        private final AtomicBoolean terminated = new AtomicBoolean(false);
+        private final long targetExpireNanos;
+        /**
+         * The timeout which removes the data, assigned right after the data is put
+         */
+        private volatile TimingWheel.Timeout timeout;
+        /**
+         * The index in the tracked data of sampled eviction, guarded by the eviction
+         */
+        private int trackedIndex = UNTRACKED;
+        /**
+         * The weight of data, guarded by the eviction
+         */
+        private int weight;
+        /**
+         * The saturated access frequency
+         */
+        private volatile int frequency;
+        private volatile long lastAccessNanos = System.nanoTime();
 
         private AutoExpiredDataWrapper(@NonNull String dataKey,
                                        @NonNull DATA data,
@@ -165,31 +497,28 @@ public class AutoExpiredDataCache<T> {
             }
             this.data = data;
             this.expiredDuration = expiredDuration;
-            this.targetExpireTime = System.currentTimeMillis() + this.expiredDuration.toMillis();
+            this.targetExpireNanos = System.nanoTime() + this.expiredDuration.toNanos();
         }
 
-        @Override
-        public long getDelay(TimeUnit unit) {
-            if (terminated.get()) {
-                return 0;
+        private void recordAccess() {
+            this.lastAccessNanos = System.nanoTime();
+            if (this.frequency < MAX_FREQUENCY) {
+                FREQUENCY_UPDATER.incrementAndGet(this);
             }
-            return unit.convert(this.targetExpireTime - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
         }
 
-        private void terminate() {
-            this.terminated.getAndSet(true);
+        private void decayFrequency() {
+            this.frequency = this.frequency >> 1;
         }
 
-        @Override
-        public int compareTo(Delayed o) {
-            if (!(o instanceof AutoExpiredDataWrapper)) {
-                return 1;
-            }
-            if (o == this) {
-                return 0;
+        private boolean isExpired() {
+            return System.nanoTime() - this.targetExpireNanos >= 0;
+        }
+
+        private void terminate() {
+            if (Objects.nonNull(this.timeout)) {
+                this.timeout.cancel();
             }
-            AutoExpiredDataWrapper<?> s = (AutoExpiredDataWrapper<?>) o;
-            return Long.compare(this.getDelay(TimeUnit.MILLISECONDS), s.getDelay(TimeUnit.MILLISECONDS));
         }
 
     }
@@ -0,0 +1,97 @@
+package pro.chenggang.project.reactive.cache.support.toolkit;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import lombok.NonNull;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.util.concurrent.Queues;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * The tee of flux, which subscribes the source flux once, forwards each element downstream
+ * and writes it to a store at the same time.
+ * <p>
+ * The elements are written one by one in order, at most the buffer size of elements wait for writing,
+ * the source flux is not requested for more elements until the writing catches up,
+ * so a slow store slows down the source flux instead of buffering without bound.
+ * The tee completes after all elements are written, and errors if the source flux or any writing errors.
+ * <p>
+ * The elements could also be written in batches, the batches writer decides how many batches are written at a time.
+ *
+ * @author Gang Cheng
+ * @version 1.1.0
+ * @since 1.1.0
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class FluxTee {
+
+    /**
+     * The default count of elements which could wait for writing
+     */
+    public static final int DEFAULT_BUFFER_SIZE = Queues.SMALL_BUFFER_SIZE;
+
+    /**
+     * Tee the source flux with {@link #DEFAULT_BUFFER_SIZE}.
+     *
+     * @param <T>        the element type
+     * @param sourceFlux the source flux
+     * @param writer     the writer of each element
+     * @return the flux of source elements
+     */
+    public static <T> Flux<T> tee(@NonNull Flux<T> sourceFlux,
+                                  @NonNull Function<? super T, ? extends Publisher<?>> writer) {
+        return tee(sourceFlux, writer, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Tee the source flux.
+     *
+     * @param <T>        the element type
+     * @param sourceFlux the source flux
+     * @param writer     the writer of each element
+     * @param bufferSize the count of elements which could wait for writing
+     * @return the flux of source elements
+     */
+    public static <T> Flux<T> tee(@NonNull Flux<T> sourceFlux,
+                                  @NonNull Function<? super T, ? extends Publisher<?>> writer,
+                                  int bufferSize) {
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("Tee buffer size should be positive, current value is : " + bufferSize);
+        }
+        return teeWith(sourceFlux, sharedFlux -> sharedFlux.concatMap(writer, bufferSize), bufferSize);
+    }
+
+    /**
+     * Tee the source flux, the elements are written in batches of at most the batch size,
+     * the last batch is written when the source flux completes.
+     * At most the batch size of elements wait for writing besides the batches requested by the batches writer.
+     *
+     * @param <T>           the element type
+     * @param sourceFlux    the source flux
+     * @param batchSize     the max count of elements of a batch
+     * @param batchesWriter the writer of the batches, which requests the batches it could write at a time
+     * @return the flux of source elements
+     */
+    public static <T> Flux<T> teeBatches(@NonNull Flux<T> sourceFlux,
+                                         int batchSize,
+                                         @NonNull Function<Flux<List<T>>, ? extends Publisher<?>> batchesWriter) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Tee batch size should be positive, current value is : " + batchSize);
+        }
+        return teeWith(sourceFlux, sharedFlux -> batchesWriter.apply(sharedFlux.buffer(batchSize)), batchSize);
+    }
+
+    private static <T> Flux<T> teeWith(Flux<T> sourceFlux,
+                                       Function<Flux<T>, ? extends Publisher<?>> sharedFluxWriter,
+                                       int bufferSize) {
+        return sourceFlux.publish(sharedFlux -> Flux.merge(sharedFlux,
+                        Flux.from(sharedFluxWriter.apply(sharedFlux))
+                                .thenMany(Flux.<T>empty())
+                ),
+                bufferSize
+        );
+    }
+}
@@ -0,0 +1,348 @@
+package pro.chenggang.project.reactive.cache.support.toolkit;
+
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+/**
+ * The hierarchical timing wheel, which runs the scheduled tasks when their delays elapse.
+ * <p>
+ * There are {@value #LEVELS} wheels of {@value #WHEEL_SIZE} slots, a slot of the lowest wheel spans one tick
+ * and a slot of each higher wheel spans a whole round of the lower one.
+ * A timeout is placed into the lowest wheel which covers its deadline, and moved down when the slot of the
+ * higher wheel comes around, so scheduling, cancelling and expiring are all O(1) amortized,
+ * and every due timeout is expired on each tick.
+ * <p>
+ * Scheduling and cancelling are thread-safe and lock-free, they are queued and applied by the ticker thread.
+ *
+ * @author Gang Cheng
+ * @version 1.1.0
+ * @since 1.1.0
+ */
+@Slf4j
+public class TimingWheel implements Disposable {
+
+    /**
+     * The default tick duration
+     */
+    public static final Duration DEFAULT_TICK_DURATION = Duration.ofMillis(100);
+
+    private static final int WHEEL_BITS = 6;
+    private static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+    private static final int LEVELS = 4;
+
+    private final long tickNanos;
+    private final long startNanos = System.nanoTime();
+    private final Bucket[][] wheels = new Bucket[LEVELS][WHEEL_SIZE];
+    private final Queue<Timeout> pendingTimeouts = new ConcurrentLinkedQueue<>();
+    private final Queue<Timeout> cancelledTimeouts = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean startFlag = new AtomicBoolean(false);
+    private volatile Disposable ticker;
+    /**
+     * The last processed tick, only accessed by the ticker thread
+     */
+    private long currentTick;
+
+    /**
+     * Gets the process-wide shared timing wheel with {@link #DEFAULT_TICK_DURATION}.
+     * It backs the caches built without a timing wheel, so they share one ticker thread,
+     * it's started on first use and lives as long as the process, disposing it does nothing.
+     *
+     * @return the shared timing wheel
+     */
+    public static TimingWheel shared() {
+        return SharedTimingWheelHolder.SHARED_TIMING_WHEEL;
+    }
+
+    /**
+     * Instantiates a new timing wheel with {@link #DEFAULT_TICK_DURATION}.
+     */
+    public TimingWheel() {
+        this(DEFAULT_TICK_DURATION);
+    }
+
+    /**
+     * Instantiates a new timing wheel.
+     *
+     * @param tickDuration the tick duration
+     */
+    public TimingWheel(@NonNull Duration tickDuration) {
+        if (tickDuration.isNegative() || tickDuration.isZero()) {
+            throw new IllegalArgumentException("Tick duration should be positive, current value is : " + tickDuration);
+        }
+        this.tickNanos = tickDuration.toNanos();
+        for (int level = 0; level < LEVELS; level++) {
+            for (int slot = 0; slot < WHEEL_SIZE; slot++) {
+                wheels[level][slot] = new Bucket();
+            }
+        }
+    }
+
+    /**
+     * Start ticking on a daemon thread, it does nothing if already started.
+     */
+    public void start() {
+        if (startFlag.compareAndSet(false, true)) {
+            Scheduler tickerScheduler = Schedulers.newSingle("cache-daemon", true);
+            Disposable periodicTicker = tickerScheduler.schedulePeriodically(this::advance,
+                    tickNanos,
+                    tickNanos,
+                    TimeUnit.NANOSECONDS
+            );
+            this.ticker = Disposables.composite(periodicTicker, tickerScheduler);
+        }
+    }
+
+    /**
+     * Schedule the task to run after the delay.
+     *
+     * @param task  the task
+     * @param delay the delay
+     * @return the timeout of the task
+     */
+    public Timeout schedule(@NonNull Runnable task, @NonNull Duration delay) {
+        long deadline = System.nanoTime() - startNanos + Math.max(delay.toNanos(), 0L);
+        // rounded up, so a task never runs before its delay elapses
+        Timeout timeout = new Timeout(this, task, (deadline + tickNanos - 1) / tickNanos);
+        pendingTimeouts.add(timeout);
+        return timeout;
+    }
+
+    /**
+     * Advance the wheels to current time and run all due tasks.
+     * <p>
+     * It's called by the ticker thread, and is exposed for driving the wheels manually.
+     */
+    public synchronized void advance() {
+        long targetTick = (System.nanoTime() - startNanos) / tickNanos;
+        this.transferPendingTimeouts();
+        this.removeCancelledTimeouts();
+        while (currentTick < targetTick) {
+            currentTick++;
+            for (int level = 1; level < LEVELS; level++) {
+                if ((currentTick & ((1L << (WHEEL_BITS * level)) - 1)) != 0) {
+                    break;
+                }
+                this.cascade(level);
+            }
+            this.expire(wheels[0][(int) (currentTick & WHEEL_MASK)]);
+        }
+    }
+
+    @Override
+    public void dispose() {
+        Disposable currentTicker = this.ticker;
+        if (Objects.nonNull(currentTicker)) {
+            currentTicker.dispose();
+        }
+    }
+
+    @Override
+    public boolean isDisposed() {
+        Disposable currentTicker = this.ticker;
+        return Objects.nonNull(currentTicker) && currentTicker.isDisposed();
+    }
+
+    private void transferPendingTimeouts() {
+        Timeout timeout;
+        while (Objects.nonNull(timeout = pendingTimeouts.poll())) {
+            if (timeout.isCancelled()) {
+                continue;
+            }
+            this.place(timeout, currentTick + 1);
+        }
+    }
+
+    private void removeCancelledTimeouts() {
+        Timeout timeout;
+        while (Objects.nonNull(timeout = cancelledTimeouts.poll())) {
+            if (Objects.nonNull(timeout.bucket)) {
+                timeout.bucket.remove(timeout);
+            }
+        }
+    }
+
+    /**
+     * Place the timeout into the lowest wheel which covers its deadline relative to the next tick to expire.
+     * An overdue timeout is placed into the slot of the next tick, a timeout beyond the highest wheel
+     * is placed into its farthest slot and placed again when the slot comes around.
+     *
+     * @param timeout  the timeout
+     * @param nextTick the next tick to expire
+     */
+    private void place(Timeout timeout, long nextTick) {
+        long deadlineTick = Math.max(timeout.deadlineTick, nextTick);
+        for (int level = 0; level < LEVELS; level++) {
+            int shift = WHEEL_BITS * level;
+            long distance = (deadlineTick >> shift) - (nextTick >> shift);
+            if (distance < WHEEL_SIZE) {
+                wheels[level][(int) ((deadlineTick >> shift) & WHEEL_MASK)].add(timeout);
+                return;
+            }
+        }
+        int shift = WHEEL_BITS * (LEVELS - 1);
+        wheels[LEVELS - 1][(int) (((nextTick >> shift) + WHEEL_MASK) & WHEEL_MASK)].add(timeout);
+    }
+
+    private void cascade(int level) {
+        Bucket bucket = wheels[level][(int) ((currentTick >> (WHEEL_BITS * level)) & WHEEL_MASK)];
+        Timeout timeout = bucket.clear();
+        while (Objects.nonNull(timeout)) {
+            Timeout next = timeout.next;
+            timeout.next = null;
+            timeout.prev = null;
+            timeout.bucket = null;
+            // the current tick is not expired yet
+            this.place(timeout, currentTick);
+            timeout = next;
+        }
+    }
+
+    private void expire(Bucket bucket) {
+        Timeout timeout = bucket.clear();
+        while (Objects.nonNull(timeout)) {
+            Timeout next = timeout.next;
+            timeout.next = null;
+            timeout.prev = null;
+            timeout.bucket = null;
+            timeout.expire();
+            timeout = next;
+        }
+    }
+
+    /**
+     * The doubly linked timeouts of a slot
+     */
+    /**
+     * The lazy holder of the shared timing wheel
+     */
+    private static final class SharedTimingWheelHolder {
+
+        private static final TimingWheel SHARED_TIMING_WHEEL = new TimingWheel() {
+
+            @Override
+            public void dispose() {
+                // shared by the whole process, never disposed
+            }
+        };
+    }
+
+    private static class Bucket {
+
+        private Timeout head;
+        private Timeout tail;
+
+        private void add(Timeout timeout) {
+            timeout.bucket = this;
+            if (Objects.isNull(tail)) {
+                head = tail = timeout;
+                return;
+            }
+            tail.next = timeout;
+            timeout.prev = tail;
+            tail = timeout;
+        }
+
+        private void remove(Timeout timeout) {
+            if (Objects.nonNull(timeout.prev)) {
+                timeout.prev.next = timeout.next;
+            } else {
+                head = timeout.next;
+            }
+            if (Objects.nonNull(timeout.next)) {
+                timeout.next.prev = timeout.prev;
+            } else {
+                tail = timeout.prev;
+            }
+            timeout.next = null;
+            timeout.prev = null;
+            timeout.bucket = null;
+        }
+
+        private Timeout clear() {
+            Timeout first = head;
+            head = tail = null;
+            return first;
+        }
+    }
+
+    /**
+     * The timeout of a scheduled task
+     */
+    public static final class Timeout {
+
+        private static final int STATE_INIT = 0;
+        private static final int STATE_CANCELLED = 1;
+        private static final int STATE_EXPIRED = 2;
+        private static final AtomicIntegerFieldUpdater<Timeout> STATE_UPDATER =
+                AtomicIntegerFieldUpdater.newUpdater(Timeout.class, "state");
+
+        private final TimingWheel timingWheel;
+        private final Runnable task;
+        private final long deadlineTick;
+        private volatile int state = STATE_INIT;
+        private Timeout prev;
+        private Timeout next;
+        private Bucket bucket;
+
+        private Timeout(TimingWheel timingWheel, Runnable task, long deadlineTick) {
+            this.timingWheel = timingWheel;
+            this.task = task;
+            this.deadlineTick = deadlineTick;
+        }
+
+        /**
+         * Cancel the timeout, the task won't run if it has not run yet.
+         *
+         * @return true if cancelled by this call
+         */
+        public boolean cancel() {
+            if (!STATE_UPDATER.compareAndSet(this, STATE_INIT, STATE_CANCELLED)) {
+                return false;
+            }
+            timingWheel.cancelledTimeouts.add(this);
+            return true;
+        }
+
+        /**
+         * Whether the timeout is cancelled.
+         *
+         * @return true if cancelled
+         */
+        public boolean isCancelled() {
+            return state == STATE_CANCELLED;
+        }
+
+        /**
+         * Whether the timeout is expired, which means the task has run.
+         *
+         * @return true if expired
+         */
+        public boolean isExpired() {
+            return state == STATE_EXPIRED;
+        }
+
+        private void expire() {
+            if (!STATE_UPDATER.compareAndSet(this, STATE_INIT, STATE_EXPIRED)) {
+                return;
+            }
+            try {
+                task.run();
+            } catch (Throwable throwable) {
+                log.warn("[Timing wheel]Run expired task failed", throwable);
+            }
+        }
+    }
+}
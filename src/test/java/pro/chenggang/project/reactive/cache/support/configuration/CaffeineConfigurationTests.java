@@ -1,5 +1,6 @@
 package pro.chenggang.project.reactive.cache.support.configuration;
 
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -10,8 +11,14 @@ import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.TestPropertySource;
 import pro.chenggang.project.reactive.cache.support.configuration.properties.ReactiveCacheSupportProperties;
 import pro.chenggang.project.reactive.cache.support.core.ReactiveCacheManager;
+import pro.chenggang.project.reactive.cache.support.defaults.DefaultReactiveCacheManager;
+import pro.chenggang.project.reactive.cache.support.defaults.caffeine.CaffeineReactiveCacheManagerAdapter;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
 
 import java.time.Duration;
+import java.util.Optional;
+import java.util.OptionalLong;
 
 /**
  * @author Gang Cheng
@@ -41,10 +48,44 @@ public class CaffeineConfigurationTests {
         Assertions.assertEquals(reactiveCacheSupportProperties.getMaxWaitingDuration(),
                 Duration.ofSeconds(5)
         );
+        Assertions.assertEquals(reactiveCacheSupportProperties.getEviction()
+                        .toEvictionOptions(null)
+                        .getMaximumSize(),
+                OptionalLong.of(10000)
+        );
+        Assertions.assertTrue(reactiveCacheSupportProperties.getCaffeine().isRecordStats());
+        Assertions.assertEquals(reactiveCacheSupportProperties.toReactiveCacheOptions()
+                        .get("CACHE_NAME")
+                        .getEvictionOptions()
+                        .flatMap(evictionOptions -> evictionOptions.getMaximumWeight().isPresent()
+                                ? Optional.of(evictionOptions.getMaximumWeight().getAsLong())
+                                : Optional.empty()
+                        ),
+                Optional.of(1000L)
+        );
     }
 
     @Test
     public void testCaffeineReactiveCacheManagerConfiguration() {
         Assertions.assertNotNull(reactiveCacheManager);
+        CaffeineReactiveCacheManagerAdapter caffeineReactiveCacheManagerAdapter =
+                (CaffeineReactiveCacheManagerAdapter) ((DefaultReactiveCacheManager) reactiveCacheManager).getReactiveCacheManagerAdapter();
+        reactiveCacheManager.getCache("CACHE_NAME")
+                .flatMap(reactiveCache -> reactiveCache.monoCache()
+                        .cacheIfNecessary("CACHE_KEY", Duration.ofSeconds(3), Mono.just(true))
+                )
+                .as(StepVerifier::create)
+                .expectNext(true)
+                .verifyComplete();
+        reactiveCacheManager.getCache("CACHE_NAME")
+                .flatMap(reactiveCache -> reactiveCache.monoCache()
+                        .cacheIfNecessary("CACHE_KEY", Duration.ofSeconds(3), Mono.just(false))
+                )
+                .as(StepVerifier::create)
+                .expectNext(true)
+                .verifyComplete();
+        Optional<CacheStats> cacheStats = caffeineReactiveCacheManagerAdapter.getCacheStats("CACHE_NAME");
+        Assertions.assertTrue(cacheStats.isPresent());
+        Assertions.assertTrue(cacheStats.get().hitCount() > 0);
     }
 }
@@ -8,9 +8,14 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.TestPropertySource;
 import pro.chenggang.project.reactive.cache.support.configuration.properties.ReactiveCacheSupportProperties;
+import pro.chenggang.project.reactive.cache.support.core.EvictionOptions;
 import pro.chenggang.project.reactive.cache.support.core.ReactiveCacheManager;
+import pro.chenggang.project.reactive.cache.support.core.ReadConsistency;
+import pro.chenggang.project.reactive.cache.support.core.executor.EarlyRefreshPolicy;
 
 import java.time.Duration;
+import java.util.Optional;
+import java.util.OptionalLong;
 
 /**
  * @author Gang Cheng
@@ -37,6 +42,38 @@ public class InmemoryConfigurationTests {
         Assertions.assertEquals(reactiveCacheSupportProperties.getMaxWaitingDuration(),
                 Duration.ofSeconds(5)
         );
+        Assertions.assertEquals(reactiveCacheSupportProperties.getExpirationTickDuration(),
+                Duration.ofMillis(50)
+        );
+        EvictionOptions evictionOptions = reactiveCacheSupportProperties.getEviction()
+                .toEvictionOptions(null);
+        Assertions.assertEquals(evictionOptions.getMaximumSize(), OptionalLong.of(10000));
+        Assertions.assertEquals(evictionOptions.getMaximumWeight(), OptionalLong.of(1048576));
+        Assertions.assertEquals(reactiveCacheSupportProperties.toReactiveCacheOptions()
+                        .get("CACHE_NAME")
+                        .getEarlyRefreshPolicy(),
+                EarlyRefreshPolicy.xfetch(1.0)
+        );
+        Assertions.assertEquals(reactiveCacheSupportProperties.toReactiveCacheOptions()
+                        .get("CACHE_NAME")
+                        .getNegativeCacheDuration(),
+                Optional.of(Duration.ofSeconds(10))
+        );
+        Assertions.assertEquals(reactiveCacheSupportProperties.toReactiveCacheOptions()
+                        .get("CACHE_NAME")
+                        .getReadConsistency(),
+                ReadConsistency.OPTIMISTIC
+        );
+        Assertions.assertEquals(reactiveCacheSupportProperties.toReactiveCacheOptions()
+                        .get("CACHE_NAME")
+                        .getRecentlyWrittenGuardDuration(),
+                Duration.ofSeconds(2)
+        );
+        Assertions.assertEquals(reactiveCacheSupportProperties.toReactiveCacheOptions()
+                        .get("CACHE_NAME")
+                        .getFluxReplayBufferSize(),
+                128
+        );
     }
 
     @Test
@@ -25,6 +25,7 @@ import org.springframework.test.context.TestPropertySource;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 import pro.chenggang.project.reactive.cache.support.configuration.properties.ReactiveCacheSupportProperties;
+import pro.chenggang.project.reactive.cache.support.defaults.lock.AdaptiveLockWaitStrategy;
 import pro.chenggang.project.reactive.cache.support.core.ReactiveCacheManager;
 
 import java.time.Duration;
@@ -95,6 +96,19 @@ public class RedisConfigurationTests {
         Assertions.assertEquals(reactiveCacheSupportProperties.getMaxWaitingDuration(),
                 Duration.ofSeconds(5)
         );
+        Assertions.assertEquals(reactiveCacheSupportProperties.getLockWait().getStrategy(),
+                ReactiveCacheSupportProperties.LockWaitStrategyType.adaptive
+        );
+        Assertions.assertEquals(reactiveCacheSupportProperties.getLockWait().getInitialDelay(),
+                Duration.ofMillis(100)
+        );
+        Assertions.assertEquals(reactiveCacheSupportProperties.getLockWait().getMaxDelay(),
+                Duration.ofSeconds(2)
+        );
+        Assertions.assertTrue(reactiveCacheSupportProperties.getLockWait()
+                .toLockWaitStrategy() instanceof AdaptiveLockWaitStrategy);
+        Assertions.assertEquals(128, reactiveCacheSupportProperties.getRedis().getFluxPushBatchSize());
+        Assertions.assertEquals(8, reactiveCacheSupportProperties.getRedis().getMaxInFlightFluxPushBatches());
     }
 
     @Test
@@ -0,0 +1,153 @@
+package pro.chenggang.project.reactive.cache.support.core.adapter;
+
+import lombok.NonNull;
+import org.junit.jupiter.api.Test;
+import pro.chenggang.project.reactive.cache.support.BaseTest;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Gang Cheng
+ * @version 1.1.0
+ * @since 1.1.0
+ */
+class ReactiveCacheAdapterDefaultMethodsTest extends BaseTest {
+
+    SimpleReactiveCacheMonoAdapter reactiveCacheMonoAdapter = new SimpleReactiveCacheMonoAdapter();
+    SimpleReactiveCacheFluxAdapter reactiveCacheFluxAdapter = new SimpleReactiveCacheFluxAdapter();
+
+    @Test
+    void monoLoadDataIfPresent() {
+        reactiveCacheMonoAdapter.loadDataIfPresent(cacheKey)
+                .as(StepVerifier::create)
+                .expectNext(CachedData.absent())
+                .verifyComplete();
+        reactiveCacheMonoAdapter.cacheData(cacheKey, Duration.ofSeconds(3), Mono.just(true))
+                .then(reactiveCacheMonoAdapter.loadDataIfPresent(cacheKey))
+                .as(StepVerifier::create)
+                .expectNext(CachedData.of(true))
+                .verifyComplete();
+        reactiveCacheMonoAdapter.presentKeys.put(cacheKey, Boolean.TRUE);
+        reactiveCacheMonoAdapter.cachedData.remove(cacheKey);
+        reactiveCacheMonoAdapter.loadDataIfPresent(cacheKey)
+                .as(StepVerifier::create)
+                .expectNext(CachedData.empty())
+                .verifyComplete();
+    }
+
+    @Test
+    void monoBulkData() {
+        Set<String> cacheKeys = new LinkedHashSet<>(List.of(cacheKey + "_1", cacheKey + "_2"));
+        reactiveCacheMonoAdapter.cacheAllData(Map.of(cacheKey + "_1", true), Duration.ofSeconds(3))
+                .then(reactiveCacheMonoAdapter.<Boolean>loadAllDataIfPresent(cacheKeys))
+                .as(StepVerifier::create)
+                .consumeNextWith(cachedDataMap -> {
+                    assertEquals(CachedData.of(true), cachedDataMap.get(cacheKey + "_1"));
+                    assertEquals(CachedData.absent(), cachedDataMap.get(cacheKey + "_2"));
+                })
+                .verifyComplete();
+        reactiveCacheMonoAdapter.cleanupAllData(cacheKeys)
+                .then(reactiveCacheMonoAdapter.<Boolean>loadAllDataIfPresent(cacheKeys))
+                .as(StepVerifier::create)
+                .consumeNextWith(cachedDataMap -> cachedDataMap.values()
+                        .forEach(cachedData -> assertFalse(cachedData.isPresent()))
+                )
+                .verifyComplete();
+    }
+
+    @Test
+    void fluxLoadDataIfPresent() {
+        reactiveCacheFluxAdapter.loadDataIfPresent(cacheKey)
+                .as(StepVerifier::create)
+                .consumeNextWith(cachedData -> assertFalse(cachedData.isPresent()))
+                .verifyComplete();
+        reactiveCacheFluxAdapter.cacheData(cacheKey, Duration.ofSeconds(3), Flux.range(0, 3))
+                .then(reactiveCacheFluxAdapter.<Integer>loadDataIfPresent(cacheKey))
+                .doOnNext(cachedData -> assertTrue(cachedData.isPresent()))
+                .flatMapMany(cachedData -> cachedData.getData()
+                        .orElseGet(Flux::empty)
+                )
+                .as(StepVerifier::create)
+                .expectNext(0)
+                .expectNext(1)
+                .expectNext(2)
+                .verifyComplete();
+    }
+
+    private static class SimpleReactiveCacheMonoAdapter implements ReactiveCacheMonoAdapter {
+
+        private final Map<String, Boolean> presentKeys = new ConcurrentHashMap<>();
+        private final Map<String, Object> cachedData = new ConcurrentHashMap<>();
+
+        @Override
+        public Mono<Boolean> hasData(@NonNull String cacheKey) {
+            return Mono.fromSupplier(() -> presentKeys.containsKey(cacheKey));
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public <T> Mono<T> loadData(@NonNull String cacheKey) {
+            return Mono.fromSupplier(() -> (T) cachedData.get(cacheKey));
+        }
+
+        @Override
+        public <T> Mono<T> cacheData(@NonNull String cacheKey,
+                                     @NonNull Duration cacheDuration,
+                                     @NonNull Mono<T> sourcePublisher) {
+            return sourcePublisher.doOnNext(data -> {
+                presentKeys.put(cacheKey, Boolean.TRUE);
+                cachedData.put(cacheKey, data);
+            });
+        }
+
+        @Override
+        public Mono<Void> cleanupData(@NonNull String cacheKey) {
+            return Mono.fromRunnable(() -> {
+                presentKeys.remove(cacheKey);
+                cachedData.remove(cacheKey);
+            });
+        }
+    }
+
+    private static class SimpleReactiveCacheFluxAdapter implements ReactiveCacheFluxAdapter {
+
+        private final Map<String, Flux<?>> cachedData = new ConcurrentHashMap<>();
+
+        @Override
+        public Mono<Boolean> hasData(@NonNull String cacheKey) {
+            return Mono.fromSupplier(() -> cachedData.containsKey(cacheKey));
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public <T> Flux<T> loadData(@NonNull String cacheKey) {
+            return Flux.defer(() -> (Flux<T>) cachedData.getOrDefault(cacheKey, Flux.empty()));
+        }
+
+        @Override
+        public <T> Flux<T> cacheData(@NonNull String cacheKey,
+                                     @NonNull Duration cacheDuration,
+                                     @NonNull Flux<T> sourcePublisher) {
+            return sourcePublisher.collectList()
+                    .doOnNext(data -> cachedData.put(cacheKey, Flux.fromIterable(data)))
+                    .flatMapMany(Flux::fromIterable);
+        }
+
+        @Override
+        public Mono<Void> cleanupData(@NonNull String cacheKey) {
+            return Mono.fromRunnable(() -> cachedData.remove(cacheKey));
+        }
+    }
+}
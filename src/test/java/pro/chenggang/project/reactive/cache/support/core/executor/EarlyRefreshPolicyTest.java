@@ -0,0 +1,55 @@
+package pro.chenggang.project.reactive.cache.support.core.executor;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import pro.chenggang.project.reactive.cache.support.core.adapter.CachedData;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * @author Gang Cheng
+ * @version 1.1.0
+ * @since 1.1.0
+ */
+class EarlyRefreshPolicyTest {
+
+    @Test
+    void disabled() {
+        EarlyRefreshPolicy earlyRefreshPolicy = EarlyRefreshPolicy.disabled();
+        Assertions.assertFalse(earlyRefreshPolicy.isEnabled());
+        Assertions.assertFalse(earlyRefreshPolicy.shouldRefreshEarly(CachedData.of(true,
+                Instant.now(),
+                Duration.ofSeconds(1)
+        )));
+    }
+
+    @Test
+    void xfetch() {
+        EarlyRefreshPolicy earlyRefreshPolicy = EarlyRefreshPolicy.xfetch(1.0);
+        Assertions.assertTrue(earlyRefreshPolicy.isEnabled());
+        Assertions.assertEquals(1.0, earlyRefreshPolicy.getBeta());
+        Assertions.assertTrue(earlyRefreshPolicy.shouldRefreshEarly(CachedData.of(true,
+                Instant.now().minusMillis(1),
+                Duration.ofMillis(1)
+        )));
+        Assertions.assertFalse(earlyRefreshPolicy.shouldRefreshEarly(CachedData.of(true,
+                Instant.now().plus(Duration.ofDays(1)),
+                Duration.ofMillis(1)
+        )));
+    }
+
+    @Test
+    void xfetchWithoutLoadDuration() {
+        EarlyRefreshPolicy earlyRefreshPolicy = EarlyRefreshPolicy.xfetch(1.0);
+        Assertions.assertFalse(earlyRefreshPolicy.shouldRefreshEarly(CachedData.of(true, Instant.now())));
+        Assertions.assertFalse(earlyRefreshPolicy.shouldRefreshEarly(CachedData.empty()));
+    }
+
+    @Test
+    void xfetchWithIllegalBeta() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> EarlyRefreshPolicy.xfetch(0));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> EarlyRefreshPolicy.xfetch(-1));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> EarlyRefreshPolicy.xfetch(Double.NaN));
+    }
+}
@@ -0,0 +1,170 @@
+package pro.chenggang.project.reactive.cache.support.defaults.caffeine;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import pro.chenggang.project.reactive.cache.support.BaseTest;
+import pro.chenggang.project.reactive.cache.support.core.EvictionOptions;
+import pro.chenggang.project.reactive.cache.support.core.ReactiveCacheOptions;
+import pro.chenggang.project.reactive.cache.support.exception.NoSuchCachedReactiveDataException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * @author Gang Cheng
+ * @version 1.1.0
+ * @since 1.1.0
+ */
+class CaffeineAsyncReactiveCacheTest extends BaseTest {
+
+    CaffeineAsyncReactiveCache caffeineAsyncReactiveCache = new CaffeineAsyncReactiveCache(cacheName,
+            ReactiveCacheOptions.defaults(),
+            CaffeineCacheOptions.newBuilder()
+                    .withRecordStats(true)
+                    .withAsyncLoading(true)
+                    .build(),
+            EvictionOptions.unbounded()
+    );
+
+    @Test
+    void cacheIfNecessary() {
+        caffeineAsyncReactiveCache.monoCache()
+                .get(cacheKey)
+                .as(StepVerifier::create)
+                .expectError(NoSuchCachedReactiveDataException.class)
+                .verify();
+        caffeineAsyncReactiveCache.monoCache()
+                .cacheIfNecessary(cacheKey, Duration.ofSeconds(3), Mono.just(true))
+                .as(StepVerifier::create)
+                .expectNext(true)
+                .verifyComplete();
+        caffeineAsyncReactiveCache.monoCache()
+                .cacheIfNecessary(cacheKey, Duration.ofSeconds(3), Mono.just(false))
+                .as(StepVerifier::create)
+                .expectNext(true)
+                .verifyComplete();
+        caffeineAsyncReactiveCache.monoCache()
+                .get(cacheKey)
+                .as(StepVerifier::create)
+                .expectNext(true)
+                .verifyComplete();
+        Assertions.assertTrue(caffeineAsyncReactiveCache.stats().hitCount() > 0);
+        caffeineAsyncReactiveCache.monoCache()
+                .evictCache(cacheKey)
+                .as(StepVerifier::create)
+                .verifyComplete();
+        caffeineAsyncReactiveCache.monoCache()
+                .get(cacheKey)
+                .as(StepVerifier::create)
+                .expectError(NoSuchCachedReactiveDataException.class)
+                .verify();
+    }
+
+    @Test
+    void cacheIfNecessaryConcurrently() {
+        AtomicInteger subscribedCount = new AtomicInteger();
+        Mono<Integer> sourceMono = Mono.fromSupplier(subscribedCount::incrementAndGet)
+                .delayElement(Duration.ofMillis(500));
+        Flux.range(0, 10)
+                .flatMap(index -> caffeineAsyncReactiveCache.monoCache()
+                        .cacheIfNecessary(cacheKey, Duration.ofSeconds(3), sourceMono)
+                )
+                .as(StepVerifier::create)
+                .expectNextCount(10)
+                .expectComplete()
+                .verify(Duration.ofSeconds(1));
+        Assertions.assertEquals(1, subscribedCount.get());
+    }
+
+    @Test
+    void cacheIfNecessaryFailedOrEmpty() {
+        caffeineAsyncReactiveCache.monoCache()
+                .cacheIfNecessary(cacheKey, Duration.ofSeconds(3), Mono.error(new IllegalStateException()))
+                .as(StepVerifier::create)
+                .expectError(IllegalStateException.class)
+                .verify();
+        caffeineAsyncReactiveCache.monoCache()
+                .cacheIfNecessary(cacheKey, Duration.ofSeconds(3), Mono.empty())
+                .as(StepVerifier::create)
+                .verifyComplete();
+        caffeineAsyncReactiveCache.monoCache()
+                .cacheIfNecessary(cacheKey, Duration.ofSeconds(3), Mono.just(true))
+                .as(StepVerifier::create)
+                .expectNext(true)
+                .verifyComplete();
+    }
+
+    @Test
+    void cacheAllIfNecessary() {
+        List<String> cacheKeys = Arrays.asList("KEY_1", "KEY_2", "KEY_3");
+        caffeineAsyncReactiveCache.monoCache()
+                .cacheIfNecessary("KEY_1", Duration.ofSeconds(3), Mono.just("CACHED_1"))
+                .as(StepVerifier::create)
+                .expectNext("CACHED_1")
+                .verifyComplete();
+        caffeineAsyncReactiveCache.monoCache()
+                .<String>cacheAllIfNecessary(cacheKeys,
+                        Duration.ofSeconds(3),
+                        missingCacheKeys -> Mono.just(missingCacheKeys.stream()
+                                .filter(cacheKey -> !"KEY_3".equals(cacheKey))
+                                .collect(Collectors.toMap(cacheKey -> cacheKey, cacheKey -> "LOADED")))
+                )
+                .as(StepVerifier::create)
+                .expectNext(Map.of("KEY_1", "CACHED_1", "KEY_2", "LOADED"))
+                .verifyComplete();
+        caffeineAsyncReactiveCache.monoCache()
+                .<String>getAll(cacheKeys)
+                .as(StepVerifier::create)
+                .expectNext(Map.of("KEY_1", "CACHED_1", "KEY_2", "LOADED"))
+                .verifyComplete();
+        caffeineAsyncReactiveCache.monoCache()
+                .evictAll(cacheKeys)
+                .then(caffeineAsyncReactiveCache.monoCache().getAll(cacheKeys))
+                .as(StepVerifier::create)
+                .expectNext(Collections.emptyMap())
+                .verifyComplete();
+    }
+
+    @Test
+    void cacheManyIfNecessary() {
+        caffeineAsyncReactiveCache.fluxCache()
+                .get(cacheKey)
+                .as(StepVerifier::create)
+                .expectError(NoSuchCachedReactiveDataException.class)
+                .verify();
+        AtomicInteger subscribedCount = new AtomicInteger();
+        Flux<Integer> sourceFlux = Flux.range(0, 3)
+                .doOnSubscribe(subscription -> subscribedCount.incrementAndGet())
+                .delayElements(Duration.ofMillis(100));
+        Flux.range(0, 5)
+                .flatMap(index -> caffeineAsyncReactiveCache.fluxCache()
+                        .cacheIfNecessary(cacheKey, Duration.ofSeconds(3), sourceFlux)
+                        .collectList()
+                )
+                .as(StepVerifier::create)
+                .expectNext(Arrays.asList(0, 1, 2), Arrays.asList(0, 1, 2), Arrays.asList(0, 1, 2),
+                        Arrays.asList(0, 1, 2), Arrays.asList(0, 1, 2)
+                )
+                .verifyComplete();
+        Assertions.assertEquals(1, subscribedCount.get());
+        caffeineAsyncReactiveCache.fluxCache()
+                .get(cacheKey)
+                .as(StepVerifier::create)
+                .expectNext(0, 1, 2)
+                .verifyComplete();
+        caffeineAsyncReactiveCache.fluxCache()
+                .evictCache(cacheKey)
+                .thenMany(caffeineAsyncReactiveCache.fluxCache().get(cacheKey))
+                .as(StepVerifier::create)
+                .expectError(NoSuchCachedReactiveDataException.class)
+                .verify();
+    }
+}
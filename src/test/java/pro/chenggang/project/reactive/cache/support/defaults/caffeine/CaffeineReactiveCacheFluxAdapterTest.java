@@ -5,6 +5,8 @@ import org.junit.jupiter.api.Order;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestMethodOrder;
 import pro.chenggang.project.reactive.cache.support.BaseTest;
+import pro.chenggang.project.reactive.cache.support.core.adapter.CachedData;
+import pro.chenggang.project.reactive.cache.support.exception.ReactiveCacheLockLostException;
 import reactor.core.publisher.Flux;
 import reactor.test.StepVerifier;
 
@@ -81,4 +83,50 @@ class CaffeineReactiveCacheFluxAdapterTest extends BaseTest {
                 .as(StepVerifier::create)
                 .verifyComplete();
     }
-}
\ No newline at end of file
+
+    @Order(5)
+    @Test
+    void loadDataIfPresent() {
+        caffeineReactiveCacheFluxAdapter.cleanupData(cacheKey)
+                .as(StepVerifier::create)
+                .verifyComplete();
+        caffeineReactiveCacheFluxAdapter.loadDataIfPresent(cacheKey)
+                .as(StepVerifier::create)
+                .expectNext(CachedData.absent())
+                .verifyComplete();
+        caffeineReactiveCacheFluxAdapter.cacheData(cacheKey, Duration.ofSeconds(3), Flux.range(0,3))
+                .then(caffeineReactiveCacheFluxAdapter.<Integer>loadDataIfPresent(cacheKey))
+                .flatMapMany(cachedData -> cachedData.getData()
+                        .orElseGet(Flux::empty)
+                )
+                .as(StepVerifier::create)
+                .expectNext(0)
+                .expectNext(1)
+                .expectNext(2)
+                .verifyComplete();
+    }
+
+    @Order(6)
+    @Test
+    void cacheFencedData() {
+        caffeineReactiveCacheFluxAdapter.cleanupData(cacheKey)
+                .thenMany(caffeineReactiveCacheFluxAdapter.cacheFencedData(cacheName, cacheKey, "2", Duration.ofSeconds(3), Flux.range(0, 3)))
+                .as(StepVerifier::create)
+                .expectNext(0, 1, 2)
+                .verifyComplete();
+        caffeineReactiveCacheFluxAdapter.cacheFencedData(cacheName, cacheKey, "1", Duration.ofSeconds(3), Flux.range(10, 3))
+                .as(StepVerifier::create)
+                .expectNext(10, 11, 12)
+                .expectError(ReactiveCacheLockLostException.class)
+                .verify();
+        caffeineReactiveCacheFluxAdapter.loadData(cacheKey)
+                .as(StepVerifier::create)
+                .expectNext(0, 1, 2)
+                .verifyComplete();
+        caffeineReactiveCacheFluxAdapter.cacheFencedData(cacheName, cacheKey, "3", Duration.ofSeconds(3), Flux.range(10, 3))
+                .thenMany(caffeineReactiveCacheFluxAdapter.loadData(cacheKey))
+                .as(StepVerifier::create)
+                .expectNext(10, 11, 12)
+                .verifyComplete();
+    }
+}
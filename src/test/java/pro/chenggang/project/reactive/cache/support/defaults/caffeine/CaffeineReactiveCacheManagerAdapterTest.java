@@ -3,10 +3,13 @@ package pro.chenggang.project.reactive.cache.support.defaults.caffeine;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import pro.chenggang.project.reactive.cache.support.BaseTest;
+import pro.chenggang.project.reactive.cache.support.core.EvictionOptions;
 import pro.chenggang.project.reactive.cache.support.core.ReactiveCache;
 import pro.chenggang.project.reactive.cache.support.defaults.DefaultReactiveCache;
 import pro.chenggang.project.reactive.cache.support.defaults.inmemory.InmemoryReactiveCacheLock;
 
+import java.util.Collections;
+
 /**
  * @author Gang Cheng
  * @version 1.0.0
@@ -24,4 +27,21 @@ class CaffeineReactiveCacheManagerAdapterTest extends BaseTest {
         Assertions.assertNotNull(reactiveCache);
         Assertions.assertEquals(reactiveCache.getClass(), DefaultReactiveCache.class);
     }
-}
\ No newline at end of file
+
+    @Test
+    void initializeAsyncLoadingReactiveCache() {
+        CaffeineReactiveCacheManagerAdapter asyncLoadingManagerAdapter = new CaffeineReactiveCacheManagerAdapter(
+                maxWaitingDuration,
+                new InmemoryReactiveCacheLock(),
+                Collections.emptyMap(),
+                null,
+                CaffeineCacheOptions.newBuilder()
+                        .withAsyncLoading(true)
+                        .build(),
+                EvictionOptions.unbounded()
+        );
+        ReactiveCache reactiveCache = asyncLoadingManagerAdapter.initializeReactiveCache(cacheName);
+        Assertions.assertEquals(reactiveCache.getClass(), CaffeineAsyncReactiveCache.class);
+        Assertions.assertTrue(asyncLoadingManagerAdapter.getCacheStats(cacheName).isPresent());
+    }
+}
@@ -1,14 +1,22 @@
 package pro.chenggang.project.reactive.cache.support.defaults.caffeine;
 
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.MethodOrderer;
 import org.junit.jupiter.api.Order;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestMethodOrder;
 import pro.chenggang.project.reactive.cache.support.BaseTest;
+import pro.chenggang.project.reactive.cache.support.core.adapter.CachedData;
+import pro.chenggang.project.reactive.cache.support.exception.ReactiveCacheLockLostException;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
 import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 /**
  * @author Gang Cheng
@@ -75,4 +83,118 @@ class CaffeineReactiveCacheMonoAdapterTest extends BaseTest {
                 .as(StepVerifier::create)
                 .verifyComplete();
     }
-}
\ No newline at end of file
+
+    @Order(5)
+    @Test
+    void loadDataIfPresent() {
+        caffeineReactiveCacheMonoAdapter.cleanupData(cacheKey)
+                .as(StepVerifier::create)
+                .verifyComplete();
+        caffeineReactiveCacheMonoAdapter.loadDataIfPresent(cacheKey)
+                .as(StepVerifier::create)
+                .expectNext(CachedData.absent())
+                .verifyComplete();
+        caffeineReactiveCacheMonoAdapter.cacheData(cacheKey, Duration.ofSeconds(3), Mono.just(true))
+                .then(caffeineReactiveCacheMonoAdapter.loadDataIfPresent(cacheKey))
+                .as(StepVerifier::create)
+                .consumeNextWith(cachedData -> {
+                    Assertions.assertTrue(cachedData.isPresent());
+                    Assertions.assertEquals(Optional.of(true), cachedData.getData());
+                    Assertions.assertTrue(cachedData.getExpireTime().isPresent());
+                    Assertions.assertTrue(cachedData.getLoadDuration().isPresent());
+                })
+                .verifyComplete();
+    }
+
+    @Order(6)
+    @Test
+    void bulkData() {
+        Set<String> cacheKeys = new LinkedHashSet<>(List.of(cacheKey + "_1", cacheKey + "_2"));
+        caffeineReactiveCacheMonoAdapter.cleanupAllData(cacheKeys)
+                .then(caffeineReactiveCacheMonoAdapter.cacheAllData(Map.of(cacheKey + "_1", 1), Duration.ofSeconds(3)))
+                .then(caffeineReactiveCacheMonoAdapter.<Integer>loadAllDataIfPresent(cacheKeys))
+                .as(StepVerifier::create)
+                .consumeNextWith(cachedDataMap -> {
+                    Assertions.assertEquals(Optional.of(1), cachedDataMap.get(cacheKey + "_1").getData());
+                    Assertions.assertFalse(cachedDataMap.get(cacheKey + "_2").isPresent());
+                })
+                .verifyComplete();
+        caffeineReactiveCacheMonoAdapter.cleanupAllData(cacheKeys)
+                .then(caffeineReactiveCacheMonoAdapter.<Integer>loadAllDataIfPresent(cacheKeys))
+                .as(StepVerifier::create)
+                .consumeNextWith(cachedDataMap -> cachedDataMap.values()
+                        .forEach(cachedData -> Assertions.assertFalse(cachedData.isPresent()))
+                )
+                .verifyComplete();
+    }
+
+    @Order(7)
+    @Test
+    void cacheEmptyData() {
+        caffeineReactiveCacheMonoAdapter.cacheEmptyData(cacheKey, Duration.ofSeconds(3))
+                .then(caffeineReactiveCacheMonoAdapter.loadDataIfPresent(cacheKey))
+                .as(StepVerifier::create)
+                .consumeNextWith(cachedData -> {
+                    Assertions.assertTrue(cachedData.isPresent());
+                    Assertions.assertFalse(cachedData.getData().isPresent());
+                    Assertions.assertTrue(cachedData.getExpireTime().isPresent());
+                })
+                .verifyComplete();
+        caffeineReactiveCacheMonoAdapter.loadData(cacheKey)
+                .as(StepVerifier::create)
+                .verifyComplete();
+        caffeineReactiveCacheMonoAdapter.<Boolean>loadAllDataIfPresent(Set.of(cacheKey))
+                .as(StepVerifier::create)
+                .consumeNextWith(cachedDataMap -> {
+                    Assertions.assertTrue(cachedDataMap.get(cacheKey).isPresent());
+                    Assertions.assertFalse(cachedDataMap.get(cacheKey).getData().isPresent());
+                })
+                .verifyComplete();
+    }
+
+    @Order(8)
+    @Test
+    void expireEachDataAtItsOwnDuration() {
+        caffeineReactiveCacheMonoAdapter.cacheData(cacheKey, Duration.ofMillis(200), Mono.just(true))
+                .then(caffeineReactiveCacheMonoAdapter.cacheData(cacheKey + "_LONGER", Duration.ofSeconds(3), Mono.just(true)))
+                .then(Mono.delay(Duration.ofMillis(500)))
+                .then(caffeineReactiveCacheMonoAdapter.hasData(cacheKey))
+                .as(StepVerifier::create)
+                .expectNext(false)
+                .verifyComplete();
+        caffeineReactiveCacheMonoAdapter.hasData(cacheKey + "_LONGER")
+                .as(StepVerifier::create)
+                .expectNext(true)
+                .verifyComplete();
+    }
+
+    @Order(9)
+    @Test
+    void cacheFencedData() {
+        caffeineReactiveCacheMonoAdapter.cleanupData(cacheKey)
+                .then(caffeineReactiveCacheMonoAdapter.cacheFencedData(cacheName, cacheKey, "2", Duration.ofSeconds(3), Mono.just(true)))
+                .as(StepVerifier::create)
+                .expectNext(true)
+                .verifyComplete();
+        caffeineReactiveCacheMonoAdapter.cacheFencedData(cacheName, cacheKey, "1", Duration.ofSeconds(3), Mono.just(false))
+                .as(StepVerifier::create)
+                .expectError(ReactiveCacheLockLostException.class)
+                .verify();
+        caffeineReactiveCacheMonoAdapter.cacheFencedEmptyData(cacheName, cacheKey, "1", Duration.ofSeconds(3))
+                .as(StepVerifier::create)
+                .expectError(ReactiveCacheLockLostException.class)
+                .verify();
+        caffeineReactiveCacheMonoAdapter.loadData(cacheKey)
+                .as(StepVerifier::create)
+                .expectNext(true)
+                .verifyComplete();
+        caffeineReactiveCacheMonoAdapter.cacheFencedEmptyData(cacheName, cacheKey, "3", Duration.ofSeconds(3))
+                .then(caffeineReactiveCacheMonoAdapter.loadDataIfPresent(cacheKey))
+                .as(StepVerifier::create)
+                .consumeNextWith(cachedData -> {
+                    Assertions.assertTrue(cachedData.isPresent());
+                    Assertions.assertFalse(cachedData.getData().isPresent());
+                })
+                .verifyComplete();
+    }
+}
@@ -1,8 +1,11 @@
 package pro.chenggang.project.reactive.cache.support.defaults.executor.inmemory;
 
 import lombok.NonNull;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import pro.chenggang.project.reactive.cache.support.BaseTest;
+import pro.chenggang.project.reactive.cache.support.core.ReactiveCacheOptions;
+import pro.chenggang.project.reactive.cache.support.core.ReadConsistency;
 import pro.chenggang.project.reactive.cache.support.core.adapter.ReactiveCacheFluxAdapter;
 import pro.chenggang.project.reactive.cache.support.defaults.executor.DefaultReactiveFluxCache;
 import pro.chenggang.project.reactive.cache.support.defaults.inmemory.InmemoryReactiveCacheFluxAdapter;
@@ -11,8 +14,13 @@ import pro.chenggang.project.reactive.cache.support.exception.NoSuchCachedReacti
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
+import reactor.util.function.Tuple2;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * @author Gang Cheng
@@ -46,6 +54,123 @@ class InmemoryDefaultReactiveFluxCacheTest extends BaseTest {
 
     }
 
+    @Test
+    void cacheIfNecessaryConcurrently() {
+        AtomicInteger subscribedCount = new AtomicInteger();
+        Flux<Integer> sourceFlux = Flux.defer(() -> {
+                    subscribedCount.incrementAndGet();
+                    return Flux.range(0, 3);
+                })
+                .delayElements(Duration.ofMillis(100));
+        defaultReactiveFluxCache.cacheIfNecessary(cacheKey + "_SINGLE", Duration.ofSeconds(3), sourceFlux)
+                .as(StepVerifier::create)
+                .expectNextCount(3)
+                .verifyComplete();
+        int singleLoadingSubscribedCount = subscribedCount.getAndSet(0);
+        Flux.range(0, 10)
+                .flatMap(index -> defaultReactiveFluxCache.cacheIfNecessary(cacheKey,
+                                Duration.ofSeconds(3),
+                                sourceFlux
+                        )
+                        .collectList()
+                )
+                .as(StepVerifier::create)
+                .recordWith(ArrayList::new)
+                .expectNextCount(10)
+                .consumeRecordedWith(results -> results.forEach(result -> Assertions.assertEquals(List.of(0, 1, 2),
+                        result
+                )))
+                .verifyComplete();
+        Assertions.assertEquals(singleLoadingSubscribedCount, subscribedCount.get());
+    }
+
+    @Test
+    void getWhileLoading() {
+        Flux<Integer> sourceFlux = Flux.range(0, 3)
+                .delayElements(Duration.ofMillis(200));
+        Mono<Tuple2<Long, Integer>> firstAttached = Mono.delay(Duration.ofMillis(300))
+                .then(defaultReactiveFluxCache.<Integer>get(cacheKey)
+                        .elapsed()
+                        .next()
+                );
+        Mono.zip(defaultReactiveFluxCache.cacheIfNecessary(cacheKey, Duration.ofSeconds(3), sourceFlux).collectList(),
+                        firstAttached
+                )
+                .as(StepVerifier::create)
+                .assertNext(result -> {
+                    Assertions.assertEquals(List.of(0, 1, 2), result.getT1());
+                    Assertions.assertEquals(0, result.getT2().getT2());
+                    Assertions.assertTrue(result.getT2().getT1() < 200);
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void cacheIfNecessaryConcurrentlyWithReplayBufferOverflow() {
+        DefaultReactiveFluxCache defaultReactiveFluxCache = new DefaultReactiveFluxCache(cacheName,
+                maxWaitingDuration,
+                new InmemoryReactiveCacheLock(),
+                new InmemoryReactiveCacheFluxAdapter(),
+                ReactiveCacheOptions.newBuilder()
+                        .withFluxReplayBufferSize(2)
+                        .build()
+        );
+        AtomicInteger subscribedCount = new AtomicInteger();
+        Flux<Integer> sourceFlux = Flux.defer(() -> {
+                    subscribedCount.incrementAndGet();
+                    return Flux.range(0, 5);
+                })
+                .delayElements(Duration.ofMillis(100));
+        Mono<List<Integer>> lateLoading = Mono.delay(Duration.ofMillis(350))
+                .then(defaultReactiveFluxCache.cacheIfNecessary(cacheKey, Duration.ofSeconds(3), sourceFlux)
+                        .collectList()
+                );
+        Mono.zip(defaultReactiveFluxCache.cacheIfNecessary(cacheKey, Duration.ofSeconds(3), sourceFlux).collectList(),
+                        lateLoading
+                )
+                .as(StepVerifier::create)
+                .assertNext(result -> {
+                    Assertions.assertEquals(List.of(0, 1, 2, 3, 4), result.getT1());
+                    Assertions.assertEquals(List.of(0, 1, 2, 3, 4), result.getT2());
+                })
+                .verifyComplete();
+        Assertions.assertEquals(1, subscribedCount.get());
+    }
+
+    @Test
+    void cacheIfNecessaryWithStaleWhileRevalidate() throws InterruptedException {
+        AtomicInteger subscribedCount = new AtomicInteger();
+        Flux<Integer> sourceFlux = Flux.defer(() -> {
+            int round = subscribedCount.incrementAndGet();
+            return Flux.range(round * 10, 3);
+        });
+        defaultReactiveFluxCache.cacheIfNecessary(cacheKey, Duration.ofSeconds(1), Duration.ofSeconds(5), sourceFlux)
+                .as(StepVerifier::create)
+                .expectNext(10, 11, 12)
+                .verifyComplete();
+        TimeUnit.MILLISECONDS.sleep(1200);
+        defaultReactiveFluxCache.cacheIfNecessary(cacheKey, Duration.ofSeconds(1), Duration.ofSeconds(5), sourceFlux)
+                .as(StepVerifier::create)
+                .expectNext(10, 11, 12)
+                .verifyComplete();
+        TimeUnit.MILLISECONDS.sleep(500);
+        defaultReactiveFluxCache.cacheIfNecessary(cacheKey, Duration.ofSeconds(1), Duration.ofSeconds(5), sourceFlux)
+                .as(StepVerifier::create)
+                .expectNext(20, 21, 22)
+                .verifyComplete();
+    }
+
+    @Test
+    void cacheIfNecessaryWithIllegalStaleDuration() {
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> defaultReactiveFluxCache.cacheIfNecessary(cacheKey,
+                        Duration.ofSeconds(5),
+                        Duration.ofSeconds(1),
+                        Flux.range(0, 3)
+                )
+        );
+    }
+
     @Test
     void cacheIfNecessaryWithCancel() {
         defaultReactiveFluxCache.cacheIfNecessary(cacheKey,
@@ -76,10 +201,41 @@ class InmemoryDefaultReactiveFluxCacheTest extends BaseTest {
                         })
                 )
                 .as(StepVerifier::create)
+                .expectNext(0, 1)
                 .expectError(IllegalStateException.class)
                 .verify();
     }
 
+    @Test
+    void getWithOptimisticReadConsistency() {
+        CountingReactiveCacheLock reactiveCacheLock = new CountingReactiveCacheLock();
+        DefaultReactiveFluxCache defaultReactiveFluxCache = new DefaultReactiveFluxCache(cacheName,
+                maxWaitingDuration,
+                reactiveCacheLock,
+                new InmemoryReactiveCacheFluxAdapter(),
+                ReactiveCacheOptions.newBuilder()
+                        .withReadConsistency(ReadConsistency.OPTIMISTIC)
+                        .withRecentlyWrittenGuardDuration(Duration.ofMillis(500))
+                        .build()
+        );
+        defaultReactiveFluxCache.cacheIfNecessary(cacheKey, Duration.ofSeconds(3), Flux.range(0, 3))
+                .as(StepVerifier::create)
+                .expectNext(0, 1, 2)
+                .verifyComplete();
+        Assertions.assertEquals(1, reactiveCacheLock.checkedCount.get());
+        defaultReactiveFluxCache.get(cacheKey)
+                .as(StepVerifier::create)
+                .expectNext(0, 1, 2)
+                .verifyComplete();
+        Assertions.assertEquals(2, reactiveCacheLock.checkedCount.get());
+        defaultReactiveFluxCache.get(cacheKey)
+                .delaySubscription(Duration.ofSeconds(1))
+                .as(StepVerifier::create)
+                .expectNext(0, 1, 2)
+                .verifyComplete();
+        Assertions.assertEquals(2, reactiveCacheLock.checkedCount.get());
+    }
+
     @Test
     void evictCache() {
         defaultReactiveFluxCache.evictCache(cacheKey)
@@ -167,4 +323,19 @@ class InmemoryDefaultReactiveFluxCacheTest extends BaseTest {
                     .then();
         }
     }
-}
\ No newline at end of file
+    private static class CountingReactiveCacheLock extends InmemoryReactiveCacheLock {
+
+        private final AtomicInteger checkedCount = new AtomicInteger();
+
+        @Override
+        public Mono<Void> checkInitializeLock(@NonNull String cacheName,
+                                              @NonNull String cacheKey,
+                                              @NonNull Duration maxWaitingDuration) {
+            return Mono.defer(() -> {
+                checkedCount.incrementAndGet();
+                return super.checkInitializeLock(cacheName, cacheKey, maxWaitingDuration);
+            });
+        }
+    }
+
+}
@@ -1,17 +1,33 @@
 package pro.chenggang.project.reactive.cache.support.defaults.executor.inmemory;
 
 import lombok.NonNull;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import pro.chenggang.project.reactive.cache.support.BaseTest;
+import pro.chenggang.project.reactive.cache.support.core.ReactiveCacheOptions;
+import pro.chenggang.project.reactive.cache.support.core.ReadConsistency;
+import pro.chenggang.project.reactive.cache.support.core.adapter.CachedDataOrLock;
 import pro.chenggang.project.reactive.cache.support.core.adapter.ReactiveCacheMonoAdapter;
+import pro.chenggang.project.reactive.cache.support.core.adapter.ReactiveCacheMonoLockingAdapter;
+import pro.chenggang.project.reactive.cache.support.core.executor.EarlyRefreshPolicy;
 import pro.chenggang.project.reactive.cache.support.defaults.executor.DefaultReactiveMonoCache;
 import pro.chenggang.project.reactive.cache.support.defaults.inmemory.InmemoryReactiveCacheLock;
 import pro.chenggang.project.reactive.cache.support.defaults.inmemory.InmemoryReactiveCacheMonoAdapter;
 import pro.chenggang.project.reactive.cache.support.exception.NoSuchCachedReactiveDataException;
+import pro.chenggang.project.reactive.cache.support.exception.ReactiveCacheLockLostException;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 
 /**
  * @author Gang Cheng
@@ -42,6 +58,159 @@ class InmemoryDefaultReactiveMonoCacheTest extends BaseTest {
                 .verifyComplete();
     }
 
+    @Test
+    void cacheIfNecessaryConcurrently() {
+        AtomicInteger subscribedCount = new AtomicInteger();
+        Mono<Boolean> sourceMono = Mono.defer(() -> {
+                    subscribedCount.incrementAndGet();
+                    return Mono.just(true);
+                })
+                .delayElement(Duration.ofMillis(500));
+        Flux.range(0, 10)
+                .flatMap(index -> defaultReactiveMonoCache.cacheIfNecessary(cacheKey, Duration.ofSeconds(3), sourceMono))
+                .as(StepVerifier::create)
+                .expectNextCount(10)
+                .verifyComplete();
+        Assertions.assertEquals(1, subscribedCount.get());
+    }
+
+    @Test
+    void cacheIfNecessaryWithStaleWhileRevalidate() throws InterruptedException {
+        AtomicInteger subscribedCount = new AtomicInteger();
+        Mono<Integer> sourceMono = Mono.fromSupplier(subscribedCount::incrementAndGet);
+        defaultReactiveMonoCache.cacheIfNecessary(cacheKey, Duration.ofSeconds(1), Duration.ofSeconds(5), sourceMono)
+                .as(StepVerifier::create)
+                .expectNext(1)
+                .verifyComplete();
+        defaultReactiveMonoCache.cacheIfNecessary(cacheKey, Duration.ofSeconds(1), Duration.ofSeconds(5), sourceMono)
+                .as(StepVerifier::create)
+                .expectNext(1)
+                .verifyComplete();
+        TimeUnit.MILLISECONDS.sleep(1200);
+        defaultReactiveMonoCache.cacheIfNecessary(cacheKey, Duration.ofSeconds(1), Duration.ofSeconds(5), sourceMono)
+                .as(StepVerifier::create)
+                .expectNext(1)
+                .verifyComplete();
+        TimeUnit.MILLISECONDS.sleep(500);
+        defaultReactiveMonoCache.cacheIfNecessary(cacheKey, Duration.ofSeconds(1), Duration.ofSeconds(5), sourceMono)
+                .as(StepVerifier::create)
+                .expectNext(2)
+                .verifyComplete();
+        Assertions.assertEquals(2, subscribedCount.get());
+    }
+
+    @Test
+    void cacheIfNecessaryWithStaleWhileRevalidateError() throws InterruptedException {
+        AtomicInteger subscribedCount = new AtomicInteger();
+        Mono<Integer> sourceMono = Mono.defer(() -> {
+            if (subscribedCount.incrementAndGet() > 1) {
+                return Mono.error(new IllegalStateException());
+            }
+            return Mono.just(1);
+        });
+        defaultReactiveMonoCache.cacheIfNecessary(cacheKey, Duration.ofSeconds(1), Duration.ofSeconds(5), sourceMono)
+                .as(StepVerifier::create)
+                .expectNext(1)
+                .verifyComplete();
+        TimeUnit.MILLISECONDS.sleep(1200);
+        defaultReactiveMonoCache.cacheIfNecessary(cacheKey, Duration.ofSeconds(1), Duration.ofSeconds(5), sourceMono)
+                .as(StepVerifier::create)
+                .expectNext(1)
+                .verifyComplete();
+        TimeUnit.MILLISECONDS.sleep(500);
+        defaultReactiveMonoCache.cacheIfNecessary(cacheKey, Duration.ofSeconds(1), Duration.ofSeconds(5), sourceMono)
+                .as(StepVerifier::create)
+                .expectNext(1)
+                .verifyComplete();
+    }
+
+    @Test
+    void cacheIfNecessaryWithIllegalStaleDuration() {
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> defaultReactiveMonoCache.cacheIfNecessary(cacheKey,
+                        Duration.ofSeconds(5),
+                        Duration.ofSeconds(5),
+                        Mono.just(true)
+                )
+        );
+    }
+
+    @Test
+    void cacheIfNecessaryWithEarlyRefresh() throws InterruptedException {
+        DefaultReactiveMonoCache defaultReactiveMonoCache = new DefaultReactiveMonoCache(cacheName,
+                maxWaitingDuration,
+                new InmemoryReactiveCacheLock(),
+                new InmemoryReactiveCacheMonoAdapter(),
+                ReactiveCacheOptions.newBuilder()
+                        .withEarlyRefreshPolicy(EarlyRefreshPolicy.xfetch(1_000_000_000D))
+                        .build()
+        );
+        AtomicInteger subscribedCount = new AtomicInteger();
+        Mono<Integer> sourceMono = Mono.fromSupplier(subscribedCount::incrementAndGet)
+                .delayElement(Duration.ofMillis(50));
+        defaultReactiveMonoCache.cacheIfNecessary(cacheKey, Duration.ofSeconds(5), sourceMono)
+                .as(StepVerifier::create)
+                .expectNext(1)
+                .verifyComplete();
+        defaultReactiveMonoCache.cacheIfNecessary(cacheKey, Duration.ofSeconds(5), sourceMono)
+                .as(StepVerifier::create)
+                .expectNext(1)
+                .verifyComplete();
+        TimeUnit.MILLISECONDS.sleep(500);
+        defaultReactiveMonoCache.cacheIfNecessary(cacheKey, Duration.ofSeconds(5), sourceMono)
+                .as(StepVerifier::create)
+                .expectNext(2)
+                .verifyComplete();
+    }
+
+    @Test
+    void cacheIfNecessaryWithEmpty() {
+        AtomicInteger subscribedCount = new AtomicInteger();
+        Mono<Boolean> sourceMono = Mono.defer(() -> {
+            subscribedCount.incrementAndGet();
+            return Mono.empty();
+        });
+        defaultReactiveMonoCache.cacheIfNecessary(cacheKey, Duration.ofSeconds(3), sourceMono)
+                .as(StepVerifier::create)
+                .verifyComplete();
+        defaultReactiveMonoCache.cacheIfNecessary(cacheKey, Duration.ofSeconds(3), sourceMono)
+                .as(StepVerifier::create)
+                .verifyComplete();
+        Assertions.assertEquals(2, subscribedCount.get());
+    }
+
+    @Test
+    void cacheIfNecessaryWithNegativeCaching() throws InterruptedException {
+        DefaultReactiveMonoCache defaultReactiveMonoCache = new DefaultReactiveMonoCache(cacheName,
+                maxWaitingDuration,
+                new InmemoryReactiveCacheLock(),
+                new InmemoryReactiveCacheMonoAdapter(),
+                ReactiveCacheOptions.newBuilder()
+                        .withNegativeCacheDuration(Duration.ofSeconds(1))
+                        .build()
+        );
+        AtomicInteger subscribedCount = new AtomicInteger();
+        Mono<Boolean> sourceMono = Mono.defer(() -> {
+            subscribedCount.incrementAndGet();
+            return Mono.empty();
+        });
+        defaultReactiveMonoCache.cacheIfNecessary(cacheKey, Duration.ofSeconds(3), sourceMono)
+                .as(StepVerifier::create)
+                .verifyComplete();
+        defaultReactiveMonoCache.cacheIfNecessary(cacheKey, Duration.ofSeconds(3), sourceMono)
+                .as(StepVerifier::create)
+                .verifyComplete();
+        defaultReactiveMonoCache.get(cacheKey)
+                .as(StepVerifier::create)
+                .verifyComplete();
+        Assertions.assertEquals(1, subscribedCount.get());
+        TimeUnit.MILLISECONDS.sleep(1200);
+        defaultReactiveMonoCache.cacheIfNecessary(cacheKey, Duration.ofSeconds(3), sourceMono)
+                .as(StepVerifier::create)
+                .verifyComplete();
+        Assertions.assertEquals(2, subscribedCount.get());
+    }
+
     @Test
     void cacheIfNecessaryWithCancel() {
         defaultReactiveMonoCache.cacheIfNecessary(cacheKey,
@@ -78,6 +247,126 @@ class InmemoryDefaultReactiveMonoCacheTest extends BaseTest {
                 .verify();
     }
 
+    @Test
+    void cacheAllIfNecessary() {
+        List<Set<String>> loadedCacheKeys = new ArrayList<>();
+        Function<Set<String>, Mono<Map<String, String>>> sourceLoader = cacheKeys -> Mono.fromSupplier(() -> {
+            loadedCacheKeys.add(cacheKeys);
+            Map<String, String> loadedData = new HashMap<>();
+            cacheKeys.stream()
+                    .filter(key -> !"C".equals(key))
+                    .forEach(key -> loadedData.put(key, key + "_VALUE"));
+            return loadedData;
+        });
+        defaultReactiveMonoCache.cacheAllIfNecessary(List.of("A", "B", "C"), Duration.ofSeconds(3), sourceLoader)
+                .as(StepVerifier::create)
+                .expectNext(Map.of("A", "A_VALUE", "B", "B_VALUE"))
+                .verifyComplete();
+        defaultReactiveMonoCache.cacheAllIfNecessary(List.of("A", "B", "C", "D"), Duration.ofSeconds(3), sourceLoader)
+                .as(StepVerifier::create)
+                .expectNext(Map.of("A", "A_VALUE", "B", "B_VALUE", "D", "D_VALUE"))
+                .verifyComplete();
+        Assertions.assertEquals(List.of(Set.of("A", "B", "C"), Set.of("C", "D")), loadedCacheKeys);
+    }
+
+    @Test
+    void getAllAndEvictAll() {
+        defaultReactiveMonoCache.cacheAllIfNecessary(List.of("A", "B"),
+                        Duration.ofSeconds(3),
+                        cacheKeys -> Mono.just(Map.of("A", 1, "B", 2))
+                )
+                .then(defaultReactiveMonoCache.getAll(List.of("A", "B", "C")))
+                .as(StepVerifier::create)
+                .expectNext(Map.of("A", 1, "B", 2))
+                .verifyComplete();
+        defaultReactiveMonoCache.evictAll(List.of("A", "C"))
+                .then(defaultReactiveMonoCache.getAll(List.of("A", "B", "C")))
+                .as(StepVerifier::create)
+                .expectNext(Map.of("B", 2))
+                .verifyComplete();
+    }
+
+    @Test
+    void getWithOptimisticReadConsistency() {
+        CountingReactiveCacheLock reactiveCacheLock = new CountingReactiveCacheLock();
+        DefaultReactiveMonoCache defaultReactiveMonoCache = new DefaultReactiveMonoCache(cacheName,
+                maxWaitingDuration,
+                reactiveCacheLock,
+                new InmemoryReactiveCacheMonoAdapter(),
+                ReactiveCacheOptions.newBuilder()
+                        .withReadConsistency(ReadConsistency.OPTIMISTIC)
+                        .build()
+        );
+        defaultReactiveMonoCache.get(cacheKey)
+                .as(StepVerifier::create)
+                .expectError(NoSuchCachedReactiveDataException.class)
+                .verify();
+        Assertions.assertEquals(1, reactiveCacheLock.checkedCount.get());
+        defaultReactiveMonoCache.cacheIfNecessary(cacheKey, Duration.ofSeconds(3), Mono.just(1))
+                .as(StepVerifier::create)
+                .expectNext(1)
+                .verifyComplete();
+        Assertions.assertEquals(2, reactiveCacheLock.checkedCount.get());
+        defaultReactiveMonoCache.get(cacheKey)
+                .as(StepVerifier::create)
+                .expectNext(1)
+                .verifyComplete();
+        defaultReactiveMonoCache.cacheIfNecessary(cacheKey, Duration.ofSeconds(3), Mono.just(2))
+                .as(StepVerifier::create)
+                .expectNext(1)
+                .verifyComplete();
+        Assertions.assertEquals(2, reactiveCacheLock.checkedCount.get());
+    }
+
+    @Test
+    void cacheIfNecessaryWithLockLost() {
+        DefaultReactiveMonoCache defaultReactiveMonoCache = new DefaultReactiveMonoCache(cacheName,
+                maxWaitingDuration,
+                new InmemoryReactiveCacheLock(),
+                new FencedOffReactiveCacheMonoAdapter()
+        );
+        defaultReactiveMonoCache.cacheIfNecessary(cacheKey, Duration.ofSeconds(3), Mono.just(1))
+                .as(StepVerifier::create)
+                .expectError(ReactiveCacheLockLostException.class)
+                .verify();
+        defaultReactiveMonoCache.get(cacheKey)
+                .as(StepVerifier::create)
+                .expectError(NoSuchCachedReactiveDataException.class)
+                .verify();
+    }
+
+    @Test
+    void cacheIfNecessaryWithLockingAdapter() {
+        CountingReactiveCacheLock reactiveCacheLock = new CountingReactiveCacheLock();
+        LockingReactiveCacheMonoAdapter lockingAdapter = new LockingReactiveCacheMonoAdapter(reactiveCacheLock);
+        DefaultReactiveMonoCache defaultReactiveMonoCache = new DefaultReactiveMonoCache(cacheName,
+                maxWaitingDuration,
+                reactiveCacheLock,
+                lockingAdapter,
+                ReactiveCacheOptions.newBuilder()
+                        .withNegativeCacheDuration(Duration.ofSeconds(3))
+                        .build()
+        );
+        defaultReactiveMonoCache.cacheIfNecessary(cacheKey, Duration.ofSeconds(3), Mono.error(new IllegalStateException()))
+                .as(StepVerifier::create)
+                .expectError(IllegalStateException.class)
+                .verify();
+        defaultReactiveMonoCache.cacheIfNecessary(cacheKey, Duration.ofSeconds(3), Mono.just(1))
+                .as(StepVerifier::create)
+                .expectNext(1)
+                .verifyComplete();
+        defaultReactiveMonoCache.cacheIfNecessary(cacheKey, Duration.ofSeconds(3), Mono.just(2))
+                .as(StepVerifier::create)
+                .expectNext(1)
+                .verifyComplete();
+        defaultReactiveMonoCache.cacheIfNecessary(cacheKey + "_EMPTY", Duration.ofSeconds(3), Mono.empty())
+                .then(defaultReactiveMonoCache.cacheIfNecessary(cacheKey + "_EMPTY", Duration.ofSeconds(3), Mono.just(1)))
+                .as(StepVerifier::create)
+                .verifyComplete();
+        Assertions.assertEquals(0, reactiveCacheLock.checkedCount.get());
+        Assertions.assertEquals(2, lockingAdapter.releasedCount.get());
+    }
+
     @Test
     void evictCache() {
         defaultReactiveMonoCache.evictCache(cacheKey)
@@ -165,4 +454,81 @@ class InmemoryDefaultReactiveMonoCacheTest extends BaseTest {
                     .then();
         }
     }
-}
\ No newline at end of file
+    private static class CountingReactiveCacheLock extends InmemoryReactiveCacheLock {
+
+        private final AtomicInteger checkedCount = new AtomicInteger();
+
+        @Override
+        public Mono<Void> checkInitializeLock(@NonNull String cacheName,
+                                              @NonNull String cacheKey,
+                                              @NonNull Duration maxWaitingDuration) {
+            return Mono.defer(() -> {
+                checkedCount.incrementAndGet();
+                return super.checkInitializeLock(cacheName, cacheKey, maxWaitingDuration);
+            });
+        }
+    }
+
+    private static class FencedOffReactiveCacheMonoAdapter extends InmemoryReactiveCacheMonoAdapter {
+
+        @Override
+        public <T> Mono<T> cacheFencedData(@NonNull String cacheName,
+                                           @NonNull String cacheKey,
+                                           @NonNull String operationId,
+                                           @NonNull Duration cacheDuration,
+                                           @NonNull Mono<T> sourcePublisher) {
+            return sourcePublisher.then(Mono.error(new ReactiveCacheLockLostException(cacheName, cacheKey, operationId)));
+        }
+    }
+
+    private static class LockingReactiveCacheMonoAdapter extends InmemoryReactiveCacheMonoAdapter
+            implements ReactiveCacheMonoLockingAdapter {
+
+        private final InmemoryReactiveCacheLock reactiveCacheLock;
+        private final AtomicInteger releasedCount = new AtomicInteger();
+
+        private LockingReactiveCacheMonoAdapter(InmemoryReactiveCacheLock reactiveCacheLock) {
+            this.reactiveCacheLock = reactiveCacheLock;
+        }
+
+        @Override
+        public <T> Mono<CachedDataOrLock<T>> loadDataOrTryLock(@NonNull String cacheName,
+                                                               @NonNull String cacheKey,
+                                                               @NonNull ReadConsistency readConsistency) {
+            return this.<T>loadDataIfPresent(cacheKey)
+                    .flatMap(cachedData -> {
+                        if (cachedData.isPresent()) {
+                            return Mono.just(CachedDataOrLock.cached(cachedData));
+                        }
+                        return reactiveCacheLock.tryLockInitializeLock(cacheName, cacheKey, Duration.ofSeconds(1))
+                                .map(CachedDataOrLock::<T>locked);
+                    });
+        }
+
+        @Override
+        public <T> Mono<T> cacheDataAndReleaseLock(@NonNull String cacheName,
+                                                   @NonNull String cacheKey,
+                                                   @NonNull String operationId,
+                                                   @NonNull Duration cacheDuration,
+                                                   @NonNull Mono<T> sourcePublisher) {
+            return this.cacheData(cacheKey, cacheDuration, sourcePublisher)
+                    .flatMap(data -> this.releaseLock(cacheName, cacheKey, operationId).thenReturn(data));
+        }
+
+        @Override
+        public Mono<Void> cacheEmptyDataAndReleaseLock(@NonNull String cacheName,
+                                                       @NonNull String cacheKey,
+                                                       @NonNull String operationId,
+                                                       @NonNull Duration cacheDuration) {
+            return this.cacheEmptyData(cacheKey, cacheDuration)
+                    .then(this.releaseLock(cacheName, cacheKey, operationId));
+        }
+
+        private Mono<Void> releaseLock(String cacheName, String cacheKey, String operationId) {
+            return reactiveCacheLock.releaseInitializeLock(cacheName, cacheKey, operationId)
+                    .doOnNext(releasedOperationId -> releasedCount.incrementAndGet())
+                    .then();
+        }
+    }
+
+}
@@ -22,10 +22,11 @@ class RedisDefaultReactiveMonoCacheTest extends BaseTestWithRedis {
 
     @BeforeEach
     void beforeEach() {
+        RedisReactiveCacheLock redisReactiveCacheLock = new RedisReactiveCacheLock(reactiveRedisTemplate);
         defaultReactiveMonoCache = new DefaultReactiveMonoCache(cacheName,
                 maxWaitingDuration,
-                new RedisReactiveCacheLock(reactiveRedisTemplate),
-                new RedisReactiveCacheMonoAdapter(reactiveRedisTemplate)
+                redisReactiveCacheLock,
+                new RedisReactiveCacheMonoAdapter(reactiveRedisTemplate, redisReactiveCacheLock)
         );
     }
 
@@ -1,5 +1,6 @@
 package pro.chenggang.project.reactive.cache.support.defaults.inmemory;
 
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.testcontainers.shaded.org.apache.commons.lang3.RandomStringUtils;
 import pro.chenggang.project.reactive.cache.support.BaseTest;
@@ -99,6 +100,102 @@ class InmemoryInitializeLockTest extends BaseTest {
                 .verifyComplete();
     }
 
+    @Test
+    void releaseInitializeLockHandOverToNextOperation() {
+        Mono<String> lockMono = inmemoryInitializeLock.tryLockInitializeLock(cacheName,
+                cacheKey,
+                Duration.ofSeconds(3)
+        );
+        lockMono.flatMap(lockedOperationId -> Mono.zip(lockMono.elapsed(),
+                                inmemoryInitializeLock.releaseInitializeLock(cacheName, cacheKey)
+                                        .delaySubscription(Duration.ofMillis(100))
+                        )
+                )
+                .as(StepVerifier::create)
+                .assertNext(result -> {
+                    Assertions.assertTrue(result.getT1().getT1() < 250);
+                    Assertions.assertNotEquals(result.getT1().getT2(), result.getT2());
+                })
+                .verifyComplete();
+        inmemoryInitializeLock.releaseInitializeLock(cacheName, cacheKey)
+                .as(StepVerifier::create)
+                .expectNextCount(1)
+                .verifyComplete();
+    }
+
+    @Test
+    void releaseInitializeLockWakeUpChecking() {
+        Mono<Void> checkMono = inmemoryInitializeLock.checkInitializeLock(cacheName,
+                cacheKey,
+                Duration.ofSeconds(3)
+        );
+        inmemoryInitializeLock.tryLockInitializeLock(cacheName, cacheKey, Duration.ofSeconds(3))
+                .flatMap(lockedOperationId -> Mono.zip(checkMono.thenReturn(true).elapsed(),
+                                inmemoryInitializeLock.releaseInitializeLock(cacheName, cacheKey)
+                                        .delaySubscription(Duration.ofMillis(100))
+                        )
+                )
+                .as(StepVerifier::create)
+                .assertNext(result -> {
+                    Assertions.assertTrue(result.getT1().getT1() >= 100);
+                    Assertions.assertTrue(result.getT1().getT1() < 250);
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void releaseInitializeLockByFormerHolder() {
+        inmemoryInitializeLock.tryLockInitializeLock(cacheName, cacheKey, Duration.ofSeconds(3))
+                .flatMap(operationId -> inmemoryInitializeLock.releaseInitializeLock(cacheName,
+                                        cacheKey,
+                                        operationId + "_FORMER"
+                                )
+                                .hasElement()
+                                .zipWith(inmemoryInitializeLock.isInitializeLockHeld(cacheName, cacheKey, operationId))
+                                .zipWith(inmemoryInitializeLock.releaseInitializeLock(cacheName, cacheKey, operationId)
+                                        .hasElement()
+                                )
+                )
+                .as(StepVerifier::create)
+                .assertNext(result -> {
+                    Assertions.assertFalse(result.getT1().getT1());
+                    Assertions.assertTrue(result.getT1().getT2());
+                    Assertions.assertTrue(result.getT2());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void tryLockInitializeLockWhenHolderLeaseExpired() {
+        InmemoryReactiveCacheLock leasedInitializeLock = new InmemoryReactiveCacheLock(Duration.ofMillis(200));
+        Mono<String> lockMono = leasedInitializeLock.tryLockInitializeLock(cacheName,
+                cacheKey,
+                Duration.ofSeconds(3)
+        );
+        lockMono.flatMap(expiredOperationId -> lockMono.elapsed()
+                        .flatMap(lockedResult -> leasedInitializeLock.isInitializeLockHeld(cacheName,
+                                        cacheKey,
+                                        expiredOperationId
+                                )
+                                .zipWith(leasedInitializeLock.isInitializeLockHeld(cacheName,
+                                        cacheKey,
+                                        lockedResult.getT2()
+                                ))
+                                .zipWith(Mono.just(lockedResult.getT1()))
+                        )
+                )
+                .as(StepVerifier::create)
+                .assertNext(result -> {
+                    Assertions.assertFalse(result.getT1().getT1());
+                    Assertions.assertTrue(result.getT1().getT2());
+                    Assertions.assertTrue(result.getT2() >= 150);
+                })
+                .verifyComplete();
+        leasedInitializeLock.checkInitializeLock(cacheName, cacheKey, Duration.ofSeconds(1))
+                .as(StepVerifier::create)
+                .verifyComplete();
+    }
+
     @Test
     void releaseInitializeLockWhenEmpty() {
         inmemoryInitializeLock.releaseInitializeLock(cacheName,
@@ -5,10 +5,14 @@ import org.junit.jupiter.api.Order;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestMethodOrder;
 import pro.chenggang.project.reactive.cache.support.BaseTest;
+import pro.chenggang.project.reactive.cache.support.core.adapter.CachedData;
+import pro.chenggang.project.reactive.cache.support.exception.ReactiveCacheLockLostException;
 import reactor.core.publisher.Flux;
 import reactor.test.StepVerifier;
 
 import java.time.Duration;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * @author Gang Cheng
@@ -81,4 +85,61 @@ class InmemoryReactiveCacheFluxAdapterTest extends BaseTest {
                 .as(StepVerifier::create)
                 .verifyComplete();
     }
-}
\ No newline at end of file
+
+    @Order(5)
+    @Test
+    void loadDataIfPresent() {
+        inmemoryReactiveCacheFluxAdapter.cleanupData(cacheKey)
+                .as(StepVerifier::create)
+                .verifyComplete();
+        inmemoryReactiveCacheFluxAdapter.loadDataIfPresent(cacheKey)
+                .as(StepVerifier::create)
+                .expectNext(CachedData.absent())
+                .verifyComplete();
+        inmemoryReactiveCacheFluxAdapter.cacheData(cacheKey, Duration.ofSeconds(3), Flux.range(0,3))
+                .then(inmemoryReactiveCacheFluxAdapter.<Integer>loadDataIfPresent(cacheKey))
+                .flatMapMany(cachedData -> cachedData.getData()
+                        .orElseGet(Flux::empty)
+                )
+                .as(StepVerifier::create)
+                .expectNext(0)
+                .expectNext(1)
+                .expectNext(2)
+                .verifyComplete();
+    }
+
+    @Order(6)
+    @Test
+    void loadLargeData() {
+        inmemoryReactiveCacheFluxAdapter.cacheData(cacheKey, Duration.ofSeconds(3), Flux.range(0, 10_000))
+                .thenMany(inmemoryReactiveCacheFluxAdapter.<Integer>loadData(cacheKey))
+                .collectList()
+                .as(StepVerifier::create)
+                .expectNext(IntStream.range(0, 10_000).boxed().collect(Collectors.toList()))
+                .verifyComplete();
+    }
+
+    @Order(7)
+    @Test
+    void cacheFencedData() {
+        inmemoryReactiveCacheFluxAdapter.cleanupData(cacheKey)
+                .thenMany(inmemoryReactiveCacheFluxAdapter.cacheFencedData(cacheName, cacheKey, "2", Duration.ofSeconds(3), Flux.range(0, 3)))
+                .as(StepVerifier::create)
+                .expectNext(0, 1, 2)
+                .verifyComplete();
+        inmemoryReactiveCacheFluxAdapter.cacheFencedData(cacheName, cacheKey, "1", Duration.ofSeconds(3), Flux.range(10, 3))
+                .as(StepVerifier::create)
+                .expectNext(10, 11, 12)
+                .expectError(ReactiveCacheLockLostException.class)
+                .verify();
+        inmemoryReactiveCacheFluxAdapter.loadData(cacheKey)
+                .as(StepVerifier::create)
+                .expectNext(0, 1, 2)
+                .verifyComplete();
+        inmemoryReactiveCacheFluxAdapter.cacheFencedData(cacheName, cacheKey, "3", Duration.ofSeconds(3), Flux.range(10, 3))
+                .thenMany(inmemoryReactiveCacheFluxAdapter.loadData(cacheKey))
+                .as(StepVerifier::create)
+                .expectNext(10, 11, 12)
+                .verifyComplete();
+    }
+}
@@ -3,8 +3,12 @@ package pro.chenggang.project.reactive.cache.support.defaults.inmemory;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import pro.chenggang.project.reactive.cache.support.BaseTest;
+import pro.chenggang.project.reactive.cache.support.core.EvictionOptions;
 import pro.chenggang.project.reactive.cache.support.core.ReactiveCache;
 import pro.chenggang.project.reactive.cache.support.defaults.DefaultReactiveCache;
+import pro.chenggang.project.reactive.cache.support.toolkit.TimingWheel;
+
+import java.util.Collections;
 
 /**
  * @author Gang Cheng
@@ -23,4 +27,22 @@ class InmemoryReactiveCacheManagerAdapterTest extends BaseTest {
         Assertions.assertNotNull(reactiveCache);
         Assertions.assertEquals(reactiveCache.getClass(), DefaultReactiveCache.class);
     }
-}
\ No newline at end of file
+
+    @Test
+    void closeWithSharedExpirationTimingWheel() {
+        TimingWheel expirationTimingWheel = new TimingWheel();
+        InmemoryReactiveCacheManagerAdapter sharedTimingWheelAdapter = new InmemoryReactiveCacheManagerAdapter(
+                maxWaitingDuration,
+                new InmemoryReactiveCacheLock(),
+                Collections.emptyMap(),
+                null,
+                expirationTimingWheel,
+                EvictionOptions.unbounded()
+        );
+        sharedTimingWheelAdapter.initializeReactiveCache(cacheName);
+        sharedTimingWheelAdapter.initializeReactiveCache(cacheName + "_OTHER");
+        Assertions.assertFalse(expirationTimingWheel.isDisposed());
+        sharedTimingWheelAdapter.close();
+        Assertions.assertTrue(expirationTimingWheel.isDisposed());
+    }
+}
@@ -1,14 +1,24 @@
 package pro.chenggang.project.reactive.cache.support.defaults.inmemory;
 
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.MethodOrderer;
 import org.junit.jupiter.api.Order;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestMethodOrder;
 import pro.chenggang.project.reactive.cache.support.BaseTest;
+import pro.chenggang.project.reactive.cache.support.core.adapter.CachedData;
+import pro.chenggang.project.reactive.cache.support.exception.ReactiveCacheLockLostException;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
 import reactor.test.StepVerifier;
 
 import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 /**
  * @author Gang Cheng
@@ -75,4 +85,124 @@ class InmemoryReactiveCacheMonoAdapterTest extends BaseTest {
                 .as(StepVerifier::create)
                 .verifyComplete();
     }
-}
\ No newline at end of file
+
+    @Order(5)
+    @Test
+    void loadDataIfPresent() {
+        inmemoryReactiveCacheMonoAdapter.cleanupData(cacheKey)
+                .as(StepVerifier::create)
+                .verifyComplete();
+        inmemoryReactiveCacheMonoAdapter.loadDataIfPresent(cacheKey)
+                .as(StepVerifier::create)
+                .expectNext(CachedData.absent())
+                .verifyComplete();
+        inmemoryReactiveCacheMonoAdapter.cacheData(cacheKey, Duration.ofSeconds(3), Mono.just(true))
+                .then(inmemoryReactiveCacheMonoAdapter.loadDataIfPresent(cacheKey))
+                .as(StepVerifier::create)
+                .consumeNextWith(cachedData -> {
+                    Assertions.assertTrue(cachedData.isPresent());
+                    Assertions.assertEquals(Optional.of(true), cachedData.getData());
+                    Assertions.assertTrue(cachedData.getExpireTime().isPresent());
+                    Assertions.assertTrue(cachedData.getLoadDuration().isPresent());
+                })
+                .verifyComplete();
+    }
+
+    @Order(6)
+    @Test
+    void bulkData() {
+        Set<String> cacheKeys = new LinkedHashSet<>(List.of(cacheKey + "_1", cacheKey + "_2"));
+        inmemoryReactiveCacheMonoAdapter.cleanupAllData(cacheKeys)
+                .then(inmemoryReactiveCacheMonoAdapter.cacheAllData(Map.of(cacheKey + "_1", 1), Duration.ofSeconds(3)))
+                .then(inmemoryReactiveCacheMonoAdapter.<Integer>loadAllDataIfPresent(cacheKeys))
+                .as(StepVerifier::create)
+                .consumeNextWith(cachedDataMap -> {
+                    Assertions.assertEquals(Optional.of(1), cachedDataMap.get(cacheKey + "_1").getData());
+                    Assertions.assertFalse(cachedDataMap.get(cacheKey + "_2").isPresent());
+                })
+                .verifyComplete();
+        inmemoryReactiveCacheMonoAdapter.cleanupAllData(cacheKeys)
+                .then(inmemoryReactiveCacheMonoAdapter.<Integer>loadAllDataIfPresent(cacheKeys))
+                .as(StepVerifier::create)
+                .consumeNextWith(cachedDataMap -> cachedDataMap.values()
+                        .forEach(cachedData -> Assertions.assertFalse(cachedData.isPresent()))
+                )
+                .verifyComplete();
+    }
+
+    @Order(7)
+    @Test
+    void cacheEmptyData() {
+        inmemoryReactiveCacheMonoAdapter.cacheEmptyData(cacheKey, Duration.ofSeconds(3))
+                .then(inmemoryReactiveCacheMonoAdapter.loadDataIfPresent(cacheKey))
+                .as(StepVerifier::create)
+                .consumeNextWith(cachedData -> {
+                    Assertions.assertTrue(cachedData.isPresent());
+                    Assertions.assertFalse(cachedData.getData().isPresent());
+                    Assertions.assertTrue(cachedData.getExpireTime().isPresent());
+                })
+                .verifyComplete();
+        inmemoryReactiveCacheMonoAdapter.loadData(cacheKey)
+                .as(StepVerifier::create)
+                .verifyComplete();
+        inmemoryReactiveCacheMonoAdapter.<Boolean>loadAllDataIfPresent(Set.of(cacheKey))
+                .as(StepVerifier::create)
+                .consumeNextWith(cachedDataMap -> {
+                    Assertions.assertTrue(cachedDataMap.get(cacheKey).isPresent());
+                    Assertions.assertFalse(cachedDataMap.get(cacheKey).getData().isPresent());
+                })
+                .verifyComplete();
+    }
+
+    @Order(8)
+    @Test
+    void operationsOnScheduler() {
+        Thread callingThread = Thread.currentThread();
+        inmemoryReactiveCacheMonoAdapter.hasData(cacheKey)
+                .map(hasData -> Thread.currentThread())
+                .as(StepVerifier::create)
+                .expectNext(callingThread)
+                .verifyComplete();
+        Scheduler scheduler = Schedulers.newSingle("inmemory-adapter");
+        try {
+            InmemoryReactiveCacheMonoAdapter scheduledAdapter = new InmemoryReactiveCacheMonoAdapter(scheduler);
+            scheduledAdapter.hasData(cacheKey)
+                    .map(hasData -> Thread.currentThread().getName())
+                    .as(StepVerifier::create)
+                    .consumeNextWith(threadName -> Assertions.assertTrue(threadName.startsWith("inmemory-adapter")))
+                    .verifyComplete();
+        } finally {
+            scheduler.dispose();
+        }
+    }
+
+    @Order(9)
+    @Test
+    void cacheFencedData() {
+        inmemoryReactiveCacheMonoAdapter.cleanupData(cacheKey)
+                .then(inmemoryReactiveCacheMonoAdapter.cacheFencedData(cacheName, cacheKey, "2", Duration.ofSeconds(3), Mono.just(true)))
+                .as(StepVerifier::create)
+                .expectNext(true)
+                .verifyComplete();
+        inmemoryReactiveCacheMonoAdapter.cacheFencedData(cacheName, cacheKey, "1", Duration.ofSeconds(3), Mono.just(false))
+                .as(StepVerifier::create)
+                .expectError(ReactiveCacheLockLostException.class)
+                .verify();
+        inmemoryReactiveCacheMonoAdapter.cacheFencedEmptyData(cacheName, cacheKey, "1", Duration.ofSeconds(3))
+                .as(StepVerifier::create)
+                .expectError(ReactiveCacheLockLostException.class)
+                .verify();
+        inmemoryReactiveCacheMonoAdapter.loadData(cacheKey)
+                .as(StepVerifier::create)
+                .expectNext(true)
+                .verifyComplete();
+        inmemoryReactiveCacheMonoAdapter.cacheFencedEmptyData(cacheName, cacheKey, "3", Duration.ofSeconds(3))
+                .then(inmemoryReactiveCacheMonoAdapter.loadDataIfPresent(cacheKey))
+                .as(StepVerifier::create)
+                .consumeNextWith(cachedData -> {
+                    Assertions.assertTrue(cachedData.isPresent());
+                    Assertions.assertFalse(cachedData.getData().isPresent());
+                })
+                .verifyComplete();
+    }
+}
@@ -0,0 +1,59 @@
+package pro.chenggang.project.reactive.cache.support.defaults.lock;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import pro.chenggang.project.reactive.cache.support.core.LockWaitStrategy;
+
+import java.time.Duration;
+
+/**
+ * @author Gang Cheng
+ * @version 1.1.0
+ * @since 1.1.0
+ */
+class LockWaitStrategiesTest {
+
+    private static final String CACHE_NAME = "CACHE_NAME";
+
+    @Test
+    void fixed() {
+        LockWaitStrategy lockWaitStrategy = LockWaitStrategies.fixed(Duration.ofMillis(300));
+        Assertions.assertEquals(Duration.ofMillis(300), lockWaitStrategy.nextDelay(CACHE_NAME, 1));
+        Assertions.assertEquals(Duration.ofMillis(300), lockWaitStrategy.nextDelay(CACHE_NAME, 10));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> LockWaitStrategies.fixed(Duration.ZERO));
+    }
+
+    @Test
+    void exponentialJitter() {
+        LockWaitStrategy lockWaitStrategy = LockWaitStrategies.exponentialJitter(Duration.ofMillis(10),
+                Duration.ofMillis(100)
+        );
+        for (int i = 0; i < 100; i++) {
+            Duration firstDelay = lockWaitStrategy.nextDelay(CACHE_NAME, 1);
+            Assertions.assertTrue(firstDelay.compareTo(Duration.ofMillis(1)) >= 0);
+            Assertions.assertTrue(firstDelay.compareTo(Duration.ofMillis(10)) <= 0);
+            Duration cappedDelay = lockWaitStrategy.nextDelay(CACHE_NAME, Integer.MAX_VALUE);
+            Assertions.assertTrue(cappedDelay.compareTo(Duration.ofMillis(1)) >= 0);
+            Assertions.assertTrue(cappedDelay.compareTo(Duration.ofMillis(100)) <= 0);
+        }
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> LockWaitStrategies.exponentialJitter(Duration.ofMillis(100), Duration.ofMillis(10))
+        );
+    }
+
+    @Test
+    void adaptive() {
+        LockWaitStrategy lockWaitStrategy = LockWaitStrategies.adaptive(Duration.ofMillis(10), Duration.ofSeconds(1));
+        Assertions.assertEquals(Duration.ofMillis(10), lockWaitStrategy.nextDelay(CACHE_NAME, 1));
+        lockWaitStrategy.recordHoldDuration(CACHE_NAME, Duration.ofMillis(100));
+        lockWaitStrategy.recordHoldDuration(CACHE_NAME, Duration.ofMillis(200));
+        lockWaitStrategy.recordHoldDuration(CACHE_NAME, Duration.ofMillis(5000));
+        Assertions.assertEquals(Duration.ofMillis(200), lockWaitStrategy.nextDelay(CACHE_NAME, 1));
+        Assertions.assertEquals(Duration.ofMillis(10), lockWaitStrategy.nextDelay(CACHE_NAME + "_OTHER", 1));
+        Duration backoffDelay = lockWaitStrategy.nextDelay(CACHE_NAME, 3);
+        Assertions.assertTrue(backoffDelay.compareTo(Duration.ofMillis(800)) <= 0);
+        lockWaitStrategy.recordHoldDuration(CACHE_NAME, Duration.ofMillis(5000));
+        lockWaitStrategy.recordHoldDuration(CACHE_NAME, Duration.ofMillis(5000));
+        Assertions.assertEquals(Duration.ofSeconds(1), lockWaitStrategy.nextDelay(CACHE_NAME, 1));
+    }
+}
@@ -0,0 +1,41 @@
+package pro.chenggang.project.reactive.cache.support.defaults.redis;
+
+import io.lettuce.core.cluster.SlotHash;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import pro.chenggang.project.reactive.cache.support.BaseTest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Gang Cheng
+ * @version 1.1.0
+ * @since 1.1.0
+ */
+class RedisHashTagsTest extends BaseTest {
+
+    @Test
+    void hasHashTag() {
+        assertTrue(RedisHashTags.hasHashTag("{user}:1"));
+        assertTrue(RedisHashTags.hasHashTag("user:{1}"));
+        assertFalse(RedisHashTags.hasHashTag(cacheKey));
+        assertFalse(RedisHashTags.hasHashTag("user:{}:1"));
+        assertFalse(RedisHashTags.hasHashTag("user:{1"));
+        assertFalse(RedisHashTags.hasHashTag("user}:{1"));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void derivedKeysShareHashSlot() {
+        RedisReactiveCacheLock redisReactiveCacheLock = new RedisReactiveCacheLock(Mockito.mock(ReactiveRedisTemplate.class));
+        for (String key : new String[]{cacheKey, "{user}:1", "user:{1}:profile", "user:{1"}) {
+            String lockKey = redisReactiveCacheLock.decorateCacheInitializeLockKey(cacheName, key);
+            assertEquals(SlotHash.getSlot(key), SlotHash.getSlot(lockKey));
+            assertEquals(SlotHash.getSlot(key), SlotHash.getSlot(redisReactiveCacheLock.decorateFencingTokenKey(lockKey)));
+            assertEquals(SlotHash.getSlot(key), SlotHash.getSlot(RedisHashTags.hashTagged(key) + ":LOAD_DURATION"));
+        }
+    }
+}
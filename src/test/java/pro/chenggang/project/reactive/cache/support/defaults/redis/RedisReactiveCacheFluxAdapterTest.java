@@ -1,13 +1,19 @@
 package pro.chenggang.project.reactive.cache.support.defaults.redis;
 
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Order;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import pro.chenggang.project.reactive.cache.support.core.adapter.CachedData;
+import pro.chenggang.project.reactive.cache.support.exception.ReactiveCacheLockLostException;
 import reactor.core.publisher.Flux;
 import reactor.test.StepVerifier;
 
 import java.time.Duration;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * @author Gang Cheng
@@ -85,4 +91,111 @@ class RedisReactiveCacheFluxAdapterTest extends BaseTestWithRedis{
                 .as(StepVerifier::create)
                 .verifyComplete();
     }
-}
\ No newline at end of file
+
+    @Order(5)
+    @Test
+    void loadDataIfPresent() {
+        redisReactiveCacheFluxAdapter.cleanupData(cacheKey)
+                .as(StepVerifier::create)
+                .verifyComplete();
+        redisReactiveCacheFluxAdapter.loadDataIfPresent(cacheKey)
+                .as(StepVerifier::create)
+                .expectNext(CachedData.absent())
+                .verifyComplete();
+        redisReactiveCacheFluxAdapter.cacheData(cacheKey, Duration.ofSeconds(3), Flux.range(0,3))
+                .then(redisReactiveCacheFluxAdapter.<Integer>loadDataIfPresent(cacheKey))
+                .flatMapMany(cachedData -> cachedData.getData()
+                        .orElseGet(Flux::empty)
+                )
+                .as(StepVerifier::create)
+                .expectNext(0)
+                .expectNext(1)
+                .expectNext(2)
+                .verifyComplete();
+        redisReactiveCacheFluxAdapter.cacheData(cacheKey, Duration.ofSeconds(3), Flux.range(0, 1_000))
+                .then(redisReactiveCacheFluxAdapter.<Integer>loadDataIfPresent(cacheKey))
+                .flatMap(cachedData -> {
+                    Assertions.assertTrue(cachedData.getExpireTime().isPresent());
+                    return cachedData.getData()
+                            .orElseGet(Flux::empty)
+                            .collectList();
+                })
+                .as(StepVerifier::create)
+                .expectNext(IntStream.range(0, 1_000).boxed().collect(Collectors.toList()))
+                .verifyComplete();
+    }
+
+    @Order(6)
+    @Test
+    void cacheDataInBatches() {
+        ReactiveRedisTemplate<String, Object> redisTemplate = reactiveRedisTemplate;
+        RedisReactiveCacheFluxAdapter batchedRedisReactiveCacheFluxAdapter = new RedisReactiveCacheFluxAdapter(
+                reactiveRedisTemplate, 100, 4
+        );
+        batchedRedisReactiveCacheFluxAdapter.cacheData(cacheKey, Duration.ofSeconds(3), Flux.range(0, 10_000))
+                .then(redisTemplate.getExpire(cacheKey))
+                .as(StepVerifier::create)
+                .expectNextMatches(expireDuration -> expireDuration.compareTo(Duration.ZERO) > 0)
+                .verifyComplete();
+        batchedRedisReactiveCacheFluxAdapter.<Integer>loadData(cacheKey)
+                .collectList()
+                .as(StepVerifier::create)
+                .expectNext(IntStream.range(0, 10_000).boxed().collect(Collectors.toList()))
+                .verifyComplete();
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> new RedisReactiveCacheFluxAdapter(reactiveRedisTemplate, 0, 4)
+        );
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> new RedisReactiveCacheFluxAdapter(reactiveRedisTemplate, 100, 0)
+        );
+    }
+
+    @Order(8)
+    @Test
+    void cacheDataInBatchesWithEmptyScriptCache() {
+        ReactiveRedisTemplate<String, Object> redisTemplate = reactiveRedisTemplate;
+        RedisReactiveCacheFluxAdapter batchedRedisReactiveCacheFluxAdapter = new RedisReactiveCacheFluxAdapter(
+                reactiveRedisTemplate, 10, 4
+        );
+        redisTemplate.execute(connection -> connection.scriptingCommands().scriptFlush())
+                .then()
+                .as(StepVerifier::create)
+                .verifyComplete();
+        batchedRedisReactiveCacheFluxAdapter.cacheData(cacheKey, Duration.ofSeconds(3), Flux.range(0, 1_000))
+                .thenMany(batchedRedisReactiveCacheFluxAdapter.<Integer>loadData(cacheKey))
+                .collectList()
+                .as(StepVerifier::create)
+                .expectNext(IntStream.range(0, 1_000).boxed().collect(Collectors.toList()))
+                .verifyComplete();
+    }
+
+    @Order(7)
+    @Test
+    void cacheFencedData() {
+        RedisReactiveCacheLock redisReactiveCacheLock = new RedisReactiveCacheLock(reactiveRedisTemplate);
+        RedisReactiveCacheFluxAdapter fencedAdapter = new RedisReactiveCacheFluxAdapter(reactiveRedisTemplate,
+                redisReactiveCacheLock
+        );
+        String operationId = fencedAdapter.cleanupData(cacheKey)
+                .then(redisReactiveCacheLock.tryLockInitializeLock(cacheName, cacheKey, Duration.ofSeconds(3)))
+                .block();
+        Assertions.assertNotNull(operationId);
+        fencedAdapter.cacheFencedData(cacheName, cacheKey, operationId, Duration.ofSeconds(3), Flux.range(0, 3))
+                .as(StepVerifier::create)
+                .expectNext(0, 1, 2)
+                .verifyComplete();
+        fencedAdapter.cacheFencedData(cacheName, cacheKey, "0", Duration.ofSeconds(3), Flux.range(10, 3))
+                .as(StepVerifier::create)
+                .expectNext(10, 11, 12)
+                .expectError(ReactiveCacheLockLostException.class)
+                .verify();
+        fencedAdapter.loadData(cacheKey)
+                .as(StepVerifier::create)
+                .expectNext(0, 1, 2)
+                .verifyComplete();
+        redisReactiveCacheLock.releaseInitializeLock(cacheName, cacheKey, operationId)
+                .as(StepVerifier::create)
+                .expectNext(operationId)
+                .verifyComplete();
+    }
+}
@@ -1,12 +1,15 @@
 package pro.chenggang.project.reactive.cache.support.defaults.redis;
 
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
 import org.testcontainers.shaded.org.apache.commons.lang3.RandomStringUtils;
 import pro.chenggang.project.reactive.cache.support.exception.ReactiveCacheLoadExhaustedException;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
+import reactor.util.function.Tuples;
 
 import java.time.Duration;
 import java.util.Arrays;
@@ -102,6 +105,77 @@ class RedisReactiveCacheLockTest extends BaseTestWithRedis{
                 .verifyComplete();
     }
 
+    @Test
+    void releaseInitializeLockWakeUpWaiters() {
+        Mono<String> lockMono = redisReactiveCacheLock.tryLockInitializeLock(cacheName,
+                cacheKey,
+                Duration.ofSeconds(5)
+        );
+        Mono<Void> checkMono = redisReactiveCacheLock.checkInitializeLock(cacheName,
+                cacheKey,
+                Duration.ofSeconds(5)
+        );
+        lockMono.flatMap(lockedOperationId -> Mono.zip(lockMono.elapsed(),
+                                redisReactiveCacheLock.releaseInitializeLock(cacheName, cacheKey)
+                                        .delaySubscription(Duration.ofMillis(500))
+                        )
+                )
+                .flatMap(lockedResult -> Mono.zip(checkMono.thenReturn(true).elapsed(),
+                                redisReactiveCacheLock.releaseInitializeLock(cacheName, cacheKey)
+                                        .delaySubscription(Duration.ofMillis(500))
+                        )
+                        .map(checkedResult -> Tuples.of(lockedResult.getT1().getT1(), checkedResult.getT1().getT1()))
+                )
+                .as(StepVerifier::create)
+                .assertNext(result -> {
+                    Assertions.assertTrue(result.getT1() < RedisReactiveCacheLock.DEFAULT_SAFETY_NET_POLLING_INTERVAL.toMillis());
+                    Assertions.assertTrue(result.getT2() < RedisReactiveCacheLock.DEFAULT_SAFETY_NET_POLLING_INTERVAL.toMillis());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void tryLockInitializeLockWhenHolderLeaseExpired() {
+        String lockKey = redisReactiveCacheLock.decorateCacheInitializeLockKey(cacheName, cacheKey);
+        ReactiveRedisTemplate<String, Object> redisTemplate = reactiveRedisTemplate;
+        redisTemplate.opsForList()
+                .leftPush(lockKey, "DEAD_OPERATION_ID")
+                .then(redisTemplate.expire(lockKey, Duration.ofSeconds(1)))
+                .then(redisReactiveCacheLock.tryLockInitializeLock(cacheName, cacheKey, Duration.ofSeconds(5)))
+                .flatMap(operationId -> redisReactiveCacheLock.isInitializeLockHeld(cacheName, cacheKey, operationId)
+                        .zipWith(redisReactiveCacheLock.isInitializeLockHeld(cacheName, cacheKey, "DEAD_OPERATION_ID"))
+                        .flatMap(result -> redisReactiveCacheLock.releaseInitializeLock(cacheName, cacheKey, operationId)
+                                .thenReturn(result)
+                        )
+                )
+                .as(StepVerifier::create)
+                .assertNext(result -> {
+                    Assertions.assertTrue(result.getT1());
+                    Assertions.assertFalse(result.getT2());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void releaseInitializeLockByFormerHolder() {
+        redisReactiveCacheLock.tryLockInitializeLock(cacheName, cacheKey, Duration.ofSeconds(3))
+                .flatMap(operationId -> redisReactiveCacheLock.releaseInitializeLock(cacheName,
+                                        cacheKey,
+                                        operationId + "_FORMER"
+                                )
+                                .hasElement()
+                                .zipWith(redisReactiveCacheLock.releaseInitializeLock(cacheName, cacheKey, operationId)
+                                        .hasElement()
+                                )
+                )
+                .as(StepVerifier::create)
+                .assertNext(result -> {
+                    Assertions.assertFalse(result.getT1());
+                    Assertions.assertTrue(result.getT2());
+                })
+                .verifyComplete();
+    }
+
     @Test
     void releaseInitializeLockWhenEmpty() {
         redisReactiveCacheLock.releaseInitializeLock(cacheName,
@@ -1,14 +1,24 @@
 package pro.chenggang.project.reactive.cache.support.defaults.redis;
 
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.MethodOrderer;
 import org.junit.jupiter.api.Order;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestMethodOrder;
+import pro.chenggang.project.reactive.cache.support.core.ReadConsistency;
+import pro.chenggang.project.reactive.cache.support.core.adapter.CachedData;
+import pro.chenggang.project.reactive.cache.support.core.adapter.CachedDataOrLock;
+import pro.chenggang.project.reactive.cache.support.exception.ReactiveCacheLockLostException;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
 import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 /**
  * @author Gang Cheng
@@ -80,4 +90,190 @@ class RedisReactiveCacheMonoAdapterTest extends BaseTestWithRedis {
                 .as(StepVerifier::create)
                 .verifyComplete();
     }
-}
\ No newline at end of file
+
+    @Order(5)
+    @Test
+    void loadDataIfPresent() {
+        redisReactiveCacheMonoAdapter.cleanupData(cacheKey)
+                .as(StepVerifier::create)
+                .verifyComplete();
+        redisReactiveCacheMonoAdapter.loadDataIfPresent(cacheKey)
+                .as(StepVerifier::create)
+                .expectNext(CachedData.absent())
+                .verifyComplete();
+        redisReactiveCacheMonoAdapter.cacheData(cacheKey, Duration.ofSeconds(3), Mono.just(true))
+                .then(redisReactiveCacheMonoAdapter.loadDataIfPresent(cacheKey))
+                .as(StepVerifier::create)
+                .consumeNextWith(cachedData -> {
+                    Assertions.assertTrue(cachedData.isPresent());
+                    Assertions.assertEquals(Optional.of(true), cachedData.getData());
+                    Assertions.assertTrue(cachedData.getExpireTime().isPresent());
+                    Assertions.assertTrue(cachedData.getLoadDuration().isPresent());
+                })
+                .verifyComplete();
+    }
+
+    @Order(6)
+    @Test
+    void bulkData() {
+        Set<String> cacheKeys = new LinkedHashSet<>(List.of(cacheKey + "_1", cacheKey + "_2"));
+        redisReactiveCacheMonoAdapter.cleanupAllData(cacheKeys)
+                .then(redisReactiveCacheMonoAdapter.cacheAllData(Map.of(cacheKey + "_1", 1), Duration.ofSeconds(3)))
+                .then(redisReactiveCacheMonoAdapter.<Integer>loadAllDataIfPresent(cacheKeys))
+                .as(StepVerifier::create)
+                .consumeNextWith(cachedDataMap -> {
+                    Assertions.assertEquals(Optional.of(1), cachedDataMap.get(cacheKey + "_1").getData());
+                    Assertions.assertFalse(cachedDataMap.get(cacheKey + "_2").isPresent());
+                })
+                .verifyComplete();
+        redisReactiveCacheMonoAdapter.cacheData(cacheKey + "_1", Duration.ofSeconds(3), Mono.just(0))
+                .then(redisReactiveCacheMonoAdapter.cacheAllData(Map.of(cacheKey + "_1", 1), Duration.ofSeconds(3)))
+                .then(redisReactiveCacheMonoAdapter.<Integer>loadDataIfPresent(cacheKey + "_1"))
+                .as(StepVerifier::create)
+                .consumeNextWith(cachedData -> {
+                    Assertions.assertEquals(Optional.of(1), cachedData.getData());
+                    Assertions.assertFalse(cachedData.getLoadDuration().isPresent());
+                })
+                .verifyComplete();
+        redisReactiveCacheMonoAdapter.cleanupAllData(cacheKeys)
+                .then(redisReactiveCacheMonoAdapter.<Integer>loadAllDataIfPresent(cacheKeys))
+                .as(StepVerifier::create)
+                .consumeNextWith(cachedDataMap -> cachedDataMap.values()
+                        .forEach(cachedData -> Assertions.assertFalse(cachedData.isPresent()))
+                )
+                .verifyComplete();
+    }
+
+    @Order(7)
+    @Test
+    void cacheEmptyData() {
+        redisReactiveCacheMonoAdapter.cacheData(cacheKey, Duration.ofSeconds(3), Mono.just(true))
+                .then(redisReactiveCacheMonoAdapter.cacheEmptyData(cacheKey, Duration.ofSeconds(3)))
+                .then(redisReactiveCacheMonoAdapter.loadDataIfPresent(cacheKey))
+                .as(StepVerifier::create)
+                .consumeNextWith(cachedData -> {
+                    Assertions.assertTrue(cachedData.isPresent());
+                    Assertions.assertFalse(cachedData.getData().isPresent());
+                    Assertions.assertTrue(cachedData.getExpireTime().isPresent());
+                    Assertions.assertFalse(cachedData.getLoadDuration().isPresent());
+                })
+                .verifyComplete();
+        redisReactiveCacheMonoAdapter.loadData(cacheKey)
+                .as(StepVerifier::create)
+                .verifyComplete();
+        redisReactiveCacheMonoAdapter.<Boolean>loadAllDataIfPresent(Set.of(cacheKey))
+                .as(StepVerifier::create)
+                .consumeNextWith(cachedDataMap -> {
+                    Assertions.assertTrue(cachedDataMap.get(cacheKey).isPresent());
+                    Assertions.assertFalse(cachedDataMap.get(cacheKey).getData().isPresent());
+                })
+                .verifyComplete();
+    }
+
+    @Order(8)
+    @Test
+    void loadDataOrTryLock() {
+        RedisReactiveCacheLock redisReactiveCacheLock = new RedisReactiveCacheLock(reactiveRedisTemplate);
+        RedisReactiveCacheMonoAdapter lockingAdapter = new RedisReactiveCacheMonoAdapter(reactiveRedisTemplate,
+                redisReactiveCacheLock
+        );
+        String operationId = lockingAdapter.cleanupData(cacheKey)
+                .then(lockingAdapter.<Boolean>loadDataOrTryLock(cacheName, cacheKey, ReadConsistency.STRICT))
+                .flatMap(cachedDataOrLock -> Mono.justOrEmpty(cachedDataOrLock.getOperationId()))
+                .block();
+        Assertions.assertNotNull(operationId);
+        lockingAdapter.<Boolean>loadDataOrTryLock(cacheName, cacheKey, ReadConsistency.STRICT)
+                .as(StepVerifier::create)
+                .expectNext(CachedDataOrLock.contended())
+                .verifyComplete();
+        lockingAdapter.cacheDataAndReleaseLock(cacheName, cacheKey, operationId, Duration.ofSeconds(3), Mono.just(true))
+                .as(StepVerifier::create)
+                .expectNext(true)
+                .verifyComplete();
+        lockingAdapter.<Boolean>loadDataOrTryLock(cacheName, cacheKey, ReadConsistency.STRICT)
+                .as(StepVerifier::create)
+                .consumeNextWith(cachedDataOrLock -> {
+                    Assertions.assertFalse(cachedDataOrLock.getOperationId().isPresent());
+                    Assertions.assertEquals(Optional.of(true), cachedDataOrLock.getCachedData().getData());
+                    Assertions.assertTrue(cachedDataOrLock.getCachedData().getExpireTime().isPresent());
+                    Assertions.assertTrue(cachedDataOrLock.getCachedData().getLoadDuration().isPresent());
+                })
+                .verifyComplete();
+        redisReactiveCacheLock.isInitializeLockHeld(cacheName, cacheKey, operationId)
+                .as(StepVerifier::create)
+                .expectNext(false)
+                .verifyComplete();
+        String emptyOperationId = redisReactiveCacheLock.tryLockInitializeLock(cacheName, cacheKey, Duration.ofSeconds(3))
+                .block();
+        Assertions.assertNotNull(emptyOperationId);
+        lockingAdapter.cacheEmptyDataAndReleaseLock(cacheName, cacheKey, emptyOperationId, Duration.ofSeconds(3))
+                .then(lockingAdapter.loadDataIfPresent(cacheKey))
+                .as(StepVerifier::create)
+                .consumeNextWith(cachedData -> {
+                    Assertions.assertTrue(cachedData.isPresent());
+                    Assertions.assertFalse(cachedData.getData().isPresent());
+                    Assertions.assertFalse(cachedData.getLoadDuration().isPresent());
+                })
+                .verifyComplete();
+    }
+
+    @Order(9)
+    @Test
+    void cacheDataAndReleaseLockWithLockLost() {
+        RedisReactiveCacheLock redisReactiveCacheLock = new RedisReactiveCacheLock(reactiveRedisTemplate);
+        RedisReactiveCacheMonoAdapter lockingAdapter = new RedisReactiveCacheMonoAdapter(reactiveRedisTemplate,
+                redisReactiveCacheLock
+        );
+        lockingAdapter.cleanupData(cacheKey)
+                .then(lockingAdapter.cacheDataAndReleaseLock(cacheName, cacheKey, "0", Duration.ofSeconds(3), Mono.just(true)))
+                .as(StepVerifier::create)
+                .expectError(ReactiveCacheLockLostException.class)
+                .verify();
+        lockingAdapter.hasData(cacheKey)
+                .as(StepVerifier::create)
+                .expectNext(false)
+                .verifyComplete();
+    }
+
+    @Order(10)
+    @Test
+    void loadDataOrTryLockWithoutLock() {
+        redisReactiveCacheMonoAdapter.<Boolean>loadDataOrTryLock(cacheName, cacheKey, ReadConsistency.OPTIMISTIC)
+                .as(StepVerifier::create)
+                .expectNext(CachedDataOrLock.contended())
+                .verifyComplete();
+    }
+
+    @Order(11)
+    @Test
+    void cacheFencedData() {
+        RedisReactiveCacheLock redisReactiveCacheLock = new RedisReactiveCacheLock(reactiveRedisTemplate);
+        RedisReactiveCacheMonoAdapter fencedAdapter = new RedisReactiveCacheMonoAdapter(reactiveRedisTemplate,
+                redisReactiveCacheLock
+        );
+        String operationId = fencedAdapter.cleanupData(cacheKey)
+                .then(redisReactiveCacheLock.tryLockInitializeLock(cacheName, cacheKey, Duration.ofSeconds(3)))
+                .block();
+        Assertions.assertNotNull(operationId);
+        fencedAdapter.cacheFencedData(cacheName, cacheKey, operationId, Duration.ofSeconds(3), Mono.just(true))
+                .as(StepVerifier::create)
+                .expectNext(true)
+                .verifyComplete();
+        fencedAdapter.cacheFencedEmptyData(cacheName, cacheKey, "0", Duration.ofSeconds(3))
+                .as(StepVerifier::create)
+                .expectError(ReactiveCacheLockLostException.class)
+                .verify();
+        fencedAdapter.loadDataIfPresent(cacheKey)
+                .as(StepVerifier::create)
+                .consumeNextWith(cachedData -> {
+                    Assertions.assertEquals(Optional.of(true), cachedData.getData());
+                    Assertions.assertTrue(cachedData.getLoadDuration().isPresent());
+                })
+                .verifyComplete();
+        redisReactiveCacheLock.releaseInitializeLock(cacheName, cacheKey, operationId)
+                .then(fencedAdapter.cacheFencedData(cacheName, cacheKey, operationId, Duration.ofSeconds(3), Mono.just(false)))
+                .as(StepVerifier::create)
+                .expectError(ReactiveCacheLockLostException.class)
+                .verify();
+    }
+}
@@ -79,4 +79,68 @@ class AutoExpiredDataCacheTest extends BaseTest {
         hasData = autoExpiredDataCache.hasData(cacheKey);
         assertFalse(hasData);
     }
-}
\ No newline at end of file
+
+    @Test
+    void expireAllDueData() throws Exception {
+        for (int i = 0; i < 1000; i++) {
+            autoExpiredDataCache.putData(cacheKey + i, true, Duration.ofMillis(200));
+        }
+        TimeUnit.MILLISECONDS.sleep(500);
+        for (int i = 0; i < 1000; i++) {
+            assertFalse(autoExpiredDataCache.hasData(cacheKey + i));
+        }
+    }
+
+    @Test
+    void getDataAfterExpiredBeforeRemoved() throws Exception {
+        autoExpiredDataCache.putData(cacheKey, true, Duration.ofMillis(20));
+        TimeUnit.MILLISECONDS.sleep(50);
+        assertTrue(autoExpiredDataCache.getData(cacheKey).isEmpty());
+        assertFalse(autoExpiredDataCache.hasData(cacheKey));
+    }
+
+    @Test
+    void evictByMaximumSize() {
+        AutoExpiredDataCache<Boolean> boundedDataCache = AutoExpiredDataCache.newInstance(new TimingWheel(),
+                100,
+                AutoExpiredDataCache.UNBOUNDED,
+                (dataKey, data) -> 1
+        );
+        boundedDataCache.putData(cacheKey, true, Duration.ofSeconds(10));
+        for (int i = 0; i < 10; i++) {
+            assertTrue(boundedDataCache.getData(cacheKey).isPresent());
+        }
+        for (int i = 0; i < 1000; i++) {
+            boundedDataCache.putData(cacheKey + i, true, Duration.ofSeconds(10));
+            assertTrue(boundedDataCache.hasData(cacheKey + i));
+            Assertions.assertTrue(boundedDataCache.size() <= 100);
+        }
+        // the frequently read data survives the scan of one-off data
+        assertTrue(boundedDataCache.hasData(cacheKey));
+    }
+
+    @Test
+    void evictByMaximumWeight() {
+        AutoExpiredDataCache<String> boundedDataCache = AutoExpiredDataCache.newInstance(new TimingWheel(),
+                AutoExpiredDataCache.UNBOUNDED,
+                100,
+                (dataKey, data) -> data.length()
+        );
+        for (int i = 0; i < 100; i++) {
+            boundedDataCache.putData(cacheKey + i, "0123456789", Duration.ofSeconds(10));
+            Assertions.assertTrue(boundedDataCache.size() <= 10);
+        }
+        boundedDataCache.putData(cacheKey, "0123456789".repeat(20), Duration.ofSeconds(10));
+        assertFalse(boundedDataCache.hasData(cacheKey));
+        Assertions.assertEquals(10, boundedDataCache.size());
+    }
+
+    @Test
+    void putDataIf() {
+        assertTrue(autoExpiredDataCache.putDataIf(cacheKey, true, Duration.ofSeconds(10), data -> false));
+        assertFalse(autoExpiredDataCache.putDataIf(cacheKey, false, Duration.ofSeconds(10), data -> !data));
+        Assertions.assertEquals(Optional.of(true), autoExpiredDataCache.getData(cacheKey));
+        assertTrue(autoExpiredDataCache.putDataIf(cacheKey, false, Duration.ofSeconds(10), data -> data));
+        Assertions.assertEquals(Optional.of(false), autoExpiredDataCache.getData(cacheKey));
+    }
+}
@@ -0,0 +1,108 @@
+package pro.chenggang.project.reactive.cache.support.toolkit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * @author Gang Cheng
+ * @version 1.1.0
+ * @since 1.1.0
+ */
+class FluxTeeTest {
+
+    @Test
+    void initialization() {
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> FluxTee.tee(Flux.just(1), value -> Mono.empty(), 0)
+        );
+    }
+
+    @Test
+    void subscribeSourceOnce() {
+        AtomicInteger subscribedCount = new AtomicInteger();
+        List<Integer> writtenData = new CopyOnWriteArrayList<>();
+        Flux<Integer> sourceFlux = Flux.range(0, 1000)
+                .doOnSubscribe(subscription -> subscribedCount.incrementAndGet());
+        FluxTee.tee(sourceFlux, value -> Mono.fromRunnable(() -> writtenData.add(value)))
+                .as(StepVerifier::create)
+                .expectNextCount(1000)
+                .verifyComplete();
+        Assertions.assertEquals(1, subscribedCount.get());
+        Assertions.assertEquals(IntStream.range(0, 1000).boxed().collect(Collectors.toList()), writtenData);
+    }
+
+    @Test
+    void completeAfterWritten() {
+        List<Integer> writtenData = new CopyOnWriteArrayList<>();
+        FluxTee.tee(Flux.range(0, 3),
+                        value -> Mono.delay(Duration.ofMillis(50)).doOnNext(ignore -> writtenData.add(value))
+                )
+                .then(Mono.fromSupplier(writtenData::size))
+                .as(StepVerifier::create)
+                .expectNext(3)
+                .verifyComplete();
+    }
+
+    @Test
+    void boundedBuffering() {
+        AtomicLong requestedCount = new AtomicLong();
+        Flux<Integer> sourceFlux = Flux.range(0, 1000)
+                .doOnRequest(requestedCount::addAndGet);
+        FluxTee.tee(sourceFlux, value -> Mono.never(), 8)
+                .as(StepVerifier::create)
+                .expectNextCount(8)
+                .expectNoEvent(Duration.ofMillis(100))
+                .thenCancel()
+                .verify(Duration.ofSeconds(1));
+        Assertions.assertTrue(requestedCount.get() <= 16);
+    }
+
+    @Test
+    void errorOnWritingError() {
+        FluxTee.tee(Flux.range(0, 3),
+                        value -> value == 1 ? Mono.error(new IllegalStateException()) : Mono.empty()
+                )
+                .as(StepVerifier::create)
+                .expectNext(0)
+                .thenConsumeWhile(value -> true)
+                .expectError(IllegalStateException.class)
+                .verify();
+    }
+
+    @Test
+    void teeBatches() {
+        AtomicInteger subscribedCount = new AtomicInteger();
+        List<List<Integer>> writtenBatches = new CopyOnWriteArrayList<>();
+        Flux<Integer> sourceFlux = Flux.range(0, 1000)
+                .doOnSubscribe(subscription -> subscribedCount.incrementAndGet());
+        FluxTee.teeBatches(sourceFlux,
+                        100,
+                        batches -> batches.flatMapSequential(batch -> Mono.delay(Duration.ofMillis(10))
+                                        .doOnNext(ignore -> writtenBatches.add(batch)),
+                                4
+                        )
+                )
+                .as(StepVerifier::create)
+                .expectNextCount(1000)
+                .verifyComplete();
+        Assertions.assertEquals(1, subscribedCount.get());
+        Assertions.assertEquals(10, writtenBatches.size());
+        Assertions.assertEquals(IntStream.range(0, 1000).boxed().collect(Collectors.toList()),
+                writtenBatches.stream().flatMap(List::stream).collect(Collectors.toList())
+        );
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> FluxTee.teeBatches(Flux.just(1), 0, batches -> batches)
+        );
+    }
+}
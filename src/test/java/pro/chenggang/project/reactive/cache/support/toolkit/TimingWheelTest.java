@@ -0,0 +1,97 @@
+package pro.chenggang.project.reactive.cache.support.toolkit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author Gang Cheng
+ * @version 1.1.0
+ * @since 1.1.0
+ */
+class TimingWheelTest {
+
+    @Test
+    void initialization() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new TimingWheel(Duration.ZERO));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new TimingWheel(Duration.ofMillis(-1)));
+    }
+
+    @Test
+    void sharedTimingWheel() throws Exception {
+        TimingWheel sharedTimingWheel = TimingWheel.shared();
+        Assertions.assertSame(sharedTimingWheel, TimingWheel.shared());
+        sharedTimingWheel.start();
+        sharedTimingWheel.dispose();
+        Assertions.assertFalse(sharedTimingWheel.isDisposed());
+        AtomicInteger expiredCount = new AtomicInteger();
+        sharedTimingWheel.schedule(expiredCount::incrementAndGet, Duration.ofMillis(10));
+        TimeUnit.MILLISECONDS.sleep(500);
+        Assertions.assertEquals(1, expiredCount.get());
+    }
+
+    @Test
+    void expireAllDueTimeoutsPerTick() throws Exception {
+        TimingWheel timingWheel = new TimingWheel(Duration.ofMillis(1));
+        AtomicInteger expiredCount = new AtomicInteger();
+        for (int i = 0; i < 10_000; i++) {
+            timingWheel.schedule(expiredCount::incrementAndGet, Duration.ofMillis(i % 200));
+        }
+        TimeUnit.MILLISECONDS.sleep(300);
+        timingWheel.advance();
+        Assertions.assertEquals(10_000, expiredCount.get());
+    }
+
+    @Test
+    void neverExpireBeforeDelay() throws Exception {
+        TimingWheel timingWheel = new TimingWheel(Duration.ofMillis(1));
+        List<TimingWheel.Timeout> timeouts = new ArrayList<>();
+        // across the lowest and higher wheels
+        for (int delayMillis : new int[]{5, 70, 150, 5000}) {
+            timeouts.add(timingWheel.schedule(() -> {
+            }, Duration.ofMillis(delayMillis)));
+        }
+        timingWheel.advance();
+        timeouts.forEach(timeout -> Assertions.assertFalse(timeout.isExpired()));
+        TimeUnit.MILLISECONDS.sleep(200);
+        timingWheel.advance();
+        Assertions.assertTrue(timeouts.get(0).isExpired());
+        Assertions.assertTrue(timeouts.get(1).isExpired());
+        Assertions.assertTrue(timeouts.get(2).isExpired());
+        Assertions.assertFalse(timeouts.get(3).isExpired());
+    }
+
+    @Test
+    void cancel() throws Exception {
+        TimingWheel timingWheel = new TimingWheel(Duration.ofMillis(1));
+        AtomicInteger expiredCount = new AtomicInteger();
+        TimingWheel.Timeout pendingTimeout = timingWheel.schedule(expiredCount::incrementAndGet, Duration.ofMillis(10));
+        TimingWheel.Timeout placedTimeout = timingWheel.schedule(expiredCount::incrementAndGet, Duration.ofMillis(100));
+        timingWheel.advance();
+        Assertions.assertTrue(pendingTimeout.cancel());
+        Assertions.assertTrue(placedTimeout.cancel());
+        Assertions.assertFalse(placedTimeout.cancel());
+        TimeUnit.MILLISECONDS.sleep(150);
+        timingWheel.advance();
+        Assertions.assertEquals(0, expiredCount.get());
+        Assertions.assertTrue(placedTimeout.isCancelled());
+        Assertions.assertFalse(placedTimeout.isExpired());
+    }
+
+    @Test
+    void startAndDispose() throws Exception {
+        TimingWheel timingWheel = new TimingWheel(Duration.ofMillis(10));
+        AtomicInteger expiredCount = new AtomicInteger();
+        timingWheel.start();
+        timingWheel.schedule(expiredCount::incrementAndGet, Duration.ofMillis(50));
+        TimeUnit.MILLISECONDS.sleep(300);
+        Assertions.assertEquals(1, expiredCount.get());
+        timingWheel.dispose();
+        Assertions.assertTrue(timingWheel.isDisposed());
+    }
+}